@@ -0,0 +1,110 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.dto.CommentRequest;
+import com.railse.hiring.workforcemgmt.dto.TaskManagementDto;
+import com.railse.hiring.workforcemgmt.mapper.ITaskManagementMapper;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.repository.aggregate.WorkloadAggregates;
+import com.railse.hiring.workforcemgmt.repository.impl.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.search.TaskTextIndex;
+import com.railse.hiring.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Readers and writers sharing a small set of hot tasks. {@code hotTasks = 1} is the worst case:
+ * every comment serializes on one stripe lock while readers keep loading the same task.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ContentionBenchmark {
+    @Param({"100000"})
+    public int tasks;
+
+    @Param({"1", "64"})
+    public int hotTasks;
+
+    private InMemoryTaskRepository repository;
+    private TaskManagementServiceImpl service;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        // fresh store per iteration so comment logs on the hot tasks don't grow without bound
+        repository = new InMemoryTaskRepository();
+        TaskDataset.populate(repository, tasks, 1000, Math.min(10_000, tasks), 42);
+        service = new TaskManagementServiceImpl(repository, Mappers.getMapper(ITaskManagementMapper.class),
+                new MetricsRegistry(), new WorkloadAggregates(repository, 60_000),
+                new TaskTextIndex(repository, new MetricsRegistry()), 100, 1000, 1024, 8);
+    }
+
+    private long hotId() {
+        return ThreadLocalRandom.current().nextLong(hotTasks) + 1;
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(6)
+    public Optional<TaskManagement> reader() {
+        return repository.findById(hotId());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(2)
+    public TaskManagementDto commenter() {
+        CommentRequest request = new CommentRequest();
+        request.setAuthor("bench");
+        request.setMessage("contended comment");
+        return service.addComment(hotId(), request);
+    }
+
+    @Benchmark
+    @Group("writeOnly")
+    @GroupThreads(8)
+    public TaskManagementDto writer() {
+        CommentRequest request = new CommentRequest();
+        request.setAuthor("bench");
+        request.setMessage("contended comment");
+        return service.addComment(hotId(), request);
+    }
+
+    @Benchmark
+    @Group("scanWhileWriting")
+    @GroupThreads(4)
+    public List<TaskManagement> scanner() {
+        return repository.findByAssigneeIdIn(List.of(ThreadLocalRandom.current().nextLong(1000) + 1));
+    }
+
+    @Benchmark
+    @Group("scanWhileWriting")
+    @GroupThreads(4)
+    public TaskManagementDto scanWriter() {
+        CommentRequest request = new CommentRequest();
+        request.setAuthor("bench");
+        request.setMessage("contended comment");
+        return service.addComment(ThreadLocalRandom.current().nextLong(tasks) + 1, request);
+    }
+}
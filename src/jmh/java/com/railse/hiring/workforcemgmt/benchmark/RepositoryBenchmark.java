@@ -0,0 +1,85 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.common.exception.ConcurrentUpdateException;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded throughput of the repository lookups and the save path. Run with {@code -t N}
+ * to see how they scale under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class RepositoryBenchmark {
+    @Param({"indexed", "columnar", "sharded"})
+    public String store;
+
+    @Param({"10000", "100000", "1000000"})
+    public int tasks;
+
+    @Param({"1000"})
+    public int assignees;
+
+    @Param({"10000"})
+    public int references;
+
+    private TaskRepository repository;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = TaskDataset.newRepository(store);
+        ids = TaskDataset.populate(repository, tasks, assignees, Math.min(references, tasks), 42);
+    }
+
+    @Benchmark
+    public Optional<TaskManagement> findById() {
+        return repository.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public List<TaskManagement> findByAssigneeIdIn() {
+        return repository.findByAssigneeIdIn(List.of(ThreadLocalRandom.current().nextLong(assignees) + 1));
+    }
+
+    @Benchmark
+    public List<TaskManagement> findByReferenceIdAndReferenceType() {
+        long referenceId = ThreadLocalRandom.current().nextLong(Math.min(references, tasks)) + 1;
+        return repository.findByReferenceIdAndReferenceType(referenceId, TaskDataset.referenceType(referenceId));
+    }
+
+    /** Read-modify-write of a random task, moving it to another assignee so the indexes are updated too. */
+    @Benchmark
+    public TaskManagement save() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        TaskManagement task = repository.findById(ids[random.nextInt(ids.length)]).orElseThrow();
+        task.setAssigneeId(random.nextLong(assignees) + 1);
+        try {
+            return repository.save(task);
+        } catch (ConcurrentUpdateException e) {
+            // another benchmark thread won the race for this task
+            return task;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.common.model.response.PagedResult;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.dto.AssignByReferenceRequest;
+import com.railse.hiring.workforcemgmt.dto.CommentRequest;
+import com.railse.hiring.workforcemgmt.dto.TaskFetchByDateRequest;
+import com.railse.hiring.workforcemgmt.dto.TaskManagementDto;
+import com.railse.hiring.workforcemgmt.dto.TaskView;
+import com.railse.hiring.workforcemgmt.mapper.ITaskManagementMapper;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.repository.aggregate.WorkloadAggregates;
+import com.railse.hiring.workforcemgmt.repository.search.TaskTextIndex;
+import com.railse.hiring.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service operations behind the busiest endpoints, without the web layer. The service is
+ * wired by hand with the defaults from application.properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ServiceBenchmark {
+    @Param({"indexed", "columnar", "sharded"})
+    public String store;
+
+    @Param({"10000", "100000", "1000000"})
+    public int tasks;
+
+    @Param({"1000"})
+    public int assignees;
+
+    @Param({"10000"})
+    public int references;
+
+    @Param({"100"})
+    public int pageSize;
+
+    private TaskManagementServiceImpl service;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TaskRepository repository = TaskDataset.newRepository(store);
+        ids = TaskDataset.populate(repository, tasks, assignees, Math.min(references, tasks), 42);
+        service = new TaskManagementServiceImpl(repository, Mappers.getMapper(ITaskManagementMapper.class),
+                new MetricsRegistry(), new WorkloadAggregates(repository, 60_000),
+                new TaskTextIndex(repository, new MetricsRegistry()), 100, 1000, 1024, 8);
+    }
+
+    /** One assignee's one-day view (window plus open spillover), first page. */
+    @Benchmark
+    public PagedResult<TaskManagementDto> fetchTasksByDate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long start = TaskDataset.BASE_TIME + random.nextLong(TaskDataset.DEADLINE_SPAN_MS);
+        TaskFetchByDateRequest request = new TaskFetchByDateRequest();
+        request.setAssigneeIds(List.of(random.nextLong(assignees) + 1));
+        request.setStartDate(start);
+        request.setEndDate(start + TaskDataset.DAY_MS);
+        return service.fetchTasksByDate(request, null, pageSize, TaskView.SUMMARY);
+    }
+
+    @Benchmark
+    public PagedResult<TaskManagementDto> getTasksByPriority() {
+        Priority priority = Priority.values()[ThreadLocalRandom.current().nextInt(Priority.values().length)];
+        return service.getTasksByPriority(priority, null, pageSize, TaskView.SUMMARY);
+    }
+
+    @Benchmark
+    public TaskManagementDto addComment() {
+        CommentRequest request = new CommentRequest();
+        request.setAuthor("bench");
+        request.setMessage("benchmark comment");
+        return service.addComment(ids[ThreadLocalRandom.current().nextInt(ids.length)], request);
+    }
+
+    /** Note: every call cancels the open task and adds a new one, so references grow over the run. */
+    @Benchmark
+    public String assignByReference() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long referenceId = random.nextLong(Math.min(references, tasks)) + 1;
+        AssignByReferenceRequest request = new AssignByReferenceRequest();
+        request.setReferenceId(referenceId);
+        request.setReferenceType(TaskDataset.referenceType(referenceId));
+        request.setAssigneeId(random.nextLong(assignees) + 1);
+        return service.assignByReference(request);
+    }
+}
@@ -0,0 +1,91 @@
+package com.railse.hiring.workforcemgmt.benchmark;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.SaveResult;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.repository.impl.ColumnarTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.impl.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.impl.ShardedTaskRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deterministic synthetic data for the benchmarks. Tasks are spread over {@code assignees}
+ * assignees and {@code references} references (alternating ORDER/ENTITY, with a task type that
+ * applies to the reference type), with deadlines spread over {@link #DEADLINE_SPAN_MS} from
+ * {@link #BASE_TIME}.
+ */
+public final class TaskDataset {
+    public static final long BASE_TIME = 1_750_000_000_000L;
+    public static final long DEADLINE_SPAN_MS = TimeUnit.DAYS.toMillis(30);
+    public static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    private static final int BATCH = 10_000;
+    private static final List<Task> ORDER_TASKS = Task.getTasksByReferenceType(ReferenceType.ORDER);
+    private static final List<Task> ENTITY_TASKS = Task.getTasksByReferenceType(ReferenceType.ENTITY);
+    private static final TaskStatus[] STATUSES = {TaskStatus.ASSIGNED, TaskStatus.ASSIGNED, TaskStatus.STARTED,
+            TaskStatus.COMPLETED, TaskStatus.CANCELLED};
+
+    private TaskDataset() {
+    }
+
+    /** "indexed", "columnar" or "sharded", as in task-mgmt.repository.type. */
+    public static TaskRepository newRepository(String type) {
+        return switch (type) {
+            case "indexed" -> new InMemoryTaskRepository();
+            case "columnar" -> new ColumnarTaskRepository();
+            case "sharded" -> new ShardedTaskRepository();
+            default -> throw new IllegalArgumentException("Unknown store type " + type);
+        };
+    }
+
+    /**
+     * Replaces the repository contents with {@code tasks} synthetic tasks and returns their ids in
+     * insertion order; the ids run from 1 to {@code tasks} except in the sharded store, which
+     * allocates them per shard.
+     */
+    public static long[] populate(TaskRepository repository, int tasks, int assignees, int references, long seed) {
+        repository.clear();
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] ids = new long[tasks];
+        int saved = 0;
+        List<TaskManagement> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < tasks; i++) {
+            batch.add(newTask(i % references + 1L, random.nextInt(assignees) + 1L,
+                    BASE_TIME + random.nextLong(DEADLINE_SPAN_MS), random));
+            if (batch.size() == BATCH || i == tasks - 1) {
+                for (SaveResult result : repository.saveAll(batch)) {
+                    ids[saved++] = result.task().getId();
+                }
+                batch = new ArrayList<>(BATCH);
+            }
+        }
+        return ids;
+    }
+
+    public static ReferenceType referenceType(long referenceId) {
+        return referenceId % 2 == 0 ? ReferenceType.ORDER : ReferenceType.ENTITY;
+    }
+
+    private static TaskManagement newTask(long referenceId, long assigneeId, long deadline, SplittableRandom random) {
+        ReferenceType referenceType = referenceType(referenceId);
+        List<Task> applicable = referenceType == ReferenceType.ORDER ? ORDER_TASKS : ENTITY_TASKS;
+        TaskManagement task = new TaskManagement();
+        task.setReferenceId(referenceId);
+        task.setReferenceType(referenceType);
+        task.setTask(applicable.get(random.nextInt(applicable.size())));
+        task.setAssigneeId(assigneeId);
+        task.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+        task.setPriority(Priority.values()[random.nextInt(Priority.values().length)]);
+        task.setTaskDeadlineTime(deadline);
+        task.setDescription("Synthetic task");
+        return task;
+    }
+}
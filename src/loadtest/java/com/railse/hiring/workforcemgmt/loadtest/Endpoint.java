@@ -0,0 +1,28 @@
+package com.railse.hiring.workforcemgmt.loadtest;
+
+import java.util.Arrays;
+
+/** The operations in the traffic mix; {@link #key} is the name used in the {@code mix} setting and the report. */
+enum Endpoint {
+    READ("read", "GET /task-mgmt/{id}"),
+    FETCH("fetch", "POST /task-mgmt/fetch-by-date/v2"),
+    COMMENT("comment", "POST /task-mgmt/{id}/comment"),
+    UPDATE("update", "POST /task-mgmt/update"),
+    CREATE("create", "POST /task-mgmt/create"),
+    ASSIGN("assign", "POST /task-mgmt/assign-by-ref");
+
+    final String key;
+    final String route;
+
+    Endpoint(String key, String route) {
+        this.key = key;
+        this.route = route;
+    }
+
+    static Endpoint byKey(String key) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint " + key + " in mix"));
+    }
+}
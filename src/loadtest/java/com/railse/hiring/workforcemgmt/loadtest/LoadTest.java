@@ -0,0 +1,221 @@
+package com.railse.hiring.workforcemgmt.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railse.hiring.workforcemgmt.WorkforcemgmtApplication;
+import com.railse.hiring.workforcemgmt.common.metrics.LatencyHistogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load generator: boots the application on a random port (or targets {@code url=}),
+ * preloads a synthetic dataset and sends the weighted mix at a fixed rate from a pool of clients.
+ *
+ * <p>Requests are scheduled at {@code start + i / rate} regardless of how earlier ones fared, and
+ * latency is measured from that intended start, so time spent queued behind a slow response counts
+ * (coordinated-omission correction). Service time, measured from the actual send, is reported next
+ * to it; a large gap between the two means the server, not the generator, fell behind.
+ */
+public class LoadTest {
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final String[] QUANTILE_NAMES = {"p50", "p99", "p999"};
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        ConfigurableApplicationContext context = null;
+        String url = config.url();
+        if (url == null) {
+            List<String> appArgs = new ArrayList<>(List.of("--server.port=0"));
+            appArgs.addAll(config.appArgs());
+            context = SpringApplication.run(WorkforcemgmtApplication.class, appArgs.toArray(String[]::new));
+            url = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+        ExecutorService clients = Executors.newFixedThreadPool(config.clients());
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            Workload workload = new Workload(config, url, mapper);
+            long preloadStart = System.nanoTime();
+            workload.preload(client);
+            System.out.printf("Preloaded %d tasks into %s in %d ms%n", workload.preloadedTasks(), url,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - preloadStart));
+
+            Map<String, Object> report = run(config, workload, client, clients);
+            report.put("target", url);
+            report.put("preloaded_tasks", workload.preloadedTasks());
+            String json = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(report);
+            if (config.report().getParent() != null) {
+                Files.createDirectories(config.report().getParent());
+            }
+            Files.writeString(config.report(), json);
+            System.out.println(json);
+            System.out.println("Report written to " + config.report().toAbsolutePath());
+        } finally {
+            clients.shutdownNow();
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static Map<String, Object> run(LoadTestConfig config, Workload workload, HttpClient client,
+                                           ExecutorService clients) throws InterruptedException {
+        Map<Endpoint, EndpointStats> warmup = stats(config);
+        Map<Endpoint, EndpointStats> measured = stats(config);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long start = System.nanoTime();
+        long measureStart = start + config.warmup().toNanos();
+        long end = measureStart + config.duration().toNanos();
+        SplittableRandom random = new SplittableRandom();
+        System.out.printf("Sending %d req/s for %s warmup + %s from %d clients%n",
+                config.rate(), config.warmup(), config.duration(), config.clients());
+
+        long scheduled = 0;
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = workload.pick(random);
+            EndpointStats stats = (intended < measureStart ? warmup : measured).get(endpoint);
+            HttpRequest request = workload.request(endpoint, random);
+            clients.execute(() -> send(client, request, intended, stats));
+            if (intended >= measureStart) {
+                scheduled++;
+            }
+        }
+        clients.shutdown();
+        if (!clients.awaitTermination(1, TimeUnit.MINUTES)) {
+            System.out.println("Requests still outstanding a minute after the run; they are not reported");
+        }
+        // completions of a backlogged run trickle in after the schedule ends; rate over the whole drain
+        double seconds = (Math.max(System.nanoTime(), end) - measureStart) / 1e9;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rate", config.rate());
+        settings.put("clients", config.clients());
+        settings.put("warmup_seconds", config.warmup().toMillis() / 1000.0);
+        settings.put("duration_seconds", config.duration().toMillis() / 1000.0);
+        settings.put("tasks", config.tasks());
+        settings.put("assignees", config.assignees());
+        settings.put("references", config.references());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        config.mix().forEach((endpoint, weight) -> mix.put(endpoint.key, weight));
+        settings.put("mix", mix);
+        report.put("config", settings);
+
+        long completed = 0;
+        long errors = 0;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Map.Entry<Endpoint, EndpointStats> entry : measured.entrySet()) {
+            EndpointStats stats = entry.getValue();
+            completed += stats.requests.sum();
+            errors += stats.errors.sum();
+            endpoints.put(entry.getKey().key, stats.report(entry.getKey(), seconds));
+        }
+        report.put("scheduled_requests", scheduled);
+        report.put("completed_requests", completed);
+        report.put("errors", errors);
+        report.put("elapsed_seconds", round(seconds));
+        report.put("target_rate", config.rate());
+        report.put("achieved_rate", round(completed / seconds));
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private static void send(HttpClient client, HttpRequest request, long intended, EndpointStats stats) {
+        long sent = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        stats.latency.recordSince(intended);
+        stats.serviceTime.recordSince(sent);
+        stats.requests.increment();
+        if (status / 100 != 2) {
+            stats.errors.increment();
+            stats.errorStatuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+    }
+
+    private static Map<Endpoint, EndpointStats> stats(LoadTestConfig config) {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        config.mix().keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats()));
+        return stats;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static final class EndpointStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram serviceTime = new LatencyHistogram();
+        final LongAdder requests = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        // HTTP status of failed responses, -1 for I/O errors
+        final Map<Integer, LongAdder> errorStatuses = new ConcurrentHashMap<>();
+
+        Map<String, Object> report(Endpoint endpoint, double seconds) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("route", endpoint.route);
+            report.put("requests", requests.sum());
+            report.put("errors", errors.sum());
+            if (!errorStatuses.isEmpty()) {
+                Map<Integer, Long> statuses = new TreeMap<>();
+                errorStatuses.forEach((status, count) -> statuses.put(status, count.sum()));
+                report.put("error_statuses", statuses);
+            }
+            report.put("throughput_per_second", round(requests.sum() / seconds));
+            report.put("latency_ms", quantiles(latency.snapshot()));
+            report.put("service_time_ms", quantiles(serviceTime.snapshot()));
+            return report;
+        }
+
+        private static Map<String, Object> quantiles(LatencyHistogram.Snapshot snapshot) {
+            Map<String, Object> quantiles = new LinkedHashMap<>();
+            if (snapshot.count() == 0) {
+                return quantiles;
+            }
+            quantiles.put("mean", round(snapshot.sumNanos() / (double) snapshot.count() / 1e6));
+            for (int i = 0; i < QUANTILES.length; i++) {
+                quantiles.put(QUANTILE_NAMES[i], round(snapshot.quantileNanos(QUANTILES[i]) / 1e6));
+            }
+            quantiles.put("max", round(snapshot.quantileNanos(1.0) / 1e6));
+            return quantiles;
+        }
+    }
+}
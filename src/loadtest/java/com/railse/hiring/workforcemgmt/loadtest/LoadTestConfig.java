@@ -0,0 +1,101 @@
+package com.railse.hiring.workforcemgmt.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test settings, given as {@code key=value} arguments; arguments starting with {@code --} are
+ * passed on to the application when the test boots it.
+ *
+ * @param url          target an already running instance instead of booting one (no trailing slash)
+ * @param rate         requests per second the generator schedules, whether or not earlier ones finished
+ * @param clients      concurrent HTTP clients
+ * @param warmup       load applied before measuring
+ * @param duration     measured load
+ * @param tasks        synthetic tasks preloaded before the run
+ * @param assignees    assignees the dataset and the traffic spread over
+ * @param references   references the dataset and the traffic spread over
+ * @param mix          relative weight of each endpoint
+ * @param report       where the JSON report is written
+ * @param appArgs      extra arguments for the booted application
+ */
+record LoadTestConfig(String url, int rate, int clients, Duration warmup, Duration duration, int tasks,
+                      int assignees, int references, Map<Endpoint, Integer> mix, Path report, List<String> appArgs) {
+
+    static final String DEFAULT_MIX = "read=40,fetch=20,comment=15,update=10,create=10,assign=5";
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                appArgs.add(arg);
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            values.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        LoadTestConfig config = new LoadTestConfig(
+                values.remove("url"),
+                Integer.parseInt(values.getOrDefault("rate", "500")),
+                Integer.parseInt(values.getOrDefault("clients", "64")),
+                duration(values.getOrDefault("warmup", "10s")),
+                duration(values.getOrDefault("duration", "30s")),
+                Integer.parseInt(values.getOrDefault("tasks", "100000")),
+                Integer.parseInt(values.getOrDefault("assignees", "1000")),
+                Integer.parseInt(values.getOrDefault("references", "10000")),
+                mix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Path.of(values.getOrDefault("report", "build/reports/loadtest/report.json")),
+                appArgs);
+        for (String key : List.of("rate", "clients", "warmup", "duration", "tasks", "assignees", "references", "mix", "report")) {
+            values.remove(key);
+        }
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown settings " + values.keySet());
+        }
+        if (config.rate() <= 0 || config.clients() <= 0 || config.assignees() <= 0 || config.references() <= 0) {
+            throw new IllegalArgumentException("rate, clients, assignees and references must be positive");
+        }
+        if (config.duration().isZero() || config.duration().isNegative() || config.warmup().isNegative()) {
+            throw new IllegalArgumentException("duration must be positive and warmup not negative");
+        }
+        return config;
+    }
+
+    // "30s", "2m", "500ms" or plain seconds
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value.endsWith("s") ? value.substring(0, value.length() - 1) : value));
+    }
+
+    private static Map<Endpoint, Integer> mix(String value) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint=weight in mix, got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.byKey(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one endpoint with a positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,184 @@
+package com.railse.hiring.workforcemgmt.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.dto.AssignByReferenceRequest;
+import com.railse.hiring.workforcemgmt.dto.CommentRequest;
+import com.railse.hiring.workforcemgmt.dto.TaskCreateRequest;
+import com.railse.hiring.workforcemgmt.dto.TaskFetchByDateRequest;
+import com.railse.hiring.workforcemgmt.dto.UpdateTaskRequest;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic workforce data and the requests of the traffic mix. References alternate between ORDER
+ * and ENTITY; every reference gets at least one task (assign-by-ref needs an open one), the rest
+ * are spread round-robin, with deadlines within a week either side of now. Traffic picks tasks,
+ * assignees and references uniformly; updates only touch descriptions and non-terminal statuses
+ * so references stay reassignable for the whole run.
+ */
+class Workload {
+    private static final int PRELOAD_BATCH = 1000;
+    private static final long DAY_MS = Duration.ofDays(1).toMillis();
+    private static final TaskStatus[] UPDATE_STATUSES = {TaskStatus.ASSIGNED, TaskStatus.STARTED};
+
+    private final LoadTestConfig config;
+    private final String baseUrl;
+    private final ObjectMapper mapper;
+    private final Endpoint[] wheel;
+    private final long now = System.currentTimeMillis();
+    private long[] taskIds = new long[0];
+
+    Workload(LoadTestConfig config, String baseUrl, ObjectMapper mapper) {
+        this.config = config;
+        this.baseUrl = baseUrl + "/task-mgmt";
+        this.mapper = mapper;
+        List<Endpoint> slots = new ArrayList<>();
+        for (Map.Entry<Endpoint, Integer> entry : config.mix().entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                slots.add(entry.getKey());
+            }
+        }
+        this.wheel = slots.toArray(Endpoint[]::new);
+    }
+
+    /** Creates the synthetic dataset through the bulk API and remembers the task ids for the traffic. */
+    void preload(HttpClient client) throws IOException, InterruptedException {
+        int total = Math.max(config.tasks(), config.references());
+        SplittableRandom random = new SplittableRandom(42);
+        long[] ids = new long[total];
+        int loaded = 0;
+        for (int from = 0; from < total; from += PRELOAD_BATCH) {
+            List<TaskCreateRequest.RequestItem> items = new ArrayList<>();
+            for (int i = from; i < Math.min(total, from + PRELOAD_BATCH); i++) {
+                items.add(createItem(i % config.references() + 1, i % config.assignees() + 1, random));
+            }
+            TaskCreateRequest request = new TaskCreateRequest();
+            request.setRequests(items);
+            HttpResponse<String> response = client.send(post("/bulk/create", request), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Preload failed with HTTP " + response.statusCode() + ": " + response.body());
+            }
+            for (JsonNode item : mapper.readTree(response.body()).path("data")) {
+                if (item.path("success").asBoolean()) {
+                    ids[loaded++] = item.path("task").path("id").asLong();
+                }
+            }
+        }
+        if (loaded == 0) {
+            throw new IllegalStateException("Preload created no tasks");
+        }
+        taskIds = Arrays.copyOf(ids, loaded);
+    }
+
+    int preloadedTasks() {
+        return taskIds.length;
+    }
+
+    Endpoint pick(SplittableRandom random) {
+        return wheel[random.nextInt(wheel.length)];
+    }
+
+    HttpRequest request(Endpoint endpoint, SplittableRandom random) {
+        return switch (endpoint) {
+            case READ -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + anyTask(random))).GET().build();
+            case FETCH -> {
+                TaskFetchByDateRequest request = new TaskFetchByDateRequest();
+                long day = now + (random.nextInt(15) - 7) * DAY_MS;
+                request.setStartDate(day);
+                request.setEndDate(day + DAY_MS);
+                List<Long> assignees = new ArrayList<>();
+                for (int i = 1 + random.nextInt(3); i > 0; i--) {
+                    assignees.add(anyAssignee(random));
+                }
+                request.setAssigneeIds(assignees);
+                yield post("/fetch-by-date/v2", request);
+            }
+            case COMMENT -> {
+                CommentRequest request = new CommentRequest();
+                request.setAuthor("user-" + anyAssignee(random));
+                request.setMessage("Load test comment " + random.nextInt(1_000_000));
+                yield post("/" + anyTask(random) + "/comment", request);
+            }
+            case UPDATE -> {
+                UpdateTaskRequest.RequestItem item = new UpdateTaskRequest.RequestItem();
+                item.setTaskId(anyTask(random));
+                if (random.nextBoolean()) {
+                    item.setTaskStatus(UPDATE_STATUSES[random.nextInt(UPDATE_STATUSES.length)]);
+                }
+                item.setDescription("Updated by load test " + random.nextInt(1_000_000));
+                UpdateTaskRequest request = new UpdateTaskRequest();
+                request.setRequests(List.of(item));
+                yield post("/update", request);
+            }
+            case CREATE -> {
+                TaskCreateRequest request = new TaskCreateRequest();
+                request.setRequests(List.of(createItem(anyReference(random), anyAssignee(random), random)));
+                yield post("/create", request);
+            }
+            case ASSIGN -> {
+                long referenceId = anyReference(random);
+                AssignByReferenceRequest request = new AssignByReferenceRequest();
+                request.setReferenceId(referenceId);
+                request.setReferenceType(referenceType(referenceId));
+                request.setAssigneeId(anyAssignee(random));
+                yield post("/assign-by-ref", request);
+            }
+        };
+    }
+
+    private TaskCreateRequest.RequestItem createItem(long referenceId, long assigneeId, SplittableRandom random) {
+        ReferenceType referenceType = referenceType(referenceId);
+        List<Task> tasks = Task.getTasksByReferenceType(referenceType);
+        TaskCreateRequest.RequestItem item = new TaskCreateRequest.RequestItem();
+        item.setReferenceId(referenceId);
+        item.setReferenceType(referenceType);
+        item.setTask(tasks.get(random.nextInt(tasks.size())));
+        item.setAssigneeId(assigneeId);
+        item.setPriority(Priority.values()[random.nextInt(Priority.values().length)]);
+        item.setTaskDeadlineTime(now + random.nextLong(-7 * DAY_MS, 7 * DAY_MS));
+        return item;
+    }
+
+    private static ReferenceType referenceType(long referenceId) {
+        return referenceId % 2 == 0 ? ReferenceType.ORDER : ReferenceType.ENTITY;
+    }
+
+    private long anyTask(SplittableRandom random) {
+        return taskIds[random.nextInt(taskIds.length)];
+    }
+
+    private long anyAssignee(SplittableRandom random) {
+        return random.nextInt(config.assignees()) + 1;
+    }
+
+    private long anyReference(SplittableRandom random) {
+        return random.nextInt(config.references()) + 1;
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
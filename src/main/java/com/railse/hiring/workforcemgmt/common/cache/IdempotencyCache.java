@@ -0,0 +1,227 @@
+package com.railse.hiring.workforcemgmt.common.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
+import com.railse.hiring.workforcemgmt.common.exception.IdempotencyKeyReuseException;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Makes retried writes safe: the first request with a given {@code Idempotency-Key} runs and its
+ * serialized response is kept, so a retry with the same key gets the same bytes back without
+ * running the write again (no duplicate tasks, no second reassignment). A retry that arrives while
+ * the first attempt is still running waits for its outcome instead of running in parallel.
+ *
+ * <p>Keys are scoped per endpoint and tied to a digest of the request body; reusing one for a
+ * different request is rejected. A failed attempt is not kept, so a later retry runs again.
+ * Entries expire after the TTL and total size is bounded; the oldest completed entries go first.
+ */
+@Component
+public class IdempotencyCache {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int SEGMENTS = 16;
+    private static final int MAX_KEY_LENGTH = 255;
+    // rough per-entry overhead of the map node, entry, future and digest
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    private final ObjectMapper objectMapper;
+    private final long ttlMs;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder executed;
+    private final LongAdder replayed;
+    private final LongAdder waited;
+    private final LongAdder rejected;
+
+    public IdempotencyCache(ObjectMapper objectMapper, MetricsRegistry metrics,
+                            @Value("${task-mgmt.idempotency.max-bytes:16777216}") long maxBytes,
+                            @Value("${task-mgmt.idempotency.ttl-ms:86400000}") long ttlMs) {
+        this.objectMapper = objectMapper;
+        this.ttlMs = ttlMs;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxBytes / SEGMENTS);
+        }
+        String help = "Writes sent with an Idempotency-Key, by outcome";
+        this.executed = metrics.counter("task_mgmt_idempotency_requests_total", help, "result", "executed");
+        this.replayed = metrics.counter("task_mgmt_idempotency_requests_total", help, "result", "replayed");
+        this.waited = metrics.counter("task_mgmt_idempotency_requests_total", help, "result", "waited");
+        this.rejected = metrics.counter("task_mgmt_idempotency_requests_total", help, "result", "rejected");
+        metrics.gauge("task_mgmt_idempotency_cache_bytes", "Bytes held by the idempotency cache", () -> {
+            long total = 0;
+            for (Segment segment : segments) {
+                total += segment.bytes();
+            }
+            return total;
+        });
+    }
+
+    /**
+     * Answers a write to {@code scope}: without a key {@code body} just runs; with one, it runs only
+     * if the key is new (or expired) and its serialized result is stored for retries.
+     */
+    public ResponseEntity<byte[]> execute(String scope, String key, Object request, Supplier<?> body) {
+        if (key == null) {
+            return ok(serialize(body.get(), scope), false);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String cacheKey = scope + ":" + key;
+        byte[] digest = digest(serialize(request, scope));
+        Segment segment = segments[Math.floorMod(cacheKey.hashCode() * 0x9E3779B9, SEGMENTS)];
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(digest, now + ttlMs);
+        Entry existing = segment.putIfAbsent(cacheKey, entry, now);
+        if (existing != null) {
+            if (!Arrays.equals(existing.digest, digest)) {
+                rejected.increment();
+                throw new IdempotencyKeyReuseException(HEADER + " " + key + " was already used with a different request");
+            }
+            (existing.result.isDone() ? replayed : waited).increment();
+            return ok(await(existing), true);
+        }
+        executed.increment();
+        byte[] bytes;
+        try {
+            bytes = serialize(body.get(), scope);
+        } catch (RuntimeException | Error e) {
+            segment.remove(cacheKey, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+        entry.result.complete(bytes);
+        segment.completed(cacheKey, entry, bytes.length + 2L * cacheKey.length() + ENTRY_OVERHEAD_BYTES);
+        return ok(bytes, false);
+    }
+
+    private static byte[] await(Entry entry) {
+        try {
+            return entry.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the first attempt", e);
+        } catch (ExecutionException e) {
+            // the first attempt failed; the waiters see the same failure
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static ResponseEntity<byte[]> ok(byte[] bytes, boolean replay) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (replay) {
+            response.header(REPLAYED_HEADER, "true");
+        }
+        return response.body(bytes);
+    }
+
+    private byte[] serialize(Object value, String scope) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + scope + " request or response", e);
+        }
+    }
+
+    private static byte[] digest(byte[] request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(request);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] digest;
+        private final long expiresAt;
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        // set under the segment lock once the result is stored
+        private long size;
+
+        Entry(byte[] digest, long expiresAt) {
+            this.digest = digest;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Attempts still running are kept apart from the completed ones, which are in completion order
+    // (so the oldest, first to expire, are at the head) and are the only ones eviction walks
+    private static final class Segment {
+        private final long maxBytes;
+        private final Map<String, Entry> inFlight = new HashMap<>();
+        private final LinkedHashMap<String, Entry> completed = new LinkedHashMap<>();
+        private long bytes;
+
+        Segment(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+
+        /** The live entry for the key, or null after installing {@code entry} in its place. */
+        synchronized Entry putIfAbsent(String key, Entry entry, long now) {
+            Entry running = inFlight.get(key);
+            if (running != null && running.expiresAt > now) {
+                return running;
+            }
+            Entry existing = completed.get(key);
+            if (existing != null && existing.expiresAt > now) {
+                return existing;
+            }
+            if (existing != null) {
+                completed.remove(key);
+                bytes -= existing.size;
+            }
+            inFlight.put(key, entry);
+            evict(now);
+            return null;
+        }
+
+        synchronized void remove(String key, Entry entry) {
+            inFlight.remove(key, entry);
+        }
+
+        synchronized void completed(String key, Entry entry, long size) {
+            // the entry may already have been replaced after expiring
+            if (inFlight.remove(key, entry)) {
+                entry.size = size;
+                completed.put(key, entry);
+                bytes += size;
+                evict(System.currentTimeMillis());
+            }
+        }
+
+        private void evict(long now) {
+            Iterator<Entry> oldest = completed.values().iterator();
+            while (oldest.hasNext()) {
+                Entry entry = oldest.next();
+                if (entry.expiresAt > now && bytes <= maxBytes) {
+                    break;
+                }
+                bytes -= entry.size;
+                oldest.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.railse.hiring.workforcemgmt.common.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Serialized JSON responses keyed by query, each tagged with the store generation and version of
+ * the data it was built from. A repeat read at the same version is served from the cached bytes without mapping or
+ * serializing, and a client already holding that version's ETag gets 304 without either.
+ *
+ * <p>One entry per query key; a newer version replaces the older one. Total size is bounded and
+ * each segment evicts its least recently used entries.
+ */
+@Component
+public class ResponseCache {
+    private static final int SEGMENTS = 16;
+    // rough per-entry overhead of the map node, entry and array headers
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final ObjectMapper objectMapper;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    // versions start over when the process restarts, so ETags carry the start time too
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder notModified;
+
+    public ResponseCache(ObjectMapper objectMapper, MetricsRegistry metrics,
+                         @Value("${task-mgmt.read-cache.max-bytes:67108864}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxBytes / SEGMENTS);
+        }
+        String help = "Cacheable reads by outcome";
+        this.hits = metrics.counter("task_mgmt_read_cache_requests_total", help, "result", "hit");
+        this.misses = metrics.counter("task_mgmt_read_cache_requests_total", help, "result", "miss");
+        this.notModified = metrics.counter("task_mgmt_read_cache_requests_total", help, "result", "not_modified");
+        metrics.gauge("task_mgmt_read_cache_bytes", "Bytes held by the response cache", () -> {
+            long total = 0;
+            for (Segment segment : segments) {
+                total += segment.bytes();
+            }
+            return total;
+        });
+    }
+
+    /**
+     * Answers a read whose content is determined by {@code key} at {@code version} within store
+     * {@code generation}: 304 when {@code ifNoneMatch} already names both, otherwise the cached body,
+     * building and caching it on a miss. Both must be read, generation first, before the body is built.
+     */
+    public ResponseEntity<byte[]> respond(String key, long generation, long version, String ifNoneMatch,
+                                          Supplier<?> body) {
+        String etag = "\"" + epoch + "-" + generation + "-" + version + "\"";
+        if (ifNoneMatch != null && matches(ifNoneMatch, etag)) {
+            notModified.increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        Segment segment = segments[Math.floorMod(key.hashCode() * 0x9E3779B9, SEGMENTS)];
+        byte[] bytes = segment.get(key, generation, version);
+        if (bytes == null) {
+            misses.increment();
+            try {
+                bytes = objectMapper.writeValueAsBytes(body.get());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize response for " + key, e);
+            }
+            segment.put(key, generation, version, bytes);
+        } else {
+            hits.increment();
+        }
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(bytes);
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Entry(long generation, long version, byte[] body, long size) {
+        boolean isNewerThan(long otherGeneration, long otherVersion) {
+            return generation != otherGeneration ? generation > otherGeneration : version > otherVersion;
+        }
+    }
+
+    private static final class Segment {
+        private final long maxBytes;
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long bytes;
+
+        Segment(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+
+        synchronized byte[] get(String key, long generation, long version) {
+            Entry entry = entries.get(key);
+            return entry != null && entry.generation() == generation && entry.version() == version
+                    ? entry.body() : null;
+        }
+
+        synchronized void put(String key, long generation, long version, byte[] body) {
+            long size = body.length + 2L * key.length() + ENTRY_OVERHEAD_BYTES;
+            if (size > maxBytes) {
+                return;
+            }
+            Entry previous = entries.get(key);
+            if (previous != null) {
+                // a slower reader must not replace a newer version
+                if (previous.isNewerThan(generation, version)) {
+                    return;
+                }
+                bytes -= previous.size();
+            }
+            entries.put(key, new Entry(generation, version, body, size));
+            bytes += size;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().size();
+                eldest.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.railse.hiring.workforcemgmt.common.concurrent;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: O(1) add and remove for any number of pending timers, with work per
+ * tick proportional to the timers that expire or move down a level, not to the timers pending.
+ *
+ * <p>Time is counted in ticks. Level {@code L} has {@code 2^bits} slots, each spanning
+ * {@code 2^(bits*L)} ticks. A timer sits at the level of the highest base-{@code 2^bits} digit in
+ * which its expiry tick differs from the current tick, in the slot named by that digit. When the
+ * current tick reaches the start of that slot, the timer cascades to a lower level and eventually
+ * expires exactly on its tick.
+ *
+ * <p>Not thread-safe: the wheel belongs to the one thread that advances it.
+ */
+public final class TimingWheel {
+    private final long tickMs;
+    private final int bits;
+    private final int mask;
+    private final Timer[][] levels;
+    private long currentTick;
+    private long size;
+
+    /** A pending expiry; extend it to carry a payload. */
+    public static class Timer {
+        private final long expirationMs;
+        private long tick;
+        private Timer prev;
+        private Timer next;
+
+        protected Timer(long expirationMs) {
+            this.expirationMs = expirationMs;
+        }
+
+        public long expirationMs() {
+            return expirationMs;
+        }
+
+        public boolean isScheduled() {
+            return prev != null;
+        }
+    }
+
+    public TimingWheel(long tickMs, int bits, long startMs) {
+        if (tickMs <= 0 || bits < 1 || bits > 16) {
+            throw new IllegalArgumentException("tickMs must be positive and bits in [1, 16]");
+        }
+        this.tickMs = tickMs;
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        this.levels = new Timer[(Long.SIZE + bits - 1) / bits][];
+        this.currentTick = Math.floorDiv(startMs, tickMs);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Schedules the timer, or returns false without scheduling it if it is already due; the caller
+     * should then fire it.
+     */
+    public boolean add(Timer timer) {
+        if (timer.isScheduled()) {
+            throw new IllegalStateException("Timer is already scheduled");
+        }
+        // fires on the first tick at or after its expiration
+        long tick = Math.floorDiv(timer.expirationMs + tickMs - 1, tickMs);
+        if (tick <= currentTick) {
+            return false;
+        }
+        timer.tick = tick;
+        link(timer);
+        size++;
+        return true;
+    }
+
+    /** Unschedules the timer if it is scheduled. */
+    public void remove(Timer timer) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+            size--;
+        }
+    }
+
+    /** Moves the wheel to {@code nowMs}, handing every timer that expires on the way to {@code expired}. */
+    public void advance(long nowMs, Consumer<? super Timer> expired) {
+        long target = Math.floorDiv(nowMs, tickMs);
+        while (currentTick < target) {
+            currentTick++;
+            // higher levels first: their timers cascade into the lower slots drained right after
+            for (int level = levels.length - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (bits * level)) - 1)) == 0 && levels[level] != null) {
+                    Timer head = levels[level][(int) (currentTick >>> (bits * level)) & mask];
+                    if (head != null) {
+                        cascade(head, expired);
+                    }
+                }
+            }
+            Timer[] slots = levels[0];
+            if (slots != null) {
+                Timer head = slots[(int) currentTick & mask];
+                if (head != null) {
+                    while (head.next != head) {
+                        Timer timer = head.next;
+                        unlink(timer);
+                        size--;
+                        expired.accept(timer);
+                    }
+                }
+            }
+        }
+    }
+
+    private void cascade(Timer head, Consumer<? super Timer> expired) {
+        while (head.next != head) {
+            Timer timer = head.next;
+            unlink(timer);
+            if (timer.tick <= currentTick) {
+                size--;
+                expired.accept(timer);
+            } else {
+                link(timer);
+            }
+        }
+    }
+
+    private void link(Timer timer) {
+        int level = (63 - Long.numberOfLeadingZeros(timer.tick ^ currentTick)) / bits;
+        Timer[] slots = levels[level];
+        if (slots == null) {
+            slots = new Timer[mask + 1];
+            levels[level] = slots;
+        }
+        int index = (int) (timer.tick >>> (bits * level)) & mask;
+        Timer head = slots[index];
+        if (head == null) {
+            head = new Timer(0);
+            head.prev = head;
+            head.next = head;
+            slots[index] = head;
+        }
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+    }
+
+    private static void unlink(Timer timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+    }
+}
@@ -18,6 +18,41 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public final ResponseEntity<Response<Object>> handleBadRequestException(BadRequestException ex) {
+        ResponseStatus status = new ResponseStatus(StatusCode.BAD_REQUEST.getCode(), ex.getMessage());
+        Response<Object> response = new Response<>(null, null, status);
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public final ResponseEntity<Response<Object>> handleConcurrentUpdateException(ConcurrentUpdateException ex) {
+        ResponseStatus status = new ResponseStatus(StatusCode.CONFLICT.getCode(), ex.getMessage());
+        Response<Object> response = new Response<>(null, null, status);
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public final ResponseEntity<Response<Object>> handleIdempotencyKeyReuseException(IdempotencyKeyReuseException ex) {
+        ResponseStatus status = new ResponseStatus(StatusCode.UNPROCESSABLE_ENTITY.getCode(), ex.getMessage());
+        Response<Object> response = new Response<>(null, null, status);
+        return new ResponseEntity<>(response, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(ReadOnlyReplicaException.class)
+    public final ResponseEntity<Response<Object>> handleReadOnlyReplicaException(ReadOnlyReplicaException ex) {
+        ResponseStatus status = new ResponseStatus(StatusCode.METHOD_NOT_ALLOWED.getCode(), ex.getMessage());
+        Response<Object> response = new Response<>(null, null, status);
+        return new ResponseEntity<>(response, HttpStatus.METHOD_NOT_ALLOWED);
+    }
+
+    @ExceptionHandler(PersistenceUnavailableException.class)
+    public final ResponseEntity<Response<Object>> handlePersistenceUnavailableException(PersistenceUnavailableException ex) {
+        ResponseStatus status = new ResponseStatus(StatusCode.SERVICE_UNAVAILABLE.getCode(), ex.getMessage());
+        Response<Object> response = new Response<>(null, null, status);
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     public final ResponseEntity<Response<Object>> handleAllExceptions(Exception ex) {
         ResponseStatus status = new ResponseStatus(StatusCode.INTERNAL_SERVER_ERROR.getCode(),
@@ -0,0 +1,7 @@
+package com.railse.hiring.workforcemgmt.common.exception;
+
+public class PersistenceUnavailableException extends RuntimeException {
+    public PersistenceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -7,7 +7,11 @@ public enum StatusCode {
     SUCCESS(200, "Success"),
     BAD_REQUEST(400, "Bad Request"),
     NOT_FOUND(404, "Resource Not Found"),
-    INTERNAL_SERVER_ERROR(500, "Internal Server Error");
+    METHOD_NOT_ALLOWED(405, "Method Not Allowed"),
+    CONFLICT(409, "Conflict"),
+    UNPROCESSABLE_ENTITY(422, "Unprocessable Entity"),
+    INTERNAL_SERVER_ERROR(500, "Internal Server Error"),
+    SERVICE_UNAVAILABLE(503, "Service Unavailable");
 
     private final int code;
     private final String message;
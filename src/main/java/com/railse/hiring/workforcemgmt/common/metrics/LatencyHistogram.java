@@ -0,0 +1,143 @@
+package com.railse.hiring.workforcemgmt.common.metrics;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Log-linear histogram of nanosecond durations in the spirit of HdrHistogram: every power of two
+ * is split into 32 sub-buckets, so a recorded value is off by at most ~3%. Values above ~68 s are
+ * clamped into the last bucket.
+ *
+ * <p>Recording is allocation-free: two atomic adds into a per-thread stripe of one flat
+ * {@link AtomicLongArray}, so concurrent recorders rarely touch the same cache line. Reads merge
+ * the stripes and are meant for the (rare) scrape.
+ *
+ * <p>Recent quantiles come from a sliding window: reads leave a checkpoint of the cumulative counts
+ * at most every {@code WINDOW_MS / WINDOW_SLICES}, and the window is the difference to the newest
+ * checkpoint at least {@code WINDOW_MS} old. Reading never resets anything, so any number of
+ * scrapers see the same numbers.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 36;
+    private static final long MAX_VALUE = (1L << MAX_MAGNITUDE) - 1;
+    static final int BUCKETS = bucketIndex(MAX_VALUE) + 1;
+    // each stripe is [bucket counts..., sum]
+    private static final int STRIPE_WIDTH = BUCKETS + 1;
+    private static final long WINDOW_MS = 60_000;
+    private static final int WINDOW_SLICES = 6;
+
+    private final AtomicLongArray cells;
+    private final int stripeMask;
+    private final LongSupplier clockMillis;
+    // oldest first; the head is the window's baseline
+    private final ArrayDeque<Checkpoint> checkpoints = new ArrayDeque<>();
+
+    private record Checkpoint(long atMillis, long[] counts) {
+    }
+
+    public LatencyHistogram() {
+        this(System::currentTimeMillis);
+    }
+
+    LatencyHistogram(LongSupplier clockMillis) {
+        this.clockMillis = clockMillis;
+        this.checkpoints.add(new Checkpoint(clockMillis.getAsLong(), new long[BUCKETS]));
+        int stripes = Integer.highestOneBit(Math.min(16, Math.max(1, Runtime.getRuntime().availableProcessors())));
+        this.cells = new AtomicLongArray(stripes * STRIPE_WIDTH);
+        this.stripeMask = stripes - 1;
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+        int base = ((int) Thread.currentThread().getId() & stripeMask) * STRIPE_WIDTH;
+        cells.incrementAndGet(base + bucketIndex(value));
+        cells.addAndGet(base + BUCKETS, value);
+    }
+
+    /** Records the time elapsed since {@code startNanos} (a {@link System#nanoTime()} reading). */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    static int bucketIndex(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /** Largest value that falls into the bucket. */
+    static long bucketUpperBound(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (index - shift * SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * Merged state: all-time counts and sum, plus the counts of the sliding window (the last minute,
+     * give or take a slice; longer if nothing read the histogram in between).
+     */
+    public synchronized Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long sum = 0;
+        for (int base = 0; base < cells.length(); base += STRIPE_WIDTH) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += cells.get(base + i);
+            }
+            sum += cells.get(base + BUCKETS);
+        }
+        long now = clockMillis.getAsLong();
+        if (now - checkpoints.peekLast().atMillis() >= WINDOW_MS / WINDOW_SLICES) {
+            checkpoints.addLast(new Checkpoint(now, counts));
+        }
+        // keep the newest checkpoint that is at least a window old as the baseline
+        while (checkpoints.size() > 1) {
+            Checkpoint oldest = checkpoints.removeFirst();
+            if (now - checkpoints.peekFirst().atMillis() < WINDOW_MS) {
+                checkpoints.addFirst(oldest);
+                break;
+            }
+        }
+        long[] baseline = checkpoints.peekFirst().counts();
+        long[] window = new long[BUCKETS];
+        long total = 0;
+        long windowTotal = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            window[i] = counts[i] - baseline[i];
+            total += counts[i];
+            windowTotal += window[i];
+        }
+        return new Snapshot(total, sum, counts, window, windowTotal);
+    }
+
+    public record Snapshot(long count, long sumNanos, long[] counts, long[] windowCounts, long windowCount) {
+        /** Upper bound of the bucket holding the all-time q-quantile, or -1 if nothing was recorded. */
+        public long quantileNanos(double q) {
+            return quantile(counts, count, q);
+        }
+
+        /** Upper bound of the bucket holding the q-quantile of the sliding window, or -1 if it is empty. */
+        public long windowQuantileNanos(double q) {
+            return quantile(windowCounts, windowCount, q);
+        }
+
+        private static long quantile(long[] counts, long total, double q) {
+            if (total == 0) {
+                return -1;
+            }
+            long rank = Math.max(1, (long) Math.ceil(q * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return bucketUpperBound(i);
+                }
+            }
+            return MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.railse.hiring.workforcemgmt.common.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Process-local metrics, rendered in the Prometheus text exposition format. Metrics are registered
+ * once (registering the same name and labels again returns the existing instance) and then updated
+ * through the returned object, so the recording path never looks anything up.
+ */
+@Component
+public class MetricsRegistry {
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    /** Summary of durations (quantiles over the last minute), exported in seconds; name it {@code *_seconds}. */
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, "summary").get(labels, LatencyHistogram::new);
+    }
+
+    public LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) family(name, help, "counter").get(labels, LongAdder::new);
+    }
+
+    public void gauge(String name, String help, LongSupplier value, String... labels) {
+        family(name, help, "gauge").get(labels, () -> value);
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Family family : families.values()) {
+            family.write(out);
+        }
+        return out.toString();
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    private static final class Family {
+        private final String name;
+        private final String help;
+        private final String type;
+        // rendered label set -> metric
+        private final Map<String, Object> series = new LinkedHashMap<>();
+
+        Family(String name, String help, String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+
+        synchronized Object get(String[] labels, Supplier<Object> factory) {
+            return series.computeIfAbsent(renderLabels(labels), key -> factory.get());
+        }
+
+        synchronized void write(StringBuilder out) {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+            for (Map.Entry<String, Object> entry : series.entrySet()) {
+                String labels = entry.getKey();
+                Object metric = entry.getValue();
+                if (metric instanceof LatencyHistogram histogram) {
+                    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+                    for (double quantile : QUANTILES) {
+                        long nanos = snapshot.windowQuantileNanos(quantile);
+                        out.append(name).append(withLabel(labels, "quantile", Double.toString(quantile))).append(' ')
+                                .append(nanos < 0 ? "NaN" : Double.toString(nanos / NANOS_PER_SECOND)).append('\n');
+                    }
+                    out.append(name).append("_sum").append(labels).append(' ')
+                            .append(snapshot.sumNanos() / NANOS_PER_SECOND).append('\n');
+                    out.append(name).append("_count").append(labels).append(' ').append(snapshot.count()).append('\n');
+                } else if (metric instanceof LongAdder counter) {
+                    out.append(name).append(labels).append(' ').append(counter.sum()).append('\n');
+                } else {
+                    out.append(name).append(labels).append(' ').append(((LongSupplier) metric).getAsLong()).append('\n');
+                }
+            }
+        }
+
+        private static String renderLabels(String[] labels) {
+            if (labels.length % 2 != 0) {
+                throw new IllegalArgumentException("Labels must be name/value pairs");
+            }
+            if (labels.length == 0) {
+                return "";
+            }
+            StringBuilder out = new StringBuilder("{");
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+            }
+            return out.append('}').toString();
+        }
+
+        private static String withLabel(String labels, String name, String value) {
+            String label = name + "=\"" + value + "\"";
+            return labels.isEmpty() ? "{" + label + "}" : labels.substring(0, labels.length() - 1) + "," + label + "}";
+        }
+
+        private static String escape(String value) {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.railse.hiring.workforcemgmt.common.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-endpoint request latency. The histogram is looked up by handler method, which is resolved
+ * once per endpoint, so timing a request allocates nothing. Streamed responses are timed until
+ * the handler returns.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    private final MetricsRegistry registry;
+    private final Map<Method, LatencyHistogram> byHandler = new ConcurrentHashMap<>();
+
+    public RequestMetricsFilter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+                LatencyHistogram histogram = byHandler.get(handler.getMethod());
+                if (histogram == null) {
+                    histogram = byHandler.computeIfAbsent(handler.getMethod(), method -> registry.histogram(
+                            "task_mgmt_http_request_seconds", "Request latency by endpoint",
+                            "endpoint", request.getMethod() + " "
+                                    + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)));
+                }
+                histogram.recordSince(started);
+            }
+        }
+    }
+}
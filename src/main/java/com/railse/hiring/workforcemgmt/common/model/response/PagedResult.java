@@ -0,0 +1,13 @@
+package com.railse.hiring.workforcemgmt.common.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PagedResult<T> {
+    private List<T> items;
+    private Pagination pagination;
+}
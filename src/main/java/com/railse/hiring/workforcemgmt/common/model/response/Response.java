@@ -6,6 +6,8 @@ import com.railse.hiring.workforcemgmt.common.exception.StatusCode;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
@@ -21,6 +23,14 @@ public class Response<T> {
     }
 
     public Response(T data) {
-        this(data, null, new ResponseStatus(StatusCode.SUCCESS.getCode(), StatusCode.SUCCESS.getMessage()));
+        this(data, null);
+    }
+
+    public Response(T data, Pagination pagination) {
+        this(data, pagination, new ResponseStatus(StatusCode.SUCCESS.getCode(), StatusCode.SUCCESS.getMessage()));
+    }
+
+    public static <T> Response<List<T>> of(PagedResult<T> page) {
+        return new Response<>(page.getItems(), page.getPagination());
     }
 }
@@ -0,0 +1,42 @@
+package com.railse.hiring.workforcemgmt.common.util;
+
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset pagination positions as opaque, URL-safe cursors. A cursor carries the kind of
+ * listing it was issued for, so a token from one endpoint is rejected by another.
+ */
+public final class CursorCodec {
+    private static final String SEPARATOR = ":";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String kind, long... key) {
+        StringBuilder raw = new StringBuilder(kind);
+        for (long part : key) {
+            raw.append(SEPARATOR).append(part);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long[] decode(String cursor, String kind, int arity) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR);
+            if (parts.length != arity + 1 || !parts[0].equals(kind)) {
+                throw new BadRequestException("Cursor is not valid for this listing");
+            }
+            long[] key = new long[arity];
+            for (int i = 0; i < arity; i++) {
+                key[i] = Long.parseLong(parts[i + 1]);
+            }
+            return key;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Malformed cursor: " + cursor);
+        }
+    }
+}
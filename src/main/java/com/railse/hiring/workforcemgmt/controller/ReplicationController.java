@@ -0,0 +1,31 @@
+package com.railse.hiring.workforcemgmt.controller;
+
+import com.railse.hiring.workforcemgmt.common.model.response.Response;
+import com.railse.hiring.workforcemgmt.dto.ReplicationStatusDto;
+import com.railse.hiring.workforcemgmt.repository.replication.ReplicationNode;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/task-mgmt")
+public class ReplicationController {
+
+    private final Optional<ReplicationNode> replicationNode;
+
+    public ReplicationController(Optional<ReplicationNode> replicationNode) {
+        this.replicationNode = replicationNode;
+    }
+
+    // Role, log positions and lag; a follower's lag_ms is 0 once it has applied everything the primary sent
+    @GetMapping("/replication")
+    public Response<ReplicationStatusDto> status() {
+        return new Response<>(replicationNode.map(ReplicationNode::status).orElseGet(() -> {
+            ReplicationStatusDto status = new ReplicationStatusDto();
+            status.setRole("standalone");
+            return status;
+        }));
+    }
+}
@@ -1,46 +1,117 @@
 package com.railse.hiring.workforcemgmt.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.railse.hiring.workforcemgmt.common.cache.IdempotencyCache;
+import com.railse.hiring.workforcemgmt.common.cache.ResponseCache;
 import com.railse.hiring.workforcemgmt.common.model.response.Response;
 import com.railse.hiring.workforcemgmt.dto.*;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
 import com.railse.hiring.workforcemgmt.model.enums.Priority;
 import com.railse.hiring.workforcemgmt.service.TaskManagementService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/task-mgmt")
 public class TaskManagementController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final TaskManagementService taskManagementService;
+    private final ObjectMapper objectMapper;
+    private final ResponseCache responseCache;
+    private final IdempotencyCache idempotencyCache;
 
-    public TaskManagementController(TaskManagementService taskManagementService) {
+    public TaskManagementController(TaskManagementService taskManagementService, ObjectMapper objectMapper,
+                                    ResponseCache responseCache, IdempotencyCache idempotencyCache) {
         this.taskManagementService = taskManagementService;
+        this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
+        this.idempotencyCache = idempotencyCache;
     }
 
+    // Cached by store generation and task version; If-None-Match with the current ETag returns 304
     @GetMapping("/{id}")
-    public Response<TaskManagementDto> getTaskById(@PathVariable Long id) {
-        return new Response<>(taskManagementService.findTaskById(id));
+    public ResponseEntity<byte[]> getTaskById(@PathVariable Long id,
+                                              @RequestParam(defaultValue = "FULL") TaskView view,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long generation = taskManagementService.getStoreGeneration();
+        long version = taskManagementService.getTaskVersion(id);
+        return responseCache.respond("task:" + id + ":" + view, generation, version, ifNoneMatch,
+                () -> new Response<>(taskManagementService.findTaskById(id, view)));
     }
 
+    // Writes that clients retry take an Idempotency-Key: a repeat returns the first response, not a second write
     @PostMapping("/create")
-    public Response<List<TaskManagementDto>> createTasks(@RequestBody TaskCreateRequest request) {
-        return new Response<>(taskManagementService.createTasks(request));
+    public ResponseEntity<byte[]> createTasks(@RequestBody TaskCreateRequest request,
+                                              @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
+        return idempotencyCache.execute("create", idempotencyKey, request,
+                () -> new Response<>(taskManagementService.createTasks(request)));
     }
 
     @PostMapping("/update")
-    public Response<List<TaskManagementDto>> updateTasks(@RequestBody UpdateTaskRequest request) {
-        return new Response<>(taskManagementService.updateTasks(request));
+    public ResponseEntity<byte[]> updateTasks(@RequestBody UpdateTaskRequest request,
+                                              @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
+        return idempotencyCache.execute("update", idempotencyKey, request,
+                () -> new Response<>(taskManagementService.updateTasks(request)));
+    }
+
+    // Per-item outcomes: invalid or conflicting rows are reported without failing the rest of the batch
+    @PostMapping("/bulk/create")
+    public Response<List<BulkItemResult>> bulkCreateTasks(@RequestBody TaskCreateRequest request) {
+        return new Response<>(taskManagementService.bulkCreateTasks(request));
+    }
+
+    @PostMapping("/bulk/update")
+    public Response<List<BulkItemResult>> bulkUpdateTasks(@RequestBody UpdateTaskRequest request) {
+        return new Response<>(taskManagementService.bulkUpdateTasks(request));
     }
 
     @PostMapping("/assign-by-ref")
-    public Response<String> assignByReference(@RequestBody AssignByReferenceRequest request) {
-        return new Response<>(taskManagementService.assignByReference(request));
+    public ResponseEntity<byte[]> assignByReference(@RequestBody AssignByReferenceRequest request,
+                                                    @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
+        return idempotencyCache.execute("assign-by-ref", idempotencyKey, request,
+                () -> new Response<>(taskManagementService.assignByReference(request)));
     }
 
+    // One outcome per reference; references are reassigned in parallel, each one atomically
+    @PostMapping("/bulk/assign-by-ref")
+    public Response<List<ReassignmentResult>> bulkAssignByReference(@RequestBody BulkReassignRequest request) {
+        return new Response<>(taskManagementService.bulkAssignByReference(request));
+    }
+
+    // List views default to SUMMARY (no comments/activity); pass view=FULL to include them
     @PostMapping("/fetch-by-date/v2")
-    public Response<List<TaskManagementDto>> fetchByDate(@RequestBody TaskFetchByDateRequest request) {
-        return new Response<>(taskManagementService.fetchTasksByDate(request));
+    public Response<List<TaskManagementDto>> fetchByDate(@RequestBody TaskFetchByDateRequest request,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestParam(defaultValue = "SUMMARY") TaskView view) {
+        return Response.of(taskManagementService.fetchTasksByDate(request, cursor, limit, view));
+    }
+
+
+    // Any combination of filters; the store picks the most selective index, see /query/explain
+    @PostMapping("/query")
+    public Response<List<TaskManagementDto>> queryTasks(@RequestBody TaskQueryRequest request,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limit,
+                                                        @RequestParam(defaultValue = "SUMMARY") TaskView view) {
+        return Response.of(taskManagementService.queryTasks(request, cursor, limit, view));
+    }
+
+    @PostMapping("/query/explain")
+    public Response<QueryPlanDto> explainQuery(@RequestBody TaskQueryRequest request) {
+        return new Response<>(taskManagementService.explainQuery(request));
     }
 
 
@@ -51,9 +122,23 @@ public class TaskManagementController {
     }
 
 
+    // List reads are cached by store version, which changes on every write
     @GetMapping("/priority/{priority}")
-    public Response<List<TaskManagementDto>> getTasksByPriority(@PathVariable Priority priority) {
-        return new Response<>(taskManagementService.getTasksByPriority(priority));
+    public ResponseEntity<byte[]> getTasksByPriority(@PathVariable Priority priority,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @RequestParam(defaultValue = "SUMMARY") TaskView view,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long generation = taskManagementService.getStoreGeneration();
+        long version = taskManagementService.getStoreVersion();
+        return responseCache.respond("priority:" + priority + ":" + cursor + ":" + limit + ":" + view, generation, version, ifNoneMatch,
+                () -> Response.of(taskManagementService.getTasksByPriority(priority, cursor, limit, view)));
+    }
+
+    // Open/overdue counts per assignee, from incrementally maintained aggregates (all assignees if none given)
+    @GetMapping("/workload")
+    public Response<List<WorkloadSummaryDto>> getWorkloadSummary(@RequestParam(required = false) List<Long> assigneeIds) {
+        return new Response<>(taskManagementService.getWorkloadSummary(assigneeIds));
     }
 
     // comment
@@ -62,10 +147,61 @@ public class TaskManagementController {
         return new Response<>(taskManagementService.addComment(id, request));
     }
 
+    // Paged oldest first; last=N starts at the N newest comments
+    @GetMapping("/{id}/comments")
+    public Response<List<Comment>> getComments(@PathVariable Long id, @RequestParam(required = false) Integer last,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
+        return Response.of(taskManagementService.getComments(id, last, cursor, limit));
+    }
+
+    // Paged oldest first; since=T (epoch millis) starts at the first activity at or after T
+    @GetMapping("/{id}/activity")
+    public Response<List<Activity>> getActivity(@PathVariable Long id, @RequestParam(required = false) Long since,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit) {
+        return Response.of(taskManagementService.getActivity(id, since, cursor, limit));
+    }
+
 
     @GetMapping("/all")
-    public Response<List<TaskManagementDto>> getAllTasks() {
-        return new Response<>(taskManagementService.getAllTasks());
+    public ResponseEntity<byte[]> getAllTasks(@RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit,
+                                              @RequestParam(defaultValue = "SUMMARY") TaskView view,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long generation = taskManagementService.getStoreGeneration();
+        long version = taskManagementService.getStoreVersion();
+        return responseCache.respond("all:" + cursor + ":" + limit + ":" + view, generation, version, ifNoneMatch,
+                () -> Response.of(taskManagementService.getAllTasks(cursor, limit, view)));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<byte[]> searchTasks(@ModelAttribute TaskSearchRequest request,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long generation = taskManagementService.getStoreGeneration();
+        long version = taskManagementService.getStoreVersion();
+        return responseCache.respond("search:" + request + ":" + cursor + ":" + limit, generation, version, ifNoneMatch,
+                () -> Response.of(taskManagementService.searchTasks(request, cursor, limit)));
+    }
+
+    // Newline-delimited JSON, one task per line, written while the store is iterated
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@ModelAttribute TaskExportRequest request) {
+        StreamingResponseBody body = out -> {
+            ObjectWriter writer = objectMapper.writerFor(TaskManagementDto.class);
+            try (Stream<TaskManagementDto> tasks = taskManagementService.exportTasks(request);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                Iterator<TaskManagementDto> it = tasks.iterator();
+                while (it.hasNext()) {
+                    writer.writeValue(generator, it.next());
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
 
@@ -0,0 +1,27 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class BulkItemResult {
+    // position of the item in the request's "requests" array
+    private int index;
+    private boolean success;
+    private String error;
+    private TaskManagementDto task;
+
+    public static BulkItemResult success(int index, TaskManagementDto task) {
+        return new BulkItemResult(index, true, null, task);
+    }
+
+    public static BulkItemResult failure(int index, String error) {
+        return new BulkItemResult(index, false, error, null);
+    }
+}
@@ -0,0 +1,21 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * References to reassign: listed one by one, each with its own target assignee, and/or every
+ * reference with an open task of {@code from_assignee_id}, which all go to {@code to_assignee_id}.
+ */
+@Data
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class BulkReassignRequest {
+    private List<AssignByReferenceRequest> references;
+    private Long fromAssigneeId;
+    private Long toAssigneeId;
+    // applies to the from_assignee_id references; listed references carry their own
+    private Long newDeadline;
+}
@@ -0,0 +1,24 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class QueryPlanDto {
+    // index or scan the candidate tasks are read from
+    private String access;
+    private long estimatedRows;
+    // predicates checked on each candidate because the access path doesn't guarantee them
+    private List<String> residualFilters;
+    // rows per access path considered; paths larger than the chosen one are only counted that far
+    private Map<String, Long> estimates;
+    // sharded store: one plan per shard
+    private List<QueryPlanDto> partitions;
+}
@@ -0,0 +1,29 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class ReassignmentResult {
+    // position in the request's "references" array; null for references found through from_assignee_id
+    private Integer index;
+    private Long referenceId;
+    private ReferenceType referenceType;
+    private Long assigneeId;
+    private boolean success;
+    private String error;
+    private List<Long> cancelledTaskIds;
+    // the replacement task, in the summary view
+    private TaskManagementDto task;
+}
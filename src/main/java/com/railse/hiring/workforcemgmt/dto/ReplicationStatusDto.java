@@ -0,0 +1,41 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class ReplicationStatusDto {
+    // "standalone", "primary" or "follower"
+    private String role;
+    // last mutation log position issued (primary) or known to have been issued by the primary (follower)
+    private Long primaryLsn;
+
+    // follower only
+    private String primaryAddress;
+    private Boolean connected;
+    // false while the initial copy of the primary's tasks is still loading
+    private Boolean synced;
+    private Long appliedLsn;
+    private Long lagRecords;
+    // 0 when caught up, otherwise the age of the newest primary write applied here
+    private Long lagMs;
+
+    // primary only
+    private List<FollowerLinkDto> followers;
+
+    @Data
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public static class FollowerLinkDto {
+        private String address;
+        private boolean synced;
+        private long sentLsn;
+        // writes queued for this follower, not yet sent
+        private int backlog;
+    }
+}
@@ -0,0 +1,25 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.TaskChange;
+
+/** One committed task write as published on the change feed; fetch the task for its full state. */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public record TaskChangeEvent(long sequence, Type type, Long taskId, long version, TaskStatus status,
+                              Priority priority, Long assigneeId, Long taskDeadlineTime, long timestamp) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static TaskChangeEvent of(long sequence, TaskChange change, long timestamp) {
+        TaskManagement task = change.after() != null ? change.after() : change.before();
+        Type type = change.after() == null ? Type.DELETED : change.before() == null ? Type.CREATED : Type.UPDATED;
+        return new TaskChangeEvent(sequence, type, task.getId(), task.getVersion(), task.getStatus(),
+                task.getPriority(), task.getAssigneeId(), task.getTaskDeadlineTime(), timestamp);
+    }
+}
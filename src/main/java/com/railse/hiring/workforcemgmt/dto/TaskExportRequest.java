@@ -0,0 +1,17 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TaskExportRequest {
+    private List<Long> assigneeIds;
+    private TaskStatus status;
+    private Priority priority;
+    private Long startDate;
+    private Long endDate;
+    private TaskView view = TaskView.FULL;
+}
@@ -1,5 +1,6 @@
 package com.railse.hiring.workforcemgmt.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
@@ -24,6 +25,10 @@ public class TaskManagementDto {
     private Long assigneeId;
     private Long taskDeadlineTime;
     private Priority priority;
+    private Long version;
+    // left out of SUMMARY views
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<Comment> comments;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<Activity> activityHistory;
 }
@@ -0,0 +1,25 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import lombok.Data;
+
+import java.util.List;
+
+// Every field is optional and all given ones must match; a list matches any of its values
+@Data
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class TaskQueryRequest {
+    private List<Long> taskIds;
+    private Long referenceId;
+    private ReferenceType referenceType;
+    private List<Long> assigneeIds;
+    private List<TaskStatus> statuses;
+    private List<Priority> priorities;
+    // inclusive; tasks without a deadline never match a range
+    private Long deadlineFrom;
+    private Long deadlineTo;
+}
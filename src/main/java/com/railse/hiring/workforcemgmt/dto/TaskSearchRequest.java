@@ -0,0 +1,16 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TaskSearchRequest {
+    private String q;
+    private List<Long> assigneeIds;
+    private TaskStatus status;
+    private Priority priority;
+    private TaskView view = TaskView.SUMMARY;
+}
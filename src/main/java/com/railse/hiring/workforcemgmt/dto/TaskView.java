@@ -0,0 +1,6 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+/** How much of a task a response carries: SUMMARY leaves out comments and activity history. */
+public enum TaskView {
+    SUMMARY, FULL
+}
@@ -0,0 +1,24 @@
+package com.railse.hiring.workforcemgmt.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class WorkloadSummaryDto {
+    private Long assigneeId;
+    // open = not completed or cancelled
+    private long openTasks;
+    private long overdueTasks;
+    private Map<TaskStatus, Long> tasksByStatus;
+    private Map<Priority, Long> openTasksByPriority;
+}
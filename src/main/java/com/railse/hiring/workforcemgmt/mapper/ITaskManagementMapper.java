@@ -1,8 +1,14 @@
 package com.railse.hiring.workforcemgmt.mapper;
 
 import com.railse.hiring.workforcemgmt.dto.TaskManagementDto;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.AppendOnlyLog;
+import com.railse.hiring.workforcemgmt.model.Comment;
 import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import org.mapstruct.IterableMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.factory.Mappers;
 
@@ -16,4 +22,22 @@ public interface ITaskManagementMapper {
     TaskManagement dtoToModel(TaskManagementDto dto);
 
     List<TaskManagementDto> modelListToDtoList(List<TaskManagement> models);
+
+    // Scalar fields only; the history lists are neither copied nor serialized
+    @Named("summary")
+    @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "activityHistory", ignore = true)
+    TaskManagementDto modelToSummaryDto(TaskManagement model);
+
+    @IterableMapping(qualifiedByName = "summary")
+    List<TaskManagementDto> modelListToSummaryDtoList(List<TaskManagement> models);
+
+    // The logs are append-only, so the DTO can share an O(1) copy instead of copying every entry
+    default List<Comment> comments(AppendOnlyLog<Comment> comments) {
+        return comments == null ? null : comments.copy();
+    }
+
+    default List<Activity> activityHistory(AppendOnlyLog<Activity> activityHistory) {
+        return activityHistory == null ? null : activityHistory.copy();
+    }
 }
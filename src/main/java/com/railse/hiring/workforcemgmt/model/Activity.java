@@ -1,13 +1,300 @@
 package com.railse.hiring.workforcemgmt.model;
 
-import lombok.Data;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.railse.hiring.workforcemgmt.model.enums.ActivityType;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
 
-@Data
-public class Activity {
-    private String description;
-    private Long timestamp = System.currentTimeMillis();
+/**
+ * A history entry kept as its event plus that event's one typed parameter, with one subclass per
+ * {@link ActivityType}; the description is rendered only when the entry is serialized. Comment
+ * entries reference the comment instead of copying its text.
+ */
+@JsonPropertyOrder({"description", "timestamp"})
+public abstract sealed class Activity implements Timestamped {
+    private long timestamp = System.currentTimeMillis();
 
-    public Activity(String description) {
-        this.description = description;
+    private Activity() {
+    }
+
+    public static Text text(String description) {
+        return new Text(description);
+    }
+
+    public static StatusChanged statusChanged(TaskStatus status) {
+        return new StatusChanged(status);
+    }
+
+    public static DescriptionChanged descriptionChanged(String description) {
+        return new DescriptionChanged(description);
+    }
+
+    public static PriorityChanged priorityChanged(Priority priority) {
+        return new PriorityChanged(priority);
+    }
+
+    public static AssignedByReference assignedByReference(Long assigneeId) {
+        return new AssignedByReference(assigneeId);
+    }
+
+    public static CancelledByReassignment cancelledByReassignment() {
+        return new CancelledByReassignment();
+    }
+
+    /** {@code raisedTo} is the new priority if the deadline escalated it, otherwise null. */
+    public static Overdue overdue(Priority raisedTo) {
+        return new Overdue(raisedTo);
+    }
+
+    public static CommentAdded commentAdded(Comment comment) {
+        return new CommentAdded(comment);
+    }
+
+    @JsonIgnore
+    public abstract ActivityType getType();
+
+    public abstract String getDescription();
+
+    /** The same event with a fresh timestamp field. */
+    abstract Activity copy();
+
+    @Override
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public Activity withTimestamp(long timestamp) {
+        Activity copy = copy();
+        copy.timestamp = timestamp;
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return "Activity(description=" + getDescription() + ", timestamp=" + timestamp + ")";
+    }
+
+    public static final class Text extends Activity {
+        private final String text;
+
+        private Text(String text) {
+            this.text = text;
+        }
+
+        @JsonIgnore
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public ActivityType getType() {
+            return ActivityType.TEXT;
+        }
+
+        @Override
+        public String getDescription() {
+            return text;
+        }
+
+        @Override
+        Text copy() {
+            return new Text(text);
+        }
+    }
+
+    public static final class StatusChanged extends Activity {
+        private final TaskStatus status;
+
+        private StatusChanged(TaskStatus status) {
+            this.status = status;
+        }
+
+        @JsonIgnore
+        public TaskStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public ActivityType getType() {
+            return ActivityType.STATUS_CHANGED;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Update TaskStatus to " + status;
+        }
+
+        @Override
+        StatusChanged copy() {
+            return new StatusChanged(status);
+        }
+    }
+
+    public static final class DescriptionChanged extends Activity {
+        private final String newDescription;
+
+        private DescriptionChanged(String newDescription) {
+            this.newDescription = newDescription;
+        }
+
+        @JsonIgnore
+        public String getNewDescription() {
+            return newDescription;
+        }
+
+        @Override
+        public ActivityType getType() {
+            return ActivityType.DESCRIPTION_CHANGED;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Update description to " + newDescription;
+        }
+
+        @Override
+        DescriptionChanged copy() {
+            return new DescriptionChanged(newDescription);
+        }
+    }
+
+    public static final class PriorityChanged extends Activity {
+        private final Priority priority;
+
+        private PriorityChanged(Priority priority) {
+            this.priority = priority;
+        }
+
+        @JsonIgnore
+        public Priority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public ActivityType getType() {
+            return ActivityType.PRIORITY_CHANGED;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Priority changed to " + priority;
+        }
+
+        @Override
+        PriorityChanged copy() {
+            return new PriorityChanged(priority);
+        }
+    }
+
+    public static final class AssignedByReference extends Activity {
+        private final Long assigneeId;
+
+        private AssignedByReference(Long assigneeId) {
+            this.assigneeId = assigneeId;
+        }
+
+        @JsonIgnore
+        public Long getAssigneeId() {
+            return assigneeId;
+        }
+
+        @Override
+        public ActivityType getType() {
+            return ActivityType.ASSIGNED_BY_REFERENCE;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Task assigned by reference to user " + assigneeId;
+        }
+
+        @Override
+        AssignedByReference copy() {
+            return new AssignedByReference(assigneeId);
+        }
+    }
+
+    public static final class CancelledByReassignment extends Activity {
+        private CancelledByReassignment() {
+        }
+
+        @Override
+        public ActivityType getType() {
+            return ActivityType.CANCELLED_BY_REASSIGNMENT;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Task status changed to CANCELLED due to reassignment";
+        }
+
+        @Override
+        CancelledByReassignment copy() {
+            return new CancelledByReassignment();
+        }
+    }
+
+    public static final class CommentAdded extends Activity {
+        private final Comment comment;
+
+        private CommentAdded(Comment comment) {
+            this.comment = comment;
+        }
+
+        @JsonIgnore
+        public Comment getComment() {
+            return comment;
+        }
+
+        @Override
+        public ActivityType getType() {
+            return ActivityType.COMMENT_ADDED;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Comment added by " + comment.getAuthor() + ": " + comment.getMessage();
+        }
+
+        @Override
+        CommentAdded copy() {
+            return new CommentAdded(comment);
+        }
+    }
+
+    public static final class Overdue extends Activity {
+        private final Priority raisedTo;
+
+        private Overdue(Priority raisedTo) {
+            this.raisedTo = raisedTo;
+        }
+
+        /** The priority the deadline escalated the task to, or null if it was left alone. */
+        @JsonIgnore
+        public Priority getRaisedTo() {
+            return raisedTo;
+        }
+
+        @Override
+        public ActivityType getType() {
+            return ActivityType.OVERDUE;
+        }
+
+        @Override
+        public String getDescription() {
+            return raisedTo == null ? "Deadline passed" : "Deadline passed, priority raised to " + raisedTo;
+        }
+
+        @Override
+        Overdue copy() {
+            return new Overdue(raisedTo);
+        }
     }
 }
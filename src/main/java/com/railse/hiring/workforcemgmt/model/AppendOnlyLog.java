@@ -0,0 +1,107 @@
+package com.railse.hiring.workforcemgmt.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only history whose timestamps never decrease. An entry stamped earlier than the current
+ * tail is stored as a copy clamped to the tail's timestamp (the caller's object is not modified), so
+ * the log is always in time order without sorting and range reads can binary search.
+ *
+ * <p>{@link #copy()} is O(1): copies share the backing array and each one sees only its own prefix.
+ * The first copy to append at a given position claims the slot in the shared array; any other copy
+ * appending at that position moves to a private array first. Entries are never modified or removed
+ * once appended.
+ */
+public final class AppendOnlyLog<T extends Timestamped> extends AbstractList<T> implements RandomAccess {
+    private static final Object[] EMPTY = {};
+    private static final int MIN_CAPACITY = 4;
+
+    private Object[] elements;
+    // next free slot in elements, shared by every log backed by the same array
+    private AtomicInteger claimed;
+    private int size;
+
+    public AppendOnlyLog() {
+        this(EMPTY, null, 0);
+    }
+
+    public AppendOnlyLog(Collection<? extends T> entries) {
+        this();
+        addAll(entries);
+    }
+
+    private AppendOnlyLog(Object[] elements, AtomicInteger claimed, int size) {
+        this.elements = elements;
+        this.claimed = claimed;
+        this.size = size;
+    }
+
+    public AppendOnlyLog<T> copy() {
+        return new AppendOnlyLog<>(elements, claimed, size);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean add(T entry) {
+        if (size > 0) {
+            Long tail = get(size - 1).getTimestamp();
+            if (entry.getTimestamp() == null || entry.getTimestamp() < tail) {
+                entry = (T) entry.withTimestamp(tail);
+            }
+        } else if (entry.getTimestamp() == null) {
+            entry = (T) entry.withTimestamp(System.currentTimeMillis());
+        }
+        if (size == elements.length || !claimed.compareAndSet(size, size + 1)) {
+            int capacity = size == elements.length ? Math.max(MIN_CAPACITY, size + (size >> 1)) : elements.length;
+            elements = Arrays.copyOf(elements, capacity);
+            claimed = new AtomicInteger(size + 1);
+        }
+        elements[size++] = entry;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Entries with a timestamp at or after {@code timestamp}, oldest first. */
+    public List<T> since(long timestamp) {
+        return new ArrayList<>(subList(indexSince(timestamp), size));
+    }
+
+    /** Position of the first entry with a timestamp at or after {@code timestamp} ({@code size()} if none). */
+    public int indexSince(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (get(mid).getTimestamp() < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** The newest {@code count} entries, oldest first. */
+    public List<T> last(int count) {
+        return new ArrayList<>(subList(Math.max(0, size - Math.max(0, count)), size));
+    }
+}
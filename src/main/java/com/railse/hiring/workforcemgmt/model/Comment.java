@@ -3,8 +3,17 @@ package com.railse.hiring.workforcemgmt.model;
 import lombok.Data;
 
 @Data
-public class Comment {
+public class Comment implements Timestamped {
     private String author;
     private String message;
     private Long timestamp = System.currentTimeMillis();
+
+    @Override
+    public Comment withTimestamp(long timestamp) {
+        Comment copy = new Comment();
+        copy.setAuthor(author);
+        copy.setMessage(message);
+        copy.setTimestamp(timestamp);
+        return copy;
+    }
 }
@@ -6,9 +6,6 @@ import com.railse.hiring.workforcemgmt.model.enums.Task;
 import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
 import lombok.Data;
 
-import java.util.ArrayList;
-import java.util.List;
-
 @Data
 public class TaskManagement {
     private Long id;
@@ -20,7 +17,26 @@ public class TaskManagement {
     private Long assigneeId;
     private Long taskDeadlineTime;
     private Priority priority;
+    // Bumped by every successful save; used for compare-and-set in TaskRepository.save
+    private long version;
+
+    private AppendOnlyLog<Comment> comments = new AppendOnlyLog<>();
+    private AppendOnlyLog<Activity> activityHistory = new AppendOnlyLog<>();
 
-    private List<Comment> comments = new ArrayList<>();
-    private List<Activity> activityHistory = new ArrayList<>();
+    public TaskManagement copy() {
+        TaskManagement copy = new TaskManagement();
+        copy.setId(id);
+        copy.setReferenceId(referenceId);
+        copy.setReferenceType(referenceType);
+        copy.setTask(task);
+        copy.setDescription(description);
+        copy.setStatus(status);
+        copy.setAssigneeId(assigneeId);
+        copy.setTaskDeadlineTime(taskDeadlineTime);
+        copy.setPriority(priority);
+        copy.setVersion(version);
+        copy.setComments(comments.copy());
+        copy.setActivityHistory(activityHistory.copy());
+        return copy;
+    }
 }
@@ -0,0 +1,10 @@
+package com.railse.hiring.workforcemgmt.model;
+
+public interface Timestamped {
+    Long getTimestamp();
+
+    void setTimestamp(Long timestamp);
+
+    /** A copy of this entry, of the same class, stamped with {@code timestamp}; this entry is left unchanged. */
+    Timestamped withTimestamp(long timestamp);
+}
@@ -0,0 +1,16 @@
+package com.railse.hiring.workforcemgmt.model.enums;
+
+/**
+ * Kind of a task history entry; each has its own {@code Activity} subclass that carries the typed
+ * parameter and renders the text. Persisted by ordinal, so new constants may only be appended.
+ */
+public enum ActivityType {
+    TEXT,
+    STATUS_CHANGED,
+    DESCRIPTION_CHANGED,
+    PRIORITY_CHANGED,
+    ASSIGNED_BY_REFERENCE,
+    CANCELLED_BY_REASSIGNMENT,
+    COMMENT_ADDED,
+    OVERDUE
+}
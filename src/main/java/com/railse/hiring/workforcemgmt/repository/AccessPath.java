@@ -0,0 +1,30 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/** Where a query's candidate tasks come from, and which of its predicates that already guarantees. */
+public enum AccessPath {
+    ID_LOOKUP(EnumSet.of(TaskQuery.Field.ID)),
+    REFERENCE_INDEX(EnumSet.of(TaskQuery.Field.REFERENCE)),
+    ASSIGNEE_INDEX(EnumSet.of(TaskQuery.Field.ASSIGNEE)),
+    ASSIGNEE_DEADLINE_INDEX(EnumSet.of(TaskQuery.Field.ASSIGNEE, TaskQuery.Field.DEADLINE)),
+    DEADLINE_INDEX(EnumSet.of(TaskQuery.Field.DEADLINE)),
+    STATUS_INDEX(EnumSet.of(TaskQuery.Field.STATUS)),
+    PRIORITY_INDEX(EnumSet.of(TaskQuery.Field.PRIORITY)),
+    FULL_SCAN(EnumSet.noneOf(TaskQuery.Field.class)),
+    // the columnar store evaluates pushed-down predicates over its columns while scanning
+    COLUMN_SCAN(EnumSet.noneOf(TaskQuery.Field.class)),
+    // a partitioned store plans each partition separately
+    FAN_OUT(EnumSet.noneOf(TaskQuery.Field.class));
+
+    private final Set<TaskQuery.Field> covers;
+
+    AccessPath(Set<TaskQuery.Field> covers) {
+        this.covers = covers;
+    }
+
+    public Set<TaskQuery.Field> covers() {
+        return covers;
+    }
+}
@@ -0,0 +1,15 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How a {@link TaskQuery} is executed: the access path that yields candidate ids, its estimated
+ * row count, and the predicates then checked on each candidate. {@code estimates} lists every path
+ * the planner considered; counting a path stops once it is larger than the best so far, so the
+ * estimates above the chosen one are lower bounds. A partitioned store reports {@code FAN_OUT}
+ * with one plan per partition.
+ */
+public record QueryPlan(AccessPath access, long estimatedRows, List<String> residualFilters,
+                        Map<AccessPath, Long> estimates, List<QueryPlan> partitions) {
+}
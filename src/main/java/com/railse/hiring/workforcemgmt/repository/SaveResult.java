@@ -0,0 +1,11 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+
+/** Outcome of one item of {@link TaskRepository#saveAll}: the saved task, or why it was rejected. */
+public record SaveResult(TaskManagement task, RuntimeException error) {
+
+    public boolean isSaved() {
+        return error == null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Rows a repository query looked at versus rows it returned, for spotting queries that scan too much. */
+public class ScanCounter {
+    private final LongAdder queries;
+    private final LongAdder scanned;
+    private final LongAdder returned;
+
+    public ScanCounter(MetricsRegistry registry, String query) {
+        this.queries = registry.counter("task_mgmt_repository_queries_total", "Repository queries", "query", query);
+        this.scanned = registry.counter("task_mgmt_repository_rows_scanned_total",
+                "Index entries visited by repository queries", "query", query);
+        this.returned = registry.counter("task_mgmt_repository_rows_returned_total",
+                "Rows returned by repository queries", "query", query);
+    }
+
+    public void record(long scannedRows, long returnedRows) {
+        queries.increment();
+        scanned.add(scannedRows);
+        returned.add(returnedRows);
+    }
+}
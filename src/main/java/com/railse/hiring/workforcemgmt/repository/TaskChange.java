@@ -0,0 +1,14 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+
+/**
+ * One committed write. {@code before} is null for an insert and {@code after} is null for a
+ * removal; both are immutable snapshots.
+ */
+public record TaskChange(TaskManagement before, TaskManagement after) {
+
+    public Long taskId() {
+        return after != null ? after.getId() : before.getId();
+    }
+}
@@ -0,0 +1,13 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import java.util.List;
+
+/**
+ * Notified after writes are committed to a {@link TaskRepository}, on the writing thread. Changes
+ * to the same task may be delivered out of order when they race, so listeners that care about
+ * ordering should compare {@code version}s. Implementations must be fast and must not write back
+ * into the repository.
+ */
+public interface TaskChangeListener {
+    void onChanges(List<TaskChange> changes);
+}
@@ -0,0 +1,44 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+
+import java.util.Set;
+
+/**
+ * Conjunction of optional task predicates; a null field matches everything. The deadline bounds
+ * are inclusive, and tasks without a deadline never match when either bound is set.
+ */
+public record TaskFilter(Set<Long> assigneeIds, TaskStatus status, Priority priority,
+                         Long deadlineFrom, Long deadlineTo) {
+
+    public static TaskFilter all() {
+        return new TaskFilter(null, null, null, null, null);
+    }
+
+    public boolean hasDeadlineRange() {
+        return deadlineFrom != null || deadlineTo != null;
+    }
+
+    public boolean matches(TaskManagement task) {
+        if (assigneeIds != null && !assigneeIds.contains(task.getAssigneeId())) {
+            return false;
+        }
+        if (status != null && task.getStatus() != status) {
+            return false;
+        }
+        if (priority != null && task.getPriority() != priority) {
+            return false;
+        }
+        if (hasDeadlineRange()) {
+            Long deadline = task.getTaskDeadlineTime();
+            if (deadline == null
+                    || (deadlineFrom != null && deadline < deadlineFrom)
+                    || (deadlineTo != null && deadline > deadlineTo)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
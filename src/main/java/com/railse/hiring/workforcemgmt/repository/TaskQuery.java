@@ -0,0 +1,92 @@
+package com.railse.hiring.workforcemgmt.repository;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Conjunctive task query for {@link TaskRepository#query}: every non-null field must match, and a
+ * set matches any of its values. The deadline bounds are inclusive and, as in {@link TaskFilter},
+ * tasks without a deadline never match when either bound is set.
+ */
+public record TaskQuery(Set<Long> ids, Long referenceId, ReferenceType referenceType, Set<Long> assigneeIds,
+                        Set<TaskStatus> statuses, Set<Priority> priorities, Long deadlineFrom, Long deadlineTo) {
+
+    /** The predicates of a query, as far as access paths are concerned. */
+    public enum Field {
+        ID, REFERENCE, ASSIGNEE, STATUS, PRIORITY, DEADLINE
+    }
+
+    public boolean hasReference() {
+        return referenceId != null && referenceType != null;
+    }
+
+    public boolean hasDeadlineRange() {
+        return deadlineFrom != null || deadlineTo != null;
+    }
+
+    public boolean matches(TaskManagement task) {
+        if (ids != null && !ids.contains(task.getId())) {
+            return false;
+        }
+        if (referenceId != null && !referenceId.equals(task.getReferenceId())) {
+            return false;
+        }
+        if (referenceType != null && task.getReferenceType() != referenceType) {
+            return false;
+        }
+        if (assigneeIds != null && (task.getAssigneeId() == null || !assigneeIds.contains(task.getAssigneeId()))) {
+            return false;
+        }
+        if (statuses != null && (task.getStatus() == null || !statuses.contains(task.getStatus()))) {
+            return false;
+        }
+        if (priorities != null && (task.getPriority() == null || !priorities.contains(task.getPriority()))) {
+            return false;
+        }
+        if (hasDeadlineRange()) {
+            Long deadline = task.getTaskDeadlineTime();
+            return deadline != null
+                    && (deadlineFrom == null || deadline >= deadlineFrom)
+                    && (deadlineTo == null || deadline <= deadlineTo);
+        }
+        return true;
+    }
+
+    /** The predicates an access path covering {@code covered} leaves to be checked per task, readably. */
+    public List<String> residualFilters(Set<Field> covered) {
+        List<String> residual = new ArrayList<>();
+        if (ids != null && !covered.contains(Field.ID)) {
+            residual.add("id in " + new TreeSet<>(ids));
+        }
+        if (!covered.contains(Field.REFERENCE)) {
+            if (referenceId != null) {
+                residual.add("reference_id = " + referenceId);
+            }
+            if (referenceType != null) {
+                residual.add("reference_type = " + referenceType);
+            }
+        }
+        if (assigneeIds != null && !covered.contains(Field.ASSIGNEE)) {
+            residual.add("assignee_id in " + new TreeSet<>(assigneeIds));
+        }
+        if (statuses != null && !covered.contains(Field.STATUS)) {
+            residual.add("status in " + new TreeSet<>(statuses));
+        }
+        if (priorities != null && !covered.contains(Field.PRIORITY)) {
+            residual.add("priority in " + new TreeSet<>(priorities));
+        }
+        if (hasDeadlineRange() && !covered.contains(Field.DEADLINE)) {
+            residual.add("deadline in [" + Objects.toString(deadlineFrom, "-inf") + ", "
+                    + Objects.toString(deadlineTo, "+inf") + "]");
+        }
+        return residual;
+    }
+}
@@ -1,16 +1,100 @@
 package com.railse.hiring.workforcemgmt.repository;
 
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
 import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
 import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
 
+/**
+ * Tasks returned by the list/stream queries are shared, read-only snapshots. To change a task, load
+ * a private copy with {@link #findById} (or {@link TaskManagement#copy()}), modify it and save it.
+ */
 public interface TaskRepository {
     Optional<TaskManagement> findById(Long id);
+
+    /** The stored version of a task without copying it; empty if there is no such task. */
+    OptionalLong findVersionById(Long id);
+
+    /**
+     * Changes after every committed write, once the write is visible to readers; a result computed
+     * after reading this value reflects at least the writes it counts.
+     */
+    long storeVersion();
+
+    /**
+     * Changes whenever tasks are removed (e.g. {@link #clear()}), after which ids and task versions
+     * can repeat; a task version only identifies content together with the generation it was read in.
+     */
+    long storeGeneration();
+
+    /**
+     * Inserts a new task, or replaces an existing one if its version still matches the stored
+     * version (compare-and-set). Bumps the version on success.
+     *
+     * @throws com.railse.hiring.workforcemgmt.common.exception.ConcurrentUpdateException if the task
+     *         was saved by someone else since it was read
+     */
     TaskManagement save(TaskManagement task);
+
+    /**
+     * Saves a batch with the same per-item semantics as {@link #save}, but allocates ids for the new
+     * tasks in one go and notifies listeners once for the whole batch. A rejected item (version
+     * conflict) doesn't stop the others; results are in input order.
+     */
+    List<SaveResult> saveAll(List<TaskManagement> tasks);
+
     List<TaskManagement> findAll();
-    List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId,
-                                                           com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType referenceType);
+
+    long count();
+    long countByStatus(TaskStatus status);
+    long countByPriority(Priority priority);
+
+    /** Up to {@code limit} tasks in id order, starting after {@code afterId} (from the beginning if null). */
+    List<TaskManagement> findAllAfter(Long afterId, int limit);
+    List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType);
     List<TaskManagement> findByAssigneeIdIn(List<Long> assigneeIds);
+
+    /**
+     * Smart daily view: non-cancelled tasks with a deadline in [start, end], plus tasks that are
+     * still open (not completed or cancelled) with a deadline before start. Results are ordered by
+     * (deadline, id) and resume after the given position when one is supplied.
+     */
+    List<TaskManagement> findByAssigneeIdInAndDeadlineWindow(List<Long> assigneeIds, long start, long end,
+                                                             Long afterDeadline, Long afterId, int limit);
+    List<TaskManagement> findByStatus(TaskStatus status);
+    List<TaskManagement> findByPriority(Priority priority);
+    List<TaskManagement> findByPriorityAfter(Priority priority, Long afterId, int limit);
+
+    /**
+     * Lazily streams the tasks matching the filter without materializing the result, for bulk
+     * export. The stream is weakly consistent with concurrent writes.
+     */
+    Stream<TaskManagement> stream(TaskFilter filter);
+
+    /**
+     * Up to {@code limit} tasks matching the query in id order, starting after {@code afterId}. The
+     * store reads candidates from the access path {@link #explain} reports and checks the whole
+     * query on each of them.
+     */
+    List<TaskManagement> query(TaskQuery query, Long afterId, int limit);
+
+    /** The plan {@link #query} would use for this query right now. */
+    QueryPlan explain(TaskQuery query);
+
+    /**
+     * Installs a task snapshot as-is (id and version included) unless the store already holds the
+     * same or a newer version. Used to rebuild state from a snapshot or log; the repository takes
+     * ownership of the instance. Returns whether it was applied.
+     */
+    boolean apply(TaskManagement snapshot);
+
+    /** Removes every task. Listeners see each one as a removal. */
+    void clear();
+
+    void addChangeListener(TaskChangeListener listener);
 }
@@ -0,0 +1,206 @@
+package com.railse.hiring.workforcemgmt.repository.aggregate;
+
+import com.railse.hiring.workforcemgmt.dto.WorkloadSummaryDto;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.TaskChange;
+import com.railse.hiring.workforcemgmt.repository.TaskChangeListener;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Per-assignee workload counts maintained from the repository's committed writes, so summaries are
+ * answered in O(assignees) without touching tasks. Each change subtracts its {@code before} and adds
+ * its {@code after}; because every write's {@code before} is exactly the version it replaced, the
+ * deltas add up to the current state in whatever order racing changes (e.g. concurrent
+ * reassignments) are delivered.
+ *
+ * <p>Open tasks are also counted per deadline bucket ({@code task-mgmt.workload.overdue-bucket-ms}).
+ * Buckets that have fully passed are folded into the overdue count on read, so a task shows up as
+ * overdue within one bucket of its deadline.
+ *
+ * <p>The listener is registered before the store is scanned, and changes delivered during the scan
+ * are held back until it ends. The scan records the version it counted for each task, and any
+ * change that does not start at or after that version is already part of the count and is dropped.
+ */
+@Component
+public class WorkloadAggregates implements TaskChangeListener {
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final long bucketMs;
+    private final Map<Long, Workload> byAssignee = new ConcurrentHashMap<>();
+    // the version the seeding scan counted, per task it saw
+    private final Map<Long, Long> seededVersions = new ConcurrentHashMap<>();
+    private final Object pendingLock = new Object();
+    // changes delivered while seeding; null once the seed is done
+    private volatile List<TaskChange> pending = new ArrayList<>();
+
+    public WorkloadAggregates(TaskRepository taskRepository,
+                              @Value("${task-mgmt.workload.overdue-bucket-ms:60000}") long bucketMs) {
+        this.bucketMs = bucketMs;
+        taskRepository.addChangeListener(this);
+        try (Stream<TaskManagement> tasks = taskRepository.stream(TaskFilter.all())) {
+            tasks.forEach(task -> {
+                add(task, 1);
+                seededVersions.put(task.getId(), task.getVersion());
+            });
+        }
+        List<TaskChange> missed;
+        synchronized (pendingLock) {
+            missed = pending;
+            pending = null;
+        }
+        apply(missed);
+    }
+
+    @Override
+    public void onChanges(List<TaskChange> changes) {
+        if (pending != null) {
+            synchronized (pendingLock) {
+                if (pending != null) {
+                    pending.addAll(changes);
+                    return;
+                }
+            }
+        }
+        apply(changes);
+    }
+
+    private void apply(List<TaskChange> changes) {
+        for (TaskChange change : changes) {
+            if (!afterSeed(change)) {
+                continue;
+            }
+            if (change.before() != null && change.after() != null && sameCounts(change.before(), change.after())) {
+                continue;
+            }
+            if (change.before() != null) {
+                add(change.before(), -1);
+            }
+            if (change.after() != null) {
+                add(change.after(), 1);
+            }
+        }
+    }
+
+    /** Summaries for the given assignees, or for every assignee with tasks when none are given. */
+    public List<WorkloadSummaryDto> summarize(List<Long> assigneeIds) {
+        long currentBucket = Math.floorDiv(System.currentTimeMillis(), bucketMs);
+        List<WorkloadSummaryDto> result = new ArrayList<>();
+        if (assigneeIds == null || assigneeIds.isEmpty()) {
+            new TreeMap<>(byAssignee).forEach((assigneeId, workload) -> {
+                WorkloadSummaryDto summary = workload.summarize(assigneeId, currentBucket);
+                // assignees whose tasks have all been reassigned or removed
+                if (summary.getOpenTasks() != 0 || summary.getTasksByStatus().values().stream().anyMatch(c -> c != 0)) {
+                    result.add(summary);
+                }
+            });
+            return result;
+        }
+        for (Long assigneeId : assigneeIds) {
+            result.add(byAssignee.getOrDefault(assigneeId, new Workload()).summarize(assigneeId, currentBucket));
+        }
+        return result;
+    }
+
+    private boolean afterSeed(TaskChange change) {
+        Long seeded = seededVersions.get(change.taskId());
+        if (seeded == null) {
+            return true;
+        }
+        if (change.before() == null || change.before().getVersion() < seeded) {
+            return false;
+        }
+        if (change.after() == null) {
+            // a task re-created under the same id (e.g. by a follower resync) is new to the count
+            seededVersions.remove(change.taskId());
+        }
+        return true;
+    }
+
+    private void add(TaskManagement task, int delta) {
+        if (task.getAssigneeId() != null) {
+            byAssignee.computeIfAbsent(task.getAssigneeId(), id -> new Workload()).add(task, delta);
+        }
+    }
+
+    private boolean sameCounts(TaskManagement before, TaskManagement after) {
+        return Objects.equals(before.getAssigneeId(), after.getAssigneeId())
+                && before.getStatus() == after.getStatus()
+                && before.getPriority() == after.getPriority()
+                && Objects.equals(bucket(before.getTaskDeadlineTime()), bucket(after.getTaskDeadlineTime()));
+    }
+
+    private Long bucket(Long deadline) {
+        return deadline == null ? null : Math.floorDiv(deadline, bucketMs);
+    }
+
+    private static boolean isOpen(TaskStatus status) {
+        return status != TaskStatus.COMPLETED && status != TaskStatus.CANCELLED;
+    }
+
+    private final class Workload {
+        private final long[] byStatus = new long[STATUSES.length];
+        private final long[] openByPriority = new long[PRIORITIES.length];
+        private long open;
+        private long overdue;
+        // open tasks per deadline bucket at or after rolledBefore; earlier buckets are in overdue
+        private final TreeMap<Long, Long> openByDeadlineBucket = new TreeMap<>();
+        private long rolledBefore = Long.MIN_VALUE;
+
+        synchronized void add(TaskManagement task, int delta) {
+            if (task.getStatus() != null) {
+                byStatus[task.getStatus().ordinal()] += delta;
+            }
+            if (!isOpen(task.getStatus())) {
+                return;
+            }
+            open += delta;
+            if (task.getPriority() != null) {
+                openByPriority[task.getPriority().ordinal()] += delta;
+            }
+            Long bucket = bucket(task.getTaskDeadlineTime());
+            if (bucket == null) {
+                return;
+            }
+            if (bucket < rolledBefore) {
+                overdue += delta;
+            } else {
+                openByDeadlineBucket.merge(bucket, (long) delta, (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+
+        synchronized WorkloadSummaryDto summarize(Long assigneeId, long currentBucket) {
+            SortedMap<Long, Long> passed = openByDeadlineBucket.headMap(currentBucket);
+            for (long count : passed.values()) {
+                overdue += count;
+            }
+            passed.clear();
+            rolledBefore = Math.max(rolledBefore, currentBucket);
+
+            Map<TaskStatus, Long> statuses = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : STATUSES) {
+                statuses.put(status, byStatus[status.ordinal()]);
+            }
+            Map<Priority, Long> priorities = new EnumMap<>(Priority.class);
+            for (Priority priority : PRIORITIES) {
+                priorities.put(priority, openByPriority[priority.ordinal()]);
+            }
+            return new WorkloadSummaryDto(assigneeId, open, overdue, statuses, priorities);
+        }
+    }
+}
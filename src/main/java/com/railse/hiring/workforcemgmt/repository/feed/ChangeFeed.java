@@ -0,0 +1,228 @@
+package com.railse.hiring.workforcemgmt.repository.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.dto.TaskChangeEvent;
+import com.railse.hiring.workforcemgmt.repository.TaskChange;
+import com.railse.hiring.workforcemgmt.repository.TaskChangeListener;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Change data capture over server-sent events. Every committed write becomes a {@link TaskChangeEvent}
+ * in a {@link ChangeRing}; writers only publish into the ring and never wait for subscribers. A
+ * dispatcher thread polls the ring and hands each subscriber with something to receive to a sender
+ * thread, at most one send in flight per subscriber, so a client that stops reading (full TCP
+ * window) only blocks its own sender.
+ *
+ * <p>A subscriber that falls more than the ring's capacity behind, resumes from a sequence this
+ * process never issued (e.g. after a restart), or has a send stuck for longer than
+ * {@code task-mgmt.feed.send-timeout-ms}, gets a {@code resync} event carrying the current sequence
+ * and is disconnected: it should reload its view and subscribe again from that sequence.
+ */
+@Slf4j
+@Component
+public class ChangeFeed implements TaskChangeListener {
+    private static final int MAX_EVENTS_PER_ROUND = 1024;
+
+    private final ChangeRing ring;
+    private final ObjectMapper objectMapper;
+    private final long heartbeatMs;
+    private final long timeoutMs;
+    private final long sendTimeoutMs;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final LongAdder resyncs;
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger senderThreads = new AtomicInteger();
+    // one thread per subscriber that is being sent to right now; idle threads go away after a minute
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "task-change-feed-send-" + senderThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        // held while a sender works on this subscriber; the hand-off also publishes the fields below
+        final AtomicBoolean sending = new AtomicBoolean();
+        // next sequence to send; written only by the subscriber's sender
+        volatile long next;
+        volatile long lastSentAt = System.currentTimeMillis();
+        volatile long sendStartedAt;
+        // set when a send overran the deadline; the sender then ends with a resync
+        volatile boolean lagging;
+
+        Subscriber(SseEmitter emitter, long next) {
+            this.emitter = emitter;
+            this.next = next;
+        }
+    }
+
+    public ChangeFeed(TaskRepository taskRepository, ObjectMapper objectMapper, MetricsRegistry metrics,
+                      @Value("${task-mgmt.feed.capacity:65536}") int capacity,
+                      @Value("${task-mgmt.feed.poll-interval-ms:50}") long pollIntervalMs,
+                      @Value("${task-mgmt.feed.heartbeat-ms:15000}") long heartbeatMs,
+                      @Value("${task-mgmt.feed.timeout-ms:1800000}") long timeoutMs,
+                      @Value("${task-mgmt.feed.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this.ring = new ChangeRing(capacity);
+        this.objectMapper = objectMapper;
+        this.heartbeatMs = heartbeatMs;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.resyncs = metrics.counter("task_mgmt_feed_resyncs_total", "Change feed subscribers told to resync");
+        metrics.gauge("task_mgmt_feed_subscribers", "Connected change feed subscribers", subscribers::size);
+        metrics.gauge("task_mgmt_feed_sequence", "Last change feed sequence number", ring::lastSequence);
+        dispatcher.scheduleWithFixedDelay(this::dispatch, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        taskRepository.addChangeListener(this);
+    }
+
+    @Override
+    public void onChanges(List<TaskChange> changes) {
+        long sequence = ring.claim(changes.size());
+        long now = System.currentTimeMillis();
+        for (TaskChange change : changes) {
+            ring.publish(TaskChangeEvent.of(sequence++, change, now));
+        }
+    }
+
+    /**
+     * Streams changes after {@code since} (the last sequence the client saw), or only new changes
+     * when it is null.
+     */
+    public SseEmitter subscribe(Long since) {
+        return subscribe(since, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(Long since, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, since == null ? ring.lastSequence() + 1 : since + 1);
+        // called on completion for any reason, including timeouts and network errors
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    // Never sends itself: it only starts senders and notices the ones that are stuck
+    private void dispatch() {
+        long now = System.currentTimeMillis();
+        long last = ring.lastSequence();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.sending.get()) {
+                if (now - subscriber.sendStartedAt >= sendTimeoutMs && !subscriber.lagging) {
+                    // the send can't be interrupted; the sender resyncs the client once it returns
+                    subscriber.lagging = true;
+                    subscribers.remove(subscriber);
+                    resyncs.increment();
+                }
+                continue;
+            }
+            boolean due = subscriber.next != last + 1 || now - subscriber.lastSentAt >= heartbeatMs;
+            if (due && subscriber.sending.compareAndSet(false, true)) {
+                subscriber.sendStartedAt = now;
+                try {
+                    senders.execute(() -> send(subscriber));
+                } catch (RuntimeException e) {
+                    // shutting down
+                    subscriber.sending.set(false);
+                }
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            deliver(subscriber, System.currentTimeMillis());
+            if (subscriber.lagging) {
+                sendResync(subscriber, ring.lastSequence());
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the client went away or the emitter already completed
+            subscribers.remove(subscriber);
+        } catch (RuntimeException e) {
+            log.error("Change feed delivery failed", e);
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private void deliver(Subscriber subscriber, long now) throws IOException {
+        long last = ring.lastSequence();
+        if (subscriber.next > last + 1) {
+            resync(subscriber, last);
+            return;
+        }
+        int sent = 0;
+        while (subscriber.next <= last && sent < MAX_EVENTS_PER_ROUND && !subscriber.lagging) {
+            ChangeRing.Slot slot = ring.get(subscriber.next);
+            if (slot == null) {
+                // claimed but not yet published; pick it up next round
+                break;
+            }
+            if (slot == ChangeRing.OVERWRITTEN) {
+                resync(subscriber, last);
+                return;
+            }
+            String json = slot.json;
+            if (json == null) {
+                // senders may race to render it; they produce the same text
+                json = objectMapper.writeValueAsString(slot.event);
+                slot.json = json;
+            }
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(Long.toString(subscriber.next))
+                    .name("change")
+                    .data(json, MediaType.APPLICATION_JSON));
+            subscriber.next++;
+            sent++;
+        }
+        if (sent > 0) {
+            subscriber.lastSentAt = now;
+        } else if (now - subscriber.lastSentAt >= heartbeatMs) {
+            subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            subscriber.lastSentAt = now;
+        }
+    }
+
+    private void resync(Subscriber subscriber, long last) throws IOException {
+        resyncs.increment();
+        subscribers.remove(subscriber);
+        sendResync(subscriber, last);
+    }
+
+    private void sendResync(Subscriber subscriber, long last) throws IOException {
+        subscriber.emitter.send(SseEmitter.event()
+                .name("resync")
+                .data("{\"sequence\":" + last + "}", MediaType.APPLICATION_JSON));
+        subscriber.emitter.complete();
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+}
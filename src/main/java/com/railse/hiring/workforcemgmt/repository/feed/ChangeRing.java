@@ -0,0 +1,83 @@
+package com.railse.hiring.workforcemgmt.repository.feed;
+
+import com.railse.hiring.workforcemgmt.dto.TaskChangeEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer ring of change events, numbered from 1. Producers claim sequence numbers
+ * with one atomic add and never wait: once the ring is full the oldest events are overwritten, and
+ * readers that fall that far behind find out from {@link #get}.
+ */
+class ChangeRing {
+    /** Returned by {@link #get} when the requested event has already been overwritten. */
+    static final Slot OVERWRITTEN = new Slot(null);
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int mask;
+    // last sequence handed out; events up to it may still be in flight
+    private final AtomicLong claimed = new AtomicLong();
+
+    /** An event plus its JSON, rendered once by the dispatcher and shared by every subscriber. */
+    static final class Slot {
+        final TaskChangeEvent event;
+        String json;
+
+        Slot(TaskChangeEvent event) {
+            this.event = event;
+        }
+    }
+
+    ChangeRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Change feed capacity must be a power of two: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /** Reserves {@code count} consecutive sequence numbers and returns the first. */
+    long claim(int count) {
+        return claimed.getAndAdd(count) + 1;
+    }
+
+    void publish(TaskChangeEvent event) {
+        int index = (int) (event.sequence() & mask);
+        Slot slot = new Slot(event);
+        while (true) {
+            Slot current = slots.get(index);
+            // a producer that stalled for a whole lap must not overwrite a newer event
+            if (current != null && current.event.sequence() > event.sequence()) {
+                return;
+            }
+            if (slots.compareAndSet(index, current, slot)) {
+                return;
+            }
+        }
+    }
+
+    /** The last sequence number claimed so far (0 before the first event). */
+    long lastSequence() {
+        return claimed.get();
+    }
+
+    /**
+     * The event with the given sequence number, null if it hasn't been published yet, or
+     * {@link #OVERWRITTEN} if the ring has moved past it.
+     */
+    Slot get(long sequence) {
+        if (sequence <= claimed.get() - capacity()) {
+            return OVERWRITTEN;
+        }
+        Slot slot = slots.get((int) (sequence & mask));
+        if (slot == null || slot.event.sequence() < sequence) {
+            return null;
+        }
+        return slot.event.sequence() == sequence ? slot : OVERWRITTEN;
+    }
+}
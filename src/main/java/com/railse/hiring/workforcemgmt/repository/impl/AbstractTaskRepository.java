@@ -0,0 +1,91 @@
+package com.railse.hiring.workforcemgmt.repository.impl;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.TaskChange;
+import com.railse.hiring.workforcemgmt.repository.TaskChangeListener;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Change listeners, store gauges and seed data shared by the repository implementations. */
+@Slf4j
+abstract class AbstractTaskRepository implements TaskRepository {
+    private final List<TaskChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder storeVersion = new LongAdder();
+    private final LongAdder storeGeneration = new LongAdder();
+
+    @Override
+    public long storeVersion() {
+        return storeVersion.sum();
+    }
+
+    @Override
+    public long storeGeneration() {
+        return storeGeneration.sum();
+    }
+
+    @Override
+    public void addChangeListener(TaskChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    protected void notifyListeners(List<TaskChange> changes) {
+        // only ever incremented, and only after the write is visible, so sum() never runs ahead of the data
+        storeVersion.increment();
+        for (TaskChange change : changes) {
+            if (change.after() == null) {
+                storeGeneration.increment();
+                break;
+            }
+        }
+        for (TaskChangeListener listener : listeners) {
+            try {
+                listener.onChanges(changes);
+            } catch (RuntimeException e) {
+                log.error("Task change listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    protected void registerStoreGauges(MetricsRegistry metrics) {
+        metrics.gauge("task_mgmt_store_tasks", "Tasks in the store", this::count);
+        for (TaskStatus status : TaskStatus.values()) {
+            metrics.gauge("task_mgmt_store_tasks_by_status", "Tasks in the store by status",
+                    () -> countByStatus(status), "status", status.name());
+        }
+        for (Priority priority : Priority.values()) {
+            metrics.gauge("task_mgmt_store_tasks_by_priority", "Tasks in the store by priority",
+                    () -> countByPriority(priority), "priority", priority.name());
+        }
+    }
+
+    protected void createSeedTasks() {
+        createSeedTask(101L, ReferenceType.ORDER, Task.CREATE_INVOICE, 1L, TaskStatus.ASSIGNED, Priority.HIGH);
+        createSeedTask(101L, ReferenceType.ORDER, Task.ARRANGE_PICKUP, 1L, TaskStatus.COMPLETED, Priority.HIGH);
+        createSeedTask(102L, ReferenceType.ORDER, Task.CREATE_INVOICE, 2L, TaskStatus.ASSIGNED, Priority.MEDIUM);
+        createSeedTask(201L, ReferenceType.ENTITY, Task.ASSIGN_CUSTOMER_TO_SALES_PERSON, 2L, TaskStatus.ASSIGNED, Priority.LOW);
+        createSeedTask(201L, ReferenceType.ENTITY, Task.ASSIGN_CUSTOMER_TO_SALES_PERSON, 3L, TaskStatus.ASSIGNED, Priority.LOW);
+        createSeedTask(103L, ReferenceType.ORDER, Task.COLLECT_PAYMENT, 1L, TaskStatus.CANCELLED, Priority.MEDIUM);
+    }
+
+    private void createSeedTask(Long refId, ReferenceType refType, Task task, Long assigneeId, TaskStatus status, Priority priority) {
+        TaskManagement newTask = new TaskManagement();
+        newTask.setReferenceId(refId);
+        newTask.setReferenceType(refType);
+        newTask.setTask(task);
+        newTask.setAssigneeId(assigneeId);
+        newTask.setStatus(status);
+        newTask.setPriority(priority);
+        newTask.setDescription("This is a seed task.");
+        newTask.setTaskDeadlineTime(System.currentTimeMillis() + 86400000);
+        save(newTask);
+    }
+}
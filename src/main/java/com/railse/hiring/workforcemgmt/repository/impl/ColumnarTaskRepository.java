@@ -0,0 +1,972 @@
+package com.railse.hiring.workforcemgmt.repository.impl;
+
+import com.railse.hiring.workforcemgmt.common.concurrent.StripedLock;
+import com.railse.hiring.workforcemgmt.common.exception.ConcurrentUpdateException;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.AppendOnlyLog;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.AccessPath;
+import com.railse.hiring.workforcemgmt.repository.QueryPlan;
+import com.railse.hiring.workforcemgmt.repository.SaveResult;
+import com.railse.hiring.workforcemgmt.repository.ScanCounter;
+import com.railse.hiring.workforcemgmt.repository.TaskChange;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Column-oriented store for scan-heavy workloads (task-mgmt.repository.type=columnar). A task is a
+ * row addressed by its id; scalar fields live in primitive columns (longs for reference, assignee,
+ * deadline and version, enum ordinals in bytes) split into fixed-size chunks that never move, and
+ * the description and histories sit in side arrays. A row costs roughly 60 bytes plus its
+ * strings, against several hundred for a boxed task and its index entries.
+ *
+ * <p>There are no secondary indexes: queries evaluate their predicates column by column into a
+ * selection bitmap, 64 rows per word, with branch-free loops over the primitive arrays, and only
+ * the selected rows are materialized into {@link TaskManagement} objects (and re-checked).
+ *
+ * <p>Writers serialize per row on a striped lock and publish through a per-row sequence number
+ * (odd while the row is being written); readers retry a row whose sequence changed under them, so
+ * a materialized task is never torn. Scans are weakly consistent with concurrent writes.
+ */
+@Repository
+@ConditionalOnProperty(name = "task-mgmt.repository.type", havingValue = "columnar")
+public class ColumnarTaskRepository extends AbstractTaskRepository {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int WORDS_PER_CHUNK = CHUNK_SIZE >>> 6;
+    // rows filtered per step of a lazy scan, so a small page doesn't evaluate a whole chunk
+    private static final int BLOCK_SIZE = 4096;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final byte NULL_ORDINAL = -1;
+    private static final int ANY = -2;
+    private static final VarHandle SEQ = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Task[] TASKS = Task.values();
+    private static final ReferenceType[] REFERENCE_TYPES = ReferenceType.values();
+
+    private volatile Chunk[] chunks = new Chunk[0];
+    // rows at or above this are empty; raised after a row is first written
+    private final AtomicInteger rowLimit = new AtomicInteger();
+    private final AtomicLong idCounter = new AtomicLong();
+    private final StripedLock rowLocks = new StripedLock(1024);
+    private final LongAdder size = new LongAdder();
+    private final LongAdder[] statusCounts = newCounters(STATUSES.length);
+    private final LongAdder[] priorityCounts = newCounters(PRIORITIES.length);
+
+    private final ScanCounter findAllScans;
+    private final ScanCounter referenceScans;
+    private final ScanCounter assigneeScans;
+    private final ScanCounter deadlineWindowScans;
+    private final ScanCounter statusScans;
+    private final ScanCounter priorityScans;
+    private final ScanCounter streamScans;
+    private final ScanCounter queryScans;
+
+    public ColumnarTaskRepository() {
+        this(new MetricsRegistry());
+    }
+
+    @Autowired
+    public ColumnarTaskRepository(MetricsRegistry metrics) {
+        findAllScans = new ScanCounter(metrics, "findAll");
+        referenceScans = new ScanCounter(metrics, "findByReference");
+        assigneeScans = new ScanCounter(metrics, "findByAssignee");
+        deadlineWindowScans = new ScanCounter(metrics, "findByDeadlineWindow");
+        statusScans = new ScanCounter(metrics, "findByStatus");
+        priorityScans = new ScanCounter(metrics, "findByPriority");
+        streamScans = new ScanCounter(metrics, "stream");
+        queryScans = new ScanCounter(metrics, "query");
+        registerStoreGauges(metrics);
+        createSeedTasks();
+    }
+
+    @Override
+    public Optional<TaskManagement> findById(Long id) {
+        if (id == null || id < 1 || id > Integer.MAX_VALUE) {
+            return Optional.empty();
+        }
+        int row = (int) (id - 1);
+        Chunk[] current = chunks;
+        if ((row >>> CHUNK_BITS) >= current.length) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current[row >>> CHUNK_BITS].read(row & CHUNK_MASK, id));
+    }
+
+    @Override
+    public OptionalLong findVersionById(Long id) {
+        if (id == null || id < 1 || id > Integer.MAX_VALUE) {
+            return OptionalLong.empty();
+        }
+        int row = (int) (id - 1);
+        Chunk[] current = chunks;
+        if ((row >>> CHUNK_BITS) >= current.length) {
+            return OptionalLong.empty();
+        }
+        long version = current[row >>> CHUNK_BITS].version(row & CHUNK_MASK);
+        return version == 0 ? OptionalLong.empty() : OptionalLong.of(version);
+    }
+
+    @Override
+    public TaskManagement save(TaskManagement task) {
+        if (task.getId() == null) {
+            task.setId(idCounter.incrementAndGet());
+        }
+        TaskChange change = commit(task);
+        notifyListeners(List.of(change));
+        return task;
+    }
+
+    @Override
+    public List<SaveResult> saveAll(List<TaskManagement> tasks) {
+        int newTasks = 0;
+        for (TaskManagement task : tasks) {
+            if (task.getId() == null) {
+                newTasks++;
+            }
+        }
+        long nextId = idCounter.getAndAdd(newTasks) + 1;
+        List<SaveResult> results = new ArrayList<>(tasks.size());
+        List<TaskChange> changes = new ArrayList<>(tasks.size());
+        for (TaskManagement task : tasks) {
+            if (task.getId() == null) {
+                task.setId(nextId++);
+            }
+            try {
+                changes.add(commit(task));
+                results.add(new SaveResult(task, null));
+            } catch (ConcurrentUpdateException e) {
+                results.add(new SaveResult(task, e));
+            }
+        }
+        if (!changes.isEmpty()) {
+            notifyListeners(changes);
+        }
+        return results;
+    }
+
+    private TaskChange commit(TaskManagement task) {
+        long id = task.getId();
+        int row = rowOf(id);
+        Chunk chunk = chunkForWrite(row);
+        int slot = row & CHUNK_MASK;
+        TaskChange change = rowLocks.withLock(id, () -> {
+            long storedVersion = chunk.versions[slot];
+            if (storedVersion != 0 && task.getVersion() != storedVersion) {
+                throw new ConcurrentUpdateException("Task " + id + " was modified concurrently (expected version "
+                        + task.getVersion() + ", found " + storedVersion + ")");
+            }
+            TaskManagement before = storedVersion == 0 ? null : chunk.read(slot, id);
+            task.setVersion(storedVersion + 1);
+            TaskManagement after = task.copy();
+            install(chunk, slot, before, after);
+            return new TaskChange(before, after);
+        });
+        rowLimit.accumulateAndGet(row + 1, Math::max);
+        return change;
+    }
+
+    @Override
+    public boolean apply(TaskManagement snapshot) {
+        long id = snapshot.getId();
+        int row = rowOf(id);
+        Chunk chunk = chunkForWrite(row);
+        int slot = row & CHUNK_MASK;
+        TaskChange change = rowLocks.withLock(id, () -> {
+            long storedVersion = chunk.versions[slot];
+            if (storedVersion != 0 && storedVersion >= snapshot.getVersion()) {
+                return null;
+            }
+            TaskManagement before = storedVersion == 0 ? null : chunk.read(slot, id);
+            install(chunk, slot, before, snapshot);
+            return new TaskChange(before, snapshot);
+        });
+        rowLimit.accumulateAndGet(row + 1, Math::max);
+        idCounter.accumulateAndGet(id, Math::max);
+        if (change != null) {
+            notifyListeners(List.of(change));
+        }
+        return change != null;
+    }
+
+    @Override
+    public void clear() {
+        Chunk[] current = chunks;
+        int limit = rowLimit.get();
+        for (int row = 0; row < limit; row++) {
+            Chunk chunk = current[row >>> CHUNK_BITS];
+            int slot = row & CHUNK_MASK;
+            long id = row + 1L;
+            TaskManagement removed = rowLocks.withLock(id, () -> {
+                if (chunk.versions[slot] == 0) {
+                    return null;
+                }
+                TaskManagement before = chunk.read(slot, id);
+                install(chunk, slot, before, null);
+                return before;
+            });
+            if (removed != null) {
+                notifyListeners(List.of(new TaskChange(removed, null)));
+            }
+        }
+        idCounter.set(0);
+    }
+
+    // Caller holds the row lock
+    private void install(Chunk chunk, int slot, TaskManagement before, TaskManagement after) {
+        chunk.write(slot, after);
+        if (before == null) {
+            size.increment();
+        } else {
+            count(before, -1);
+        }
+        if (after == null) {
+            size.decrement();
+        } else {
+            count(after, 1);
+        }
+    }
+
+    private void count(TaskManagement task, int delta) {
+        if (task.getStatus() != null) {
+            statusCounts[task.getStatus().ordinal()].add(delta);
+        }
+        if (task.getPriority() != null) {
+            priorityCounts[task.getPriority().ordinal()].add(delta);
+        }
+    }
+
+    @Override
+    public long count() {
+        return size.sum();
+    }
+
+    @Override
+    public long countByStatus(TaskStatus status) {
+        return statusCounts[status.ordinal()].sum();
+    }
+
+    @Override
+    public long countByPriority(Priority priority) {
+        return priorityCounts[priority.ordinal()].sum();
+    }
+
+    @Override
+    public List<TaskManagement> findAll() {
+        return collect(new RowFilter(), 0, Integer.MAX_VALUE, task -> true, findAllScans);
+    }
+
+    @Override
+    public List<TaskManagement> findAllAfter(Long afterId, int limit) {
+        return collect(new RowFilter(), rowAfter(afterId), limit, task -> true, findAllScans);
+    }
+
+    @Override
+    public List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType) {
+        RowFilter filter = new RowFilter();
+        filter.referenceId = referenceId == null ? NULL_LONG : referenceId;
+        filter.referenceType = ordinal(referenceType);
+        return collect(filter, 0, Integer.MAX_VALUE, task -> true, referenceScans);
+    }
+
+    @Override
+    public List<TaskManagement> findByAssigneeIdIn(List<Long> assigneeIds) {
+        RowFilter filter = new RowFilter();
+        filter.assignees = sortedIds(assigneeIds);
+        return collect(filter, 0, Integer.MAX_VALUE, task -> true, assigneeScans);
+    }
+
+    @Override
+    public List<TaskManagement> findByAssigneeIdInAndDeadlineWindow(List<Long> assigneeIds, long start, long end,
+                                                                    Long afterDeadline, Long afterId, int limit) {
+        // both halves of the view (open spillover before start, non-cancelled inside the window) are
+        // non-cancelled and due by end; the split and the resume position are applied on the columns,
+        // and only the first page's rows are materialized
+        RowFilter filter = new RowFilter();
+        filter.assignees = sortedIds(assigneeIds);
+        filter.excludedStatus = TaskStatus.CANCELLED.ordinal();
+        filter.deadlineFrom = afterDeadline == null ? NULL_LONG + 1 : afterDeadline;
+        filter.deadlineTo = end;
+        long resumeId = afterId == null ? Long.MAX_VALUE : afterId;
+        TopRows page = new TopRows(limit);
+        long scanned = visitSelected(filter, (chunk, slot, row) -> {
+            long deadline = chunk.deadlines[slot];
+            if (inView(deadline, chunk.statuses[slot], start, end)
+                    && (afterDeadline == null || deadline > afterDeadline || row + 1L > resumeId)) {
+                page.offer(deadline, row);
+            }
+        });
+        List<TaskManagement> result = new ArrayList<>(page.size());
+        Chunk[] current = chunks;
+        for (int row : page.sortedRows()) {
+            TaskManagement task = current[row >>> CHUNK_BITS].read(row & CHUNK_MASK, row + 1L);
+            // the columns may have been read mid-write; the materialized row is authoritative
+            if (task != null && filter.matches(task) && inView(task.getTaskDeadlineTime(),
+                    task.getStatus().ordinal(), start, end)) {
+                result.add(task);
+            }
+        }
+        deadlineWindowScans.record(scanned, result.size());
+        return result;
+    }
+
+    private static boolean inView(long deadline, int status, long start, long end) {
+        return deadline < start
+                ? status != TaskStatus.COMPLETED.ordinal() && status != TaskStatus.CANCELLED.ordinal()
+                : deadline <= end;
+    }
+
+    @Override
+    public List<TaskManagement> findByStatus(TaskStatus status) {
+        RowFilter filter = new RowFilter();
+        filter.status = ordinal(status);
+        return collect(filter, 0, Integer.MAX_VALUE, task -> true, statusScans);
+    }
+
+    @Override
+    public List<TaskManagement> findByPriority(Priority priority) {
+        RowFilter filter = new RowFilter();
+        filter.priority = ordinal(priority);
+        return collect(filter, 0, Integer.MAX_VALUE, task -> true, priorityScans);
+    }
+
+    @Override
+    public List<TaskManagement> findByPriorityAfter(Priority priority, Long afterId, int limit) {
+        RowFilter filter = new RowFilter();
+        filter.priority = ordinal(priority);
+        return collect(filter, rowAfter(afterId), limit, task -> true, priorityScans);
+    }
+
+    @Override
+    public Stream<TaskManagement> stream(TaskFilter taskFilter) {
+        RowFilter filter = new RowFilter();
+        if (taskFilter.assigneeIds() != null) {
+            filter.assignees = sortedIds(taskFilter.assigneeIds());
+        }
+        filter.status = ordinal(taskFilter.status());
+        filter.priority = ordinal(taskFilter.priority());
+        if (taskFilter.hasDeadlineRange()) {
+            filter.deadlineFrom = taskFilter.deadlineFrom() == null ? NULL_LONG + 1 : taskFilter.deadlineFrom();
+            filter.deadlineTo = taskFilter.deadlineTo() == null ? Long.MAX_VALUE : taskFilter.deadlineTo();
+        }
+        Scan scan = new Scan(filter, 0, taskFilter::matches);
+        long[] returned = new long[1];
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(scan,
+                        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false)
+                .peek(task -> returned[0]++)
+                .onClose(() -> streamScans.record(scan.scanned, returned[0]));
+    }
+
+    @Override
+    public List<TaskManagement> query(TaskQuery query, Long afterId, int limit) {
+        if (query.ids() != null) {
+            // a task's row is its id, so listed ids are read directly
+            List<TaskManagement> result = new ArrayList<>();
+            long[] ids = sortedIds(query.ids());
+            int from = 0;
+            if (afterId != null) {
+                from = Arrays.binarySearch(ids, afterId);
+                from = from >= 0 ? from + 1 : -from - 1;
+            }
+            int scanned = 0;
+            for (int i = from; i < ids.length && result.size() < limit; i++) {
+                scanned++;
+                findById(ids[i]).filter(query::matches).ifPresent(result::add);
+            }
+            queryScans.record(scanned, result.size());
+            return result;
+        }
+        return collect(pushDown(query, EnumSet.noneOf(TaskQuery.Field.class)), rowAfter(afterId), limit,
+                query::matches, queryScans);
+    }
+
+    @Override
+    public QueryPlan explain(TaskQuery query) {
+        Map<AccessPath, Long> estimates = new EnumMap<>(AccessPath.class);
+        estimates.put(AccessPath.COLUMN_SCAN, count());
+        if (query.ids() != null) {
+            estimates.put(AccessPath.ID_LOOKUP, (long) query.ids().size());
+            return new QueryPlan(AccessPath.ID_LOOKUP, query.ids().size(),
+                    query.residualFilters(AccessPath.ID_LOOKUP.covers()), estimates, List.of());
+        }
+        Set<TaskQuery.Field> pushed = EnumSet.noneOf(TaskQuery.Field.class);
+        pushDown(query, pushed);
+        return new QueryPlan(AccessPath.COLUMN_SCAN, count(), query.residualFilters(pushed), estimates, List.of());
+    }
+
+    // The predicates the columns can evaluate; the rest (several statuses or priorities, half a
+    // reference) are left to the per-row recheck. Adds the pushed fields to {@code pushed}.
+    private static RowFilter pushDown(TaskQuery query, Set<TaskQuery.Field> pushed) {
+        RowFilter filter = new RowFilter();
+        if (query.assigneeIds() != null) {
+            filter.assignees = sortedIds(query.assigneeIds());
+            pushed.add(TaskQuery.Field.ASSIGNEE);
+        }
+        if (query.statuses() != null && query.statuses().size() == 1) {
+            filter.status = query.statuses().iterator().next().ordinal();
+            pushed.add(TaskQuery.Field.STATUS);
+        }
+        if (query.priorities() != null && query.priorities().size() == 1) {
+            filter.priority = query.priorities().iterator().next().ordinal();
+            pushed.add(TaskQuery.Field.PRIORITY);
+        }
+        if (query.hasReference()) {
+            filter.referenceId = query.referenceId();
+            filter.referenceType = query.referenceType().ordinal();
+            pushed.add(TaskQuery.Field.REFERENCE);
+        }
+        if (query.hasDeadlineRange()) {
+            filter.deadlineFrom = query.deadlineFrom() == null ? NULL_LONG + 1 : query.deadlineFrom();
+            filter.deadlineTo = query.deadlineTo() == null ? Long.MAX_VALUE : query.deadlineTo();
+            pushed.add(TaskQuery.Field.DEADLINE);
+        }
+        return filter;
+    }
+
+    private List<TaskManagement> collect(RowFilter filter, int fromRow, int limit, Predicate<TaskManagement> recheck,
+                                         ScanCounter scans) {
+        Scan scan = new Scan(filter, fromRow, recheck);
+        List<TaskManagement> result = new ArrayList<>();
+        while (result.size() < limit && scan.hasNext()) {
+            result.add(scan.next());
+        }
+        scans.record(scan.scanned, result.size());
+        return result;
+    }
+
+    /** Calls the visitor for every row the filter selects, without materializing; returns rows scanned. */
+    private long visitSelected(RowFilter filter, RowVisitor visitor) {
+        Chunk[] snapshot = chunks;
+        int limit = rowLimit.get();
+        long[] selection = new long[WORDS_PER_CHUNK];
+        long scanned = 0;
+        for (int base = 0; base < limit && (base >>> CHUNK_BITS) < snapshot.length; base += CHUNK_SIZE) {
+            Chunk chunk = snapshot[base >>> CHUNK_BITS];
+            int to = Math.min(CHUNK_SIZE, limit - base);
+            scanned += to;
+            if (!filter.select(chunk, 0, to, selection)) {
+                continue;
+            }
+            for (int w = 0, endWord = (to + 63) >>> 6; w < endWord; w++) {
+                long bits = selection[w];
+                while (bits != 0) {
+                    int slot = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    visitor.visit(chunk, slot, base + slot);
+                }
+            }
+        }
+        return scanned;
+    }
+
+    private Chunk chunkForWrite(int row) {
+        int index = row >>> CHUNK_BITS;
+        Chunk[] current = chunks;
+        if (index < current.length) {
+            return current[index];
+        }
+        synchronized (this) {
+            current = chunks;
+            if (index >= current.length) {
+                // only the chunk table is copied; chunks themselves never move, so no write is lost
+                Chunk[] grown = Arrays.copyOf(current, index + 1);
+                for (int i = current.length; i <= index; i++) {
+                    grown[i] = new Chunk();
+                }
+                chunks = grown;
+                current = grown;
+            }
+            return current[index];
+        }
+    }
+
+    private static int rowOf(long id) {
+        if (id < 1 || id > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Task id " + id + " is out of range for the columnar store");
+        }
+        return (int) (id - 1);
+    }
+
+    private static int rowAfter(Long afterId) {
+        if (afterId == null || afterId < 1) {
+            return 0;
+        }
+        return (int) Math.min(afterId, Integer.MAX_VALUE);
+    }
+
+    private static long[] sortedIds(Iterable<Long> ids) {
+        List<Long> present = new ArrayList<>();
+        for (Long id : ids) {
+            if (id != null) {
+                present.add(id);
+            }
+        }
+        return present.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    private static int ordinal(Enum<?> value) {
+        return value == null ? ANY : value.ordinal();
+    }
+
+    private static LongAdder[] newCounters(int size) {
+        LongAdder[] counters = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * Conjunction of column predicates; fields left at their defaults match everything. Evaluated a
+     * column at a time into a selection bitmap with one bit per row.
+     */
+    private static final class RowFilter {
+        long[] assignees;
+        long referenceId = NULL_LONG;
+        int referenceType = ANY;
+        int status = ANY;
+        int excludedStatus = ANY;
+        int priority = ANY;
+        long deadlineFrom = NULL_LONG;
+        long deadlineTo = Long.MAX_VALUE;
+
+        /** Exact check of a materialized row; the bitmap may have seen a row mid-write. */
+        boolean matches(TaskManagement task) {
+            int statusOrdinal = task.getStatus() == null ? NULL_ORDINAL : task.getStatus().ordinal();
+            if ((status != ANY && statusOrdinal != status) || statusOrdinal == excludedStatus) {
+                return false;
+            }
+            if (priority != ANY && (task.getPriority() == null ? NULL_ORDINAL : task.getPriority().ordinal()) != priority) {
+                return false;
+            }
+            if (referenceType != ANY && ((task.getReferenceType() == null ? NULL_ORDINAL : task.getReferenceType().ordinal())
+                    != referenceType || orNull(task.getReferenceId()) != referenceId)) {
+                return false;
+            }
+            if (assignees != null && Arrays.binarySearch(assignees, orNull(task.getAssigneeId())) < 0) {
+                return false;
+            }
+            long deadline = orNull(task.getTaskDeadlineTime());
+            return deadline >= deadlineFrom && deadline <= deadlineTo;
+        }
+
+        private static long orNull(Long value) {
+            return value == null ? NULL_LONG : value;
+        }
+
+        /** Selects the rows in [from, to) of the chunk; returns false if none are selected. */
+        boolean select(Chunk chunk, int from, int to, long[] selection) {
+            int firstWord = from >>> 6;
+            int endWord = (to + 63) >>> 6;
+            selectPresent(chunk.versions, firstWord, endWord, to, selection);
+            selection[firstWord] &= -1L << (from & 63);
+            if (status != ANY) {
+                andEquals(chunk.statuses, (byte) status, firstWord, endWord, to, selection);
+            }
+            if (excludedStatus != ANY) {
+                andNotEquals(chunk.statuses, (byte) excludedStatus, firstWord, endWord, to, selection);
+            }
+            if (priority != ANY) {
+                andEquals(chunk.priorities, (byte) priority, firstWord, endWord, to, selection);
+            }
+            if (referenceType != ANY) {
+                andEquals(chunk.referenceTypes, (byte) referenceType, firstWord, endWord, to, selection);
+                andRange(chunk.referenceIds, referenceId, referenceId, firstWord, endWord, to, selection);
+            }
+            if (assignees != null) {
+                andIn(chunk.assigneeIds, assignees, firstWord, endWord, to, selection);
+            }
+            if (deadlineFrom != NULL_LONG || deadlineTo != Long.MAX_VALUE) {
+                andRange(chunk.deadlines, deadlineFrom, deadlineTo, firstWord, endWord, to, selection);
+            }
+            for (int w = firstWord; w < endWord; w++) {
+                if (selection[w] != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static void selectPresent(long[] versions, int firstWord, int endWord, int to, long[] selection) {
+            for (int w = firstWord; w < endWord; w++) {
+                int base = w << 6;
+                int bitsInWord = Math.min(64, to - base);
+                long bits = 0;
+                for (int b = 0; b < bitsInWord; b++) {
+                    bits |= (versions[base + b] != 0 ? 1L : 0L) << b;
+                }
+                selection[w] = bits;
+            }
+        }
+
+        private static void andEquals(byte[] column, byte value, int firstWord, int endWord, int to, long[] selection) {
+            for (int w = firstWord; w < endWord; w++) {
+                if (selection[w] == 0) {
+                    continue;
+                }
+                int base = w << 6;
+                int bitsInWord = Math.min(64, to - base);
+                long bits = 0;
+                for (int b = 0; b < bitsInWord; b++) {
+                    bits |= (column[base + b] == value ? 1L : 0L) << b;
+                }
+                selection[w] &= bits;
+            }
+        }
+
+        private static void andNotEquals(byte[] column, byte value, int firstWord, int endWord, int to, long[] selection) {
+            for (int w = firstWord; w < endWord; w++) {
+                if (selection[w] == 0) {
+                    continue;
+                }
+                int base = w << 6;
+                int bitsInWord = Math.min(64, to - base);
+                long bits = 0;
+                for (int b = 0; b < bitsInWord; b++) {
+                    bits |= (column[base + b] != value ? 1L : 0L) << b;
+                }
+                selection[w] &= bits;
+            }
+        }
+
+        private static void andRange(long[] column, long min, long max, int firstWord, int endWord, int to,
+                                     long[] selection) {
+            for (int w = firstWord; w < endWord; w++) {
+                if (selection[w] == 0) {
+                    continue;
+                }
+                int base = w << 6;
+                int bitsInWord = Math.min(64, to - base);
+                long bits = 0;
+                for (int b = 0; b < bitsInWord; b++) {
+                    long value = column[base + b];
+                    bits |= (value >= min & value <= max ? 1L : 0L) << b;
+                }
+                selection[w] &= bits;
+            }
+        }
+
+        private static void andIn(long[] column, long[] sortedValues, int firstWord, int endWord, int to,
+                                  long[] selection) {
+            if (sortedValues.length == 1) {
+                andRange(column, sortedValues[0], sortedValues[0], firstWord, endWord, to, selection);
+                return;
+            }
+            for (int w = firstWord; w < endWord; w++) {
+                long bits = selection[w];
+                // few rows survive to this pass, so only the selected ones are looked up
+                long remaining = bits;
+                while (remaining != 0) {
+                    int b = Long.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+                    if (Arrays.binarySearch(sortedValues, column[(w << 6) + b]) < 0) {
+                        bits &= ~(1L << b);
+                    }
+                }
+                selection[w] = bits;
+            }
+        }
+    }
+
+    /**
+     * Lazily walks the chunks, selecting rows a chunk at a time and materializing the selected ones
+     * that still pass the filter and {@code recheck}.
+     */
+    private final class Scan implements Iterator<TaskManagement> {
+        private final RowFilter filter;
+        private final Predicate<TaskManagement> recheck;
+        private final Chunk[] snapshot = chunks;
+        private final int limit = rowLimit.get();
+        private final long[] selection = new long[WORDS_PER_CHUNK];
+        private int nextRow;
+        private int chunkBase = -1;
+        private int word;
+        private int endWord;
+        private TaskManagement next;
+        long scanned;
+
+        Scan(RowFilter filter, int fromRow, Predicate<TaskManagement> recheck) {
+            this.filter = filter;
+            this.recheck = recheck;
+            this.nextRow = fromRow;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (chunkBase < 0 || word >= endWord) {
+                    if (!selectNextChunk()) {
+                        return false;
+                    }
+                    continue;
+                }
+                long bits = selection[word];
+                if (bits == 0) {
+                    word++;
+                    continue;
+                }
+                int bit = Long.numberOfTrailingZeros(bits);
+                selection[word] = bits & (bits - 1);
+                int slot = (word << 6) + bit;
+                TaskManagement task = snapshot[chunkBase >>> CHUNK_BITS].read(slot, chunkBase + slot + 1L);
+                if (task != null && filter.matches(task) && recheck.test(task)) {
+                    next = task;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public TaskManagement next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            TaskManagement task = next;
+            next = null;
+            return task;
+        }
+
+        private boolean selectNextChunk() {
+            while (nextRow < limit && (nextRow >>> CHUNK_BITS) < snapshot.length) {
+                int base = nextRow & ~CHUNK_MASK;
+                int from = nextRow - base;
+                int to = Math.min((from / BLOCK_SIZE + 1) * BLOCK_SIZE, limit - base);
+                nextRow = base + to;
+                scanned += to - from;
+                if (filter.select(snapshot[base >>> CHUNK_BITS], from, to, selection)) {
+                    chunkBase = base;
+                    word = from >>> 6;
+                    endWord = (to + 63) >>> 6;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowVisitor {
+        void visit(Chunk chunk, int slot, int row);
+    }
+
+    /** The {@code capacity} smallest (deadline, row) pairs offered, kept in a max-heap of primitives. */
+    private static final class TopRows {
+        private final int capacity;
+        private long[] deadlines;
+        private int[] rows;
+        private int size;
+
+        TopRows(int capacity) {
+            this.capacity = capacity;
+            this.deadlines = new long[Math.min(capacity, 64)];
+            this.rows = new int[deadlines.length];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void offer(long deadline, int row) {
+            if (size < capacity) {
+                if (size == deadlines.length) {
+                    deadlines = Arrays.copyOf(deadlines, Math.min(capacity, size * 2));
+                    rows = Arrays.copyOf(rows, deadlines.length);
+                }
+                deadlines[size] = deadline;
+                rows[size] = row;
+                for (int child = size++; child > 0 && after(child, (child - 1) >>> 1); child = (child - 1) >>> 1) {
+                    swap(child, (child - 1) >>> 1);
+                }
+            } else if (capacity > 0 && (deadline < deadlines[0] || (deadline == deadlines[0] && row < rows[0]))) {
+                deadlines[0] = deadline;
+                rows[0] = row;
+                siftDown(size);
+            }
+        }
+
+        /** Rows in ascending (deadline, row) order; consumes the heap. */
+        int[] sortedRows() {
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(end);
+            }
+            return Arrays.copyOf(rows, size);
+        }
+
+        private void siftDown(int heapSize) {
+            int parent = 0;
+            while (true) {
+                int largest = parent;
+                int left = 2 * parent + 1;
+                if (left < heapSize && after(left, largest)) {
+                    largest = left;
+                }
+                if (left + 1 < heapSize && after(left + 1, largest)) {
+                    largest = left + 1;
+                }
+                if (largest == parent) {
+                    return;
+                }
+                swap(parent, largest);
+                parent = largest;
+            }
+        }
+
+        private boolean after(int i, int j) {
+            return deadlines[i] > deadlines[j] || (deadlines[i] == deadlines[j] && rows[i] > rows[j]);
+        }
+
+        private void swap(int i, int j) {
+            long deadline = deadlines[i];
+            deadlines[i] = deadlines[j];
+            deadlines[j] = deadline;
+            int row = rows[i];
+            rows[i] = rows[j];
+            rows[j] = row;
+        }
+    }
+
+    private static final class Chunk {
+        // 0 marks an empty row
+        final long[] versions = new long[CHUNK_SIZE];
+        final long[] referenceIds = new long[CHUNK_SIZE];
+        final long[] assigneeIds = new long[CHUNK_SIZE];
+        final long[] deadlines = new long[CHUNK_SIZE];
+        final byte[] statuses = new byte[CHUNK_SIZE];
+        final byte[] priorities = new byte[CHUNK_SIZE];
+        final byte[] taskTypes = new byte[CHUNK_SIZE];
+        final byte[] referenceTypes = new byte[CHUNK_SIZE];
+        // per-row sequence number: odd while a writer is inside the row
+        final int[] sequences = new int[CHUNK_SIZE];
+        final String[] descriptions = new String[CHUNK_SIZE];
+        // null while the history is empty
+        final Object[] comments = new Object[CHUNK_SIZE];
+        final Object[] activities = new Object[CHUNK_SIZE];
+
+        /** Consistent read of the row's version (0 if it is empty). */
+        long version(int slot) {
+            while (true) {
+                int sequence = (int) SEQ.getAcquire(sequences, slot);
+                if ((sequence & 1) != 0) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                long version = versions[slot];
+                VarHandle.acquireFence();
+                if ((int) SEQ.getOpaque(sequences, slot) == sequence) {
+                    return version;
+                }
+            }
+        }
+
+        /** Consistent copy of the row, or null if it is empty. */
+        @SuppressWarnings("unchecked")
+        TaskManagement read(int slot, long id) {
+            while (true) {
+                int sequence = (int) SEQ.getAcquire(sequences, slot);
+                if ((sequence & 1) != 0) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                long version = versions[slot];
+                long referenceId = referenceIds[slot];
+                long assigneeId = assigneeIds[slot];
+                long deadline = deadlines[slot];
+                byte status = statuses[slot];
+                byte priority = priorities[slot];
+                byte taskType = taskTypes[slot];
+                byte referenceType = referenceTypes[slot];
+                String description = descriptions[slot];
+                Object rowComments = comments[slot];
+                Object rowActivities = activities[slot];
+                VarHandle.acquireFence();
+                if ((int) SEQ.getOpaque(sequences, slot) != sequence) {
+                    continue;
+                }
+                if (version == 0) {
+                    return null;
+                }
+                TaskManagement task = new TaskManagement();
+                task.setId(id);
+                task.setVersion(version);
+                task.setReferenceId(referenceId == NULL_LONG ? null : referenceId);
+                task.setAssigneeId(assigneeId == NULL_LONG ? null : assigneeId);
+                task.setTaskDeadlineTime(deadline == NULL_LONG ? null : deadline);
+                task.setStatus(status == NULL_ORDINAL ? null : STATUSES[status]);
+                task.setPriority(priority == NULL_ORDINAL ? null : PRIORITIES[priority]);
+                task.setTask(taskType == NULL_ORDINAL ? null : TASKS[taskType]);
+                task.setReferenceType(referenceType == NULL_ORDINAL ? null : REFERENCE_TYPES[referenceType]);
+                task.setDescription(description);
+                if (rowComments != null) {
+                    task.setComments(((AppendOnlyLog<Comment>) rowComments).copy());
+                }
+                if (rowActivities != null) {
+                    task.setActivityHistory(((AppendOnlyLog<Activity>) rowActivities).copy());
+                }
+                return task;
+            }
+        }
+
+        /** Overwrites the row (empties it for null). Caller holds the row lock. */
+        void write(int slot, TaskManagement task) {
+            int sequence = (int) SEQ.getOpaque(sequences, slot);
+            SEQ.setOpaque(sequences, slot, sequence + 1);
+            VarHandle.storeStoreFence();
+            if (task == null) {
+                versions[slot] = 0;
+                descriptions[slot] = null;
+                comments[slot] = null;
+                activities[slot] = null;
+            } else {
+                versions[slot] = task.getVersion();
+                referenceIds[slot] = task.getReferenceId() == null ? NULL_LONG : task.getReferenceId();
+                assigneeIds[slot] = task.getAssigneeId() == null ? NULL_LONG : task.getAssigneeId();
+                deadlines[slot] = task.getTaskDeadlineTime() == null ? NULL_LONG : task.getTaskDeadlineTime();
+                statuses[slot] = task.getStatus() == null ? NULL_ORDINAL : (byte) task.getStatus().ordinal();
+                priorities[slot] = task.getPriority() == null ? NULL_ORDINAL : (byte) task.getPriority().ordinal();
+                taskTypes[slot] = task.getTask() == null ? NULL_ORDINAL : (byte) task.getTask().ordinal();
+                referenceTypes[slot] = task.getReferenceType() == null ? NULL_ORDINAL
+                        : (byte) task.getReferenceType().ordinal();
+                descriptions[slot] = task.getDescription();
+                comments[slot] = task.getComments() == null || task.getComments().isEmpty() ? null : task.getComments();
+                activities[slot] = task.getActivityHistory() == null || task.getActivityHistory().isEmpty() ? null
+                        : task.getActivityHistory();
+            }
+            SEQ.setRelease(sequences, slot, sequence + 2);
+        }
+    }
+}
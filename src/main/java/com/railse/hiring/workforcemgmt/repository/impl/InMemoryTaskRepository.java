@@ -1,81 +1,991 @@
 package com.railse.hiring.workforcemgmt.repository.impl;
 
+import com.railse.hiring.workforcemgmt.common.exception.ConcurrentUpdateException;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
 import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
 import com.railse.hiring.workforcemgmt.model.TaskManagement;
 import com.railse.hiring.workforcemgmt.model.enums.Priority;
-import com.railse.hiring.workforcemgmt.model.enums.Task;
 import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
-import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.repository.AccessPath;
+import com.railse.hiring.workforcemgmt.repository.QueryPlan;
+import com.railse.hiring.workforcemgmt.repository.TaskChange;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskQuery;
+import com.railse.hiring.workforcemgmt.repository.SaveResult;
+import com.railse.hiring.workforcemgmt.repository.ScanCounter;
+import com.railse.hiring.workforcemgmt.repository.tiering.ColdSegmentStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Repository
-public class InMemoryTaskRepository implements TaskRepository {
+@ConditionalOnProperty(name = "task-mgmt.repository.type", havingValue = "indexed", matchIfMissing = true)
+public class InMemoryTaskRepository extends AbstractTaskRepository {
+    private static final int INITIAL_PAGE_CAPACITY = 256;
+
+    // Stored tasks are immutable snapshots: save() stores a copy and findById() hands out a copy.
     private final Map<Long, TaskManagement> taskStore = new ConcurrentHashMap<>();
+    private final NavigableSet<Long> taskIds = new ConcurrentSkipListSet<>();
+    // ids are allocated as idOffset + 1, idOffset + 1 + idStride, ... so shards never collide
     private final AtomicLong idCounter = new AtomicLong(0);
+    private final long idOffset;
+    private final long idStride;
+
+    // Secondary indexes (task ids, ascending), moved inside the per-id compute() in save()
+    private final Map<ReferenceKey, NavigableSet<Long>> referenceIndex = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<Long>> assigneeIndex = new ConcurrentHashMap<>();
+    private final Map<TaskStatus, NavigableSet<Long>> statusIndex = new EnumMap<>(TaskStatus.class);
+    private final Map<Priority, NavigableSet<Long>> priorityIndex = new EnumMap<>(Priority.class);
+    private final Map<Long, DeadlineIndex> deadlineIndex = new ConcurrentHashMap<>();
+    // every task with a deadline, for deadline-range queries that don't name assignees
+    private final NavigableSet<DeadlineKey> deadlines = new ConcurrentSkipListSet<>();
+    // maintained alongside the indexes so counting never walks a skip list
+    private final LongAdder[] statusCounts = newCounters(TaskStatus.values().length);
+    private final LongAdder[] priorityCounts = newCounters(Priority.values().length);
+
+    // Tiering: terminal tasks left alone long enough move from taskStore to the cold store. The
+    // indexes keep their ids and lookups fall through to the cold copy. terminalSince is only kept
+    // once a cold store is attached.
+    private volatile ColdSegmentStore coldStore;
+    private final Map<Long, Long> terminalSince = new ConcurrentHashMap<>();
+
+    private final ScanCounter findAllScans;
+    private final ScanCounter referenceScans;
+    private final ScanCounter assigneeScans;
+    private final ScanCounter deadlineWindowScans;
+    private final ScanCounter statusScans;
+    private final ScanCounter priorityScans;
+    private final ScanCounter streamScans;
+    private final ScanCounter queryScans;
 
     public InMemoryTaskRepository() {
-        createSeedTask(101L, ReferenceType.ORDER, Task.CREATE_INVOICE, 1L, TaskStatus.ASSIGNED, Priority.HIGH);
-        createSeedTask(101L, ReferenceType.ORDER, Task.ARRANGE_PICKUP, 1L, TaskStatus.COMPLETED, Priority.HIGH);
-        createSeedTask(102L, ReferenceType.ORDER, Task.CREATE_INVOICE, 2L, TaskStatus.ASSIGNED, Priority.MEDIUM);
-        createSeedTask(201L, ReferenceType.ENTITY, Task.ASSIGN_CUSTOMER_TO_SALES_PERSON, 2L, TaskStatus.ASSIGNED, Priority.LOW);
-        createSeedTask(201L, ReferenceType.ENTITY, Task.ASSIGN_CUSTOMER_TO_SALES_PERSON, 3L, TaskStatus.ASSIGNED, Priority.LOW);
-        createSeedTask(103L, ReferenceType.ORDER, Task.COLLECT_PAYMENT, 1L, TaskStatus.CANCELLED, Priority.MEDIUM);
-    }
-
-    private void createSeedTask(Long refId, ReferenceType refType, Task task, Long assigneeId, TaskStatus status, Priority priority) {
-        long newId = idCounter.incrementAndGet();
-        TaskManagement newTask = new TaskManagement();
-        newTask.setId(newId);
-        newTask.setReferenceId(refId);
-        newTask.setReferenceType(refType);
-        newTask.setTask(task);
-        newTask.setAssigneeId(assigneeId);
-        newTask.setStatus(status);
-        newTask.setPriority(priority);
-        newTask.setDescription("This is a seed task.");
-        newTask.setTaskDeadlineTime(System.currentTimeMillis() + 86400000);
-        taskStore.put(newId, newTask);
+        this(new MetricsRegistry());
+    }
+
+    @Autowired
+    public InMemoryTaskRepository(MetricsRegistry metrics) {
+        this(metrics, 0, 1);
+        registerStoreGauges(metrics);
+        createSeedTasks();
+    }
+
+    /** An unseeded store that owns the ids {@code idOffset + 1 + k * idStride}; one shard of {@link ShardedTaskRepository}. */
+    InMemoryTaskRepository(MetricsRegistry metrics, long idOffset, long idStride) {
+        this.idOffset = idOffset;
+        this.idStride = idStride;
+        findAllScans = new ScanCounter(metrics, "findAll");
+        referenceScans = new ScanCounter(metrics, "findByReference");
+        assigneeScans = new ScanCounter(metrics, "findByAssignee");
+        deadlineWindowScans = new ScanCounter(metrics, "findByDeadlineWindow");
+        statusScans = new ScanCounter(metrics, "findByStatus");
+        priorityScans = new ScanCounter(metrics, "findByPriority");
+        streamScans = new ScanCounter(metrics, "stream");
+        queryScans = new ScanCounter(metrics, "query");
+
+        for (TaskStatus status : TaskStatus.values()) {
+            statusIndex.put(status, new ConcurrentSkipListSet<>());
+        }
+        for (Priority priority : Priority.values()) {
+            priorityIndex.put(priority, new ConcurrentSkipListSet<>());
+        }
     }
 
     @Override
     public Optional<TaskManagement> findById(Long id) {
-        return Optional.ofNullable(taskStore.get(id));
+        TaskManagement stored = stored(id, true);
+        return stored == null ? Optional.empty() : Optional.of(stored.copy());
+    }
+
+    @Override
+    public OptionalLong findVersionById(Long id) {
+        TaskManagement stored = stored(id, true);
+        return stored == null ? OptionalLong.empty() : OptionalLong.of(stored.getVersion());
     }
 
     @Override
     public TaskManagement save(TaskManagement task) {
         if (task.getId() == null) {
-            task.setId(idCounter.incrementAndGet());
+            task.setId(idAt(idCounter.incrementAndGet()));
         }
-        taskStore.put(task.getId(), task);
+        TaskChange change = commit(task);
+        notifyListeners(List.of(change));
         return task;
     }
 
+    @Override
+    public List<SaveResult> saveAll(List<TaskManagement> tasks) {
+        int newTasks = 0;
+        for (TaskManagement task : tasks) {
+            if (task.getId() == null) {
+                newTasks++;
+            }
+        }
+        // one id range for the whole batch instead of an increment per task
+        long nextSequence = idCounter.getAndAdd(newTasks) + 1;
+        List<SaveResult> results = new ArrayList<>(tasks.size());
+        List<TaskChange> changes = new ArrayList<>(tasks.size());
+        for (TaskManagement task : tasks) {
+            if (task.getId() == null) {
+                task.setId(idAt(nextSequence++));
+            }
+            try {
+                changes.add(commit(task));
+                results.add(new SaveResult(task, null));
+            } catch (ConcurrentUpdateException e) {
+                results.add(new SaveResult(task, e));
+            }
+        }
+        if (!changes.isEmpty()) {
+            notifyListeners(changes);
+        }
+        return results;
+    }
+
+    private TaskChange commit(TaskManagement task) {
+        TaskManagement[] change = new TaskManagement[2];
+        long[] coldLocation = {ColdSegmentStore.MISSING};
+        // compute() serializes concurrent saves of the same id: the version check, the swap and the
+        // index moves happen atomically per task
+        taskStore.compute(task.getId(), (id, hot) -> {
+            TaskManagement previous = hot != null ? hot : loadCold(id, coldLocation);
+            long storedVersion = previous == null ? 0 : previous.getVersion();
+            if (previous != null && task.getVersion() != storedVersion) {
+                throw new ConcurrentUpdateException("Task " + id + " was modified concurrently (expected version "
+                        + task.getVersion() + ", found " + storedVersion + ")");
+            }
+            task.setVersion(storedVersion + 1);
+            TaskManagement snapshot = task.copy();
+            reindex(id, previous, snapshot);
+            trackTerminal(id, snapshot);
+            change[0] = previous;
+            change[1] = snapshot;
+            return snapshot;
+        });
+        releaseCold(task.getId(), coldLocation[0]);
+        return new TaskChange(change[0], change[1]);
+    }
+
+    @Override
+    public boolean apply(TaskManagement snapshot) {
+        TaskManagement[] before = new TaskManagement[1];
+        boolean[] applied = new boolean[1];
+        long[] coldLocation = {ColdSegmentStore.MISSING};
+        taskStore.compute(snapshot.getId(), (id, hot) -> {
+            TaskManagement previous = hot != null ? hot : loadCold(id, coldLocation);
+            if (previous != null && previous.getVersion() >= snapshot.getVersion()) {
+                return hot;
+            }
+            reindex(id, previous, snapshot);
+            trackTerminal(id, snapshot);
+            before[0] = previous;
+            applied[0] = true;
+            return snapshot;
+        });
+        idCounter.accumulateAndGet(sequenceOf(snapshot.getId()), Math::max);
+        if (applied[0]) {
+            releaseCold(snapshot.getId(), coldLocation[0]);
+            notifyListeners(List.of(new TaskChange(before[0], snapshot)));
+        }
+        return applied[0];
+    }
+
+    @Override
+    public void clear() {
+        long[] coldLocation = new long[1];
+        for (Long id : taskIds) {
+            TaskManagement[] removed = new TaskManagement[1];
+            taskStore.compute(id, (key, hot) -> {
+                TaskManagement previous = hot != null ? hot : loadCold(key, coldLocation);
+                if (previous == null) {
+                    return null;
+                }
+                taskIds.remove(key);
+                removeFromIndexes(key, IndexedKeys.of(previous));
+                removed[0] = previous;
+                return null;
+            });
+            if (removed[0] != null) {
+                notifyListeners(List.of(new TaskChange(removed[0], null)));
+            }
+        }
+        terminalSince.clear();
+        ColdSegmentStore cold = coldStore;
+        if (cold != null) {
+            cold.clear();
+        }
+        idCounter.set(0);
+    }
+
+    /**
+     * Enables eviction to {@code store} via {@link #evictTerminalTasks}. Tasks that are already
+     * COMPLETED or CANCELLED count as terminal from now on.
+     */
+    public void attachColdStore(ColdSegmentStore store) {
+        long now = System.currentTimeMillis();
+        coldStore = store;
+        for (TaskManagement task : taskStore.values()) {
+            if (!isOpen(task.getStatus())) {
+                terminalSince.putIfAbsent(task.getId(), now);
+            }
+        }
+    }
+
+    /**
+     * Moves tasks that have been COMPLETED or CANCELLED, and not saved since, for at least
+     * {@code idleMillis} out of memory into the cold store, {@code batchSize} at a time. Returns
+     * the number moved. Reads keep finding them there; saving one loads it back.
+     */
+    public int evictTerminalTasks(long idleMillis, int batchSize) {
+        ColdSegmentStore cold = coldStore;
+        if (cold == null) {
+            return 0;
+        }
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        List<TaskManagement> batch = new ArrayList<>(batchSize);
+        int evicted = 0;
+        for (Map.Entry<Long, Long> entry : terminalSince.entrySet()) {
+            if (entry.getValue() > cutoff) {
+                continue;
+            }
+            TaskManagement task = taskStore.get(entry.getKey());
+            if (task == null || isOpen(task.getStatus())) {
+                terminalSince.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            batch.add(task);
+            if (batch.size() == batchSize) {
+                evicted += evict(cold, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            evicted += evict(cold, batch);
+        }
+        return evicted;
+    }
+
+    private int evict(ColdSegmentStore cold, List<TaskManagement> batch) {
+        long[] locations = cold.append(batch);
+        int evicted = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            TaskManagement candidate = batch.get(i);
+            long location = locations[i];
+            boolean[] moved = new boolean[1];
+            // the cold copy is indexed before the task leaves taskStore, so readers always find one of them
+            taskStore.computeIfPresent(candidate.getId(), (id, current) -> {
+                if (current != candidate) {
+                    return current;
+                }
+                cold.put(id, location);
+                terminalSince.remove(id);
+                moved[0] = true;
+                return null;
+            });
+            if (moved[0]) {
+                evicted++;
+            } else {
+                cold.discard(location);
+            }
+        }
+        return evicted;
+    }
+
+    /** The stored task, from memory or the cold store. {@code cached}: keep its cold block in the LRU cache. */
+    private TaskManagement stored(Long id, boolean cached) {
+        TaskManagement task = taskStore.get(id);
+        ColdSegmentStore cold = coldStore;
+        if (task != null || cold == null) {
+            return task;
+        }
+        TaskManagement coldTask = cold.get(id, cached);
+        // no cold copy either: it may have just been loaded back by a save
+        return coldTask != null ? coldTask : taskStore.get(id);
+    }
+
+    // Called inside taskStore.compute() for a task that isn't in memory; remembers where its cold copy was
+    private TaskManagement loadCold(Long id, long[] location) {
+        ColdSegmentStore cold = coldStore;
+        location[0] = cold == null ? ColdSegmentStore.MISSING : cold.locate(id);
+        return location[0] == ColdSegmentStore.MISSING ? null : cold.read(location[0], false);
+    }
+
+    // The task is back in memory; its cold copy is only dropped now so readers never miss both
+    private void releaseCold(Long id, long location) {
+        if (location != ColdSegmentStore.MISSING) {
+            coldStore.remove(id, location);
+        }
+    }
+
+    private void trackTerminal(Long id, TaskManagement task) {
+        if (coldStore == null) {
+            return;
+        }
+        if (isOpen(task.getStatus())) {
+            terminalSince.remove(id);
+        } else {
+            terminalSince.put(id, System.currentTimeMillis());
+        }
+    }
+
+    private long idAt(long sequence) {
+        return idOffset + (sequence - 1) * idStride + 1;
+    }
+
+    private long sequenceOf(long id) {
+        return Math.max(0, (id - 1 - idOffset) / idStride + 1);
+    }
+
+    private void reindex(Long id, TaskManagement previous, TaskManagement next) {
+        IndexedKeys current = IndexedKeys.of(next);
+        if (previous == null) {
+            taskIds.add(id);
+            addToIndexes(id, current);
+        } else {
+            IndexedKeys old = IndexedKeys.of(previous);
+            if (!old.equals(current)) {
+                removeFromIndexes(id, old);
+                addToIndexes(id, current);
+            }
+        }
+    }
+
     @Override
     public List<TaskManagement> findAll() {
-        return List.copyOf(taskStore.values());
+        List<TaskManagement> all;
+        if (coldStore == null || coldStore.size() == 0) {
+            all = List.copyOf(taskStore.values());
+        } else {
+            all = new ArrayList<>();
+            for (Long id : taskIds) {
+                TaskManagement task = stored(id, false);
+                if (task != null) {
+                    all.add(task);
+                }
+            }
+        }
+        findAllScans.record(all.size(), all.size());
+        return all;
+    }
+
+    @Override
+    public long count() {
+        ColdSegmentStore cold = coldStore;
+        return taskStore.size() + (cold == null ? 0 : cold.size());
+    }
+
+    @Override
+    public long countByStatus(TaskStatus status) {
+        return statusCounts[status.ordinal()].sum();
+    }
+
+    @Override
+    public long countByPriority(Priority priority) {
+        return priorityCounts[priority.ordinal()].sum();
+    }
+
+    @Override
+    public List<TaskManagement> findAllAfter(Long afterId, int limit) {
+        List<TaskManagement> result = new ArrayList<>(Math.min(limit, INITIAL_PAGE_CAPACITY));
+        int scanned = 0;
+        for (Long id : afterId == null ? taskIds : taskIds.tailSet(afterId, false)) {
+            if (result.size() >= limit) {
+                break;
+            }
+            scanned++;
+            TaskManagement task = stored(id, true);
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        findAllScans.record(scanned, result.size());
+        return result;
     }
 
     @Override
     public List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType) {
-        return taskStore.values().stream()
-                .filter(task -> task.getReferenceId().equals(referenceId) && task.getReferenceType().equals(referenceType))
-                .collect(Collectors.toList());
+        return resolve(referenceIndex.get(new ReferenceKey(referenceId, referenceType)),
+                task -> Objects.equals(task.getReferenceId(), referenceId) && task.getReferenceType() == referenceType,
+                referenceScans);
     }
 
     @Override
     public List<TaskManagement> findByAssigneeIdIn(List<Long> assigneeIds) {
-        return taskStore.values().stream()
-                .filter(task -> assigneeIds.contains(task.getAssigneeId()))
-                .collect(Collectors.toList());
+        List<TaskManagement> result = new ArrayList<>();
+        int scanned = 0;
+        for (Long assigneeId : new LinkedHashSet<>(assigneeIds)) {
+            if (assigneeId == null) {
+                continue;
+            }
+            scanned += resolveInto(assigneeIndex.get(assigneeId), task -> assigneeId.equals(task.getAssigneeId()), result);
+        }
+        assigneeScans.record(scanned, result.size());
+        return result;
+    }
+
+    @Override
+    public List<TaskManagement> findByAssigneeIdInAndDeadlineWindow(List<Long> assigneeIds, long start, long end,
+                                                                    Long afterDeadline, Long afterId, int limit) {
+        DeadlineKey after = afterDeadline == null ? null
+                : new DeadlineKey(afterDeadline, afterId == null ? Long.MAX_VALUE : afterId);
+        // k-way merge of the per-assignee (deadline, id) ranges; stops as soon as the page is full
+        PriorityQueue<WindowScan> scans = new PriorityQueue<>(Comparator.comparing(WindowScan::head));
+        List<WindowScan> allScans = new ArrayList<>(assigneeIds.size());
+        for (Long assigneeId : new LinkedHashSet<>(assigneeIds)) {
+            DeadlineIndex index = assigneeId == null ? null : deadlineIndex.get(assigneeId);
+            if (index != null) {
+                WindowScan scan = new WindowScan(assigneeId, index, start, end, after);
+                allScans.add(scan);
+                if (scan.advance()) {
+                    scans.add(scan);
+                }
+            }
+        }
+        List<TaskManagement> result = new ArrayList<>(Math.min(limit, INITIAL_PAGE_CAPACITY));
+        while (result.size() < limit && !scans.isEmpty()) {
+            WindowScan scan = scans.poll();
+            result.add(scan.task());
+            if (scan.advance()) {
+                scans.add(scan);
+            }
+        }
+        int scanned = 0;
+        for (WindowScan scan : allScans) {
+            scanned += scan.scanned();
+        }
+        deadlineWindowScans.record(scanned, result.size());
+        return result;
+    }
+
+    @Override
+    public List<TaskManagement> findByStatus(TaskStatus status) {
+        return resolve(statusIndex.get(status), task -> task.getStatus() == status, statusScans);
+    }
+
+    @Override
+    public List<TaskManagement> findByPriority(Priority priority) {
+        return resolve(priorityIndex.get(priority), task -> task.getPriority() == priority, priorityScans);
+    }
+
+    @Override
+    public List<TaskManagement> findByPriorityAfter(Priority priority, Long afterId, int limit) {
+        NavigableSet<Long> ids = priorityIndex.get(priority);
+        List<TaskManagement> result = new ArrayList<>(Math.min(limit, INITIAL_PAGE_CAPACITY));
+        int scanned = 0;
+        for (Long id : afterId == null ? ids : ids.tailSet(afterId, false)) {
+            if (result.size() >= limit) {
+                break;
+            }
+            scanned++;
+            TaskManagement task = stored(id, true);
+            if (task != null && task.getPriority() == priority) {
+                result.add(task);
+            }
+        }
+        priorityScans.record(scanned, result.size());
+        return result;
+    }
+
+    @Override
+    public Stream<TaskManagement> stream(TaskFilter filter) {
+        // the stream is lazy, so the counts are recorded when it is closed
+        long[] counts = new long[2];
+        return candidateIds(filter)
+                .peek(id -> counts[0]++)
+                .map(id -> stored(id, false))
+                .filter(task -> task != null && filter.matches(task))
+                .peek(task -> counts[1]++)
+                .onClose(() -> streamScans.record(counts[0], counts[1]));
+    }
+
+    // Narrowest index for the filter; TaskFilter.matches() applies whatever the index doesn't cover
+    private Stream<Long> candidateIds(TaskFilter filter) {
+        if (filter.assigneeIds() != null) {
+            if (filter.hasDeadlineRange()) {
+                DeadlineKey from = new DeadlineKey(filter.deadlineFrom() == null ? Long.MIN_VALUE : filter.deadlineFrom(), Long.MIN_VALUE);
+                DeadlineKey to = new DeadlineKey(filter.deadlineTo() == null ? Long.MAX_VALUE : filter.deadlineTo(), Long.MAX_VALUE);
+                if (from.compareTo(to) > 0) {
+                    return Stream.empty();
+                }
+                return chain(filter.assigneeIds().stream()
+                        .map(deadlineIndex::get)
+                        .filter(Objects::nonNull)
+                        .map(index -> index.all().subSet(from, true, to, true)))
+                        .map(DeadlineKey::id);
+            }
+            return chain(filter.assigneeIds().stream()
+                    .map(assigneeIndex::get)
+                    .filter(Objects::nonNull));
+        }
+        if (filter.priority() != null) {
+            return priorityIndex.get(filter.priority()).stream();
+        }
+        if (filter.status() != null) {
+            return statusIndex.get(filter.status()).stream();
+        }
+        return taskIds.stream();
+    }
+
+    // Walks the collections one after another. Stream.flatMap read through an iterator (as export
+    // does) pushes each whole inner stream into a buffer, i.e. one assignee's tasks at a time.
+    private static <T> Stream<T> chain(Stream<? extends Collection<T>> collections) {
+        Iterator<? extends Collection<T>> outer = collections.iterator();
+        Iterator<T> chained = new Iterator<>() {
+            private Iterator<T> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && outer.hasNext()) {
+                    current = outer.next().iterator();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chained, Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public List<TaskManagement> query(TaskQuery query, Long afterId, int limit) {
+        Planner plan = plan(query);
+        Iterator<Long> candidates = queryCandidates(query, plan.access, afterId);
+        List<TaskManagement> result = new ArrayList<>(Math.min(limit, INITIAL_PAGE_CAPACITY));
+        int scanned = 0;
+        while (result.size() < limit && candidates.hasNext()) {
+            scanned++;
+            TaskManagement task = stored(candidates.next(), true);
+            if (task != null && query.matches(task)) {
+                result.add(task);
+            }
+        }
+        queryScans.record(scanned, result.size());
+        return result;
+    }
+
+    @Override
+    public QueryPlan explain(TaskQuery query) {
+        Planner plan = plan(query);
+        return new QueryPlan(plan.access, plan.best, query.residualFilters(plan.access.covers()), plan.estimates,
+                List.of());
+    }
+
+    /**
+     * Picks the access path with the fewest index entries to visit. Status and priority sizes come
+     * from counters; the other paths are counted, but never beyond the best size found so far, so
+     * planning costs at most about as much as the chosen path's scan. Ties keep the earlier path,
+     * which returns ids in order and can stop at the page limit.
+     */
+    private Planner plan(TaskQuery query) {
+        Planner plan = new Planner(count());
+        if (query.ids() != null) {
+            plan.consider(AccessPath.ID_LOOKUP, query.ids().size());
+        }
+        if (query.hasReference()) {
+            NavigableSet<Long> ids = referenceIndex.get(new ReferenceKey(query.referenceId(), query.referenceType()));
+            plan.consider(AccessPath.REFERENCE_INDEX, ids == null ? 0 : countUpTo(ids, plan.best));
+        }
+        if (query.statuses() != null) {
+            long rows = 0;
+            for (TaskStatus status : query.statuses()) {
+                rows += countByStatus(status);
+            }
+            plan.consider(AccessPath.STATUS_INDEX, rows);
+        }
+        if (query.priorities() != null) {
+            long rows = 0;
+            for (Priority priority : query.priorities()) {
+                rows += countByPriority(priority);
+            }
+            plan.consider(AccessPath.PRIORITY_INDEX, rows);
+        }
+        if (query.assigneeIds() != null) {
+            long rows = 0;
+            for (Long assigneeId : query.assigneeIds()) {
+                NavigableSet<Long> ids = assigneeIndex.get(assigneeId);
+                if (ids != null && rows <= plan.best) {
+                    rows += countUpTo(ids, plan.best - rows);
+                }
+            }
+            plan.consider(AccessPath.ASSIGNEE_INDEX, rows);
+            if (query.hasDeadlineRange()) {
+                rows = 0;
+                for (Long assigneeId : query.assigneeIds()) {
+                    DeadlineIndex index = deadlineIndex.get(assigneeId);
+                    if (index != null && rows <= plan.best) {
+                        rows += countUpTo(deadlineRange(index.all(), query), plan.best - rows);
+                    }
+                }
+                plan.consider(AccessPath.ASSIGNEE_DEADLINE_INDEX, rows);
+            }
+        }
+        if (query.hasDeadlineRange()) {
+            plan.consider(AccessPath.DEADLINE_INDEX, countUpTo(deadlineRange(deadlines, query), plan.best));
+        }
+        return plan;
+    }
+
+    // Ascending, distinct candidate ids after afterId for the chosen path
+    private Iterator<Long> queryCandidates(TaskQuery query, AccessPath access, Long afterId) {
+        return switch (access) {
+            case ID_LOOKUP -> {
+                TreeSet<Long> ids = new TreeSet<>();
+                for (Long id : query.ids()) {
+                    if (id != null) {
+                        ids.add(id);
+                    }
+                }
+                yield tail(ids, afterId).iterator();
+            }
+            case REFERENCE_INDEX -> {
+                NavigableSet<Long> ids = referenceIndex.get(new ReferenceKey(query.referenceId(), query.referenceType()));
+                yield ids == null ? Collections.emptyIterator() : tail(ids, afterId).iterator();
+            }
+            case STATUS_INDEX -> new MergedIds(query.statuses().stream().map(statusIndex::get), afterId);
+            case PRIORITY_INDEX -> new MergedIds(query.priorities().stream().map(priorityIndex::get), afterId);
+            case ASSIGNEE_INDEX -> new MergedIds(query.assigneeIds().stream().map(assigneeIndex::get), afterId);
+            case ASSIGNEE_DEADLINE_INDEX -> sortedIds(query.assigneeIds().stream()
+                    .map(deadlineIndex::get)
+                    .filter(Objects::nonNull)
+                    .flatMap(index -> deadlineRange(index.all(), query).stream()), afterId);
+            case DEADLINE_INDEX -> sortedIds(deadlineRange(deadlines, query).stream(), afterId);
+            default -> tail(taskIds, afterId).iterator();
+        };
+    }
+
+    // Deadline-ordered entries are collected and sorted by id; the planner only picks them when they are few
+    private static Iterator<Long> sortedIds(Stream<DeadlineKey> keys, Long afterId) {
+        long after = afterId == null ? Long.MIN_VALUE : afterId;
+        return Arrays.stream(keys.mapToLong(DeadlineKey::id).filter(id -> id > after).sorted().distinct().toArray())
+                .iterator();
+    }
+
+    private static NavigableSet<DeadlineKey> deadlineRange(NavigableSet<DeadlineKey> keys, TaskQuery query) {
+        DeadlineKey from = new DeadlineKey(query.deadlineFrom() == null ? Long.MIN_VALUE : query.deadlineFrom(), Long.MIN_VALUE);
+        DeadlineKey to = new DeadlineKey(query.deadlineTo() == null ? Long.MAX_VALUE : query.deadlineTo(), Long.MAX_VALUE);
+        return from.compareTo(to) > 0 ? Collections.emptyNavigableSet() : keys.subSet(from, true, to, true);
+    }
+
+    private static NavigableSet<Long> tail(NavigableSet<Long> ids, Long afterId) {
+        return afterId == null ? ids : ids.tailSet(afterId, false);
     }
 
+    // Counts up to cap + 1, so a large index isn't walked just to learn it loses
+    private static long countUpTo(Collection<?> entries, long cap) {
+        long count = 0;
+        Iterator<?> it = entries.iterator();
+        while (count <= cap && it.hasNext()) {
+            it.next();
+            count++;
+        }
+        return count;
+    }
+
+    private List<TaskManagement> resolve(Collection<Long> ids, Predicate<TaskManagement> stillMatches,
+                                         ScanCounter scans) {
+        List<TaskManagement> result = new ArrayList<>();
+        scans.record(resolveInto(ids, stillMatches, result), result.size());
+        return result;
+    }
 
+    // Re-checks each hit: a concurrent save may have changed the task before its index entry moved.
+    // Returns the number of index entries visited.
+    private int resolveInto(Collection<Long> ids, Predicate<TaskManagement> stillMatches, List<TaskManagement> result) {
+        if (ids == null) {
+            return 0;
+        }
+        int scanned = 0;
+        for (Long id : ids) {
+            scanned++;
+            TaskManagement task = stored(id, true);
+            if (task != null && stillMatches.test(task)) {
+                result.add(task);
+            }
+        }
+        return scanned;
+    }
+
+    private static LongAdder[] newCounters(int size) {
+        LongAdder[] counters = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    private static boolean isOpen(TaskStatus status) {
+        return status != TaskStatus.COMPLETED && status != TaskStatus.CANCELLED;
+    }
+
+    private void addToIndexes(Long id, IndexedKeys keys) {
+        referenceIndex.computeIfAbsent(keys.reference(), k -> new ConcurrentSkipListSet<>()).add(id);
+        if (keys.assigneeId() != null) {
+            assigneeIndex.computeIfAbsent(keys.assigneeId(), k -> new ConcurrentSkipListSet<>()).add(id);
+        }
+        if (keys.status() != null) {
+            statusIndex.get(keys.status()).add(id);
+            statusCounts[keys.status().ordinal()].increment();
+        }
+        if (keys.priority() != null) {
+            priorityIndex.get(keys.priority()).add(id);
+            priorityCounts[keys.priority().ordinal()].increment();
+        }
+        if (keys.deadline() != null) {
+            deadlines.add(new DeadlineKey(keys.deadline(), id));
+        }
+        if (keys.assigneeId() != null && keys.deadline() != null) {
+            DeadlineIndex index = deadlineIndex.computeIfAbsent(keys.assigneeId(), k -> new DeadlineIndex());
+            DeadlineKey key = new DeadlineKey(keys.deadline(), id);
+            index.all().add(key);
+            if (isOpen(keys.status())) {
+                index.open().add(key);
+            }
+        }
+    }
+
+    private void removeFromIndexes(Long id, IndexedKeys keys) {
+        Set<Long> byReference = referenceIndex.get(keys.reference());
+        if (byReference != null) {
+            byReference.remove(id);
+        }
+        if (keys.assigneeId() != null) {
+            Set<Long> byAssignee = assigneeIndex.get(keys.assigneeId());
+            if (byAssignee != null) {
+                byAssignee.remove(id);
+            }
+        }
+        if (keys.status() != null) {
+            statusIndex.get(keys.status()).remove(id);
+            statusCounts[keys.status().ordinal()].decrement();
+        }
+        if (keys.priority() != null) {
+            priorityIndex.get(keys.priority()).remove(id);
+            priorityCounts[keys.priority().ordinal()].decrement();
+        }
+        if (keys.deadline() != null) {
+            deadlines.remove(new DeadlineKey(keys.deadline(), id));
+        }
+        if (keys.assigneeId() != null && keys.deadline() != null) {
+            DeadlineIndex index = deadlineIndex.get(keys.assigneeId());
+            if (index != null) {
+                DeadlineKey key = new DeadlineKey(keys.deadline(), id);
+                index.all().remove(key);
+                index.open().remove(key);
+            }
+        }
+    }
+
+    private record ReferenceKey(Long referenceId, ReferenceType referenceType) {
+    }
+
+    private static final class Planner {
+        private final Map<AccessPath, Long> estimates = new EnumMap<>(AccessPath.class);
+        private AccessPath access = AccessPath.FULL_SCAN;
+        private long best;
+
+        Planner(long tasks) {
+            best = tasks;
+            estimates.put(AccessPath.FULL_SCAN, tasks);
+        }
+
+        void consider(AccessPath path, long rows) {
+            estimates.put(path, rows);
+            if (rows < best) {
+                access = path;
+                best = rows;
+            }
+        }
+    }
+
+    /** Ascending union of id sets after a given id, each id once (a task moving between sets may be in two). */
+    private static final class MergedIds implements Iterator<Long> {
+        private final PriorityQueue<Source> sources = new PriorityQueue<>(Comparator.comparingLong(Source::head));
+        private long last = Long.MIN_VALUE;
+        private Long next;
+
+        MergedIds(Stream<NavigableSet<Long>> sets, Long afterId) {
+            sets.filter(Objects::nonNull).forEach(ids -> {
+                Source source = new Source(tail(ids, afterId).iterator());
+                if (source.advance()) {
+                    sources.add(source);
+                }
+            });
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !sources.isEmpty()) {
+                Source source = sources.poll();
+                long id = source.head;
+                if (source.advance()) {
+                    sources.add(source);
+                }
+                if (id != last) {
+                    last = id;
+                    next = id;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Long next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Long id = next;
+            next = null;
+            return id;
+        }
+
+        private static final class Source {
+            private final Iterator<Long> ids;
+            private long head;
+
+            Source(Iterator<Long> ids) {
+                this.ids = ids;
+            }
+
+            long head() {
+                return head;
+            }
+
+            boolean advance() {
+                if (!ids.hasNext()) {
+                    return false;
+                }
+                head = ids.next();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Walks one assignee's daily view in (deadline, id) order: first the open tasks due before the
+     * window (spillover), then the non-cancelled tasks inside it. Entries whose task has moved on
+     * since it was indexed are skipped; the task's current entry is picked up instead.
+     */
+    private final class WindowScan {
+        private final Long assigneeId;
+        private final Iterator<DeadlineKey> spillover;
+        private final Iterator<DeadlineKey> window;
+        private DeadlineKey head;
+        private TaskManagement task;
+        private int scanned;
+
+        WindowScan(Long assigneeId, DeadlineIndex index, long start, long end, DeadlineKey after) {
+            DeadlineKey from = new DeadlineKey(start, Long.MIN_VALUE);
+            DeadlineKey to = new DeadlineKey(end, Long.MAX_VALUE);
+            this.assigneeId = assigneeId;
+            if (after == null) {
+                this.spillover = index.open().headSet(from, false).iterator();
+            } else if (after.compareTo(from) < 0) {
+                this.spillover = index.open().subSet(after, false, from, false).iterator();
+            } else {
+                this.spillover = Collections.emptyIterator();
+            }
+            boolean resumeInside = after != null && after.compareTo(from) >= 0;
+            DeadlineKey lower = resumeInside ? after : from;
+            this.window = start > end || lower.compareTo(to) > 0 ? Collections.emptyIterator()
+                    : index.all().subSet(lower, !resumeInside, to, true).iterator();
+        }
+
+        DeadlineKey head() {
+            return head;
+        }
+
+        TaskManagement task() {
+            return task;
+        }
+
+        int scanned() {
+            return scanned;
+        }
+
+        boolean advance() {
+            while (spillover.hasNext()) {
+                if (accept(spillover.next(), true)) {
+                    return true;
+                }
+            }
+            while (window.hasNext()) {
+                if (accept(window.next(), false)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean accept(DeadlineKey key, boolean spill) {
+            scanned++;
+            TaskManagement candidate = stored(key.id(), true);
+            if (candidate == null || !assigneeId.equals(candidate.getAssigneeId())
+                    || !Objects.equals(candidate.getTaskDeadlineTime(), key.deadline())) {
+                return false;
+            }
+            boolean matches = spill ? isOpen(candidate.getStatus()) : candidate.getStatus() != TaskStatus.CANCELLED;
+            if (matches) {
+                head = key;
+                task = candidate;
+            }
+            return matches;
+        }
+    }
+
+    private record DeadlineKey(long deadline, long id) implements Comparable<DeadlineKey> {
+        @Override
+        public int compareTo(DeadlineKey other) {
+            int byDeadline = Long.compare(deadline, other.deadline);
+            return byDeadline != 0 ? byDeadline : Long.compare(id, other.id);
+        }
+    }
+
+    // Per-assignee tasks ordered by (deadline, id); "open" holds only the ASSIGNED/STARTED subset
+    // so spillover lookups never walk an assignee's completed history.
+    private record DeadlineIndex(NavigableSet<DeadlineKey> all, NavigableSet<DeadlineKey> open) {
+        DeadlineIndex() {
+            this(new ConcurrentSkipListSet<>(), new ConcurrentSkipListSet<>());
+        }
+    }
+
+    private record IndexedKeys(ReferenceKey reference, Long assigneeId, TaskStatus status, Priority priority,
+                               Long deadline) {
+        static IndexedKeys of(TaskManagement task) {
+            return new IndexedKeys(new ReferenceKey(task.getReferenceId(), task.getReferenceType()),
+                    task.getAssigneeId(), task.getStatus(), task.getPriority(), task.getTaskDeadlineTime());
+        }
+    }
 }
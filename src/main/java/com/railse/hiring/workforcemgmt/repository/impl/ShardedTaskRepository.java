@@ -0,0 +1,402 @@
+package com.railse.hiring.workforcemgmt.repository.impl;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.AccessPath;
+import com.railse.hiring.workforcemgmt.repository.QueryPlan;
+import com.railse.hiring.workforcemgmt.repository.SaveResult;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskQuery;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Partitions tasks over independent {@link InMemoryTaskRepository} shards so that creates and
+ * updates on different shards share no map, index or id counter.
+ *
+ * <p>New tasks go to the shard chosen by their (referenceId, referenceType), so all tasks of one
+ * reference live together and {@link #findByReferenceIdAndReferenceType} touches a single shard.
+ * Each shard allocates ids from its own residue class ({@code (id - 1) % shards == shard}), so an id
+ * alone routes reads and updates. Queries over other keys fan out to every shard on a fork-join
+ * pool and merge the per-shard results in the order the single store would return them.
+ */
+@Repository
+@ConditionalOnProperty(name = "task-mgmt.repository.type", havingValue = "sharded")
+public class ShardedTaskRepository extends AbstractTaskRepository {
+    private static final Comparator<TaskManagement> BY_ID = Comparator.comparing(TaskManagement::getId);
+    private static final Comparator<TaskManagement> BY_DEADLINE =
+            Comparator.comparing(TaskManagement::getTaskDeadlineTime).thenComparing(TaskManagement::getId);
+
+    private final InMemoryTaskRepository[] shards;
+    private final ForkJoinPool pool;
+    // ids of tasks stored outside their reference's shard (restored, or saved with a new reference);
+    // reference lookups fan out while there are any
+    private final Map<Long, Boolean> misplaced = new ConcurrentHashMap<>();
+
+    public ShardedTaskRepository() {
+        this(new MetricsRegistry(), 0);
+    }
+
+    @Autowired
+    public ShardedTaskRepository(MetricsRegistry metrics,
+                                 @Value("${task-mgmt.repository.shards:0}") int shardCount) {
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        shards = new InMemoryTaskRepository[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new InMemoryTaskRepository(metrics, i, count);
+            shards[i].addChangeListener(this::notifyListeners);
+        }
+        pool = new ForkJoinPool(Math.min(count, Runtime.getRuntime().availableProcessors()), p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("task-shard-query-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        metrics.gauge("task_mgmt_store_shards", "Shards of the sharded task store", () -> shards.length);
+        registerStoreGauges(metrics);
+        createSeedTasks();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public Optional<TaskManagement> findById(Long id) {
+        return id == null || id < 1 ? Optional.empty() : byId(id).findById(id);
+    }
+
+    @Override
+    public OptionalLong findVersionById(Long id) {
+        return id == null || id < 1 ? OptionalLong.empty() : byId(id).findVersionById(id);
+    }
+
+    @Override
+    public TaskManagement save(TaskManagement task) {
+        if (task.getId() == null) {
+            return byReference(task).save(task);
+        }
+        InMemoryTaskRepository shard = byId(task.getId());
+        TaskManagement saved = shard.save(task);
+        trackPlacement(saved, shard);
+        return saved;
+    }
+
+    @Override
+    public List<SaveResult> saveAll(List<TaskManagement> tasks) {
+        // one batch per shard, so each shard still allocates its new ids in one go
+        List<List<Integer>> positions = new ArrayList<>(shards.length);
+        List<List<TaskManagement>> batches = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            positions.add(new ArrayList<>());
+            batches.add(new ArrayList<>());
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskManagement task = tasks.get(i);
+            int shard = task.getId() == null ? referenceShard(task) : idShard(task.getId());
+            positions.get(shard).add(i);
+            batches.get(shard).add(task);
+        }
+        SaveResult[] results = new SaveResult[tasks.size()];
+        for (int shard = 0; shard < shards.length; shard++) {
+            if (batches.get(shard).isEmpty()) {
+                continue;
+            }
+            List<SaveResult> shardResults = shards[shard].saveAll(batches.get(shard));
+            for (int i = 0; i < shardResults.size(); i++) {
+                SaveResult result = shardResults.get(i);
+                if (result.error() == null) {
+                    trackPlacement(result.task(), shards[shard]);
+                }
+                results[positions.get(shard).get(i)] = result;
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public boolean apply(TaskManagement snapshot) {
+        InMemoryTaskRepository shard = byId(snapshot.getId());
+        boolean applied = shard.apply(snapshot);
+        if (applied) {
+            trackPlacement(snapshot, shard);
+        }
+        return applied;
+    }
+
+    @Override
+    public void clear() {
+        for (InMemoryTaskRepository shard : shards) {
+            shard.clear();
+        }
+        misplaced.clear();
+    }
+
+    @Override
+    public List<TaskManagement> findAll() {
+        List<TaskManagement> all = new ArrayList<>();
+        for (List<TaskManagement> part : fanOut(InMemoryTaskRepository::findAll)) {
+            all.addAll(part);
+        }
+        return all;
+    }
+
+    @Override
+    public long count() {
+        long count = 0;
+        for (InMemoryTaskRepository shard : shards) {
+            count += shard.count();
+        }
+        return count;
+    }
+
+    @Override
+    public long countByStatus(TaskStatus status) {
+        long count = 0;
+        for (InMemoryTaskRepository shard : shards) {
+            count += shard.countByStatus(status);
+        }
+        return count;
+    }
+
+    @Override
+    public long countByPriority(Priority priority) {
+        long count = 0;
+        for (InMemoryTaskRepository shard : shards) {
+            count += shard.countByPriority(priority);
+        }
+        return count;
+    }
+
+    @Override
+    public List<TaskManagement> findAllAfter(Long afterId, int limit) {
+        return merge(fanOut(shard -> shard.findAllAfter(afterId, limit)), BY_ID, limit);
+    }
+
+    @Override
+    public List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType) {
+        if (misplaced.isEmpty()) {
+            return shards[referenceShard(referenceId, referenceType)].findByReferenceIdAndReferenceType(referenceId, referenceType);
+        }
+        return merge(fanOut(shard -> shard.findByReferenceIdAndReferenceType(referenceId, referenceType)),
+                BY_ID, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<TaskManagement> findByAssigneeIdIn(List<Long> assigneeIds) {
+        // each shard returns its tasks grouped by assignee in request order, ids ascending within a group
+        Map<Long, Integer> rank = new HashMap<>();
+        for (Long assigneeId : new LinkedHashSet<>(assigneeIds)) {
+            if (assigneeId != null) {
+                rank.put(assigneeId, rank.size());
+            }
+        }
+        Comparator<TaskManagement> order = Comparator.<TaskManagement>comparingInt(task -> rank.get(task.getAssigneeId()))
+                .thenComparing(BY_ID);
+        return merge(fanOut(shard -> shard.findByAssigneeIdIn(assigneeIds)), order, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<TaskManagement> findByAssigneeIdInAndDeadlineWindow(List<Long> assigneeIds, long start, long end,
+                                                                    Long afterDeadline, Long afterId, int limit) {
+        return merge(fanOut(shard -> shard.findByAssigneeIdInAndDeadlineWindow(assigneeIds, start, end,
+                afterDeadline, afterId, limit)), BY_DEADLINE, limit);
+    }
+
+    @Override
+    public List<TaskManagement> findByStatus(TaskStatus status) {
+        return merge(fanOut(shard -> shard.findByStatus(status)), BY_ID, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<TaskManagement> findByPriority(Priority priority) {
+        return merge(fanOut(shard -> shard.findByPriority(priority)), BY_ID, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<TaskManagement> findByPriorityAfter(Priority priority, Long afterId, int limit) {
+        return merge(fanOut(shard -> shard.findByPriorityAfter(priority, afterId, limit)), BY_ID, limit);
+    }
+
+    @Override
+    public Stream<TaskManagement> stream(TaskFilter filter) {
+        // Shard by shard through each shard's own iterator: flatMap would push a whole shard into the
+        // buffer of a consumer pulling through iterator(). A drained shard's stream is closed before
+        // the next one is opened, and closing this stream closes the one in progress.
+        ShardIterator tasks = new ShardIterator(filter);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(tasks, Spliterator.NONNULL), false)
+                .onClose(tasks::close);
+    }
+
+    @Override
+    public List<TaskManagement> query(TaskQuery query, Long afterId, int limit) {
+        if (query.hasReference() && misplaced.isEmpty()) {
+            return shards[referenceShard(query.referenceId(), query.referenceType())].query(query, afterId, limit);
+        }
+        return merge(fanOut(shard -> shard.query(query, afterId, limit)), BY_ID, limit);
+    }
+
+    @Override
+    public QueryPlan explain(TaskQuery query) {
+        if (query.hasReference() && misplaced.isEmpty()) {
+            return shards[referenceShard(query.referenceId(), query.referenceType())].explain(query);
+        }
+        List<QueryPlan> partitions = fanOut(shard -> shard.explain(query));
+        long rows = 0;
+        for (QueryPlan plan : partitions) {
+            rows += plan.estimatedRows();
+        }
+        return new QueryPlan(AccessPath.FAN_OUT, rows, List.of(), Map.of(), partitions);
+    }
+
+    // Runs the query on every shard, one of them on the calling thread; results are in shard order.
+    private <T> List<T> fanOut(Function<InMemoryTaskRepository, T> query) {
+        List<ForkJoinTask<T>> forks = new ArrayList<>(shards.length - 1);
+        for (int i = 1; i < shards.length; i++) {
+            InMemoryTaskRepository shard = shards[i];
+            forks.add(pool.submit(() -> query.apply(shard)));
+        }
+        List<T> results = new ArrayList<>(shards.length);
+        results.add(query.apply(shards[0]));
+        for (ForkJoinTask<T> fork : forks) {
+            results.add(fork.join());
+        }
+        return results;
+    }
+
+    // k-way merge of lists that are each sorted by order, stopping after limit elements
+    private static List<TaskManagement> merge(List<List<TaskManagement>> parts, Comparator<TaskManagement> order,
+                                              int limit) {
+        int total = 0;
+        List<List<TaskManagement>> nonEmpty = new ArrayList<>(parts.size());
+        for (List<TaskManagement> part : parts) {
+            if (!part.isEmpty()) {
+                nonEmpty.add(part);
+                total += part.size();
+            }
+        }
+        if (nonEmpty.size() <= 1) {
+            List<TaskManagement> only = nonEmpty.isEmpty() ? new ArrayList<>() : nonEmpty.get(0);
+            return only.size() > limit ? new ArrayList<>(only.subList(0, limit)) : only;
+        }
+        List<TaskManagement> result = new ArrayList<>(Math.min(total, limit));
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) ->
+                order.compare(nonEmpty.get(a[0]).get(a[1]), nonEmpty.get(b[0]).get(b[1])));
+        for (int i = 0; i < nonEmpty.size(); i++) {
+            heads.add(new int[]{i, 0});
+        }
+        while (result.size() < limit && !heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<TaskManagement> part = nonEmpty.get(head[0]);
+            result.add(part.get(head[1]));
+            if (++head[1] < part.size()) {
+                heads.add(head);
+            }
+        }
+        return result;
+    }
+
+    private void trackPlacement(TaskManagement task, InMemoryTaskRepository shard) {
+        if (shards[referenceShard(task)] == shard && !misplaced.containsKey(task.getId())) {
+            return;
+        }
+        // decided from the stored task under the id's entry, so racing saves leave the last one's placement
+        misplaced.compute(task.getId(), (id, flag) -> shard.findById(id)
+                .filter(stored -> shards[referenceShard(stored)] != shard)
+                .map(stored -> Boolean.TRUE)
+                .orElse(null));
+    }
+
+    private InMemoryTaskRepository byId(long id) {
+        return shards[idShard(id)];
+    }
+
+    private InMemoryTaskRepository byReference(TaskManagement task) {
+        return shards[referenceShard(task)];
+    }
+
+    private int idShard(long id) {
+        return (int) Math.floorMod(id - 1, (long) shards.length);
+    }
+
+    private int referenceShard(TaskManagement task) {
+        return referenceShard(task.getReferenceId(), task.getReferenceType());
+    }
+
+    // ordinal rather than the enum's identity hash, so placement is stable across restarts
+    private int referenceShard(Long referenceId, ReferenceType referenceType) {
+        int hash = Long.hashCode(referenceId == null ? 0 : referenceId) * 31
+                + (referenceType == null ? -1 : referenceType.ordinal());
+        hash *= 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    private final class ShardIterator implements Iterator<TaskManagement> {
+        private final TaskFilter filter;
+        private int next;
+        private Stream<TaskManagement> stream;
+        private Iterator<TaskManagement> current = Collections.emptyIterator();
+
+        ShardIterator(TaskFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && next < shards.length) {
+                close();
+                stream = shards[next++].stream(filter);
+                current = stream.iterator();
+            }
+            if (!current.hasNext()) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public TaskManagement next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        void close() {
+            if (stream != null) {
+                stream.close();
+                stream = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.railse.hiring.workforcemgmt.repository.persistence;
+
+import com.railse.hiring.workforcemgmt.repository.replication.FollowerWriteGuard;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/** Refuses task writes once the write-ahead log has failed, instead of acknowledging writes that aren't durable. */
+@Component
+@ConditionalOnProperty(name = "task-mgmt.persistence.enabled", havingValue = "true")
+public class PersistenceWriteGuard implements HandlerInterceptor, WebMvcConfigurer {
+    private final TaskPersistence persistence;
+
+    public PersistenceWriteGuard(TaskPersistence persistence) {
+        this.persistence = persistence;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/task-mgmt/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (FollowerWriteGuard.isWrite(request)) {
+            persistence.checkWritable();
+        }
+        return true;
+    }
+}
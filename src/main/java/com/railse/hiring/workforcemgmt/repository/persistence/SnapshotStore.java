@@ -0,0 +1,132 @@
+package com.railse.hiring.workforcemgmt.repository.persistence;
+
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Compacted point-in-time copies of the store, written and read through memory-mapped windows.
+ * A snapshot named {@code snapshot-<lsn>.snap} holds every task as of the moment the write-ahead
+ * log was rotated to {@code lsn}; tasks saved while it is being written may also be included, which
+ * is harmless because replay only applies newer versions.
+ *
+ * <p>Layout: {@code [magic][format][lsn]} followed by {@code [length][task]} records and a
+ * {@code -1} terminator. A snapshot is written to a temporary file and renamed when complete.
+ */
+class SnapshotStore {
+    private static final int MAGIC = 0x54534e50;
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final long WINDOW_BYTES = 64L << 20;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+
+    private final Path directory;
+
+    SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    record Snapshot(Path path, long lsn) {
+    }
+
+    Optional<Snapshot> latest() throws IOException {
+        List<Snapshot> all = list();
+        return all.isEmpty() ? Optional.empty() : Optional.of(all.get(all.size() - 1));
+    }
+
+    long write(long lsn, Iterator<TaskManagement> tasks) throws IOException {
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, lsn, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long windowStart = 0;
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_WRITE, 0, WINDOW_BYTES);
+            window.putInt(MAGIC).putInt(FORMAT).putLong(lsn);
+            ByteBuffer scratch = ByteBuffer.allocate(64 * 1024);
+            while (tasks.hasNext()) {
+                scratch = TaskCodec.encode(tasks.next(), scratch);
+                int needed = Integer.BYTES + scratch.remaining();
+                if (window.remaining() < needed + Integer.BYTES) {
+                    window.force();
+                    windowStart += window.position();
+                    window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, Math.max(WINDOW_BYTES, needed + Integer.BYTES));
+                }
+                window.putInt(scratch.remaining()).put(scratch);
+                count++;
+            }
+            window.putInt(-1);
+            window.force();
+            channel.truncate(windowStart + window.position());
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return count;
+    }
+
+    void read(Snapshot snapshot, Consumer<TaskManagement> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot.path(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long windowStart = 0;
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, WINDOW_BYTES));
+            if (window.getInt() != MAGIC || window.getInt() != FORMAT) {
+                throw new IOException("Not a task snapshot: " + snapshot.path());
+            }
+            window.getLong();
+            while (true) {
+                if (window.remaining() < Integer.BYTES) {
+                    windowStart += window.position();
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(size - windowStart, WINDOW_BYTES));
+                }
+                int length = window.getInt();
+                if (length < 0) {
+                    return;
+                }
+                if (window.remaining() < length) {
+                    windowStart += window.position();
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                            Math.min(size - windowStart, Math.max(WINDOW_BYTES, length)));
+                }
+                sink.accept(TaskCodec.read(window.slice(window.position(), length)));
+                window.position(window.position() + length);
+            }
+        }
+    }
+
+    /** Removes every snapshot older than the given one. */
+    void deleteOlderThan(long lsn) throws IOException {
+        for (Snapshot snapshot : list()) {
+            if (snapshot.lsn() < lsn) {
+                Files.deleteIfExists(snapshot.path());
+            }
+        }
+    }
+
+    private List<Snapshot> list() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .map(path -> {
+                        String name = path.getFileName().toString();
+                        return new Snapshot(path, Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+                    })
+                    .toList();
+        }
+    }
+}
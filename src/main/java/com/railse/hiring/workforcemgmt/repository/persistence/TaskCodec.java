@@ -0,0 +1,203 @@
+package com.railse.hiring.workforcemgmt.repository.persistence;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.ActivityType;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Compact binary form of a task, shared by the write-ahead log and snapshots. Enums are stored as
+ * ordinals, so constants may only ever be appended to the enums, never reordered.
+ *
+ * <p>An activity starts with {@code -2 - type ordinal} followed by its parameter; a comment entry
+ * stores the index of its comment. Older records hold the rendered text instead, which starts with a
+ * string length (at least -1) and still decodes as a plain-text entry.
+ */
+public final class TaskCodec {
+    private static final ReferenceType[] REFERENCE_TYPES = ReferenceType.values();
+    private static final Task[] TASKS = Task.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private TaskCodec() {
+    }
+
+    /**
+     * Encodes the task into {@code scratch}, or into a larger buffer if it doesn't fit, and returns
+     * the buffer flipped for reading. Callers keep the returned buffer for the next call.
+     */
+    public static ByteBuffer encode(TaskManagement task, ByteBuffer scratch) {
+        ByteBuffer out = scratch;
+        while (true) {
+            out.clear();
+            try {
+                write(task, out);
+                return out.flip();
+            } catch (BufferOverflowException e) {
+                out = out.isDirect() ? ByteBuffer.allocateDirect(out.capacity() * 2) : ByteBuffer.allocate(out.capacity() * 2);
+            }
+        }
+    }
+
+    public static void write(TaskManagement task, ByteBuffer out) {
+        out.putLong(task.getId());
+        out.putLong(task.getVersion());
+        putLong(out, task.getReferenceId());
+        putOrdinal(out, task.getReferenceType());
+        putOrdinal(out, task.getTask());
+        putString(out, task.getDescription());
+        putOrdinal(out, task.getStatus());
+        putLong(out, task.getAssigneeId());
+        putLong(out, task.getTaskDeadlineTime());
+        putOrdinal(out, task.getPriority());
+        out.putInt(task.getComments().size());
+        for (Comment comment : task.getComments()) {
+            putString(out, comment.getAuthor());
+            putString(out, comment.getMessage());
+            putLong(out, comment.getTimestamp());
+        }
+        out.putInt(task.getActivityHistory().size());
+        // comment entries follow the comments' order, so one forward walk finds every index
+        int commentIndex = 0;
+        for (Activity activity : task.getActivityHistory()) {
+            if (activity instanceof Activity.CommentAdded added) {
+                commentIndex = indexOf(task.getComments(), added.getComment(), commentIndex);
+                if (commentIndex < 0) {
+                    commentIndex = 0;
+                    out.putInt(-2 - ActivityType.TEXT.ordinal());
+                    putString(out, activity.getDescription());
+                } else {
+                    out.putInt(-2 - ActivityType.COMMENT_ADDED.ordinal());
+                    out.putInt(commentIndex);
+                }
+            } else {
+                out.putInt(-2 - activity.getType().ordinal());
+                putSubject(out, activity);
+            }
+            putLong(out, activity.getTimestamp());
+        }
+    }
+
+    private static void putSubject(ByteBuffer out, Activity activity) {
+        if (activity instanceof Activity.Text text) {
+            putString(out, text.getText());
+        } else if (activity instanceof Activity.DescriptionChanged changed) {
+            putString(out, changed.getNewDescription());
+        } else if (activity instanceof Activity.StatusChanged changed) {
+            putOrdinal(out, changed.getStatus());
+        } else if (activity instanceof Activity.PriorityChanged changed) {
+            putOrdinal(out, changed.getPriority());
+        } else if (activity instanceof Activity.Overdue overdue) {
+            putOrdinal(out, overdue.getRaisedTo());
+        } else if (activity instanceof Activity.AssignedByReference assigned) {
+            putLong(out, assigned.getAssigneeId());
+        }
+    }
+
+    private static int indexOf(List<Comment> comments, Comment comment, int from) {
+        for (int i = from; i < comments.size(); i++) {
+            if (comments.get(i) == comment) {
+                return i;
+            }
+        }
+        return from > 0 ? indexOf(comments, comment, 0) : -1;
+    }
+
+    public static TaskManagement read(ByteBuffer in) {
+        TaskManagement task = new TaskManagement();
+        task.setId(in.getLong());
+        task.setVersion(in.getLong());
+        task.setReferenceId(getLong(in));
+        task.setReferenceType(getEnum(in, REFERENCE_TYPES));
+        task.setTask(getEnum(in, TASKS));
+        task.setDescription(getString(in));
+        task.setStatus(getEnum(in, STATUSES));
+        task.setAssigneeId(getLong(in));
+        task.setTaskDeadlineTime(getLong(in));
+        task.setPriority(getEnum(in, PRIORITIES));
+        int comments = in.getInt();
+        for (int i = 0; i < comments; i++) {
+            Comment comment = new Comment();
+            comment.setAuthor(getString(in));
+            comment.setMessage(getString(in));
+            comment.setTimestamp(getLong(in));
+            task.getComments().add(comment);
+        }
+        int activities = in.getInt();
+        for (int i = 0; i < activities; i++) {
+            Activity activity = getActivity(in, task.getComments());
+            activity.setTimestamp(getLong(in));
+            task.getActivityHistory().add(activity);
+        }
+        return task;
+    }
+
+    private static Activity getActivity(ByteBuffer in, List<Comment> comments) {
+        int head = in.getInt();
+        if (head >= -1) {
+            return Activity.text(getString(in, head));
+        }
+        return switch (ACTIVITY_TYPES[-2 - head]) {
+            case TEXT -> Activity.text(getString(in));
+            case STATUS_CHANGED -> Activity.statusChanged(getEnum(in, STATUSES));
+            case DESCRIPTION_CHANGED -> Activity.descriptionChanged(getString(in));
+            case PRIORITY_CHANGED -> Activity.priorityChanged(getEnum(in, PRIORITIES));
+            case ASSIGNED_BY_REFERENCE -> Activity.assignedByReference(getLong(in));
+            case CANCELLED_BY_REASSIGNMENT -> Activity.cancelledByReassignment();
+            case COMMENT_ADDED -> Activity.commentAdded(comments.get(in.getInt()));
+            case OVERDUE -> Activity.overdue(getEnum(in, PRIORITIES));
+        };
+    }
+
+    private static void putLong(ByteBuffer out, Long value) {
+        out.putLong(value == null ? NULL_LONG : value);
+    }
+
+    private static Long getLong(ByteBuffer in) {
+        long value = in.getLong();
+        return value == NULL_LONG ? null : value;
+    }
+
+    private static void putOrdinal(ByteBuffer out, Enum<?> value) {
+        out.put(value == null ? -1 : (byte) value.ordinal());
+    }
+
+    private static <E> E getEnum(ByteBuffer in, E[] values) {
+        byte ordinal = in.get();
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putInt(bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        return getString(in, in.getInt());
+    }
+
+    private static String getString(ByteBuffer in, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,138 @@
+package com.railse.hiring.workforcemgmt.repository.persistence;
+
+import com.railse.hiring.workforcemgmt.common.exception.PersistenceUnavailableException;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Optional durability for the in-memory store (task-mgmt.persistence.enabled=true). On startup it
+ * loads the latest snapshot and replays the write-ahead log tail; afterwards every save is logged
+ * and a compacted snapshot is taken periodically, after which older log segments are dropped.
+ * If the log can no longer be written, task writes are refused until the instance is restarted.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "task-mgmt.persistence.enabled", havingValue = "true")
+public class TaskPersistence {
+    private final TaskRepository taskRepository;
+    private final Path directory;
+    private final long snapshotIntervalMs;
+    private final int queueCapacity;
+    private final int maxBatch;
+    private final long flushIntervalMs;
+    private final boolean fsync;
+    private final SnapshotStore snapshots;
+    private final ScheduledExecutorService snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-snapshotter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile WriteAheadLog writeAheadLog;
+
+    public TaskPersistence(TaskRepository taskRepository, MetricsRegistry metrics,
+                           @Value("${task-mgmt.persistence.directory:data}") String directory,
+                           @Value("${task-mgmt.persistence.snapshot-interval-ms:300000}") long snapshotIntervalMs,
+                           @Value("${task-mgmt.persistence.queue-capacity:65536}") int queueCapacity,
+                           @Value("${task-mgmt.persistence.max-batch:4096}") int maxBatch,
+                           @Value("${task-mgmt.persistence.flush-interval-ms:5}") long flushIntervalMs,
+                           @Value("${task-mgmt.persistence.fsync:true}") boolean fsync) {
+        this.taskRepository = taskRepository;
+        this.directory = Path.of(directory);
+        this.snapshotIntervalMs = snapshotIntervalMs;
+        this.queueCapacity = queueCapacity;
+        this.maxBatch = maxBatch;
+        this.flushIntervalMs = flushIntervalMs;
+        this.fsync = fsync;
+        this.snapshots = new SnapshotStore(this.directory);
+        metrics.gauge("task_mgmt_persistence_failed", "1 once the write-ahead log has stopped after a write error",
+                () -> writeAheadLog != null && writeAheadLog.failure() != null ? 1 : 0);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        long started = System.nanoTime();
+        Optional<SnapshotStore.Snapshot> latest = snapshots.latest();
+        boolean hasLog = !WriteAheadLog.segments(directory).isEmpty();
+        long nextLsn = 0;
+        if (latest.isPresent() || hasLog) {
+            // persisted state replaces the seed data
+            taskRepository.clear();
+            AtomicLong restored = new AtomicLong();
+            if (latest.isPresent()) {
+                nextLsn = latest.get().lsn();
+                snapshots.read(latest.get(), task -> {
+                    taskRepository.apply(task);
+                    restored.incrementAndGet();
+                });
+            }
+            nextLsn = WriteAheadLog.replay(directory, nextLsn, taskRepository::apply);
+            log.info("Restored {} tasks from snapshot and replayed the log up to LSN {} in {} ms", restored.get(),
+                    nextLsn, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+        writeAheadLog = new WriteAheadLog(directory, nextLsn, queueCapacity, maxBatch, flushIntervalMs, fsync);
+        taskRepository.addChangeListener(writeAheadLog);
+        if (latest.isEmpty()) {
+            snapshot();
+        }
+        snapshotter.scheduleWithFixedDelay(this::snapshotQuietly, snapshotIntervalMs, snapshotIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Throws if writes can no longer be made durable. */
+    public void checkWritable() {
+        Exception failure = writeAheadLog == null ? null : writeAheadLog.failure();
+        if (failure != null) {
+            throw new PersistenceUnavailableException("Task writes are disabled: the write-ahead log failed ("
+                    + failure.getMessage() + ")");
+        }
+    }
+
+    public synchronized void snapshot() throws IOException {
+        long started = System.nanoTime();
+        long lsn = writeAheadLog.rotate();
+        long count;
+        try (Stream<TaskManagement> tasks = taskRepository.stream(TaskFilter.all())) {
+            Iterator<TaskManagement> iterator = tasks.iterator();
+            count = snapshots.write(lsn, iterator);
+        }
+        snapshots.deleteOlderThan(lsn);
+        writeAheadLog.deleteSegmentsBefore(lsn);
+        log.info("Wrote snapshot of {} tasks at LSN {} in {} ms", count, lsn,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Periodic snapshot failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        snapshotter.shutdownNow();
+        if (writeAheadLog != null) {
+            writeAheadLog.close();
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.railse.hiring.workforcemgmt.repository.persistence;
+
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.repository.TaskChange;
+import com.railse.hiring.workforcemgmt.repository.TaskChangeListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of every committed task write, split into segments named after the first
+ * sequence number (LSN) they contain.
+ *
+ * <p>Writers only enqueue the immutable snapshot; a single writer thread drains the queue in
+ * batches, writes each batch with one channel write and fsyncs once per batch (group commit), so
+ * request threads never wait on the disk. A record is {@code [payload length][lsn][crc32][payload]};
+ * replay stops at the first torn or corrupt record of a segment.
+ *
+ * <p>A failed write stops the log for good: nothing is appended after the lost records (replay
+ * must not step over a gap into a state that never existed), pending rotations fail and every
+ * later append is refused.
+ */
+@Slf4j
+class WriteAheadLog implements TaskChangeListener, Closeable {
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    // segments are memory-mapped for replay, so keep them well under the 2 GB mapping limit
+    private static final long MAX_SEGMENT_BYTES = 256L << 20;
+
+    private final Path directory;
+    private final BlockingQueue<Object> queue;
+    private final int maxBatch;
+    private final long flushIntervalMs;
+    private final boolean fsync;
+    private final CRC32 crc = new CRC32();
+    private final Thread writer;
+
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+    private FileChannel segment;
+    private long nextLsn;
+    private volatile boolean running = true;
+    private volatile Exception failure;
+
+    private record Rotate(CompletableFuture<Long> done) {
+    }
+
+    WriteAheadLog(Path directory, long nextLsn, int queueCapacity, int maxBatch, long flushIntervalMs, boolean fsync) {
+        this.directory = directory;
+        this.nextLsn = nextLsn;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.flushIntervalMs = flushIntervalMs;
+        this.fsync = fsync;
+        this.segment = openSegment(nextLsn);
+        this.writer = new Thread(this::run, "task-wal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void onChanges(List<TaskChange> changes) {
+        if (changes.size() == 1) {
+            if (changes.get(0).after() != null) {
+                enqueue(changes.get(0).after());
+            }
+            return;
+        }
+        // a batch goes through the queue as one item and lands in one write
+        List<TaskManagement> batch = new ArrayList<>(changes.size());
+        for (TaskChange change : changes) {
+            if (change.after() != null) {
+                batch.add(change.after());
+            }
+        }
+        enqueue(batch);
+    }
+
+    /** The write error that stopped the log, or null while it is healthy. */
+    Exception failure() {
+        return failure;
+    }
+
+    /**
+     * Starts a new segment and returns its first LSN once every earlier record is on disk. All
+     * records below that LSN are in older segments.
+     */
+    long rotate() {
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        enqueue(new Rotate(done));
+        try {
+            return done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rotating the write-ahead log", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to rotate the write-ahead log", e.getCause());
+        }
+    }
+
+    /** Deletes segments whose records all precede {@code lsn}, i.e. are covered by a snapshot. */
+    void deleteSegmentsBefore(long lsn) throws IOException {
+        for (Path path : segments(directory)) {
+            if (segmentLsn(path) < lsn) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(Object item) {
+        checkHealthy();
+        try {
+            // blocks only when the writer is a full queue behind, as back-pressure on writers
+            while (!queue.offer(item, flushIntervalMs, TimeUnit.MILLISECONDS)) {
+                checkHealthy();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while appending to the write-ahead log", e);
+        }
+        if (failure != null) {
+            // the writer may have drained the queue before this item got in
+            failPending(new ArrayList<>());
+            checkHealthy();
+        }
+    }
+
+    private void checkHealthy() {
+        if (failure != null) {
+            throw new IllegalStateException("Write-ahead log stopped after a write failure", failure);
+        }
+    }
+
+    private void run() {
+        List<Object> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Object first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.error("Write-ahead log batch of {} records failed; refusing further writes", batch.size(), e);
+                failure = e;
+                failPending(batch);
+                closeQuietly();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+        try {
+            segment.force(false);
+        } catch (IOException e) {
+            log.error("Failed to sync write-ahead log segment", e);
+        }
+        closeQuietly();
+    }
+
+    // Fails the rotations in the batch or still queued; set failure first so none can be missed
+    private void failPending(List<Object> batch) {
+        queue.drainTo(batch);
+        for (Object item : batch) {
+            if (item instanceof Rotate rotate) {
+                rotate.done().completeExceptionally(failure);
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.error("Failed to close write-ahead log segment", e);
+        }
+    }
+
+    private void writeBatch(List<Object> batch) throws IOException {
+        for (Object item : batch) {
+            if (item instanceof TaskManagement task) {
+                append(task);
+            } else if (item instanceof List<?> tasks) {
+                for (Object task : tasks) {
+                    append((TaskManagement) task);
+                }
+            } else if (item instanceof Rotate rotate) {
+                startNewSegment();
+                rotate.done().complete(nextLsn);
+            }
+        }
+        flush();
+        if (fsync) {
+            segment.force(false);
+        }
+        if (segment.size() >= MAX_SEGMENT_BYTES) {
+            startNewSegment();
+        }
+    }
+
+    private void startNewSegment() throws IOException {
+        flush();
+        segment.force(false);
+        segment.close();
+        segment = openSegment(nextLsn);
+    }
+
+    private void append(TaskManagement task) throws IOException {
+        while (true) {
+            int start = buffer.position();
+            try {
+                buffer.position(start + HEADER_BYTES);
+                TaskCodec.write(task, buffer);
+                int end = buffer.position();
+                int length = end - start - HEADER_BYTES;
+                crc.reset();
+                crc.update(buffer.duplicate().position(start + HEADER_BYTES).limit(end));
+                buffer.putInt(start, length);
+                buffer.putLong(start + Integer.BYTES, nextLsn++);
+                buffer.putInt(start + Integer.BYTES + Long.BYTES, (int) crc.getValue());
+                return;
+            } catch (BufferOverflowException | IllegalArgumentException e) {
+                buffer.position(start);
+                if (start == 0) {
+                    buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                } else {
+                    flush();
+                }
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // A segment can only already exist under this name if none of its records survived replay,
+    // so any leftover bytes (a torn tail) are discarded.
+    private FileChannel openSegment(long firstLsn) {
+        try {
+            return FileChannel.open(directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX)),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open write-ahead log segment in " + directory, e);
+        }
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long segmentLsn(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Replays records with an LSN at or above {@code fromLsn}, oldest first, and returns the LSN the
+     * next record should get. A torn or corrupt record ends its segment; replay continues only into a
+     * segment that starts exactly at the next expected LSN (the one the log opened after recovering),
+     * and stops for good at the first segment that would leave a gap.
+     */
+    static long replay(Path directory, long fromLsn, Consumer<TaskManagement> sink) throws IOException {
+        long nextLsn = fromLsn;
+        boolean intact = true;
+        CRC32 crc = new CRC32();
+        for (Path path : segments(directory)) {
+            long firstLsn = segmentLsn(path);
+            if (firstLsn > nextLsn || (!intact && firstLsn != nextLsn)) {
+                log.warn("Segment {} starts at LSN {} but replay expected {}, ignoring it and every later segment",
+                        path, firstLsn, nextLsn);
+                break;
+            }
+            intact = true;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                while (data.remaining() >= HEADER_BYTES) {
+                    int start = data.position();
+                    int length = data.getInt();
+                    long lsn = data.getLong();
+                    int checksum = data.getInt();
+                    if (length < 0 || length > data.remaining()) {
+                        log.warn("Torn record at offset {} of {}, ignoring the rest of the segment", start, path);
+                        intact = false;
+                        break;
+                    }
+                    ByteBuffer payload = data.slice(data.position(), length);
+                    crc.reset();
+                    crc.update(payload.duplicate());
+                    if ((int) crc.getValue() != checksum) {
+                        log.warn("Checksum mismatch at offset {} of {}, ignoring the rest of the segment", start, path);
+                        intact = false;
+                        break;
+                    }
+                    data.position(data.position() + length);
+                    if (lsn >= fromLsn) {
+                        try {
+                            sink.accept(TaskCodec.read(payload));
+                        } catch (BufferUnderflowException e) {
+                            log.warn("Undecodable record {} in {}, skipping it", lsn, path);
+                        }
+                    }
+                    nextLsn = Math.max(nextLsn, lsn + 1);
+                }
+            }
+        }
+        return nextLsn;
+    }
+}
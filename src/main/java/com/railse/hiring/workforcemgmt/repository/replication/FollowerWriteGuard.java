@@ -0,0 +1,49 @@
+package com.railse.hiring.workforcemgmt.repository.replication;
+
+import com.railse.hiring.workforcemgmt.common.exception.ReadOnlyReplicaException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Set;
+
+/** Refuses task writes on a follower; they have to go to the primary. */
+@Component
+@ConditionalOnProperty(name = "task-mgmt.replication.role", havingValue = "follower")
+public class FollowerWriteGuard implements HandlerInterceptor, WebMvcConfigurer {
+    // POST endpoints that only read
+    private static final Set<String> READ_ONLY_POSTS = Set.of("/task-mgmt/fetch-by-date/v2", "/task-mgmt/query",
+            "/task-mgmt/query/explain");
+
+    private final String primary;
+
+    public FollowerWriteGuard(@Value("${task-mgmt.replication.primary:localhost:7070}") String primary) {
+        this.primary = primary;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/task-mgmt/**");
+    }
+
+    /** Whether the request may change tasks (anything but a GET or a read-only POST). */
+    public static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !(method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS")
+                || READ_ONLY_POSTS.contains(request.getRequestURI()));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!isWrite(request)) {
+            return true;
+        }
+        throw new ReadOnlyReplicaException("This instance is a read-only follower of " + primary
+                + "; send writes to the primary");
+    }
+}
@@ -0,0 +1,191 @@
+package com.railse.hiring.workforcemgmt.repository.replication;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.dto.ReplicationStatusDto;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.repository.persistence.TaskCodec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Follower side of replication (task-mgmt.replication.role=follower). Connects to the primary,
+ * applies the streamed tasks to the local store with {@link TaskRepository#apply} and reconnects
+ * after a failure. Local writes are refused by {@link FollowerWriteGuard}, so the store only ever
+ * changes through the stream and every listener (read cache, change feed, aggregates) stays in step.
+ *
+ * <p>The local store is cleared before copying from a primary it hasn't seen before (the first
+ * connection, or the primary restarted); after a reconnect to the same primary run the copy is
+ * applied over the existing tasks, which only moves each of them forward.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "task-mgmt.replication.role", havingValue = "follower")
+public class ReplicationFollower implements ReplicationNode {
+    private static final int SOCKET_BUFFER_BYTES = 1 << 16;
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+
+    private final TaskRepository taskRepository;
+    private final String host;
+    private final int port;
+    private final long heartbeatMs;
+    private final long reconnectMs;
+    private final LongAdder applied;
+    private final Thread receiver;
+    private volatile boolean running = true;
+    private volatile Socket socket;
+
+    // written only by the receiver thread
+    private volatile boolean connected;
+    private volatile boolean synced;
+    private volatile Long epoch;
+    private volatile long appliedLsn;
+    private volatile long headLsn;
+    private volatile long lastTimestamp;
+
+    public ReplicationFollower(TaskRepository taskRepository, MetricsRegistry metrics,
+                               @Value("${task-mgmt.replication.primary:localhost:7070}") String primary,
+                               @Value("${task-mgmt.replication.heartbeat-ms:1000}") long heartbeatMs,
+                               @Value("${task-mgmt.replication.reconnect-ms:1000}") long reconnectMs) {
+        this.taskRepository = taskRepository;
+        int colon = primary.lastIndexOf(':');
+        this.host = colon < 0 ? primary : primary.substring(0, colon);
+        this.port = colon < 0 ? 7070 : Integer.parseInt(primary.substring(colon + 1));
+        this.heartbeatMs = heartbeatMs;
+        this.reconnectMs = reconnectMs;
+        this.applied = metrics.counter("task_mgmt_replication_applied_total", "Replicated task writes applied");
+        metrics.gauge("task_mgmt_replication_lag_records", "Primary writes not yet applied here", this::lagRecords);
+        metrics.gauge("task_mgmt_replication_lag_ms", "Age of the newest applied primary write while behind", this::lagMs);
+        metrics.gauge("task_mgmt_replication_connected", "1 while connected to the primary", () -> connected ? 1 : 0);
+        this.receiver = new Thread(this::run, "task-replication-follower");
+        this.receiver.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        receiver.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        closeSocket();
+        receiver.interrupt();
+    }
+
+    @Override
+    public ReplicationStatusDto status() {
+        ReplicationStatusDto status = new ReplicationStatusDto();
+        status.setRole("follower");
+        status.setPrimaryAddress(host + ":" + port);
+        status.setConnected(connected);
+        status.setSynced(synced);
+        status.setAppliedLsn(appliedLsn);
+        status.setPrimaryLsn(headLsn);
+        status.setLagRecords(lagRecords());
+        status.setLagMs(lagMs());
+        return status;
+    }
+
+    private long lagRecords() {
+        return Math.max(0, headLsn - appliedLsn);
+    }
+
+    private long lagMs() {
+        if (connected && synced && appliedLsn >= headLsn) {
+            return 0;
+        }
+        return lastTimestamp == 0 ? 0 : Math.max(0, System.currentTimeMillis() - lastTimestamp);
+    }
+
+    private void run() {
+        boolean warned = false;
+        while (running) {
+            try (Socket connection = new Socket()) {
+                socket = connection;
+                connection.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+                // the primary sends at least a heartbeat per interval, so silence means a dead link
+                connection.setSoTimeout((int) Math.max(3 * heartbeatMs, 1000));
+                connected = true;
+                warned = false;
+                receive(new DataInputStream(new BufferedInputStream(connection.getInputStream(), SOCKET_BUFFER_BYTES)));
+            } catch (IOException | RuntimeException e) {
+                // one warning per outage, not one per reconnect attempt
+                if (running && !warned) {
+                    log.warn("Replication from {}:{} interrupted ({}), reconnecting", host, port, e.getMessage());
+                    warned = true;
+                } else {
+                    log.debug("Reconnect to {}:{} failed: {}", host, port, e.getMessage());
+                }
+            } finally {
+                connected = false;
+                synced = false;
+            }
+            if (running) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(reconnectMs));
+            }
+        }
+    }
+
+    private void receive(DataInputStream in) throws IOException {
+        byte[] payload = new byte[4096];
+        while (running) {
+            ReplicationProtocol.Header header = ReplicationProtocol.Header.read(in);
+            if (header.payloadLength() > payload.length) {
+                payload = new byte[Math.max(header.payloadLength(), payload.length * 2)];
+            }
+            in.readFully(payload, 0, header.payloadLength());
+            switch (header.type()) {
+                case ReplicationProtocol.HELLO -> {
+                    long primaryEpoch = ByteBuffer.wrap(payload, 0, Long.BYTES).getLong();
+                    if (epoch == null || epoch != primaryEpoch) {
+                        // a copy from another primary run may hold ids that run reused for other tasks
+                        taskRepository.clear();
+                        epoch = primaryEpoch;
+                        appliedLsn = 0;
+                    }
+                    log.info("Connected to replication primary {}:{}, copying its tasks", host, port);
+                }
+                case ReplicationProtocol.TASK -> {
+                    taskRepository.apply(TaskCodec.read(ByteBuffer.wrap(payload, 0, header.payloadLength())));
+                    applied.increment();
+                }
+                case ReplicationProtocol.SNAPSHOT_END -> {
+                    synced = true;
+                    log.info("Caught up with replication primary {}:{} at LSN {}", host, port, header.lsn());
+                }
+                case ReplicationProtocol.HEARTBEAT -> {
+                }
+                default -> throw new IOException("Unknown replication frame type " + header.type());
+            }
+            // copied tasks all carry the LSN the copy started at; live writes carry their own
+            appliedLsn = Math.max(appliedLsn, header.lsn());
+            headLsn = header.headLsn();
+            lastTimestamp = header.timestamp();
+        }
+    }
+
+    private void closeSocket() {
+        Socket current = socket;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                log.debug("Failed to close replication socket", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.railse.hiring.workforcemgmt.repository.replication;
+
+import com.railse.hiring.workforcemgmt.dto.ReplicationStatusDto;
+
+/** The primary or follower side of replication, whichever this instance runs. */
+public interface ReplicationNode {
+    ReplicationStatusDto status();
+}
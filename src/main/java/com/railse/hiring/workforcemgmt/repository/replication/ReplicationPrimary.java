@@ -0,0 +1,246 @@
+package com.railse.hiring.workforcemgmt.repository.replication;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.dto.ReplicationStatusDto;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.repository.TaskChange;
+import com.railse.hiring.workforcemgmt.repository.TaskChangeListener;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Primary side of replication (task-mgmt.replication.role=primary). Every committed write gets the
+ * next position in the mutation log and is queued for each connected follower; writers only offer
+ * the immutable snapshot to the queues and never wait for the network. Each follower has its own
+ * sender thread, which first copies the current tasks and then streams the queued writes.
+ *
+ * <p>A follower whose queue overflows is disconnected; it reconnects and copies the tasks again.
+ * Writes to one task may be queued out of version order, which is harmless because followers apply
+ * them with {@link TaskRepository#apply}, keeping the newest version.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "task-mgmt.replication.role", havingValue = "primary")
+public class ReplicationPrimary implements TaskChangeListener, ReplicationNode {
+    private static final int MAX_BATCH = 1024;
+    private static final int SOCKET_BUFFER_BYTES = 1 << 16;
+
+    private final TaskRepository taskRepository;
+    private final int port;
+    private final int queueCapacity;
+    private final long heartbeatMs;
+    // identifies this run of the primary, so followers know when their copy is from an earlier one
+    private final long epoch = ThreadLocalRandom.current().nextLong();
+    private final AtomicLong lsn = new AtomicLong();
+    private final List<FollowerLink> links = new CopyOnWriteArrayList<>();
+    private final LongAdder dropped;
+    private ServerSocket serverSocket;
+    private volatile boolean running = true;
+
+    private record Entry(long lsn, long timestamp, TaskManagement task) {
+    }
+
+    public ReplicationPrimary(TaskRepository taskRepository, MetricsRegistry metrics,
+                              @Value("${task-mgmt.replication.port:7070}") int port,
+                              @Value("${task-mgmt.replication.queue-capacity:65536}") int queueCapacity,
+                              @Value("${task-mgmt.replication.heartbeat-ms:1000}") long heartbeatMs) {
+        this.taskRepository = taskRepository;
+        this.port = port;
+        this.queueCapacity = queueCapacity;
+        this.heartbeatMs = heartbeatMs;
+        this.dropped = metrics.counter("task_mgmt_replication_followers_dropped_total",
+                "Followers disconnected for falling too far behind");
+        metrics.gauge("task_mgmt_replication_followers", "Connected followers", links::size);
+        metrics.gauge("task_mgmt_replication_lsn", "Last mutation log position issued", lsn::get);
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            serverSocket = new ServerSocket();
+            serverSocket.bind(new InetSocketAddress(port));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot listen for replication followers on port " + port, e);
+        }
+        taskRepository.addChangeListener(this);
+        Thread acceptor = new Thread(this::accept, "task-replication-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Replication primary listening on port {}", port);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the replication listener", e);
+        }
+        for (FollowerLink link : links) {
+            link.close();
+        }
+    }
+
+    @Override
+    public void onChanges(List<TaskChange> changes) {
+        long timestamp = System.currentTimeMillis();
+        for (TaskChange change : changes) {
+            // removals only come from clear() during a restore, which never runs while followers are attached
+            if (change.after() == null) {
+                continue;
+            }
+            Entry entry = new Entry(lsn.incrementAndGet(), timestamp, change.after());
+            for (FollowerLink link : links) {
+                link.offer(entry);
+            }
+        }
+    }
+
+    @Override
+    public ReplicationStatusDto status() {
+        ReplicationStatusDto status = new ReplicationStatusDto();
+        status.setRole("primary");
+        status.setPrimaryLsn(lsn.get());
+        List<ReplicationStatusDto.FollowerLinkDto> followers = new ArrayList<>(links.size());
+        for (FollowerLink link : links) {
+            ReplicationStatusDto.FollowerLinkDto follower = new ReplicationStatusDto.FollowerLinkDto();
+            follower.setAddress(link.address);
+            follower.setSynced(link.synced);
+            follower.setSentLsn(link.sentLsn);
+            follower.setBacklog(link.queue.size());
+            followers.add(follower);
+        }
+        status.setFollowers(followers);
+        return status;
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                FollowerLink link = new FollowerLink(socket);
+                // registered before the copy starts, so no write committed after it can be missed
+                links.add(link);
+                Thread sender = new Thread(link::run, "task-replication-sender-" + socket.getPort());
+                sender.setDaemon(true);
+                sender.start();
+                log.info("Follower {} connected", link.address);
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Failed to accept a replication follower", e);
+                }
+            }
+        }
+    }
+
+    private final class FollowerLink {
+        final Socket socket;
+        final String address;
+        final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(queueCapacity);
+        volatile boolean synced;
+        volatile long sentLsn;
+        volatile boolean overflowed;
+
+        FollowerLink(Socket socket) {
+            this.socket = socket;
+            this.address = socket.getRemoteSocketAddress().toString();
+        }
+
+        void offer(Entry entry) {
+            if (!queue.offer(entry) && !overflowed) {
+                overflowed = true;
+                dropped.increment();
+                log.warn("Follower {} is more than {} writes behind, disconnecting it", address, queueCapacity);
+                close();
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                log.debug("Failed to close follower socket {}", address, e);
+            }
+        }
+
+        void run() {
+            ByteBuffer scratch = ByteBuffer.allocate(4096);
+            List<Entry> batch = new ArrayList<>(MAX_BATCH);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(),
+                    SOCKET_BUFFER_BYTES))) {
+                long startLsn = lsn.get();
+                long now = System.currentTimeMillis();
+                ReplicationProtocol.writeHeader(out, ReplicationProtocol.HELLO, startLsn, startLsn, now, Long.BYTES);
+                out.writeLong(epoch);
+                long copied = 0;
+                try (Stream<TaskManagement> tasks = taskRepository.stream(TaskFilter.all())) {
+                    Iterator<TaskManagement> iterator = tasks.iterator();
+                    while (iterator.hasNext() && !overflowed) {
+                        scratch = ReplicationProtocol.writeTask(out, iterator.next(), startLsn, lsn.get(), now, scratch);
+                        copied++;
+                    }
+                }
+                ReplicationProtocol.writeHeader(out, ReplicationProtocol.SNAPSHOT_END, startLsn, lsn.get(),
+                        System.currentTimeMillis(), 0);
+                out.flush();
+                sentLsn = startLsn;
+                synced = true;
+                log.info("Sent {} tasks to follower {}, streaming from LSN {}", copied, address, startLsn);
+                while (running && !overflowed) {
+                    Entry first = queue.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        ReplicationProtocol.writeHeader(out, ReplicationProtocol.HEARTBEAT, sentLsn, lsn.get(),
+                                System.currentTimeMillis(), 0);
+                    } else {
+                        batch.add(first);
+                        queue.drainTo(batch, MAX_BATCH - 1);
+                        for (Entry entry : batch) {
+                            scratch = ReplicationProtocol.writeTask(out, entry.task(), entry.lsn(), lsn.get(),
+                                    entry.timestamp(), scratch);
+                            sentLsn = Math.max(sentLsn, entry.lsn());
+                        }
+                        batch.clear();
+                    }
+                    out.flush();
+                }
+            } catch (IOException e) {
+                if (running && !overflowed) {
+                    log.info("Follower {} disconnected: {}", address, e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                links.remove(this);
+                close();
+            }
+        }
+    }
+}
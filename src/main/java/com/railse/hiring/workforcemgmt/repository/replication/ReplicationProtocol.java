@@ -0,0 +1,54 @@
+package com.railse.hiring.workforcemgmt.repository.replication;
+
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.repository.persistence.TaskCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Frames sent from the primary to a follower:
+ * {@code [type][lsn][head lsn][primary time ms][payload length][payload]}. {@code lsn} is the
+ * position of the frame in the primary's mutation log, {@code head lsn} the last position the
+ * primary had issued when it sent the frame. The stream is one-way; followers never reply.
+ *
+ * <p>A connection starts with {@link #HELLO} (payload: the primary's epoch, new on every start),
+ * then the primary's current tasks as {@link #TASK} frames, {@link #SNAPSHOT_END}, and from then on
+ * one {@link #TASK} per committed write plus a {@link #HEARTBEAT} whenever the link is idle.
+ */
+final class ReplicationProtocol {
+    static final byte HELLO = 1;
+    static final byte TASK = 2;
+    static final byte SNAPSHOT_END = 3;
+    static final byte HEARTBEAT = 4;
+
+    private ReplicationProtocol() {
+    }
+
+    static void writeHeader(DataOutputStream out, byte type, long lsn, long headLsn, long timestamp, int payloadLength)
+            throws IOException {
+        out.writeByte(type);
+        out.writeLong(lsn);
+        out.writeLong(headLsn);
+        out.writeLong(timestamp);
+        out.writeInt(payloadLength);
+    }
+
+    /** Writes a task frame, encoding through {@code scratch}; returns the buffer to reuse for the next one. */
+    static ByteBuffer writeTask(DataOutputStream out, TaskManagement task, long lsn, long headLsn, long timestamp,
+                                ByteBuffer scratch) throws IOException {
+        ByteBuffer encoded = TaskCodec.encode(task, scratch);
+        writeHeader(out, TASK, lsn, headLsn, timestamp, encoded.remaining());
+        out.write(encoded.array(), encoded.arrayOffset(), encoded.remaining());
+        return encoded;
+    }
+
+    /** A decoded frame header; the payload follows on the stream. */
+    record Header(byte type, long lsn, long headLsn, long timestamp, int payloadLength) {
+        static Header read(DataInputStream in) throws IOException {
+            return new Header(in.readByte(), in.readLong(), in.readLong(), in.readLong(), in.readInt());
+        }
+    }
+}
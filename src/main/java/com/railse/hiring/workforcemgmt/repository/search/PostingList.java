@@ -0,0 +1,138 @@
+package com.railse.hiring.workforcemgmt.repository.search;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sorted task ids for one term, stored as varint-encoded gaps (a task id close to the previous
+ * one takes a byte or two instead of a boxed Long in a set).
+ *
+ * <p>An id above every packed id is appended in place, which covers new tasks. Other changes wait
+ * in a small sorted overlay of pending adds and removes that is merged into a freshly packed array
+ * once it grows past a fraction of the list, so updates cost amortized O(1) without rebuilding on
+ * every write.
+ */
+final class PostingList {
+    private static final byte[] EMPTY = {};
+    private static final int MIN_PENDING = 16;
+
+    private byte[] packed = EMPTY;
+    private int packedBytes;
+    private int packedCount;
+    private long lastPacked;
+    // id -> true for a pending add, false for a pending remove
+    private final TreeMap<Long, Boolean> pending = new TreeMap<>();
+    // set once the list is empty and unlinked from the term dictionary; writers then start a new one
+    private boolean retired;
+
+    synchronized boolean add(long id) {
+        if (retired) {
+            return false;
+        }
+        if (pending.isEmpty() && id > lastPacked) {
+            append(id);
+        } else {
+            pending.put(id, true);
+            compactIfNeeded();
+        }
+        return true;
+    }
+
+    /** Removes the id; returns true if the list is now empty and was retired. */
+    synchronized boolean remove(long id) {
+        if (retired) {
+            return false;
+        }
+        pending.put(id, false);
+        if (pending.size() >= packedCount) {
+            // the removes may cover every packed id; with this few ids, packing them settles it
+            compact();
+        } else {
+            compactIfNeeded();
+        }
+        if (packedCount == 0 && pending.isEmpty()) {
+            retired = true;
+        }
+        return retired;
+    }
+
+    /** The current ids in ascending order. */
+    synchronized long[] ids() {
+        long[] ids = new long[packedCount + pending.size()];
+        int size = 0;
+        Iterator<Map.Entry<Long, Boolean>> overlay = pending.entrySet().iterator();
+        Map.Entry<Long, Boolean> next = overlay.hasNext() ? overlay.next() : null;
+        int position = 0;
+        long id = 0;
+        for (int i = 0; i < packedCount; i++) {
+            long gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = packed[position++];
+                gap |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            id += gap;
+            while (next != null && next.getKey() < id) {
+                if (next.getValue()) {
+                    ids[size++] = next.getKey();
+                }
+                next = overlay.hasNext() ? overlay.next() : null;
+            }
+            if (next != null && next.getKey() == id) {
+                if (next.getValue()) {
+                    ids[size++] = id;
+                }
+                next = overlay.hasNext() ? overlay.next() : null;
+            } else {
+                ids[size++] = id;
+            }
+        }
+        while (next != null) {
+            if (next.getValue()) {
+                ids[size++] = next.getKey();
+            }
+            next = overlay.hasNext() ? overlay.next() : null;
+        }
+        return size == ids.length ? ids : Arrays.copyOf(ids, size);
+    }
+
+    private void compactIfNeeded() {
+        if (pending.size() > MIN_PENDING + packedCount / 8) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        long[] ids = ids();
+        pending.clear();
+        packed = new byte[Math.max(16, ids.length * 2)];
+        packedBytes = 0;
+        packedCount = 0;
+        lastPacked = 0;
+        for (long id : ids) {
+            append(id);
+        }
+    }
+
+    private void append(long id) {
+        if (packedBytes + 10 > packed.length) {
+            packed = Arrays.copyOf(packed, Math.max(16, packed.length * 3 / 2 + 10));
+        }
+        long gap = id - lastPacked;
+        while ((gap & ~0x7FL) != 0) {
+            packed[packedBytes++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        packed[packedBytes++] = (byte) gap;
+        packedCount++;
+        lastPacked = id;
+    }
+
+    synchronized int sizeInBytes() {
+        return packed.length;
+    }
+}
@@ -0,0 +1,193 @@
+package com.railse.hiring.workforcemgmt.repository.search;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.repository.TaskChange;
+import com.railse.hiring.workforcemgmt.repository.TaskChangeListener;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Inverted index from the terms of task descriptions and comments to task ids, maintained from the
+ * repository's committed writes. A query is answered from the posting lists (intersections for
+ * AND, unions for OR and prefixes) without scanning tasks.
+ *
+ * <p>Each change is applied under its task's entry in {@code indexedVersions}, diffing the terms of
+ * {@code before} and {@code after}; a new comment only adds its own terms. A change older than
+ * what is already indexed is dropped. When racing writes arrive with a gap (the change that
+ * produced {@code before} is still in flight) all of {@code after}'s terms are added, so the index
+ * may keep a stale id but never misses a match; callers check candidates against the task itself.
+ */
+@Component
+public class TaskTextIndex implements TaskChangeListener {
+    private final ConcurrentSkipListMap<String, PostingList> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Long> indexedVersions = new ConcurrentHashMap<>();
+    private final AtomicLong termCount = new AtomicLong();
+
+    public TaskTextIndex(TaskRepository taskRepository, MetricsRegistry metrics) {
+        // registered first so no write can fall between the scan and the listener; a task the scan
+        // reaches after a change was indexed is dropped by the version check in onChanges
+        taskRepository.addChangeListener(this);
+        try (Stream<TaskManagement> tasks = taskRepository.stream(TaskFilter.all())) {
+            tasks.forEach(task -> onChanges(List.of(new TaskChange(null, task))));
+        }
+        metrics.gauge("task_mgmt_search_terms", "Distinct terms in the task text index", termCount::get);
+        metrics.gauge("task_mgmt_search_indexed_tasks", "Tasks in the task text index", () -> indexedVersions.size());
+    }
+
+    /** The terms a task is indexed under, for checking a candidate with {@link TextQuery#matches}. */
+    public static Set<String> termsOf(TaskManagement task) {
+        return TextTokenizer.terms(task);
+    }
+
+    @Override
+    public void onChanges(List<TaskChange> changes) {
+        for (TaskChange change : changes) {
+            TaskManagement before = change.before();
+            TaskManagement after = change.after();
+            indexedVersions.compute(change.taskId(), (id, indexed) -> {
+                if (after == null) {
+                    if (indexed != null && before != null) {
+                        TextTokenizer.terms(before).forEach(term -> remove(term, id));
+                    }
+                    return null;
+                }
+                if (indexed != null && after.getVersion() <= indexed) {
+                    return indexed;
+                }
+                if (indexed == null || before == null || before.getVersion() != indexed) {
+                    TextTokenizer.terms(after).forEach(term -> add(term, id));
+                } else if (Objects.equals(before.getDescription(), after.getDescription())
+                        && after.getComments().size() >= before.getComments().size()) {
+                    // comments are append-only, so only the new ones can add terms
+                    TextTokenizer.terms(after.getComments().subList(before.getComments().size(),
+                            after.getComments().size())).forEach(term -> add(term, id));
+                } else {
+                    Set<String> removed = TextTokenizer.terms(before);
+                    Set<String> current = TextTokenizer.terms(after);
+                    for (String term : current) {
+                        if (!removed.remove(term)) {
+                            add(term, id);
+                        }
+                    }
+                    removed.forEach(term -> remove(term, id));
+                }
+                return after.getVersion();
+            });
+        }
+    }
+
+    /**
+     * Ids above {@code afterId} (all if null) of tasks that may match the query, ascending. May
+     * include tasks that no longer match; check them with {@link TextQuery#matches}.
+     */
+    public long[] candidates(TextQuery query, Long afterId) {
+        List<long[]> groups = new ArrayList<>();
+        for (List<List<TextQuery.Term>> group : query.groups()) {
+            List<long[]> alternatives = new ArrayList<>(group.size());
+            for (List<TextQuery.Term> alternative : group) {
+                List<long[]> terms = new ArrayList<>(alternative.size());
+                for (TextQuery.Term term : alternative) {
+                    terms.add(ids(term));
+                }
+                alternatives.add(intersect(terms));
+            }
+            long[] ids = union(alternatives);
+            if (ids.length == 0) {
+                return ids;
+            }
+            groups.add(ids);
+        }
+        long[] ids = intersect(groups);
+        if (afterId == null) {
+            return ids;
+        }
+        int from = Arrays.binarySearch(ids, afterId);
+        from = from >= 0 ? from + 1 : -from - 1;
+        return Arrays.copyOfRange(ids, from, ids.length);
+    }
+
+    private long[] ids(TextQuery.Term term) {
+        if (!term.prefix()) {
+            PostingList list = postings.get(term.text());
+            return list == null ? new long[0] : list.ids();
+        }
+        List<long[]> lists = new ArrayList<>();
+        for (PostingList list : postings.subMap(term.text(), term.text() + Character.MAX_VALUE).values()) {
+            lists.add(list.ids());
+        }
+        return union(lists);
+    }
+
+    private void add(String term, long id) {
+        while (true) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                PostingList created = new PostingList();
+                list = postings.putIfAbsent(term, created);
+                if (list == null) {
+                    list = created;
+                    termCount.incrementAndGet();
+                }
+            }
+            if (list.add(id)) {
+                return;
+            }
+            // retired while we looked it up; it is (being) unlinked, so start a new one
+            if (postings.remove(term, list)) {
+                termCount.decrementAndGet();
+            }
+        }
+    }
+
+    private void remove(String term, long id) {
+        PostingList list = postings.get(term);
+        if (list != null && list.remove(id) && postings.remove(term, list)) {
+            termCount.decrementAndGet();
+        }
+    }
+
+    private static long[] intersect(List<long[]> lists) {
+        if (lists.size() == 1) {
+            return lists.get(0);
+        }
+        lists.sort(Comparator.comparingInt(ids -> ids.length));
+        long[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            long[] other = lists.get(i);
+            long[] merged = new long[result.length];
+            int size = 0;
+            int j = 0;
+            for (long id : result) {
+                while (j < other.length && other[j] < id) {
+                    j++;
+                }
+                if (j < other.length && other[j] == id) {
+                    merged[size++] = id;
+                }
+            }
+            result = Arrays.copyOf(merged, size);
+        }
+        return result;
+    }
+
+    private static long[] union(List<long[]> lists) {
+        if (lists.size() == 1) {
+            return lists.get(0);
+        }
+        return lists.stream().flatMapToLong(Arrays::stream).sorted().distinct().toArray();
+    }
+}
@@ -0,0 +1,116 @@
+package com.railse.hiring.workforcemgmt.repository.search;
+
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A parsed search query: words separated by spaces must all match (an explicit {@code AND} is
+ * allowed), {@code OR} between words makes either one enough and binds tighter than AND, and a
+ * trailing {@code *} matches any term starting with the word. {@code damaged OR broken pickup*}
+ * finds tasks mentioning "damaged" or "broken", and a word starting with "pickup".
+ *
+ * <p>Structure: all groups must match; a group matches if any of its alternatives does; an
+ * alternative is the terms of one word (usually one, more for words like "o'brien"), all required.
+ */
+public final class TextQuery {
+    private static final int MAX_WORDS = 32;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final List<List<List<Term>>> groups;
+
+    private TextQuery(List<List<List<Term>>> groups) {
+        this.groups = groups;
+    }
+
+    record Term(String text, boolean prefix) {
+        boolean matches(Set<String> terms) {
+            if (!prefix) {
+                return terms.contains(text);
+            }
+            for (String term : terms) {
+                if (term.startsWith(text)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public static TextQuery parse(String query) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("q is required");
+        }
+        String[] words = query.trim().split("\\s+");
+        if (words.length > MAX_WORDS) {
+            throw new BadRequestException("Queries are limited to " + MAX_WORDS + " words");
+        }
+        List<List<List<Term>>> groups = new ArrayList<>();
+        List<List<Term>> group = null;
+        boolean or = false;
+        for (String word : words) {
+            if (word.equals("OR") || word.equals("AND")) {
+                if (group == null || or) {
+                    throw new BadRequestException("Misplaced " + word + " in query");
+                }
+                or = word.equals("OR");
+                continue;
+            }
+            if (!or || group == null) {
+                group = new ArrayList<>();
+                groups.add(group);
+            }
+            or = false;
+            List<Term> alternative = parseWord(word);
+            if (!alternative.isEmpty()) {
+                group.add(alternative);
+            }
+        }
+        if (or) {
+            throw new BadRequestException("Query ends with OR");
+        }
+        groups.removeIf(List::isEmpty);
+        if (groups.isEmpty()) {
+            throw new BadRequestException("Query has no searchable terms");
+        }
+        return new TextQuery(groups);
+    }
+
+    private static List<Term> parseWord(String word) {
+        boolean prefix = word.endsWith("*");
+        List<String> tokens = new ArrayList<>();
+        TextTokenizer.tokenize(prefix ? word.substring(0, word.length() - 1) : word, tokens::add);
+        List<Term> terms = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            boolean last = i == tokens.size() - 1;
+            if (prefix && last && tokens.get(i).length() < MIN_PREFIX_LENGTH) {
+                throw new BadRequestException("Prefix terms need at least " + MIN_PREFIX_LENGTH + " characters: " + word);
+            }
+            terms.add(new Term(tokens.get(i), prefix && last));
+        }
+        return terms;
+    }
+
+    List<List<List<Term>>> groups() {
+        return groups;
+    }
+
+    /** Whether a task with these terms (see {@link TaskTextIndex#termsOf}) matches the query. */
+    public boolean matches(Set<String> terms) {
+        for (List<List<Term>> group : groups) {
+            boolean any = false;
+            for (List<Term> alternative : group) {
+                if (alternative.stream().allMatch(term -> term.matches(terms))) {
+                    any = true;
+                    break;
+                }
+            }
+            if (!any) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+package com.railse.hiring.workforcemgmt.repository.search;
+
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Splits text into search terms: maximal runs of letters and digits, lower-cased and cut to
+ * {@value #MAX_TERM_LENGTH} characters. Queries go through the same rules as indexed text.
+ */
+final class TextTokenizer {
+    static final int MAX_TERM_LENGTH = 40;
+
+    private TextTokenizer() {
+    }
+
+    static void tokenize(String text, Consumer<String> terms) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.accept(text.substring(start, Math.min(i, start + MAX_TERM_LENGTH)).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+    }
+
+    /** Distinct terms of the task's description and comment messages. */
+    static Set<String> terms(TaskManagement task) {
+        Set<String> terms = new HashSet<>();
+        tokenize(task.getDescription(), terms::add);
+        for (Comment comment : task.getComments()) {
+            tokenize(comment.getMessage(), terms::add);
+        }
+        return terms;
+    }
+
+    static Set<String> terms(List<Comment> comments) {
+        Set<String> terms = new HashSet<>();
+        for (Comment comment : comments) {
+            tokenize(comment.getMessage(), terms::add);
+        }
+        return terms;
+    }
+}
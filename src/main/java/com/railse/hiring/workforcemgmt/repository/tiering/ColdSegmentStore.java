@@ -0,0 +1,383 @@
+package com.railse.hiring.workforcemgmt.repository.tiering;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.repository.persistence.TaskCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only, deflate-compressed segment files for tasks evicted from memory, with an in-memory
+ * id-to-location index and a small LRU cache of decompressed blocks.
+ *
+ * <p>Tasks are written in blocks of up to 16 KB (before compression) or 256 tasks:
+ * {@code [compressed length][uncompressed length][deflated [length][task]...]}, with tasks in
+ * {@link TaskCodec} form. A location packs {@code segment << 40 | block offset << 8 | slot}.
+ * Records are never rewritten: a task loaded back into memory just drops its index entry, and a
+ * segment is deleted once none of its records is indexed any more.
+ *
+ * <p>The segments are a cache tier, not a durable copy (the write-ahead log and snapshots are), so
+ * files left by an earlier run are deleted on startup.
+ */
+@Slf4j
+public class ColdSegmentStore implements Closeable {
+    public static final long MISSING = LongLongIndex.MISSING;
+    private static final int BLOCK_BYTES = 16 * 1024;
+    private static final int BLOCK_TASKS = 256;
+    private static final int BLOCK_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final long MAX_SEGMENT_BYTES = 1L << 32;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".cold";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final LongLongIndex index = new LongLongIndex();
+    private final Map<Integer, Segment> segments = new ConcurrentHashMap<>();
+    private final BlockCache cache;
+    private volatile Block lastScanned;
+    private final LongAdder cacheHits;
+    private final LongAdder cacheMisses;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final ByteBuffer block = ByteBuffer.allocate(BLOCK_BYTES);
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private byte[] compressed = new byte[BLOCK_BYTES];
+    // guarded by this: only append() and clear() touch the active segment
+    private Segment active;
+    private int nextSegment;
+
+    public ColdSegmentStore(Path directory, long segmentBytes, int cacheBlocks, MetricsRegistry metrics) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = Math.min(Math.max(segmentBytes, BLOCK_BYTES), MAX_SEGMENT_BYTES);
+        this.cache = new BlockCache(Math.max(1, cacheBlocks));
+        Files.createDirectories(directory);
+        deleteSegmentFiles();
+        this.cacheHits = metrics.counter("task_mgmt_cold_block_reads_total", "Cold block lookups", "result", "cached");
+        this.cacheMisses = metrics.counter("task_mgmt_cold_block_reads_total", "Cold block lookups", "result", "disk");
+        metrics.gauge("task_mgmt_cold_tasks", "Tasks evicted to cold segments", index::size);
+        metrics.gauge("task_mgmt_cold_segment_bytes", "Size of the cold segment files",
+                () -> segments.values().stream().mapToLong(segment -> segment.size).sum());
+    }
+
+    /** Location of the task's cold record, or {@link #MISSING}. */
+    public long locate(long id) {
+        return index.get(id);
+    }
+
+    /**
+     * The task's cold record, or null if it has none (or stopped having one while it was being
+     * read, in which case it is back in memory).
+     *
+     * @param cached whether to keep the block in the LRU cache; bulk scans pass false so they don't
+     *               flush the working set, and reuse only the block they read last
+     */
+    public TaskManagement get(long id, boolean cached) {
+        long location = index.get(id);
+        if (location == MISSING) {
+            return null;
+        }
+        try {
+            return read(location, cached);
+        } catch (UncheckedIOException e) {
+            // the segment went away because the task was loaded back and its record released
+            if (index.get(id) != location) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    public TaskManagement read(long location, boolean cached) {
+        long blockKey = location >>> 8;
+        Block block = cache.get(blockKey);
+        if (block == null && !cached) {
+            Block scanned = lastScanned;
+            block = scanned != null && scanned.key() == blockKey ? scanned : null;
+        }
+        if (block != null) {
+            cacheHits.increment();
+        } else {
+            cacheMisses.increment();
+            block = load(blockKey, location);
+            if (cached) {
+                cache.put(blockKey, block);
+            } else {
+                lastScanned = block;
+            }
+        }
+        int slot = (int) (location & 0xFF);
+        return TaskCodec.read(ByteBuffer.wrap(block.payload(), block.offsets()[slot], block.lengths()[slot]));
+    }
+
+    /**
+     * Writes the tasks and returns their locations, in order. The records only count as the tasks'
+     * cold copies once {@link #put} indexes them; a record that isn't indexed should be handed to
+     * {@link #discard}.
+     */
+    public synchronized long[] append(List<TaskManagement> tasks) {
+        long[] locations = new long[tasks.size()];
+        int blockStart = 0;
+        block.clear();
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                scratch = TaskCodec.encode(tasks.get(i), scratch);
+                int recordBytes = Integer.BYTES + scratch.remaining();
+                if (i > blockStart && (i - blockStart == BLOCK_TASKS || block.position() + recordBytes > BLOCK_BYTES)) {
+                    writeBlock(locations, blockStart, i);
+                    blockStart = i;
+                }
+                if (recordBytes > block.remaining()) {
+                    // a task bigger than a block gets a block of its own
+                    writeLargeBlock(locations, i, scratch);
+                    blockStart = i + 1;
+                    continue;
+                }
+                block.putInt(scratch.remaining()).put(scratch);
+            }
+            if (blockStart < tasks.size()) {
+                writeBlock(locations, blockStart, tasks.size());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Writing cold segment failed", e);
+        }
+        return locations;
+    }
+
+    public void put(long id, long location) {
+        index.put(id, location);
+    }
+
+    /** Drops the task's cold record if it is still the indexed one, e.g. after the task was loaded back. */
+    public void remove(long id, long location) {
+        if (index.remove(id, location)) {
+            release(location);
+        }
+    }
+
+    public void discard(long location) {
+        release(location);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public synchronized void clear() {
+        index.clear();
+        cache.clear();
+        lastScanned = null;
+        for (Segment segment : List.copyOf(segments.values())) {
+            delete(segment);
+        }
+        active = null;
+    }
+
+    @Override
+    public synchronized void close() {
+        deflater.end();
+        for (Segment segment : segments.values()) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                log.warn("Closing {} failed", segment.path, e);
+            }
+        }
+    }
+
+    private void writeBlock(long[] locations, int from, int to) throws IOException {
+        block.flip();
+        writeCompressed(locations, from, to, block.array(), block.limit());
+        block.clear();
+    }
+
+    private void writeLargeBlock(long[] locations, int index, ByteBuffer record) throws IOException {
+        byte[] payload = new byte[Integer.BYTES + record.remaining()];
+        ByteBuffer.wrap(payload).putInt(record.remaining()).put(record);
+        writeCompressed(locations, index, index + 1, payload, payload.length);
+    }
+
+    private void writeCompressed(long[] locations, int from, int to, byte[] payload, int length) throws IOException {
+        deflater.reset();
+        deflater.setInput(payload, 0, length);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+        long blockBytes = BLOCK_HEADER_BYTES + compressedLength;
+        if (active == null || (active.size > 0 && active.size + blockBytes > segmentBytes)) {
+            rotate();
+        }
+        long offset = active.size;
+        ByteBuffer out = ByteBuffer.allocate((int) blockBytes);
+        out.putInt(compressedLength).putInt(length).put(compressed, 0, compressedLength).flip();
+        while (out.hasRemaining()) {
+            active.channel.write(out, offset + out.position());
+        }
+        active.size = offset + blockBytes;
+        active.live.addAndGet(to - from);
+        for (int i = from; i < to; i++) {
+            locations[i] = ((long) active.number << 40) | (offset << 8) | (i - from);
+        }
+    }
+
+    private void rotate() throws IOException {
+        Segment previous = active;
+        int number = nextSegment++;
+        Path path = directory.resolve(String.format("%s%08d%s", PREFIX, number, SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        active = new Segment(number, path, channel);
+        segments.put(number, active);
+        if (previous != null && previous.live.get() == 0) {
+            delete(previous);
+        }
+    }
+
+    private void release(long location) {
+        Segment segment = segments.get((int) (location >>> 40));
+        if (segment != null && segment.live.decrementAndGet() == 0) {
+            synchronized (this) {
+                if (segment != active && segment.live.get() == 0) {
+                    delete(segment);
+                }
+            }
+        }
+    }
+
+    private void delete(Segment segment) {
+        segments.remove(segment.number);
+        try {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.warn("Deleting cold segment {} failed", segment.path, e);
+        }
+    }
+
+    private Block load(long blockKey, long location) {
+        Segment segment = segments.get((int) (location >>> 40));
+        long offset = (location >>> 8) & 0xFFFFFFFFL;
+        try {
+            if (segment == null) {
+                throw new NoSuchFileException("cold segment " + (location >>> 40));
+            }
+            ByteBuffer header = readFully(segment.channel, offset, BLOCK_HEADER_BYTES);
+            int compressedLength = header.getInt();
+            int length = header.getInt();
+            ByteBuffer data = readFully(segment.channel, offset + BLOCK_HEADER_BYTES, compressedLength);
+            byte[] payload = new byte[length];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(data.array(), 0, compressedLength);
+                int inflated = 0;
+                while (inflated < length && !inflater.finished()) {
+                    inflated += inflater.inflate(payload, inflated, length - inflated);
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt block at offset " + offset + " of " + segment.path, e);
+            } finally {
+                inflater.end();
+            }
+            int[] offsets = new int[BLOCK_TASKS];
+            int[] lengths = new int[BLOCK_TASKS];
+            ByteBuffer records = ByteBuffer.wrap(payload);
+            for (int slot = 0; records.hasRemaining(); slot++) {
+                lengths[slot] = records.getInt();
+                offsets[slot] = records.position();
+                records.position(offsets[slot] + lengths[slot]);
+            }
+            return new Block(blockKey, payload, offsets, lengths);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of cold segment at " + (position + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+
+    private void deleteSegmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(ColdSegmentStore::isSegment).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static final class Segment {
+        final int number;
+        final Path path;
+        final FileChannel channel;
+        // records in the segment that are still indexed; the segment is deleted when it drops to zero
+        final AtomicInteger live = new AtomicInteger();
+        volatile long size;
+
+        Segment(int number, Path path, FileChannel channel) {
+            this.number = number;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+
+    private record Block(long key, byte[] payload, int[] offsets, int[] lengths) {
+    }
+
+    private static final class BlockCache {
+        private final Map<Long, Block> blocks;
+
+        BlockCache(int capacity) {
+            this.blocks = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Block> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized Block get(long key) {
+            return blocks.get(key);
+        }
+
+        synchronized void put(long key, Block block) {
+            blocks.put(key, block);
+        }
+
+        synchronized void clear() {
+            blocks.clear();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.railse.hiring.workforcemgmt.repository.tiering;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing map from positive long keys to long values in two flat arrays (16 bytes a slot,
+ * no boxing). Lookups are optimistic reads that retry under the read lock only if a write overlapped;
+ * writes take the write lock. Removal shifts the following run back, so there are no tombstones.
+ */
+final class LongLongIndex {
+    static final long MISSING = -1;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final StampedLock lock = new StampedLock();
+    private long[] keys = new long[MIN_CAPACITY];
+    private long[] values = new long[MIN_CAPACITY];
+    private int size;
+
+    long get(long key) {
+        long stamp = lock.tryOptimisticRead();
+        long value = find(keys, values, key);
+        if (lock.validate(stamp)) {
+            return value;
+        }
+        stamp = lock.readLock();
+        try {
+            return find(keys, values, key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void put(long key, long value) {
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            if (insert(keys, values, key, value)) {
+                size++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Removes the key only while it still maps to {@code expected}; returns whether it did. */
+    boolean remove(long key, long expected) {
+        long stamp = lock.writeLock();
+        try {
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    if (values[slot] != expected) {
+                        return false;
+                    }
+                    shiftBack(slot, mask);
+                    size--;
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        long stamp = lock.writeLock();
+        try {
+            keys = new long[MIN_CAPACITY];
+            values = new long[MIN_CAPACITY];
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Arrays are read through locals: a concurrent resize swaps them, and validate() catches that
+    private static long find(long[] keys, long[] values, long key) {
+        if (keys.length != values.length) {
+            return MISSING;
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        for (int probes = 0; probes < keys.length; probes++) {
+            long found = keys[slot];
+            if (found == key) {
+                return values[slot];
+            }
+            if (found == 0) {
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    private static boolean insert(long[] keys, long[] values, long key, long value) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        boolean added = keys[slot] == 0;
+        keys[slot] = key;
+        values[slot] = value;
+        return added;
+    }
+
+    private void shiftBack(int hole, int mask) {
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long key = keys[slot];
+            if (key == 0) {
+                break;
+            }
+            int home = slot(key, mask);
+            // move the entry into the hole unless its home lies cyclically in (hole, slot]
+            boolean between = hole <= slot ? hole < home && home <= slot : hole < home || home <= slot;
+            if (!between) {
+                keys[hole] = key;
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = 0;
+        values[hole] = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] newKeys = new long[capacity];
+        long[] newValues = new long[capacity];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                insert(newKeys, newValues, keys[i], values[i]);
+            }
+        }
+        keys = newKeys;
+        values = newValues;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
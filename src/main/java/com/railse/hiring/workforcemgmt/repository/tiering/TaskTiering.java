@@ -0,0 +1,97 @@
+package com.railse.hiring.workforcemgmt.repository.tiering;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.repository.impl.InMemoryTaskRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hot/cold tiering for the indexed store (task-mgmt.tiering.enabled=true). A periodic sweep moves
+ * tasks that have been COMPLETED or CANCELLED for longer than the terminal age into compressed
+ * segment files, so the heap holds the active working set; they stay readable by id and through
+ * the queries.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "task-mgmt.tiering.enabled", havingValue = "true")
+public class TaskTiering {
+    private static final int EVICTION_BATCH = 256;
+
+    private final TaskRepository taskRepository;
+    private final MetricsRegistry metrics;
+    private final Path directory;
+    private final long terminalAgeMs;
+    private final long sweepIntervalMs;
+    private final long segmentBytes;
+    private final int cacheBlocks;
+    private final LongAdder evictions;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-tiering-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ColdSegmentStore coldStore;
+
+    public TaskTiering(TaskRepository taskRepository, MetricsRegistry metrics,
+                       @Value("${task-mgmt.tiering.directory:data/cold}") String directory,
+                       @Value("${task-mgmt.tiering.terminal-age-ms:86400000}") long terminalAgeMs,
+                       @Value("${task-mgmt.tiering.sweep-interval-ms:60000}") long sweepIntervalMs,
+                       @Value("${task-mgmt.tiering.segment-bytes:67108864}") long segmentBytes,
+                       @Value("${task-mgmt.tiering.cache-blocks:256}") int cacheBlocks) {
+        this.taskRepository = taskRepository;
+        this.metrics = metrics;
+        this.directory = Path.of(directory);
+        this.terminalAgeMs = terminalAgeMs;
+        this.sweepIntervalMs = sweepIntervalMs;
+        this.segmentBytes = segmentBytes;
+        this.cacheBlocks = cacheBlocks;
+        this.evictions = metrics.counter("task_mgmt_cold_evictions_total", "Terminal tasks moved to cold segments");
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!(taskRepository instanceof InMemoryTaskRepository repository)) {
+            log.warn("Tiering only supports the indexed task store; {} keeps every task in memory",
+                    taskRepository.getClass().getSimpleName());
+            return;
+        }
+        coldStore = new ColdSegmentStore(directory, segmentBytes, cacheBlocks, metrics);
+        repository.attachColdStore(coldStore);
+        sweeper.scheduleWithFixedDelay(() -> sweep(repository), sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void sweep(InMemoryTaskRepository repository) {
+        try {
+            long started = System.nanoTime();
+            int moved = repository.evictTerminalTasks(terminalAgeMs, EVICTION_BATCH);
+            evictions.add(moved);
+            if (moved > 0) {
+                log.info("Moved {} terminal tasks to cold segments in {} ms ({} cold in total)", moved,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), coldStore.size());
+            }
+        } catch (RuntimeException e) {
+            log.error("Tiering sweep failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        sweeper.shutdown();
+        sweeper.awaitTermination(10, TimeUnit.SECONDS);
+        if (coldStore != null) {
+            coldStore.close();
+        }
+    }
+}
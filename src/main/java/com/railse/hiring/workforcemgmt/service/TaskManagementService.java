@@ -1,20 +1,38 @@
 package com.railse.hiring.workforcemgmt.service;
 
+import com.railse.hiring.workforcemgmt.common.model.response.PagedResult;
 import com.railse.hiring.workforcemgmt.dto.*;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
 import com.railse.hiring.workforcemgmt.model.enums.Priority;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TaskManagementService {
     List<TaskManagementDto> createTasks(TaskCreateRequest request);
     List<TaskManagementDto> updateTasks(UpdateTaskRequest request);
+    List<BulkItemResult> bulkCreateTasks(TaskCreateRequest request);
+    List<BulkItemResult> bulkUpdateTasks(UpdateTaskRequest request);
     String assignByReference(AssignByReferenceRequest request);
-    List<TaskManagementDto> fetchTasksByDate(TaskFetchByDateRequest request);
-    TaskManagementDto findTaskById(Long id);
-    List<TaskManagementDto> getTasksByPriority(Priority priority);
+    List<ReassignmentResult> bulkAssignByReference(BulkReassignRequest request);
+    PagedResult<TaskManagementDto> fetchTasksByDate(TaskFetchByDateRequest request, String cursor, Integer limit,
+                                                    TaskView view);
+    TaskManagementDto findTaskById(Long id, TaskView view);
+    long getTaskVersion(Long id);
+    long getStoreVersion();
+    long getStoreGeneration();
+    PagedResult<TaskManagementDto> getTasksByPriority(Priority priority, String cursor, Integer limit, TaskView view);
     TaskManagementDto changeTaskPriority(ChangePriorityRequest request);
     TaskManagementDto addComment(Long taskId, CommentRequest request);
-    List<TaskManagementDto> getAllTasks();
+    List<WorkloadSummaryDto> getWorkloadSummary(List<Long> assigneeIds);
+    PagedResult<Comment> getComments(Long taskId, Integer last, String cursor, Integer limit);
+    PagedResult<Activity> getActivity(Long taskId, Long since, String cursor, Integer limit);
+    PagedResult<TaskManagementDto> getAllTasks(String cursor, Integer limit, TaskView view);
+    Stream<TaskManagementDto> exportTasks(TaskExportRequest request);
+    PagedResult<TaskManagementDto> searchTasks(TaskSearchRequest request, String cursor, Integer limit);
+    PagedResult<TaskManagementDto> queryTasks(TaskQueryRequest request, String cursor, Integer limit, TaskView view);
+    QueryPlanDto explainQuery(TaskQueryRequest request);
 
 
 }
@@ -0,0 +1,227 @@
+package com.railse.hiring.workforcemgmt.service.deadline;
+
+import com.railse.hiring.workforcemgmt.common.concurrent.TimingWheel;
+import com.railse.hiring.workforcemgmt.common.exception.ConcurrentUpdateException;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.TaskChange;
+import com.railse.hiring.workforcemgmt.repository.TaskChangeListener;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Acts on task deadlines. Every open task with a deadline has one timer in a {@link TimingWheel};
+ * committed writes reschedule it when the deadline, assignee or open state changes and cancel it
+ * when the task is completed, cancelled or removed. When a deadline passes, the task gets an
+ * overdue activity entry and (optionally) a raised priority, and a {@link TaskOverdueEvent} is
+ * published.
+ *
+ * <p>The wheel is owned by a single ticker thread. Writers never touch it: they swap the task's
+ * entry in a map and queue the new and the cancelled timer, which the ticker applies in O(1) each
+ * on its next tick. A fired timer is checked against the stored task before acting, so a stale
+ * timer (e.g. from changes delivered out of order) does nothing.
+ */
+@Slf4j
+@Component
+// followers get the primary's overdue writes through replication and must not make their own
+@ConditionalOnExpression("${task-mgmt.deadlines.enabled:true} and '${task-mgmt.replication.role:standalone}' != 'follower'")
+public class DeadlineScheduler implements TaskChangeListener {
+    private static final int WHEEL_BITS = 9;
+    private static final int MAX_ESCALATION_ATTEMPTS = 3;
+
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher events;
+    private final long tickMs;
+    private final boolean escalatePriority;
+    private final TimingWheel wheel;
+    private final Map<Long, DeadlineTimer> pending = new ConcurrentHashMap<>();
+    private final Queue<DeadlineTimer> inbox = new ConcurrentLinkedQueue<>();
+    private final LongAdder overdue;
+    private final Thread ticker;
+    private volatile boolean running = true;
+
+    private static final class DeadlineTimer extends TimingWheel.Timer {
+        final long taskId;
+        final long version;
+        volatile boolean cancelled;
+
+        DeadlineTimer(long taskId, long version, long deadline) {
+            super(deadline);
+            this.taskId = taskId;
+            this.version = version;
+        }
+    }
+
+    public DeadlineScheduler(TaskRepository taskRepository, ApplicationEventPublisher events, MetricsRegistry metrics,
+                             @Value("${task-mgmt.deadlines.tick-ms:100}") long tickMs,
+                             @Value("${task-mgmt.deadlines.escalate-priority:false}") boolean escalatePriority) {
+        this.taskRepository = taskRepository;
+        this.events = events;
+        this.tickMs = tickMs;
+        this.escalatePriority = escalatePriority;
+        this.wheel = new TimingWheel(tickMs, WHEEL_BITS, System.currentTimeMillis());
+        this.overdue = metrics.counter("task_mgmt_deadlines_overdue_total", "Task deadlines that passed while open");
+        metrics.gauge("task_mgmt_deadlines_pending", "Open tasks with a scheduled deadline", pending::size);
+        this.ticker = new Thread(this::run, "task-deadline-ticker");
+        this.ticker.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        // seeded from the store during startup, before anything else can write to it
+        try (Stream<TaskManagement> tasks = taskRepository.stream(TaskFilter.all())) {
+            tasks.filter(DeadlineScheduler::isScheduled).forEach(this::schedule);
+        }
+        taskRepository.addChangeListener(this);
+        ticker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        ticker.interrupt();
+    }
+
+    @Override
+    public void onChanges(List<TaskChange> changes) {
+        for (TaskChange change : changes) {
+            TaskManagement before = change.before();
+            TaskManagement after = change.after();
+            if (after == null || !isScheduled(after)) {
+                cancel(change.taskId());
+            } else if (before == null || !isScheduled(before)
+                    || !Objects.equals(before.getTaskDeadlineTime(), after.getTaskDeadlineTime())
+                    || !Objects.equals(before.getAssigneeId(), after.getAssigneeId())) {
+                schedule(after);
+            }
+        }
+    }
+
+    private static boolean isScheduled(TaskManagement task) {
+        return task.getTaskDeadlineTime() != null
+                && task.getStatus() != TaskStatus.COMPLETED && task.getStatus() != TaskStatus.CANCELLED;
+    }
+
+    private void schedule(TaskManagement task) {
+        DeadlineTimer timer = new DeadlineTimer(task.getId(), task.getVersion(), task.getTaskDeadlineTime());
+        DeadlineTimer[] replaced = new DeadlineTimer[1];
+        DeadlineTimer installed = pending.compute(task.getId(), (id, current) -> {
+            // a change delivered late must not replace the timer of a newer version
+            if (current != null && current.version > timer.version) {
+                return current;
+            }
+            replaced[0] = current;
+            return timer;
+        });
+        if (installed == timer) {
+            inbox.add(timer);
+        }
+        if (replaced[0] != null) {
+            replaced[0].cancelled = true;
+            inbox.add(replaced[0]);
+        }
+    }
+
+    private void cancel(Long taskId) {
+        DeadlineTimer timer = pending.remove(taskId);
+        if (timer != null) {
+            timer.cancelled = true;
+            inbox.add(timer);
+        }
+    }
+
+    private void run() {
+        List<DeadlineTimer> due = new ArrayList<>();
+        while (running) {
+            try {
+                DeadlineTimer timer;
+                while ((timer = inbox.poll()) != null) {
+                    if (timer.cancelled) {
+                        wheel.remove(timer);
+                    } else if (!timer.isScheduled() && !wheel.add(timer)) {
+                        due.add(timer);
+                    }
+                }
+                wheel.advance(System.currentTimeMillis(), expired -> due.add((DeadlineTimer) expired));
+                for (DeadlineTimer expired : due) {
+                    fire(expired);
+                }
+            } catch (RuntimeException e) {
+                log.error("Deadline tick failed", e);
+            } finally {
+                due.clear();
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(tickMs));
+        }
+    }
+
+    private void fire(DeadlineTimer timer) {
+        if (timer.cancelled || !pending.remove(timer.taskId, timer)) {
+            return;
+        }
+        for (int attempt = 0; attempt < MAX_ESCALATION_ATTEMPTS; attempt++) {
+            TaskManagement task = taskRepository.findById(timer.taskId).orElse(null);
+            if (task == null || !isScheduled(task) || task.getTaskDeadlineTime() != timer.expirationMs()
+                    || alreadyOverdue(task, timer.expirationMs())) {
+                return;
+            }
+            Priority previous = task.getPriority();
+            Priority raised = escalatePriority ? raise(previous) : previous;
+            task.setPriority(raised);
+            task.getActivityHistory().add(Activity.overdue(raised == previous ? null : raised));
+            try {
+                taskRepository.save(task);
+            } catch (ConcurrentUpdateException e) {
+                continue;
+            }
+            overdue.increment();
+            events.publishEvent(new TaskOverdueEvent(task.getId(), task.getAssigneeId(), timer.expirationMs(),
+                    previous, raised));
+            return;
+        }
+        log.warn("Gave up escalating overdue task {} after {} conflicting writes", timer.taskId, MAX_ESCALATION_ATTEMPTS);
+    }
+
+    // e.g. a task restored from disk that was escalated before the restart
+    private static boolean alreadyOverdue(TaskManagement task, long deadline) {
+        List<Activity> history = task.getActivityHistory();
+        for (int i = history.size() - 1; i >= 0 && history.get(i).getTimestamp() >= deadline; i--) {
+            if (history.get(i) instanceof Activity.Overdue) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Priority raise(Priority priority) {
+        if (priority == null) {
+            return Priority.MEDIUM;
+        }
+        return switch (priority) {
+            case LOW -> Priority.MEDIUM;
+            case MEDIUM, HIGH -> Priority.HIGH;
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.railse.hiring.workforcemgmt.service.deadline;
+
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+
+/** Published (as a Spring application event) when an open task's deadline passes. */
+public record TaskOverdueEvent(Long taskId, Long assigneeId, long deadline, Priority previousPriority,
+                               Priority priority) {
+}
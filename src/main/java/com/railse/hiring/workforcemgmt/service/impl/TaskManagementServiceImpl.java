@@ -1,77 +1,263 @@
 package com.railse.hiring.workforcemgmt.service.impl;
 
+import com.railse.hiring.workforcemgmt.common.concurrent.StripedLock;
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
+import com.railse.hiring.workforcemgmt.common.exception.ConcurrentUpdateException;
 import com.railse.hiring.workforcemgmt.common.exception.ResourceNotFoundException;
+import com.railse.hiring.workforcemgmt.common.metrics.LatencyHistogram;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.common.model.response.PagedResult;
+import com.railse.hiring.workforcemgmt.common.model.response.Pagination;
+import com.railse.hiring.workforcemgmt.common.util.CursorCodec;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
 import com.railse.hiring.workforcemgmt.dto.*;
 import com.railse.hiring.workforcemgmt.mapper.ITaskManagementMapper;
 import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.AppendOnlyLog;
 import com.railse.hiring.workforcemgmt.model.Comment;
 import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.Timestamped;
 import com.railse.hiring.workforcemgmt.model.enums.Priority;
 import com.railse.hiring.workforcemgmt.model.enums.Task;
 import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.QueryPlan;
+import com.railse.hiring.workforcemgmt.repository.SaveResult;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskQuery;
 import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.repository.aggregate.WorkloadAggregates;
+import com.railse.hiring.workforcemgmt.repository.search.TaskTextIndex;
+import com.railse.hiring.workforcemgmt.repository.search.TextQuery;
 import com.railse.hiring.workforcemgmt.service.TaskManagementService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Service
 public class TaskManagementServiceImpl implements TaskManagementService {
 
+    private static final String ALL_CURSOR = "all";
+    private static final String PRIORITY_CURSOR = "priority";
+    private static final String DATE_CURSOR = "date";
+    private static final String COMMENTS_CURSOR = "comments";
+    private static final String ACTIVITY_CURSOR = "activity";
+    private static final String SEARCH_CURSOR = "search";
+    private static final String QUERY_CURSOR = "query";
+
+    private static final int MAX_SAVE_ATTEMPTS = 3;
+
     private final TaskRepository taskRepository;
     private final ITaskManagementMapper taskMapper;
-
-    public TaskManagementServiceImpl(TaskRepository taskRepository, ITaskManagementMapper taskMapper) {
+    private final StripedLock taskLocks;
+    private final StripedLock referenceLocks;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final LatencyHistogram singleMappingTime;
+    private final LatencyHistogram listMappingTime;
+    private final WorkloadAggregates workloadAggregates;
+    private final TaskTextIndex textIndex;
+    // runs the references of a bulk reassignment, which block on reference locks and the store
+    private final ExecutorService reassignmentPool;
+
+    public TaskManagementServiceImpl(TaskRepository taskRepository, ITaskManagementMapper taskMapper,
+                                     MetricsRegistry metrics, WorkloadAggregates workloadAggregates,
+                                     TaskTextIndex textIndex,
+                                     @Value("${task-mgmt.pagination.default-limit:100}") int defaultPageSize,
+                                     @Value("${task-mgmt.pagination.max-limit:1000}") int maxPageSize,
+                                     @Value("${task-mgmt.lock-stripes:1024}") int lockStripes,
+                                     @Value("${task-mgmt.reassignment.threads:8}") int reassignmentThreads) {
         this.taskRepository = taskRepository;
         this.taskMapper = taskMapper;
+        this.workloadAggregates = workloadAggregates;
+        this.textIndex = textIndex;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.taskLocks = new StripedLock(lockStripes);
+        this.referenceLocks = new StripedLock(lockStripes);
+        this.singleMappingTime = metrics.histogram("task_mgmt_dto_mapping_seconds", "Model to DTO mapping time",
+                "shape", "single");
+        this.listMappingTime = metrics.histogram("task_mgmt_dto_mapping_seconds", "Model to DTO mapping time",
+                "shape", "list");
+        AtomicInteger threads = new AtomicInteger();
+        this.reassignmentPool = Executors.newFixedThreadPool(reassignmentThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-reassign-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reassignmentPool.shutdown();
     }
 
     @Override
-    public TaskManagementDto findTaskById(Long id) {
+    public TaskManagementDto findTaskById(Long id, TaskView view) {
         TaskManagement task = taskRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
-        return taskMapper.modelToDto(task);
+        return toDto(task, view);
+    }
+
+    @Override
+    public long getTaskVersion(Long id) {
+        return taskRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+    }
+
+    @Override
+    public long getStoreVersion() {
+        return taskRepository.storeVersion();
+    }
+
+    @Override
+    public long getStoreGeneration() {
+        return taskRepository.storeGeneration();
     }
 
     @Override
     public List<TaskManagementDto> createTasks(TaskCreateRequest createRequest) {
-        List<TaskManagement> createdTasks = new ArrayList<>();
+        List<TaskManagement> newTasks = new ArrayList<>(createRequest.getRequests().size());
         for (TaskCreateRequest.RequestItem item : createRequest.getRequests()) {
-            TaskManagement newTask = new TaskManagement();
-            newTask.setReferenceId(item.getReferenceId());
-            newTask.setReferenceType(item.getReferenceType());
-            newTask.setTask(item.getTask());
-            newTask.setAssigneeId(item.getAssigneeId());
-            newTask.setPriority(item.getPriority());
-            newTask.setTaskDeadlineTime(item.getTaskDeadlineTime());
-            newTask.setStatus(TaskStatus.ASSIGNED);
-            newTask.setDescription("New task created.");
-            createdTasks.add(taskRepository.save(newTask));
+            newTasks.add(newTask(item));
+        }
+        List<TaskManagement> createdTasks = new ArrayList<>(newTasks.size());
+        for (SaveResult result : taskRepository.saveAll(newTasks)) {
+            createdTasks.add(result.task());
         }
-        return taskMapper.modelListToDtoList(createdTasks);
+        return toDtoList(createdTasks);
+    }
+
+    @Override
+    public List<BulkItemResult> bulkCreateTasks(TaskCreateRequest createRequest) {
+        List<TaskCreateRequest.RequestItem> items = createRequest.getRequests();
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        List<TaskManagement> newTasks = new ArrayList<>(items.size());
+        List<Integer> positions = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            String problem = validate(items.get(i));
+            if (problem != null) {
+                results[i] = BulkItemResult.failure(i, problem);
+            } else {
+                newTasks.add(newTask(items.get(i)));
+                positions.add(i);
+            }
+        }
+        List<SaveResult> saved = taskRepository.saveAll(newTasks);
+        for (int k = 0; k < saved.size(); k++) {
+            results[positions.get(k)] = toItemResult(positions.get(k), saved.get(k));
+        }
+        return List.of(results);
     }
 
     @Override
     public List<TaskManagementDto> updateTasks(UpdateTaskRequest updateRequest) {
-        List<TaskManagement> updatedTasks = new ArrayList<>();
+        // resolve every id before applying anything, so a bad id can't leave the batch half applied
+        List<TaskManagement> tasks = new ArrayList<>(updateRequest.getRequests().size());
         for (UpdateTaskRequest.RequestItem item : updateRequest.getRequests()) {
             TaskManagement task = taskRepository.findById(item.getTaskId())
                     .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + item.getTaskId()));
+            applyUpdate(task, item);
+            tasks.add(task);
+        }
+        List<SaveResult> saved = taskRepository.saveAll(tasks);
+        List<TaskManagement> updatedTasks = new ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            UpdateTaskRequest.RequestItem item = updateRequest.getRequests().get(i);
+            updatedTasks.add(saved.get(i).isSaved() ? saved.get(i).task()
+                    : modifyTask(item.getTaskId(), task -> applyUpdate(task, item)));
+        }
+        return toDtoList(updatedTasks);
+    }
 
-            if (item.getTaskStatus() != null) {
-                task.setStatus(item.getTaskStatus());
-                task.getActivityHistory().add(new Activity("Update TaskStatus to" + item.getTaskStatus()));
+    @Override
+    public List<BulkItemResult> bulkUpdateTasks(UpdateTaskRequest updateRequest) {
+        List<UpdateTaskRequest.RequestItem> items = updateRequest.getRequests();
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        List<TaskManagement> tasks = new ArrayList<>(items.size());
+        List<Integer> positions = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            UpdateTaskRequest.RequestItem item = items.get(i);
+            TaskManagement task = item.getTaskId() == null ? null : taskRepository.findById(item.getTaskId()).orElse(null);
+            if (task == null) {
+                results[i] = BulkItemResult.failure(i, "Task not found with id: " + item.getTaskId());
+            } else {
+                applyUpdate(task, item);
+                tasks.add(task);
+                positions.add(i);
             }
-            if (item.getDescription() != null) {
-                task.setDescription(item.getDescription());
-                task.getActivityHistory().add(new Activity("Update discription to"+ item.getDescription()));
+        }
+        List<SaveResult> saved = taskRepository.saveAll(tasks);
+        for (int k = 0; k < saved.size(); k++) {
+            int i = positions.get(k);
+            SaveResult result = saved.get(k);
+            if (!result.isSaved()) {
+                // lost a race with another writer: redo this one item under its lock
+                try {
+                    result = new SaveResult(modifyTask(items.get(i).getTaskId(), task -> applyUpdate(task, items.get(i))), null);
+                } catch (RuntimeException e) {
+                    result = new SaveResult(null, e);
+                }
             }
+            results[i] = toItemResult(i, result);
+        }
+        return List.of(results);
+    }
+
+    private TaskManagement newTask(TaskCreateRequest.RequestItem item) {
+        TaskManagement newTask = new TaskManagement();
+        newTask.setReferenceId(item.getReferenceId());
+        newTask.setReferenceType(item.getReferenceType());
+        newTask.setTask(item.getTask());
+        newTask.setAssigneeId(item.getAssigneeId());
+        newTask.setPriority(item.getPriority());
+        newTask.setTaskDeadlineTime(item.getTaskDeadlineTime());
+        newTask.setStatus(TaskStatus.ASSIGNED);
+        newTask.setDescription("New task created.");
+        return newTask;
+    }
 
-            updatedTasks.add(taskRepository.save(task));
+    private static String validate(TaskCreateRequest.RequestItem item) {
+        if (item.getReferenceId() == null || item.getReferenceType() == null || item.getTask() == null) {
+            return "reference_id, reference_type and task are required";
         }
-        return taskMapper.modelListToDtoList(updatedTasks);
+        if (!item.getTask().getApplicableReferenceTypes().contains(item.getReferenceType())) {
+            return "Task " + item.getTask() + " does not apply to reference type " + item.getReferenceType();
+        }
+        return null;
+    }
+
+    private static boolean applyUpdate(TaskManagement task, UpdateTaskRequest.RequestItem item) {
+        if (item.getTaskStatus() != null) {
+            task.setStatus(item.getTaskStatus());
+            task.getActivityHistory().add(Activity.statusChanged(item.getTaskStatus()));
+        }
+        if (item.getDescription() != null) {
+            task.setDescription(item.getDescription());
+            task.getActivityHistory().add(Activity.descriptionChanged(item.getDescription()));
+        }
+        return true;
+    }
+
+    private BulkItemResult toItemResult(int index, SaveResult result) {
+        return result.isSaved() ? BulkItemResult.success(index, toDto(result.task()))
+                : BulkItemResult.failure(index, result.error().getMessage());
     }
 /*
     @Override      // old
@@ -108,59 +294,152 @@ public class TaskManagementServiceImpl implements TaskManagementService {
     */
    @Override
     public String assignByReference(AssignByReferenceRequest request) {
-        List<TaskManagement> existingTasks = taskRepository.findByReferenceIdAndReferenceType(
-                request.getReferenceId(), request.getReferenceType()
-        );
-
-        // Find an open (ASSIGNED/STARTED) task
-        TaskManagement sourceTask = existingTasks.stream()
-                .filter(t -> t.getStatus() != TaskStatus.COMPLETED && t.getStatus() != TaskStatus.CANCELLED)
-                .findFirst()
-                .orElse(null);
-
-        if (sourceTask == null) {
-            return "No open task exists for this reference. Please create or assign a task first.";
-        }
-
-        String description =  sourceTask.getDescription();
-        // Cancel all other tasks
-        for (TaskManagement oldTask : existingTasks) {
-            if (oldTask.getStatus() != TaskStatus.COMPLETED && oldTask.getStatus() != TaskStatus.CANCELLED) {
-                oldTask.setStatus(TaskStatus.CANCELLED);
-                oldTask.setDescription("Task auto-cancelled due to reassignment");
-                oldTask.getActivityHistory().add(
-                            new Activity("Task status changed to CANCELLED due to reassignment")
-                    );
-                taskRepository.save(oldTask);
+        Reassignment result = reassign(new ReferenceKey(request.getReferenceId(), request.getReferenceType()),
+                request.getAssigneeId(), request.getNewDeadline(), null);
+        if (result.error() != null) {
+            return result.error();
+        }
+        return "New task assigned to user " + request.getAssigneeId() + " for reference " + request.getReferenceId();
+    }
+
+    @Override
+    public List<ReassignmentResult> bulkAssignByReference(BulkReassignRequest request) {
+        if (request.getFromAssigneeId() != null && request.getToAssigneeId() == null) {
+            throw new BadRequestException("to_assignee_id is required with from_assignee_id");
+        }
+        List<ReassignmentJob> jobs = new ArrayList<>();
+        List<ReassignmentResult> rejected = new ArrayList<>();
+        Set<ReferenceKey> seen = new HashSet<>();
+        List<AssignByReferenceRequest> listed = request.getReferences() == null ? List.of() : request.getReferences();
+        for (int i = 0; i < listed.size(); i++) {
+            AssignByReferenceRequest item = listed.get(i);
+            ReferenceKey reference = new ReferenceKey(item.getReferenceId(), item.getReferenceType());
+            ReassignmentJob job = new ReassignmentJob(i, reference, item.getAssigneeId(), item.getNewDeadline(), null);
+            if (item.getReferenceId() == null || item.getReferenceType() == null || item.getAssigneeId() == null) {
+                rejected.add(job.failed("reference_id, reference_type and assignee_id are required"));
+            } else if (!seen.add(reference)) {
+                rejected.add(job.failed("Reference appears more than once in the request"));
+            } else {
+                jobs.add(job);
+            }
+        }
+        if (request.getFromAssigneeId() != null) {
+            // one pass over the assignee's tasks instead of a lookup per reference
+            for (TaskManagement task : taskRepository.findByAssigneeIdIn(List.of(request.getFromAssigneeId()))) {
+                ReferenceKey reference = new ReferenceKey(task.getReferenceId(), task.getReferenceType());
+                if (isOpen(task) && seen.add(reference)) {
+                    jobs.add(new ReassignmentJob(null, reference, request.getToAssigneeId(), request.getNewDeadline(),
+                            request.getFromAssigneeId()));
+                }
+            }
+        }
+        // references are independent: each one is serialized on its own lock, so they run in parallel,
+        // on a pool of their own rather than the common one since they block
+        List<CompletableFuture<ReassignmentResult>> running = new ArrayList<>(jobs.size());
+        for (ReassignmentJob job : jobs) {
+            running.add(CompletableFuture.supplyAsync(() -> runReassignment(job), reassignmentPool));
+        }
+        List<ReassignmentResult> results = new ArrayList<>(jobs.size() + rejected.size());
+        for (CompletableFuture<ReassignmentResult> result : running) {
+            results.add(result.join());
+        }
+        results.addAll(rejected);
+        results.sort(Comparator.comparing(ReassignmentResult::getIndex, Comparator.nullsLast(Comparator.naturalOrder())));
+        return results;
+    }
+
+    private ReassignmentResult runReassignment(ReassignmentJob job) {
+        try {
+            Reassignment outcome = reassign(job.reference(), job.assigneeId(), job.newDeadline(), job.fromAssigneeId());
+            return outcome.error() != null ? job.failed(outcome.error())
+                    : new ReassignmentResult(job.index(), job.reference().referenceId(),
+                    job.reference().referenceType(), job.assigneeId(), true, null,
+                    outcome.cancelledTaskIds(), toDto(outcome.newTask(), TaskView.SUMMARY));
+        } catch (RuntimeException e) {
+            return job.failed(e.getMessage());
+        }
+    }
+
+    // Serialize reassignments of the same reference so two callers can't both replace the open task
+    private Reassignment reassign(ReferenceKey reference, Long assigneeId, Long newDeadline, Long fromAssigneeId) {
+        return referenceLocks.withLock(reference,
+                () -> reassignReference(reference, assigneeId, newDeadline, fromAssigneeId));
+    }
+
+    /**
+     * Cancels the reference's open tasks and creates the replacement for the new assignee in one
+     * batch save. With {@code fromAssigneeId}, only does so if that assignee still has an open task
+     * on the reference.
+     */
+    private Reassignment reassignReference(ReferenceKey reference, Long assigneeId, Long newDeadline,
+                                           Long fromAssigneeId) {
+        List<TaskManagement> openTasks = new ArrayList<>();
+        for (TaskManagement task : taskRepository.findByReferenceIdAndReferenceType(
+                reference.referenceId(), reference.referenceType())) {
+            if (isOpen(task)) {
+                openTasks.add(task);
             }
         }
+        if (openTasks.isEmpty()) {
+            return Reassignment.failed("No open task exists for this reference. Please create or assign a task first.");
+        }
+        TaskManagement sourceTask = openTasks.get(0);
+        if (fromAssigneeId != null) {
+            // the replacement takes over the task being moved away from that assignee
+            sourceTask = openTasks.stream().filter(t -> fromAssigneeId.equals(t.getAssigneeId())).findFirst().orElse(null);
+            if (sourceTask == null) {
+                return Reassignment.failed("Reference no longer has an open task assigned to user " + fromAssigneeId);
+            }
+        }
+
+        List<TaskManagement> batch = new ArrayList<>(openTasks.size() + 1);
+        for (TaskManagement openTask : openTasks) {
+            TaskManagement cancelled = openTask.copy();
+            cancelForReassignment(cancelled);
+            batch.add(cancelled);
+        }
 
         // Create a new task for the new assignee, copying values from sourceTask or get from request
         TaskManagement newTask = new TaskManagement();
         newTask.setReferenceId(sourceTask.getReferenceId());
         newTask.setReferenceType(sourceTask.getReferenceType());
         newTask.setTask(sourceTask.getTask());
-        newTask.setDescription("Reassigned: " + description);
-        newTask.setAssigneeId(request.getAssigneeId());
+        newTask.setDescription("Reassigned: " + sourceTask.getDescription());
+        newTask.setAssigneeId(assigneeId);
         newTask.setPriority(sourceTask.getPriority());
 
         // Set deadline: use user-provided value if present, else previous one from sourceTask
-        Long newDeadline = request.getNewDeadline();
-        if (newDeadline != null) {
-            newTask.setTaskDeadlineTime(newDeadline);
-        } else {
-            newTask.setTaskDeadlineTime(sourceTask.getTaskDeadlineTime());
-        }
+        newTask.setTaskDeadlineTime(newDeadline != null ? newDeadline : sourceTask.getTaskDeadlineTime());
 
         newTask.setStatus(TaskStatus.ASSIGNED);
-        newTask.getActivityHistory().add(
-                    new Activity("Task assigned by reference to user " + request.getAssigneeId())
-            );
-        if (newTask.getActivityHistory() != null) {
-            newTask.getActivityHistory().sort((a1, a2) -> Long.compare(a1.getTimestamp(), a2.getTimestamp()));
+        newTask.getActivityHistory().add(Activity.assignedByReference(assigneeId));
+        batch.add(newTask);
+
+        List<SaveResult> saved = taskRepository.saveAll(batch);
+        List<Long> cancelledIds = new ArrayList<>(openTasks.size());
+        for (int i = 0; i < openTasks.size(); i++) {
+            Long taskId = openTasks.get(i).getId();
+            // a writer outside the reference lock (e.g. a comment) got in first: cancel on top of its change
+            if (saved.get(i).isSaved()
+                    || modifyTask(taskId, this::cancelForReassignment).getStatus() == TaskStatus.CANCELLED) {
+                cancelledIds.add(taskId);
+            }
         }
-        taskRepository.save(newTask);
-        return "New task assigned to user " + request.getAssigneeId() + " for reference " + request.getReferenceId();
+        return new Reassignment(newTask, cancelledIds, null);
+    }
+
+    private boolean cancelForReassignment(TaskManagement task) {
+        if (!isOpen(task)) {
+            return false;
+        }
+        task.setStatus(TaskStatus.CANCELLED);
+        task.setDescription("Task auto-cancelled due to reassignment");
+        task.getActivityHistory().add(Activity.cancelledByReassignment());
+        return true;
+    }
+
+    private static boolean isOpen(TaskManagement task) {
+        return task.getStatus() != TaskStatus.COMPLETED && task.getStatus() != TaskStatus.CANCELLED;
     }
 
 
@@ -170,85 +449,269 @@ public class TaskManagementServiceImpl implements TaskManagementService {
         List<TaskManagement> filteredTasks = tasks.stream()
                 .filter(task -> true)
                 .collect(Collectors.toList());
-        return taskMapper.modelListToDtoList(filteredTasks);
+        return toDtoList(filteredTasks);
     }
 
 */
     @Override       // new
-    public List<TaskManagementDto> fetchTasksByDate(TaskFetchByDateRequest request) {
-        List<TaskManagement> tasks = taskRepository.findByAssigneeIdIn(request.getAssigneeIds());
-
-        List<TaskManagement> filteredTasks = tasks.stream()
-                .filter(task ->
-                        task.getStatus() != TaskStatus.CANCELLED &&
-                                (
-                                        // All active tasks in range
-                                        (task.getTaskDeadlineTime() >= request.getStartDate() && task.getTaskDeadlineTime() <= request.getEndDate())
-                                                // PLUS: all still-open (not completed) tasks before the range (spillover)
-                                                || (task.getTaskDeadlineTime() < request.getStartDate() && task.getStatus() != TaskStatus.COMPLETED)
-                                )
-                )
-                .collect(Collectors.toList());
-
-        return taskMapper.modelListToDtoList(filteredTasks);
+    public PagedResult<TaskManagementDto> fetchTasksByDate(TaskFetchByDateRequest request, String cursor, Integer limit,
+                                                           TaskView view) {
+        int pageSize = resolvePageSize(limit);
+        long[] after = cursor == null ? null : CursorCodec.decode(cursor, DATE_CURSOR, 2);
+        // All active tasks in range PLUS all still-open (not completed) tasks before the range (spillover)
+        List<TaskManagement> tasks = taskRepository.findByAssigneeIdInAndDeadlineWindow(
+                request.getAssigneeIds(), request.getStartDate(), request.getEndDate(),
+                after == null ? null : after[0], after == null ? null : after[1], pageSize + 1);
+        return toPage(tasks, pageSize, view,
+                last -> CursorCodec.encode(DATE_CURSOR, last.getTaskDeadlineTime(), last.getId()));
     }
     // new features
     @Override
-    public List<TaskManagementDto> getTasksByPriority(Priority priority) {
-        List<TaskManagement> filtered = taskRepository.findAll().stream()
-                .filter(task -> task.getPriority() == priority)
-                .collect(Collectors.toList());
-        return taskMapper.modelListToDtoList(filtered);
+    public PagedResult<TaskManagementDto> getTasksByPriority(Priority priority, String cursor, Integer limit, TaskView view) {
+        int pageSize = resolvePageSize(limit);
+        Long afterId = cursor == null ? null : CursorCodec.decode(cursor, PRIORITY_CURSOR, 1)[0];
+        List<TaskManagement> tasks = taskRepository.findByPriorityAfter(priority, afterId, pageSize + 1);
+        return toPage(tasks, pageSize, view, last -> CursorCodec.encode(PRIORITY_CURSOR, last.getId()));
     }
 
     @Override
     public TaskManagementDto changeTaskPriority(ChangePriorityRequest request) {
-        TaskManagement task = taskRepository.findById(request.getTaskId())
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + request.getTaskId()));
-        task.setPriority(request.getPriority());
-        task.getActivityHistory().add(new Activity("Priority changed to "+ ": "+ request.getPriority()));
-        // Optional: sort activity history for chronological correctness
-        if (task.getActivityHistory() != null) {
-            task.getActivityHistory().sort((a1, a2) -> Long.compare(a1.getTimestamp(), a2.getTimestamp()));
-        }
-        taskRepository.save(task);
-        return taskMapper.modelToDto(task);
+        TaskManagement task = modifyTask(request.getTaskId(), t -> {
+            t.setPriority(request.getPriority());
+            t.getActivityHistory().add(Activity.priorityChanged(request.getPriority()));
+            return true;
+        });
+        return toDto(task);
     }
 
     @Override
     public TaskManagementDto addComment(Long taskId, CommentRequest request) {
-        TaskManagement task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
-        Comment comment = new Comment();
-        comment.setAuthor(request.getAuthor());
-        comment.setMessage(request.getMessage());
-        comment.setTimestamp(System.currentTimeMillis());
-        task.getComments().add(comment);
+        TaskManagement task = modifyTask(taskId, t -> {
+            Comment comment = new Comment();
+            comment.setAuthor(request.getAuthor());
+            comment.setMessage(request.getMessage());
+            comment.setTimestamp(System.currentTimeMillis());
+            t.getComments().add(comment);
+
+            // Add to activity history (both logs stay in time order on append, no sorting needed)
+            t.getActivityHistory().add(Activity.commentAdded(comment));
+            return true;
+        });
+        return toDto(task);
+    }
 
-        // Add to activity history
-        task.getActivityHistory().add(new Activity(
-                "Comment added by " + comment.getAuthor() + ": " + comment.getMessage()
-        ));
-        // --- Sort comments ---
-        if (task.getComments() != null) {
-            task.getComments().sort((c1, c2) -> Long.compare(c1.getTimestamp(), c2.getTimestamp()));
+    @Override
+    public List<WorkloadSummaryDto> getWorkloadSummary(List<Long> assigneeIds) {
+        return workloadAggregates.summarize(assigneeIds);
+    }
+
+    @Override
+    public PagedResult<Comment> getComments(Long taskId, Integer last, String cursor, Integer limit) {
+        AppendOnlyLog<Comment> comments = loadTask(taskId).getComments();
+        if (last == null) {
+            return historyPage(comments, taskId, COMMENTS_CURSOR, 0, cursor, limit);
         }
-        // --- Sort activity history ---
-        if (task.getActivityHistory() != null) {
-            task.getActivityHistory().sort((a1, a2) -> Long.compare(a1.getTimestamp(), a2.getTimestamp()));
+        // the newest N, as one page unless a limit splits it
+        int from = Math.max(0, comments.size() - Math.max(0, last));
+        Integer pageSize = limit != null ? limit : Integer.valueOf(Math.min(Math.max(last, 1), maxPageSize));
+        return historyPage(comments, taskId, COMMENTS_CURSOR, from, cursor, pageSize);
+    }
+
+    @Override
+    public PagedResult<Activity> getActivity(Long taskId, Long since, String cursor, Integer limit) {
+        AppendOnlyLog<Activity> activity = loadTask(taskId).getActivityHistory();
+        return historyPage(activity, taskId, ACTIVITY_CURSOR, since == null ? 0 : activity.indexSince(since), cursor, limit);
+    }
+
+    // Entries never move once appended, so a cursor is just the position of the next entry
+    private <T extends Timestamped> PagedResult<T> historyPage(AppendOnlyLog<T> log, Long taskId, String kind, int from,
+                                                               String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        if (cursor != null) {
+            long[] position = CursorCodec.decode(cursor, kind, 2);
+            if (position[0] != taskId) {
+                throw new BadRequestException("Cursor is not valid for this listing");
+            }
+            from = (int) Math.min(position[1], log.size());
         }
+        int to = (int) Math.min((long) from + pageSize, log.size());
+        boolean hasMore = to < log.size();
+        String nextCursor = hasMore ? CursorCodec.encode(kind, taskId, to) : null;
+        return new PagedResult<>(new ArrayList<>(log.subList(from, to)), new Pagination(pageSize, nextCursor, hasMore));
+    }
+
+    private TaskManagement loadTask(Long taskId) {
+        return taskRepository.findById(taskId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+    }
+
+
+    @Override
+    public PagedResult<TaskManagementDto> getAllTasks(String cursor, Integer limit, TaskView view) {
+        int pageSize = resolvePageSize(limit);
+        Long afterId = cursor == null ? null : CursorCodec.decode(cursor, ALL_CURSOR, 1)[0];
+        List<TaskManagement> tasks = taskRepository.findAllAfter(afterId, pageSize + 1);
+        return toPage(tasks, pageSize, view, last -> CursorCodec.encode(ALL_CURSOR, last.getId()));
+    }
+
+    @Override
+    public Stream<TaskManagementDto> exportTasks(TaskExportRequest request) {
+        TaskFilter filter = new TaskFilter(
+                request.getAssigneeIds() == null ? null : Set.copyOf(request.getAssigneeIds()),
+                request.getStatus(), request.getPriority(), request.getStartDate(), request.getEndDate());
+        return taskRepository.stream(filter).map(task -> toDto(task, request.getView()));
+    }
 
-        taskRepository.save(task);
-        return taskMapper.modelToDto(task);
+    /**
+     * Candidates come from the text index in id order; each is loaded and checked against the
+     * filters and the query itself (the index may hold stale ids) until the page is full.
+     */
+    @Override
+    public PagedResult<TaskManagementDto> searchTasks(TaskSearchRequest request, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        TextQuery query = TextQuery.parse(request.getQ());
+        Long afterId = cursor == null ? null : CursorCodec.decode(cursor, SEARCH_CURSOR, 1)[0];
+        Set<Long> assigneeIds = request.getAssigneeIds() == null || request.getAssigneeIds().isEmpty() ? null
+                : Set.copyOf(request.getAssigneeIds());
+        List<TaskManagement> tasks = new ArrayList<>();
+        for (long id : textIndex.candidates(query, afterId)) {
+            TaskManagement task = taskRepository.findById(id).orElse(null);
+            if (task == null
+                    || assigneeIds != null && (task.getAssigneeId() == null || !assigneeIds.contains(task.getAssigneeId()))
+                    || request.getStatus() != null && task.getStatus() != request.getStatus()
+                    || request.getPriority() != null && task.getPriority() != request.getPriority()
+                    || !query.matches(TaskTextIndex.termsOf(task))) {
+                continue;
+            }
+            tasks.add(task);
+            if (tasks.size() > pageSize) {
+                break;
+            }
+        }
+        return toPage(tasks, pageSize, request.getView(), last -> CursorCodec.encode(SEARCH_CURSOR, last.getId()));
     }
 
+    @Override
+    public PagedResult<TaskManagementDto> queryTasks(TaskQueryRequest request, String cursor, Integer limit,
+                                                     TaskView view) {
+        int pageSize = resolvePageSize(limit);
+        Long afterId = cursor == null ? null : CursorCodec.decode(cursor, QUERY_CURSOR, 1)[0];
+        List<TaskManagement> tasks = taskRepository.query(toQuery(request), afterId, pageSize + 1);
+        return toPage(tasks, pageSize, view, last -> CursorCodec.encode(QUERY_CURSOR, last.getId()));
+    }
 
     @Override
-    public List<TaskManagementDto> getAllTasks() {
+    public QueryPlanDto explainQuery(TaskQueryRequest request) {
+        return toPlanDto(taskRepository.explain(toQuery(request)));
+    }
+
+    private static TaskQuery toQuery(TaskQueryRequest request) {
+        return new TaskQuery(toSet(request.getTaskIds()), request.getReferenceId(), request.getReferenceType(),
+                toSet(request.getAssigneeIds()), toSet(request.getStatuses()), toSet(request.getPriorities()),
+                request.getDeadlineFrom(), request.getDeadlineTo());
+    }
+
+    // An omitted or empty list doesn't filter; null entries are dropped
+    private static <T> Set<T> toSet(List<T> values) {
+        if (values == null) {
+            return null;
+        }
+        Set<T> set = values.stream().filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet());
+        return set.isEmpty() ? null : set;
+    }
+
+    private static QueryPlanDto toPlanDto(QueryPlan plan) {
+        QueryPlanDto dto = new QueryPlanDto();
+        dto.setAccess(plan.access().name());
+        dto.setEstimatedRows(plan.estimatedRows());
+        dto.setResidualFilters(plan.residualFilters());
+        Map<String, Long> estimates = new LinkedHashMap<>();
+        plan.estimates().forEach((access, rows) -> estimates.put(access.name(), rows));
+        dto.setEstimates(estimates);
+        dto.setPartitions(plan.partitions().stream().map(TaskManagementServiceImpl::toPlanDto).toList());
+        return dto;
+    }
+
+    /**
+     * Read-modify-write of one task under its stripe lock. {@code change} returns false to skip the
+     * save. A conflicting save from a writer outside the stripe (the version check in
+     * TaskRepository.save) re-reads the task and re-applies the change, up to a few times.
+     */
+    private TaskManagement modifyTask(Long taskId, Predicate<TaskManagement> change) {
+        return taskLocks.withLock(taskId, () -> {
+            for (int attempt = 1; ; attempt++) {
+                TaskManagement task = taskRepository.findById(taskId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+                if (!change.test(task)) {
+                    return task;
+                }
+                try {
+                    return taskRepository.save(task);
+                } catch (ConcurrentUpdateException e) {
+                    if (attempt >= MAX_SAVE_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+        });
+    }
 
-        return taskMapper.modelListToDtoList(taskRepository.findAll());
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit <= 0 || limit > maxPageSize) {
+            throw new BadRequestException("limit must be between 1 and " + maxPageSize);
+        }
+        return limit;
     }
 
+    // Repositories are asked for one row more than the page size, which tells us whether another page exists
+    private PagedResult<TaskManagementDto> toPage(List<TaskManagement> tasks, int pageSize, TaskView view,
+                                                  Function<TaskManagement, String> cursorOf) {
+        boolean hasMore = tasks.size() > pageSize;
+        List<TaskManagement> page = hasMore ? tasks.subList(0, pageSize) : tasks;
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)) : null;
+        return new PagedResult<>(toDtoList(page, view), new Pagination(pageSize, nextCursor, hasMore));
+    }
 
+    private TaskManagementDto toDto(TaskManagement task) {
+        return toDto(task, TaskView.FULL);
+    }
 
+    private TaskManagementDto toDto(TaskManagement task, TaskView view) {
+        long started = System.nanoTime();
+        TaskManagementDto dto = view == TaskView.SUMMARY ? taskMapper.modelToSummaryDto(task) : taskMapper.modelToDto(task);
+        singleMappingTime.recordSince(started);
+        return dto;
+    }
+
+    private List<TaskManagementDto> toDtoList(List<TaskManagement> tasks) {
+        return toDtoList(tasks, TaskView.FULL);
+    }
+
+    private List<TaskManagementDto> toDtoList(List<TaskManagement> tasks, TaskView view) {
+        long started = System.nanoTime();
+        List<TaskManagementDto> dtos = view == TaskView.SUMMARY ? taskMapper.modelListToSummaryDtoList(tasks)
+                : taskMapper.modelListToDtoList(tasks);
+        listMappingTime.recordSince(started);
+        return dtos;
+    }
+
+    private record ReferenceKey(Long referenceId, ReferenceType referenceType) {
+    }
+
+    private record Reassignment(TaskManagement newTask, List<Long> cancelledTaskIds, String error) {
+        static Reassignment failed(String error) {
+            return new Reassignment(null, List.of(), error);
+        }
+    }
+
+    private record ReassignmentJob(Integer index, ReferenceKey reference, Long assigneeId, Long newDeadline,
+                                   Long fromAssigneeId) {
+        ReassignmentResult failed(String error) {
+            return new ReassignmentResult(index, reference.referenceId(), reference.referenceType(), assigneeId,
+                    false, error, null, null);
+        }
+    }
 }
@@ -0,0 +1,189 @@
+package com.railse.hiring.workforcemgmt.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railse.hiring.workforcemgmt.common.exception.CustomExceptionHandler;
+import com.railse.hiring.workforcemgmt.common.exception.IdempotencyKeyReuseException;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyCacheTest {
+    private static final Pattern BYTES = Pattern.compile("(?m)^task_mgmt_idempotency_cache_bytes (\\d+)");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void aRetryGetsTheFirstResponseWithoutRunningAgain() {
+        IdempotencyCache cache = cache(1 << 20, 60_000);
+
+        ResponseEntity<byte[]> first = cache.execute("create", "key-1", Map.of("task", 1), this::run);
+        ResponseEntity<byte[]> retry = cache.execute("create", "key-1", Map.of("task", 1), this::run);
+
+        assertThat(runs).hasValue(1);
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThat(first.getHeaders().containsKey(IdempotencyCache.REPLAYED_HEADER)).isFalse();
+        assertThat(retry.getHeaders().getFirst(IdempotencyCache.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(cache.execute("update", "key-1", Map.of("task", 1), this::run).getBody())
+                .isEqualTo(json("run-2"));
+    }
+
+    @Test
+    void aConcurrentDuplicateWaitsForTheAttemptInFlight() throws Exception {
+        IdempotencyCache cache = cache(1 << 20, 60_000);
+        LongAdder executed = metrics.counter("task_mgmt_idempotency_requests_total", "", "result", "executed");
+        LongAdder waited = metrics.counter("task_mgmt_idempotency_requests_total", "", "result", "waited");
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<byte[]>> first = executor.submit(() -> cache.execute("create", "key-1", "body", () -> {
+                await(release);
+                return run();
+            }));
+            awaitCount(executed);
+            Future<ResponseEntity<byte[]>> duplicate = executor.submit(() -> cache.execute("create", "key-1", "body",
+                    this::run));
+            awaitCount(waited);
+            assertThat(duplicate.isDone()).isFalse();
+
+            release.countDown();
+
+            assertThat(duplicate.get(10, TimeUnit.SECONDS).getBody()).isEqualTo(first.get(10, TimeUnit.SECONDS).getBody());
+            assertThat(runs).hasValue(1);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reusingAKeyForAnotherRequestIsRejected() {
+        IdempotencyCache cache = cache(1 << 20, 60_000);
+        cache.execute("create", "key-1", Map.of("task", 1), this::run);
+
+        assertThatThrownBy(() -> cache.execute("create", "key-1", Map.of("task", 2), this::run))
+                .isInstanceOfSatisfying(IdempotencyKeyReuseException.class, e -> assertThat(
+                        new CustomExceptionHandler().handleIdempotencyKeyReuseException(e).getStatusCode())
+                        .isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void aFailedAttemptIsNotKept() {
+        IdempotencyCache cache = cache(1 << 20, 60_000);
+
+        assertThatThrownBy(() -> cache.execute("create", "key-1", "body", () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("store unavailable");
+        })).hasMessage("store unavailable");
+        ResponseEntity<byte[]> retry = cache.execute("create", "key-1", "body", this::run);
+
+        assertThat(runs).hasValue(2);
+        assertThat(retry.getBody()).isEqualTo(json("run-2"));
+        assertThat(retry.getHeaders().containsKey(IdempotencyCache.REPLAYED_HEADER)).isFalse();
+    }
+
+    @Test
+    void anExpiredKeyRunsAgain() throws InterruptedException {
+        IdempotencyCache cache = cache(1 << 20, 20);
+        cache.execute("create", "key-1", "body", this::run);
+
+        Thread.sleep(40);
+
+        assertThat(cache.execute("create", "key-1", "body", this::run).getBody()).isEqualTo(json("run-2"));
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void evictsTheOldestCompletedEntriesToStayWithinTheBound() {
+        long maxBytes = 16 * 1_000;
+        IdempotencyCache cache = cache(maxBytes, 60_000);
+        for (int i = 0; i < 200; i++) {
+            cache.execute("create", "key-" + i, "body", this::run);
+            assertThat(cachedBytes()).isLessThanOrEqualTo(maxBytes);
+        }
+
+        cache.execute("create", "key-199", "body", this::run);
+        assertThat(runs).hasValue(200);
+        cache.execute("create", "key-0", "body", this::run);
+        assertThat(runs).hasValue(201);
+    }
+
+    @Test
+    void anAttemptInFlightIsNeitherEvictedNorCountedAgainstTheBound() throws Exception {
+        long maxBytes = 16 * 1_000;
+        IdempotencyCache cache = cache(maxBytes, 60_000);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResponseEntity<byte[]>> slow = executor.submit(() -> cache.execute("create", "slow", "body", () -> {
+                await(release);
+                return "slow";
+            }));
+            for (int i = 0; i < 500; i++) {
+                cache.execute("create", "key-" + i, "body", this::run);
+            }
+            assertThat(cachedBytes()).isLessThanOrEqualTo(maxBytes);
+
+            release.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+
+            assertThat(cache.execute("create", "slow", "body", this::run).getBody()).isEqualTo(json("slow"));
+            assertThat(runs).hasValue(500);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private IdempotencyCache cache(long maxBytes, long ttlMs) {
+        return new IdempotencyCache(objectMapper, metrics, maxBytes, ttlMs);
+    }
+
+    private String run() {
+        return "run-" + runs.incrementAndGet();
+    }
+
+    private long cachedBytes() {
+        Matcher matcher = BYTES.matcher(metrics.scrape());
+        assertThat(matcher.find()).isTrue();
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static byte[] json(String value) {
+        return ("\"" + value + "\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void awaitCount(LongAdder counter) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (counter.sum() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(counter.sum()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
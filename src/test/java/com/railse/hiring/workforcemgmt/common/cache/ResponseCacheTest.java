@@ -0,0 +1,161 @@
+package com.railse.hiring.workforcemgmt.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+    private static final Pattern BYTES = Pattern.compile("(?m)^task_mgmt_read_cache_bytes (\\d+)");
+    // room for two of the ~120 byte entries below per segment, not three
+    private static final long MAX_BYTES = 300L * 16;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @Test
+    void aMatchingIfNoneMatchGets304WithoutBuildingTheBody() {
+        ResponseCache cache = cache(1 << 20);
+        String etag = cache.respond("task:1", 0, 1, null, this::build).getHeaders().getETag();
+
+        ResponseEntity<byte[]> notModified = cache.respond("task:1", 0, 1, etag, this::build);
+        ResponseEntity<byte[]> weak = cache.respond("task:1", 0, 1, "\"other\", W/" + etag, this::build);
+
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(notModified.getBody()).isNull();
+        assertThat(weak.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(builds).hasValue(1);
+    }
+
+    @Test
+    void aRepeatReadAtTheSameVersionIsServedFromTheCache() {
+        ResponseCache cache = cache(1 << 20);
+
+        ResponseEntity<byte[]> first = cache.respond("task:1", 0, 1, null, this::build);
+        ResponseEntity<byte[]> second = cache.respond("task:1", 0, 1, null, this::build);
+
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+        assertThat(builds).hasValue(1);
+    }
+
+    @Test
+    void aNewVersionGetsANewETagAndBody() {
+        ResponseCache cache = cache(1 << 20);
+        ResponseEntity<byte[]> first = cache.respond("task:1", 0, 1, null, this::build);
+
+        ResponseEntity<byte[]> second = cache.respond("task:1", 0, 2, first.getHeaders().getETag(), this::build);
+
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getHeaders().getETag()).isNotEqualTo(first.getHeaders().getETag());
+        assertThat(text(second)).isEqualTo("\"build-2\"");
+    }
+
+    @Test
+    void anEntryFromAnEarlierStoreGenerationIsNotServed() {
+        ResponseCache cache = cache(1 << 20);
+        ResponseEntity<byte[]> before = cache.respond("task:1", 0, 1, null, this::build);
+
+        // same id and version after the store was cleared and the task recreated
+        ResponseEntity<byte[]> after = cache.respond("task:1", 1, 1, before.getHeaders().getETag(), this::build);
+
+        assertThat(after.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(after.getHeaders().getETag()).isNotEqualTo(before.getHeaders().getETag());
+        assertThat(text(after)).isEqualTo("\"build-2\"");
+        assertThat(text(cache.respond("task:1", 1, 1, null, this::build))).isEqualTo("\"build-2\"");
+        assertThat(builds).hasValue(2);
+    }
+
+    @Test
+    void aSlowerReaderDoesNotReplaceANewerEntry() {
+        ResponseCache cache = cache(1 << 20);
+        cache.respond("task:1", 1, 1, null, this::build);
+
+        cache.respond("task:1", 0, 5, null, this::build);
+
+        assertThat(text(cache.respond("task:1", 1, 1, null, this::build))).isEqualTo("\"build-1\"");
+        assertThat(builds).hasValue(2);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryOnceASegmentIsFull() {
+        ResponseCache cache = cache(MAX_BYTES);
+        List<String> keys = keysInOneSegment(3);
+        cache.respond(keys.get(0), 0, 1, null, this::build);
+        cache.respond(keys.get(1), 0, 1, null, this::build);
+        cache.respond(keys.get(0), 0, 1, null, this::build);
+
+        cache.respond(keys.get(2), 0, 1, null, this::build);
+        assertThat(builds).hasValue(3);
+
+        cache.respond(keys.get(0), 0, 1, null, this::build);
+        assertThat(builds).as("recently used entry kept").hasValue(3);
+        cache.respond(keys.get(1), 0, 1, null, this::build);
+        assertThat(builds).as("least recently used entry evicted").hasValue(4);
+        assertThat(cachedBytes()).isPositive().isLessThanOrEqualTo(MAX_BYTES / 16);
+    }
+
+    @Test
+    void neverHoldsMoreThanTheConfiguredBytes() {
+        ResponseCache cache = cache(MAX_BYTES);
+
+        for (int i = 0; i < 500; i++) {
+            cache.respond("all:" + i, 0, 1, null, this::build);
+            assertThat(cachedBytes()).isLessThanOrEqualTo(MAX_BYTES);
+        }
+        assertThat(cachedBytes()).isPositive();
+    }
+
+    @Test
+    void skipsAnEntryLargerThanASegment() {
+        ResponseCache cache = cache(MAX_BYTES);
+
+        cache.respond("all", 0, 1, null, () -> "x".repeat(1000));
+        ResponseEntity<byte[]> again = cache.respond("all", 0, 1, null, () -> "x".repeat(1000));
+
+        assertThat(text(again)).hasSize(1002);
+        assertThat(cachedBytes()).isZero();
+    }
+
+    private ResponseCache cache(long maxBytes) {
+        return new ResponseCache(objectMapper, metrics, maxBytes);
+    }
+
+    private Object build() {
+        return "build-" + builds.incrementAndGet();
+    }
+
+    private static List<String> keysInOneSegment(int count) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; keys.size() < count; i++) {
+            String key = "task:" + i;
+            // the segment ResponseCache picks for a key
+            if (Math.floorMod(key.hashCode() * 0x9E3779B9, 16) == 0) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private long cachedBytes() {
+        Matcher matcher = BYTES.matcher(metrics.scrape());
+        assertThat(matcher.find()).isTrue();
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static String text(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+}
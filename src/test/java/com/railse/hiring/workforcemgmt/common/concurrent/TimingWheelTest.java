@@ -0,0 +1,136 @@
+package com.railse.hiring.workforcemgmt.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimingWheelTest {
+
+    @Test
+    void firesOnTheFirstTickAtOrAfterTheExpiration() {
+        TimingWheel wheel = new TimingWheel(10, 2, 0);
+        Timer between = new Timer(25);
+        Timer onTick = new Timer(30);
+        wheel.add(between);
+        wheel.add(onTick);
+        List<TimingWheel.Timer> fired = new ArrayList<>();
+
+        wheel.advance(29, fired::add);
+        assertThat(fired).isEmpty();
+
+        wheel.advance(30, fired::add);
+        assertThat(fired).containsExactly(between, onTick);
+        assertThat(wheel.size()).isZero();
+        assertThat(between.isScheduled()).isFalse();
+    }
+
+    @Test
+    void doesNotScheduleATimerThatIsAlreadyDue() {
+        TimingWheel wheel = new TimingWheel(10, 2, 100);
+
+        assertThat(wheel.add(new Timer(100))).isFalse();
+        assertThat(wheel.add(new Timer(50))).isFalse();
+        assertThat(wheel.add(new Timer(101))).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void aRemovedTimerDoesNotFireAndCanBeAddedAgain() {
+        TimingWheel wheel = new TimingWheel(1, 2, 0);
+        Timer removed = new Timer(40);
+        Timer kept = new Timer(40);
+        wheel.add(removed);
+        wheel.add(kept);
+
+        wheel.remove(removed);
+        wheel.remove(removed);
+        assertThat(removed.isScheduled()).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+        List<TimingWheel.Timer> fired = new ArrayList<>();
+        wheel.advance(40, fired::add);
+        assertThat(fired).containsExactly(kept);
+
+        Timer again = new Timer(60);
+        assertThat(wheel.add(again)).isTrue();
+        wheel.advance(60, fired::add);
+        assertThat(fired).containsExactly(kept, again);
+    }
+
+    @Test
+    void rejectsATimerThatIsAlreadyScheduled() {
+        TimingWheel wheel = new TimingWheel(1, 2, 0);
+        Timer timer = new Timer(10);
+        wheel.add(timer);
+
+        assertThatThrownBy(() -> wheel.add(timer)).isInstanceOf(IllegalStateException.class);
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void cascadesTimersFromHigherLevelsToFireOnTheirExactTick() {
+        // 4 slots per level: these sit on levels 0 to 4
+        TimingWheel wheel = new TimingWheel(1, 2, 0);
+        long[] expirations = {3, 5, 17, 64, 70, 255, 256, 300, 1000};
+        for (long expiration : expirations) {
+            wheel.add(new Timer(expiration));
+        }
+        Map<Long, Long> firedAt = new HashMap<>();
+
+        for (long now = 1; now <= 1000; now++) {
+            long tick = now;
+            wheel.advance(now, timer -> firedAt.put(timer.expirationMs(), tick));
+        }
+
+        assertThat(firedAt).hasSize(expirations.length);
+        firedAt.forEach((expiration, tick) -> assertThat(tick).as("timer at %d", expiration).isEqualTo(expiration));
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void firesEveryTimerInTheAdvanceThatReachesItsTick() {
+        Random random = new Random(17);
+        long start = 7;
+        TimingWheel wheel = new TimingWheel(5, 3, start);
+        List<Timer> timers = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Timer timer = new Timer(start + 1 + random.nextInt(200_000));
+            if (wheel.add(timer)) {
+                timers.add(timer);
+            }
+        }
+        Map<TimingWheel.Timer, Long> firedAt = new HashMap<>();
+        long previous = start;
+
+        for (long now = start; now < start + 210_000; now += 1 + random.nextInt(400)) {
+            long target = now;
+            long after = previous;
+            wheel.advance(now, timer -> {
+                assertThat(firedAt.put(timer, target)).isNull();
+                assertThat(fireTick(timer.expirationMs(), 5)).isGreaterThan(Math.floorDiv(after, 5))
+                        .isLessThanOrEqualTo(Math.floorDiv(target, 5));
+            });
+            previous = now;
+        }
+
+        assertThat(firedAt).hasSize(timers.size());
+        assertThat(wheel.size()).isZero();
+    }
+
+    // the first tick at or after ms
+    private static long fireTick(long ms, long tickMs) {
+        return Math.floorDiv(ms + tickMs - 1, tickMs);
+    }
+
+    private static final class Timer extends TimingWheel.Timer {
+        Timer(long expirationMs) {
+            super(expirationMs);
+        }
+    }
+}
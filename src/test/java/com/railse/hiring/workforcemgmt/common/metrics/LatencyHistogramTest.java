@@ -0,0 +1,61 @@
+package com.railse.hiring.workforcemgmt.common.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final LatencyHistogram histogram = new LatencyHistogram(clock::get);
+
+    @Test
+    void quantilesAreWithinTheBucketResolution() {
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos * 1_000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.count()).isEqualTo(100_000);
+        assertThat(snapshot.quantileNanos(0.5)).isBetween(50_000_000L, 52_000_000L);
+        assertThat(snapshot.quantileNanos(0.99)).isBetween(99_000_000L, 102_000_000L);
+        assertThat(snapshot.windowQuantileNanos(0.99)).isEqualTo(snapshot.quantileNanos(0.99));
+    }
+
+    @Test
+    void readingDoesNotConsumeTheWindow() {
+        histogram.record(5_000_000);
+        clock.addAndGet(15_000);
+
+        LatencyHistogram.Snapshot first = histogram.snapshot();
+        LatencyHistogram.Snapshot second = histogram.snapshot();
+
+        assertThat(first.windowCount()).isEqualTo(1);
+        assertThat(second.windowCount()).isEqualTo(1);
+        assertThat(second.windowQuantileNanos(0.99)).isEqualTo(first.windowQuantileNanos(0.99));
+    }
+
+    @Test
+    void valuesLeaveTheWindowAfterAMinute() {
+        histogram.record(100_000_000);
+        for (int i = 0; i < 6; i++) {
+            clock.addAndGet(10_000);
+            histogram.snapshot();
+        }
+        histogram.record(1_000);
+        clock.addAndGet(10_000);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.count()).isEqualTo(2);
+        assertThat(snapshot.windowCount()).isEqualTo(1);
+        assertThat(snapshot.windowQuantileNanos(0.999)).isLessThan(2_000);
+        assertThat(snapshot.quantileNanos(0.999)).isGreaterThanOrEqualTo(100_000_000);
+    }
+
+    @Test
+    void emptyWindowHasNoQuantile() {
+        assertThat(histogram.snapshot().windowQuantileNanos(0.5)).isEqualTo(-1);
+    }
+}
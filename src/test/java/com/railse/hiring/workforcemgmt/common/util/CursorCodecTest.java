@@ -0,0 +1,50 @@
+package com.railse.hiring.workforcemgmt.common.util;
+
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+
+    @Test
+    void decodesWhatItEncoded() {
+        String cursor = CursorCodec.encode("date", 1_700_000_000_000L, 42L);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        assertThat(CursorCodec.decode(cursor, "date", 2)).containsExactly(1_700_000_000_000L, 42L);
+        assertThat(CursorCodec.decode(CursorCodec.encode("all", -5L), "all", 1)).containsExactly(-5L);
+    }
+
+    @Test
+    void rejectsACursorOfAnotherListing() {
+        String cursor = CursorCodec.encode("priority", 17L);
+
+        assertThatThrownBy(() -> CursorCodec.decode(cursor, "all", 1))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("not valid for this listing");
+        assertThatThrownBy(() -> CursorCodec.decode(cursor, "priority", 2))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void rejectsATamperedCursor() {
+        String cursor = CursorCodec.encode("all", 17L);
+
+        assertThatThrownBy(() -> CursorCodec.decode(cursor + "%", "all", 1)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CursorCodec.decode(raw("all:17x"), "all", 1))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Malformed");
+        assertThatThrownBy(() -> CursorCodec.decode(raw("all:"), "all", 1)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CursorCodec.decode(raw("all:1:2"), "all", 1)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CursorCodec.decode("", "all", 1)).isInstanceOf(BadRequestException.class);
+    }
+
+    private static String raw(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,319 @@
+package com.railse.hiring.workforcemgmt.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railse.hiring.workforcemgmt.common.cache.IdempotencyCache;
+import com.railse.hiring.workforcemgmt.common.cache.ResponseCache;
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.common.model.response.Response;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.dto.CommentRequest;
+import com.railse.hiring.workforcemgmt.dto.TaskExportRequest;
+import com.railse.hiring.workforcemgmt.dto.TaskView;
+import com.railse.hiring.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.repository.aggregate.WorkloadAggregates;
+import com.railse.hiring.workforcemgmt.repository.impl.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.search.TaskTextIndex;
+import com.railse.hiring.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskManagementControllerTest {
+    private static final long DEADLINE = 1_700_000_000_000L;
+    private static final long DAY = 86_400_000L;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private MetricsRegistry metrics;
+    private TaskRepository repository;
+    private TaskManagementServiceImpl service;
+    private TaskManagementController controller;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new MetricsRegistry();
+        repository = new InMemoryTaskRepository(metrics);
+        repository.clear();
+        service = new TaskManagementServiceImpl(repository, new ITaskManagementMapperImpl(),
+                metrics, new WorkloadAggregates(repository, 60_000), new TaskTextIndex(repository, metrics), 100, 1000, 16, 4);
+        controller = new TaskManagementController(service, objectMapper,
+                new ResponseCache(objectMapper, metrics, 1 << 20), new IdempotencyCache(objectMapper, metrics, 1 << 20, 60_000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void taskReadGets304UntilTheTaskIsWritten() throws IOException {
+        Long id = repository.save(task(1L, TaskStatus.ASSIGNED, Priority.LOW, DEADLINE)).getId();
+        Long other = repository.save(task(2L, TaskStatus.ASSIGNED, Priority.LOW, DEADLINE)).getId();
+        String etag = controller.getTaskById(id, TaskView.FULL, null).getHeaders().getETag();
+
+        assertThat(controller.getTaskById(id, TaskView.FULL, etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        service.addComment(other, comment("on another task"));
+        assertThat(controller.getTaskById(id, TaskView.FULL, etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        service.addComment(id, comment("first"));
+        ResponseEntity<byte[]> changed = controller.getTaskById(id, TaskView.FULL, etag);
+
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(data(changed).get("comments").get(0).get("message").asText()).isEqualTo("first");
+    }
+
+    @Test
+    void listReadGetsANewETagAfterAnyWrite() throws IOException {
+        Long id = repository.save(task(1L, TaskStatus.ASSIGNED, Priority.LOW, DEADLINE)).getId();
+        String etag = controller.getAllTasks(null, null, TaskView.SUMMARY, null).getHeaders().getETag();
+        assertThat(controller.getAllTasks(null, null, TaskView.SUMMARY, etag).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        service.addComment(id, comment("not part of the summary"));
+        ResponseEntity<byte[]> afterComment = controller.getAllTasks(null, null, TaskView.SUMMARY, etag);
+        repository.save(task(2L, TaskStatus.ASSIGNED, Priority.LOW, DEADLINE));
+        ResponseEntity<byte[]> afterCreate = controller.getAllTasks(null, null, TaskView.SUMMARY,
+                afterComment.getHeaders().getETag());
+
+        assertThat(afterComment.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(afterComment.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(afterCreate.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(afterCreate.getHeaders().getETag()).isNotEqualTo(afterComment.getHeaders().getETag());
+        assertThat(data(afterCreate)).hasSize(2);
+    }
+
+    @Test
+    void aTaskRecreatedUnderTheSameIdAfterAClearIsNotServedFromTheCache() throws IOException {
+        TaskManagement original = task(1L, TaskStatus.ASSIGNED, Priority.LOW, DEADLINE);
+        original.setDescription("before the clear");
+        Long id = repository.save(original).getId();
+        ResponseEntity<byte[]> before = controller.getTaskById(id, TaskView.FULL, null);
+
+        repository.clear();
+        TaskManagement recreated = task(1L, TaskStatus.ASSIGNED, Priority.LOW, DEADLINE);
+        recreated.setDescription("after the clear");
+        TaskManagement saved = repository.save(recreated);
+        assertThat(saved.getId()).isEqualTo(id);
+        ResponseEntity<byte[]> after = controller.getTaskById(id, TaskView.FULL, before.getHeaders().getETag());
+
+        assertThat(after.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(after.getHeaders().getETag()).isNotEqualTo(before.getHeaders().getETag());
+        assertThat(data(after).get("description").asText()).isEqualTo("after the clear");
+    }
+
+    @Test
+    void summaryViewLeavesOutCommentsAndActivityAndFullKeepsThem() throws IOException {
+        Long id = repository.save(task(1L, TaskStatus.ASSIGNED, Priority.LOW, DEADLINE)).getId();
+        service.addComment(id, comment("first"));
+        service.addComment(id, comment("second"));
+
+        JsonNode summary = data(controller.getTaskById(id, TaskView.SUMMARY, null));
+        JsonNode full = data(controller.getTaskById(id, TaskView.FULL, null));
+        JsonNode summaryList = data(controller.getAllTasks(null, null, TaskView.SUMMARY, null)).get(0);
+        JsonNode fullList = data(controller.getAllTasks(null, null, TaskView.FULL, null)).get(0);
+
+        for (JsonNode task : List.of(summary, summaryList)) {
+            assertThat(task.get("description").asText()).isEqualTo("test task");
+            assertThat(task.has("comments")).isFalse();
+            assertThat(task.has("activity_history")).isFalse();
+        }
+        for (JsonNode task : List.of(full, fullList)) {
+            assertThat(task.get("comments")).extracting(comment -> comment.get("message").asText())
+                    .containsExactly("first", "second");
+            assertThat(task.get("activity_history")).hasSize(2);
+        }
+    }
+
+    @Test
+    void commentPagesFollowTheirCursorOldestFirst() {
+        Long id = repository.save(task(1L, TaskStatus.ASSIGNED, Priority.LOW, DEADLINE)).getId();
+        for (int i = 0; i < 7; i++) {
+            service.addComment(id, comment("comment-" + i));
+        }
+
+        List<Comment> comments = new ArrayList<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            Response<List<Comment>> page = controller.getComments(id, null, cursor, 3);
+            comments.addAll(page.getData());
+            cursor = page.getPagination().getNextCursor();
+            assertThat(page.getPagination().getHasMore()).isEqualTo(cursor != null);
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(comments).extracting(Comment::getMessage)
+                .containsExactly("comment-0", "comment-1", "comment-2", "comment-3", "comment-4", "comment-5", "comment-6");
+        assertThat(comments).extracting(Comment::getTimestamp).isSorted();
+        assertThat(controller.getComments(id, 2, null, null).getData()).extracting(Comment::getMessage)
+                .containsExactly("comment-5", "comment-6");
+    }
+
+    @Test
+    void activityPagesFollowTheirCursorOldestFirst() {
+        Long id = repository.save(task(1L, TaskStatus.ASSIGNED, Priority.LOW, DEADLINE)).getId();
+        for (int i = 0; i < 5; i++) {
+            service.addComment(id, comment("comment-" + i));
+        }
+        List<Activity> expected = repository.findById(id).orElseThrow().getActivityHistory();
+
+        List<Activity> activity = new ArrayList<>();
+        String cursor = null;
+        do {
+            Response<List<Activity>> page = controller.getActivity(id, null, cursor, 2);
+            assertThat(page.getData()).hasSizeLessThanOrEqualTo(2);
+            activity.addAll(page.getData());
+            cursor = page.getPagination().getNextCursor();
+        } while (cursor != null);
+
+        assertThat(activity).extracting(Activity::getDescription)
+                .containsExactlyElementsOf(expected.stream().map(Activity::getDescription).toList());
+        assertThat(activity).extracting(Activity::getTimestamp).isSorted();
+        long since = activity.get(3).getTimestamp();
+        assertThat(controller.getActivity(id, since, null, null).getData())
+                .allSatisfy(entry -> assertThat(entry.getTimestamp()).isGreaterThanOrEqualTo(since))
+                .extracting(Activity::getDescription).contains(activity.get(4).getDescription());
+    }
+
+    @Test
+    void historyCursorIsRejectedForAnotherTask() {
+        Long id = repository.save(task(1L, TaskStatus.ASSIGNED, Priority.LOW, DEADLINE)).getId();
+        Long other = repository.save(task(2L, TaskStatus.ASSIGNED, Priority.LOW, DEADLINE)).getId();
+        for (int i = 0; i < 3; i++) {
+            service.addComment(id, comment("comment-" + i));
+        }
+        String cursor = controller.getComments(id, null, null, 1).getPagination().getNextCursor();
+
+        assertThatThrownBy(() -> controller.getComments(other, null, cursor, 1))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> controller.getActivity(id, null, cursor, 1))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void exportWritesOneFilteredTaskPerLine() throws IOException {
+        List<Long> wanted = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            TaskManagement saved = repository.save(task(1L + i % 4, TaskStatus.values()[i % 4],
+                    Priority.values()[i % 3], DEADLINE + (i % 5) * DAY));
+            long deadline = saved.getTaskDeadlineTime();
+            if ((saved.getAssigneeId() == 1 || saved.getAssigneeId() == 2) && saved.getStatus() == TaskStatus.ASSIGNED
+                    && saved.getPriority() == Priority.HIGH && deadline >= DEADLINE + DAY && deadline <= DEADLINE + 3 * DAY) {
+                wanted.add(saved.getId());
+            }
+        }
+        TaskExportRequest request = new TaskExportRequest();
+        request.setAssigneeIds(List.of(1L, 2L));
+        request.setStatus(TaskStatus.ASSIGNED);
+        request.setPriority(Priority.HIGH);
+        request.setStartDate(DEADLINE + DAY);
+        request.setEndDate(DEADLINE + 3 * DAY);
+
+        List<JsonNode> lines = export(request);
+
+        assertThat(wanted).isNotEmpty();
+        assertThat(lines).extracting(line -> line.get("id").asLong()).containsExactlyInAnyOrderElementsOf(wanted);
+        assertThat(lines).allSatisfy(line -> {
+            assertThat(line.get("status").asText()).isEqualTo("ASSIGNED");
+            assertThat(line.get("priority").asText()).isEqualTo("HIGH");
+        });
+    }
+
+    @Test
+    void exportWithoutFiltersWritesEveryTask() throws IOException {
+        for (int i = 0; i < 50; i++) {
+            repository.save(task(1L, TaskStatus.ASSIGNED, Priority.LOW, DEADLINE));
+        }
+
+        assertThat(export(new TaskExportRequest())).hasSize(50);
+    }
+
+    @Test
+    void exportClosesTheStoreStreamWhenTheClientGoesAway() {
+        for (int i = 0; i < 2000; i++) {
+            repository.save(task(1L, TaskStatus.ASSIGNED, Priority.LOW, DEADLINE));
+        }
+        LongAdder closedStreams = metrics.counter("task_mgmt_repository_queries_total", "", "query", "stream");
+        long before = closedStreams.sum();
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> controller.exportTasks(new TaskExportRequest()).getBody().writeTo(disconnected))
+                .isInstanceOf(IOException.class);
+        assertThat(closedStreams.sum()).isEqualTo(before + 1);
+    }
+
+    private JsonNode data(ResponseEntity<byte[]> response) throws IOException {
+        return objectMapper.readTree(response.getBody()).get("data");
+    }
+
+    private static CommentRequest comment(String message) {
+        CommentRequest request = new CommentRequest();
+        request.setAuthor("ops");
+        request.setMessage(message);
+        return request;
+    }
+
+    private List<JsonNode> export(TaskExportRequest request) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        controller.exportTasks(request).getBody().writeTo(out);
+        List<JsonNode> lines = new ArrayList<>();
+        String body = out.toString(StandardCharsets.UTF_8);
+        if (body.isEmpty()) {
+            return lines;
+        }
+        assertThat(body).endsWith("\n");
+        for (String line : body.split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            assertThat(node.isObject()).as(line).isTrue();
+            lines.add(node);
+        }
+        return lines;
+    }
+
+    private static TaskManagement task(Long assigneeId, TaskStatus status, Priority priority, long deadline) {
+        TaskManagement task = new TaskManagement();
+        task.setReferenceId(100L + assigneeId);
+        task.setReferenceType(ReferenceType.ORDER);
+        task.setTask(Task.CREATE_INVOICE);
+        task.setAssigneeId(assigneeId);
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setDescription("test task");
+        task.setTaskDeadlineTime(deadline);
+        return task;
+    }
+}
@@ -0,0 +1,69 @@
+package com.railse.hiring.workforcemgmt.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railse.hiring.workforcemgmt.model.enums.ActivityType;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivityTest {
+
+    @Test
+    void rendersEveryType() {
+        Comment comment = new Comment();
+        comment.setAuthor("ana");
+        comment.setMessage("on my way");
+        Map<ActivityType, String> rendered = new EnumMap<>(ActivityType.class);
+        for (Activity activity : List.of(
+                Activity.text("Task created"),
+                Activity.statusChanged(TaskStatus.STARTED),
+                Activity.descriptionChanged("Collect payment"),
+                Activity.priorityChanged(Priority.HIGH),
+                Activity.assignedByReference(7L),
+                Activity.cancelledByReassignment(),
+                Activity.commentAdded(comment),
+                Activity.overdue(Priority.HIGH))) {
+            rendered.put(activity.getType(), activity.getDescription());
+        }
+
+        assertThat(rendered).containsOnlyKeys(ActivityType.values());
+        assertThat(rendered).containsEntry(ActivityType.TEXT, "Task created")
+                .containsEntry(ActivityType.STATUS_CHANGED, "Update TaskStatus to STARTED")
+                .containsEntry(ActivityType.DESCRIPTION_CHANGED, "Update description to Collect payment")
+                .containsEntry(ActivityType.PRIORITY_CHANGED, "Priority changed to HIGH")
+                .containsEntry(ActivityType.ASSIGNED_BY_REFERENCE, "Task assigned by reference to user 7")
+                .containsEntry(ActivityType.CANCELLED_BY_REASSIGNMENT,
+                        "Task status changed to CANCELLED due to reassignment")
+                .containsEntry(ActivityType.COMMENT_ADDED, "Comment added by ana: on my way")
+                .containsEntry(ActivityType.OVERDUE, "Deadline passed, priority raised to HIGH");
+        assertThat(Activity.overdue(null).getDescription()).isEqualTo("Deadline passed");
+    }
+
+    @Test
+    void serializesOnlyTheDescriptionAndTimestamp() throws Exception {
+        Activity activity = Activity.assignedByReference(7L);
+        activity.setTimestamp(1_000L);
+
+        assertThat(new ObjectMapper().writeValueAsString(activity))
+                .isEqualTo("{\"description\":\"Task assigned by reference to user 7\",\"timestamp\":1000}");
+    }
+
+    @Test
+    void restampingKeepsTheEvent() {
+        Activity.PriorityChanged original = Activity.priorityChanged(Priority.LOW);
+        original.setTimestamp(5L);
+
+        Timestamped copy = original.withTimestamp(9L);
+
+        assertThat(copy).isInstanceOf(Activity.PriorityChanged.class);
+        assertThat(((Activity.PriorityChanged) copy).getPriority()).isEqualTo(Priority.LOW);
+        assertThat(copy.getTimestamp()).isEqualTo(9L);
+        assertThat(original.getTimestamp()).isEqualTo(5L);
+    }
+}
@@ -0,0 +1,109 @@
+package com.railse.hiring.workforcemgmt.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppendOnlyLogTest {
+
+    @Test
+    void clampsLateEntriesWithoutTouchingTheCallersObject() {
+        AppendOnlyLog<Comment> log = new AppendOnlyLog<>();
+        log.add(comment("first", 2_000));
+        Comment late = comment("late", 1_000);
+
+        log.add(late);
+        log.add(comment("next", 3_000));
+
+        assertThat(late.getTimestamp()).isEqualTo(1_000);
+        assertThat(log).extracting(Comment::getMessage).containsExactly("first", "late", "next");
+        assertThat(log).extracting(Comment::getTimestamp).containsExactly(2_000L, 2_000L, 3_000L);
+        assertThat(log.get(1)).isNotSameAs(late);
+        assertThat(log.since(2_000)).hasSize(3);
+        assertThat(log.indexSince(2_001)).isEqualTo(2);
+    }
+
+    @Test
+    void stampsAnUnstampedEntryOnACopy() {
+        AppendOnlyLog<Comment> log = new AppendOnlyLog<>();
+        Comment unstamped = comment("none", 0);
+        unstamped.setTimestamp(null);
+
+        log.add(unstamped);
+
+        assertThat(unstamped.getTimestamp()).isNull();
+        assertThat(log.get(0).getTimestamp()).isNotNull();
+    }
+
+    @Test
+    void copiesDoNotSeeEachOthersAppends() {
+        AppendOnlyLog<Comment> original = new AppendOnlyLog<>();
+        for (int i = 0; i < 3; i++) {
+            original.add(comment("shared-" + i, i));
+        }
+        AppendOnlyLog<Comment> left = original.copy();
+        AppendOnlyLog<Comment> right = original.copy();
+
+        left.add(comment("left", 10));
+        right.add(comment("right", 20));
+        right.add(comment("right-2", 21));
+        original.add(comment("original", 30));
+
+        assertThat(left).extracting(Comment::getMessage).containsExactly("shared-0", "shared-1", "shared-2", "left");
+        assertThat(right).extracting(Comment::getMessage)
+                .containsExactly("shared-0", "shared-1", "shared-2", "right", "right-2");
+        assertThat(original).extracting(Comment::getMessage)
+                .containsExactly("shared-0", "shared-1", "shared-2", "original");
+    }
+
+    @Test
+    void concurrentAppendsToCopiesLoseNothing() throws Exception {
+        AppendOnlyLog<Comment> base = new AppendOnlyLog<>();
+        base.add(comment("base", 0));
+        int threads = 8;
+        int appends = 1_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<AppendOnlyLog<Comment>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String owner = "t" + t;
+                AppendOnlyLog<Comment> copy = base.copy();
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < appends; i++) {
+                        copy.add(comment(owner + "-" + i, i));
+                    }
+                    return copy;
+                }));
+            }
+            start.countDown();
+            for (int t = 0; t < threads; t++) {
+                AppendOnlyLog<Comment> copy = results.get(t).get();
+                assertThat(copy).hasSize(appends + 1);
+                assertThat(copy.get(0).getMessage()).isEqualTo("base");
+                for (int i = 0; i < appends; i++) {
+                    assertThat(copy.get(i + 1).getMessage()).isEqualTo("t" + t + "-" + i);
+                }
+            }
+            assertThat(base).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Comment comment(String message, long timestamp) {
+        Comment comment = new Comment();
+        comment.setAuthor("tester");
+        comment.setMessage(message);
+        comment.setTimestamp(timestamp);
+        return comment;
+    }
+}
@@ -0,0 +1,199 @@
+package com.railse.hiring.workforcemgmt.repository.aggregate;
+
+import com.railse.hiring.workforcemgmt.common.exception.ConcurrentUpdateException;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.dto.WorkloadSummaryDto;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.repository.impl.ColumnarTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.impl.InMemoryTaskRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkloadAggregatesTest {
+    private static final long BUCKET_MS = 60_000;
+    private static final long DAY = 86_400_000L;
+    private static final int ASSIGNEES = 12;
+    private static final int TASKS = 400;
+
+    @Test
+    void matchesARecountAfterConcurrentWritesOnTheIndexedStore() throws Exception {
+        checkAgainstRecount(new InMemoryTaskRepository());
+    }
+
+    @Test
+    void matchesARecountAfterConcurrentWritesOnTheColumnarStore() throws Exception {
+        checkAgainstRecount(new ColumnarTaskRepository());
+    }
+
+    @Test
+    void writesThatMoveNoCounterLeaveTheSummaryAlone() {
+        TaskRepository repository = new InMemoryTaskRepository();
+        WorkloadAggregates aggregates = new WorkloadAggregates(repository, BUCKET_MS);
+        List<WorkloadSummaryDto> before = aggregates.summarize(null);
+
+        TaskManagement task = repository.findById(1L).orElseThrow();
+        task.setDescription("only the text changed");
+        repository.save(task);
+
+        assertThat(aggregates.summarize(null)).isEqualTo(before);
+    }
+
+    @Test
+    void countsWritesThatLandWhileSeeding() {
+        long now = System.currentTimeMillis();
+        AtomicBoolean written = new AtomicBoolean();
+        TaskRepository repository = new InMemoryTaskRepository() {
+            @Override
+            public Stream<TaskManagement> stream(TaskFilter filter) {
+                AtomicInteger seen = new AtomicInteger();
+                return super.stream(filter).peek(task -> {
+                    if (seen.incrementAndGet() == 3 && written.compareAndSet(false, true)) {
+                        // some of these tasks were already counted by the scan, some are still ahead of it
+                        for (TaskManagement stored : findAll()) {
+                            TaskManagement update = findById(stored.getId()).orElseThrow();
+                            update.setStatus(TaskStatus.COMPLETED);
+                            update.setAssigneeId(update.getAssigneeId() + 100);
+                            save(update);
+                        }
+                        save(newTask(now));
+                        save(newTask(now));
+                    }
+                });
+            }
+        };
+
+        WorkloadAggregates aggregates = new WorkloadAggregates(repository, BUCKET_MS);
+
+        assertThat(written).isTrue();
+        assertThat(aggregates.summarize(null)).isEqualTo(recount(repository.findAll()));
+    }
+
+    @Test
+    void countsTasksRecreatedUnderTheSameIds() {
+        TaskRepository repository = new InMemoryTaskRepository();
+        WorkloadAggregates aggregates = new WorkloadAggregates(repository, BUCKET_MS);
+        List<TaskManagement> tasks = repository.findAll();
+
+        repository.clear();
+        assertThat(aggregates.summarize(null)).isEmpty();
+        tasks.forEach(repository::apply);
+
+        assertThat(aggregates.summarize(null)).isEqualTo(recount(repository.findAll()));
+    }
+
+    private void checkAgainstRecount(TaskRepository repository) throws Exception {
+        WorkloadAggregates aggregates = new WorkloadAggregates(repository, BUCKET_MS);
+        long now = System.currentTimeMillis();
+        List<TaskManagement> batch = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            batch.add(newTask(now));
+        }
+        repository.saveAll(batch);
+        List<Long> ids = repository.findAll().stream().map(TaskManagement::getId).toList();
+
+        int threads = 8;
+        int writesPerThread = 6_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < writesPerThread; i++) {
+                        Long id = ids.get(random.nextInt(ids.size()));
+                        while (true) {
+                            TaskManagement task = repository.findById(id).orElseThrow();
+                            switch (random.nextInt(4)) {
+                                case 0 -> task.setAssigneeId(1L + random.nextInt(ASSIGNEES));
+                                case 1 -> task.setStatus(TaskStatus.values()[random.nextInt(TaskStatus.values().length)]);
+                                case 2 -> task.setPriority(Priority.values()[random.nextInt(Priority.values().length)]);
+                                default -> task.setTaskDeadlineTime(deadline(now));
+                            }
+                            try {
+                                repository.save(task);
+                                break;
+                            } catch (ConcurrentUpdateException e) {
+                                // someone else won; re-read
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(aggregates.summarize(null)).isEqualTo(recount(repository.findAll()));
+    }
+
+    // The same summaries computed from scratch
+    private static List<WorkloadSummaryDto> recount(List<TaskManagement> tasks) {
+        long currentBucket = Math.floorDiv(System.currentTimeMillis(), BUCKET_MS);
+        Map<Long, WorkloadSummaryDto> byAssignee = new TreeMap<>();
+        for (TaskManagement task : tasks) {
+            WorkloadSummaryDto summary = byAssignee.computeIfAbsent(task.getAssigneeId(), id -> {
+                Map<TaskStatus, Long> statuses = new EnumMap<>(TaskStatus.class);
+                for (TaskStatus status : TaskStatus.values()) {
+                    statuses.put(status, 0L);
+                }
+                Map<Priority, Long> priorities = new EnumMap<>(Priority.class);
+                for (Priority priority : Priority.values()) {
+                    priorities.put(priority, 0L);
+                }
+                return new WorkloadSummaryDto(id, 0, 0, statuses, priorities);
+            });
+            summary.getTasksByStatus().merge(task.getStatus(), 1L, Long::sum);
+            if (task.getStatus() == TaskStatus.COMPLETED || task.getStatus() == TaskStatus.CANCELLED) {
+                continue;
+            }
+            summary.setOpenTasks(summary.getOpenTasks() + 1);
+            summary.getOpenTasksByPriority().merge(task.getPriority(), 1L, Long::sum);
+            if (task.getTaskDeadlineTime() != null && Math.floorDiv(task.getTaskDeadlineTime(), BUCKET_MS) < currentBucket) {
+                summary.setOverdueTasks(summary.getOverdueTasks() + 1);
+            }
+        }
+        return new ArrayList<>(byAssignee.values());
+    }
+
+    private static TaskManagement newTask(long now) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        TaskManagement task = new TaskManagement();
+        task.setReferenceId(1L + random.nextInt(50));
+        task.setReferenceType(ReferenceType.ORDER);
+        task.setTask(Task.ARRANGE_PICKUP);
+        task.setDescription("workload task");
+        task.setAssigneeId(1L + random.nextInt(ASSIGNEES));
+        task.setStatus(TaskStatus.ASSIGNED);
+        task.setPriority(Priority.MEDIUM);
+        task.setTaskDeadlineTime(deadline(now));
+        return task;
+    }
+
+    // Whole days away from now, so no deadline sits on the bucket the summary is read in
+    private static Long deadline(long now) {
+        int days = ThreadLocalRandom.current().nextInt(-5, 6);
+        return days == 0 ? null : now + days * DAY;
+    }
+}
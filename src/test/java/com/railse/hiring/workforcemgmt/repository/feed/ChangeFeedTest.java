@@ -0,0 +1,130 @@
+package com.railse.hiring.workforcemgmt.repository.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.repository.impl.InMemoryTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeFeedTest {
+    private InMemoryTaskRepository repository;
+    private ChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTaskRepository();
+        feed = new ChangeFeed(repository, new ObjectMapper(), new MetricsRegistry(), 1024, 5, 60_000, 60_000, 300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    void aStalledSubscriberDoesNotHoldUpTheOthers() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(unblock);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        feed.subscribe(0L, slow);
+        feed.subscribe(0L, fast);
+
+        for (int i = 0; i < 20; i++) {
+            touch(1L);
+        }
+
+        // the slow client is stuck in its first send, yet the other one gets every event
+        awaitTrue(() -> fast.events("change") == 20);
+        // past the send deadline the slow client is marked for resync; it gets it once its send returns
+        Thread.sleep(600);
+        unblock.countDown();
+        awaitTrue(() -> slow.completed);
+        assertThat(slow.events("resync")).isEqualTo(1);
+        assertThat(slow.events("change")).isLessThan(20);
+
+        touch(1L);
+        awaitTrue(() -> fast.events("change") == 21);
+        assertThat(fast.completed).isFalse();
+    }
+
+    @Test
+    void aSubscriberResumingFromAnUnknownSequenceIsToldToResync() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        feed.subscribe(1_000_000L, emitter);
+
+        awaitTrue(() -> emitter.completed);
+        assertThat(emitter.events("resync")).isEqualTo(1);
+    }
+
+    @Test
+    void resumesAfterTheGivenSequence() throws Exception {
+        // the feed numbers the writes it saw from 1
+        touch(1L);
+        touch(2L);
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        feed.subscribe(1L, emitter);
+
+        awaitTrue(() -> emitter.events("change") == 1);
+        assertThat(emitter.sent.get(0)).contains("id:2\n").contains("\"task_id\":2");
+    }
+
+    private void touch(long id) {
+        TaskManagement task = repository.findById(id).orElseThrow();
+        task.setDescription("changed " + task.getVersion());
+        repository.save(task);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    // Keeps what would have gone over the wire; with a latch, the first send blocks like a full TCP window
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch blockFirstSend;
+        final List<String> sent = new CopyOnWriteArrayList<>();
+        volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch blockFirstSend) {
+            this.blockFirstSend = blockFirstSend;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (blockFirstSend != null) {
+                try {
+                    blockFirstSend.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            sent.add(builder.build().stream().map(data -> data.getData().toString()).collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        long events(String name) {
+            return sent.stream().filter(text -> text.contains("event:" + name + "\n")).count();
+        }
+    }
+}
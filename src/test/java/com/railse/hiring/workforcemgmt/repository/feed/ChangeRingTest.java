@@ -0,0 +1,92 @@
+package com.railse.hiring.workforcemgmt.repository.feed;
+
+import com.railse.hiring.workforcemgmt.dto.TaskChangeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChangeRingTest {
+
+    @Test
+    void readsBackPublishedEventsAndReportsGaps() {
+        ChangeRing ring = new ChangeRing(8);
+        long first = ring.claim(3);
+        publish(ring, first);
+        publish(ring, first + 2);
+
+        assertThat(first).isEqualTo(1);
+        assertThat(ring.lastSequence()).isEqualTo(3);
+        assertThat(ring.get(1).event.sequence()).isEqualTo(1);
+        // claimed but still in flight
+        assertThat(ring.get(2)).isNull();
+        assertThat(ring.get(3).event.sequence()).isEqualTo(3);
+    }
+
+    @Test
+    void overwrittenEventsAreReportedAsSuch() {
+        ChangeRing ring = new ChangeRing(4);
+        for (int i = 0; i < 10; i++) {
+            publish(ring, ring.claim(1));
+        }
+
+        assertThat(ring.get(6)).isSameAs(ChangeRing.OVERWRITTEN);
+        assertThat(ring.get(7).event.sequence()).isEqualTo(7);
+        assertThat(ring.get(10).event.sequence()).isEqualTo(10);
+    }
+
+    @Test
+    void aStalledProducerDoesNotOverwriteANewerEvent() {
+        ChangeRing ring = new ChangeRing(4);
+        long stalled = ring.claim(1);
+        for (int i = 0; i < 4; i++) {
+            publish(ring, ring.claim(1));
+        }
+        publish(ring, stalled);
+
+        assertThat(ring.get(5).event.sequence()).isEqualTo(5);
+        assertThat(ring.get(stalled)).isSameAs(ChangeRing.OVERWRITTEN);
+    }
+
+    @Test
+    void concurrentProducersPublishEverySequenceOnce() throws Exception {
+        int producers = 4;
+        int perProducer = 2_000;
+        ChangeRing ring = new ChangeRing(16_384);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        publish(ring, ring.claim(1));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(ring.lastSequence()).isEqualTo(producers * perProducer);
+        for (long sequence = 1; sequence <= ring.lastSequence(); sequence++) {
+            assertThat(ring.get(sequence).event.sequence()).isEqualTo(sequence);
+        }
+    }
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        assertThatThrownBy(() -> new ChangeRing(1000)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void publish(ChangeRing ring, long sequence) {
+        ring.publish(new TaskChangeEvent(sequence, TaskChangeEvent.Type.UPDATED, sequence, 1, null, null, null, null, 0));
+    }
+}
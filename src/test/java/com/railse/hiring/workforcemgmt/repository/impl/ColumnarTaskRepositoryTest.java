@@ -0,0 +1,104 @@
+package com.railse.hiring.workforcemgmt.repository.impl;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.AccessPath;
+import com.railse.hiring.workforcemgmt.repository.QueryPlan;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarTaskRepositoryTest {
+
+    @Test
+    void matchesTheIndexedStoreUnderRandomWrites() {
+        ColumnarTaskRepository columnar = new ColumnarTaskRepository();
+        columnar.clear();
+        new RepositoryEquivalence(new InMemoryTaskRepository(new MetricsRegistry(), 0, 1), columnar, true, 11)
+                .run(30, 40);
+    }
+
+    @Test
+    void explainPushesSingleValuePredicatesIntoTheScan() {
+        ColumnarTaskRepository columnar = new ColumnarTaskRepository();
+
+        QueryPlan byId = columnar.explain(new TaskQuery(Set.of(1L), null, null, null, Set.of(TaskStatus.ASSIGNED),
+                null, null, null));
+        QueryPlan scan = columnar.explain(new TaskQuery(null, 7L, ReferenceType.ORDER, Set.of(1L, 2L),
+                Set.of(TaskStatus.ASSIGNED, TaskStatus.STARTED), Set.of(Priority.HIGH), 0L, null));
+
+        assertThat(byId.access()).isEqualTo(AccessPath.ID_LOOKUP);
+        assertThat(byId.residualFilters()).containsExactly("status in [ASSIGNED]");
+        assertThat(scan.access()).isEqualTo(AccessPath.COLUMN_SCAN);
+        // several statuses can't be checked against the status column; everything else is
+        assertThat(scan.residualFilters()).containsExactly("status in [ASSIGNED, STARTED]");
+    }
+
+    @Test
+    void readersNeverSeeAHalfWrittenRow() throws Exception {
+        ColumnarTaskRepository columnar = new ColumnarTaskRepository();
+        long id = columnar.save(InMemoryTaskRepositoryTest.task(1L, TaskStatus.ASSIGNED, Priority.LOW)).getId();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(pool.submit(() -> {
+                    int reads = 0;
+                    while (writing.get()) {
+                        assertConsistent(columnar.findById(id).orElseThrow());
+                        try (Stream<TaskManagement> tasks = columnar.stream(TaskFilter.all())) {
+                            tasks.filter(task -> task.getId() == id).forEach(ColumnarTaskRepositoryTest::assertConsistent);
+                        }
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+            Future<?> writer = pool.submit(() -> {
+                try {
+                    for (long k = 2; k <= 20_000; k++) {
+                        TaskManagement task = columnar.findById(id).orElseThrow();
+                        // every committed row has deadline == assignee * 1000 and a matching description
+                        task.setAssigneeId(k);
+                        task.setTaskDeadlineTime(k * 1_000);
+                        task.setDescription("v" + k);
+                        columnar.save(task);
+                    }
+                } finally {
+                    writing.set(false);
+                }
+            });
+            writer.get();
+            for (Future<Integer> reader : readers) {
+                assertThat(reader.get()).isPositive();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(columnar.findById(id).orElseThrow().getAssigneeId()).isEqualTo(20_000L);
+    }
+
+    private static void assertConsistent(TaskManagement task) {
+        if (!task.getDescription().startsWith("v")) {
+            return;
+        }
+        assertThat(task.getTaskDeadlineTime()).isEqualTo(task.getAssigneeId() * 1_000);
+        assertThat(task.getDescription()).isEqualTo("v" + task.getAssigneeId());
+        assertThat(task.getVersion()).isEqualTo(task.getAssigneeId());
+    }
+}
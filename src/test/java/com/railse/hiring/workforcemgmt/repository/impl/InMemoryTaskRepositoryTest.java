@@ -0,0 +1,265 @@
+package com.railse.hiring.workforcemgmt.repository.impl;
+
+import com.railse.hiring.workforcemgmt.common.exception.ConcurrentUpdateException;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.AccessPath;
+import com.railse.hiring.workforcemgmt.repository.QueryPlan;
+import com.railse.hiring.workforcemgmt.repository.SaveResult;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskQuery;
+import com.railse.hiring.workforcemgmt.repository.tiering.ColdSegmentStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryTaskRepositoryTest {
+    private InMemoryTaskRepository repository;
+
+    @TempDir
+    Path coldDirectory;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTaskRepository(new MetricsRegistry(), 0, 1);
+    }
+
+    @Test
+    void saveRejectsAStaleVersion() {
+        TaskManagement created = repository.save(task(1L, TaskStatus.ASSIGNED, Priority.LOW));
+        TaskManagement first = repository.findById(created.getId()).orElseThrow();
+        TaskManagement second = repository.findById(created.getId()).orElseThrow();
+
+        first.setPriority(Priority.HIGH);
+        repository.save(first);
+        second.setPriority(Priority.MEDIUM);
+
+        assertThatThrownBy(() -> repository.save(second)).isInstanceOf(ConcurrentUpdateException.class);
+        TaskManagement stored = repository.findById(created.getId()).orElseThrow();
+        assertThat(stored.getPriority()).isEqualTo(Priority.HIGH);
+        assertThat(stored.getVersion()).isEqualTo(2);
+        assertThat(repository.findByPriority(Priority.MEDIUM)).isEmpty();
+    }
+
+    @Test
+    void saveAllReportsConflictsPerItem() {
+        TaskManagement created = repository.save(task(1L, TaskStatus.ASSIGNED, Priority.LOW));
+        TaskManagement stale = repository.findById(created.getId()).orElseThrow();
+        repository.save(repository.findById(created.getId()).orElseThrow());
+
+        List<SaveResult> results = repository.saveAll(List.of(stale, task(2L, TaskStatus.ASSIGNED, Priority.LOW)));
+
+        assertThat(results.get(0).error()).isInstanceOf(ConcurrentUpdateException.class);
+        assertThat(results.get(1).error()).isNull();
+        assertThat(repository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void racingReadModifyWriteLoopsLoseNoUpdate() throws Exception {
+        long id = repository.save(task(1L, TaskStatus.ASSIGNED, Priority.LOW)).getId();
+        int threads = 8;
+        int perThread = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        while (true) {
+                            TaskManagement task = repository.findById(id).orElseThrow();
+                            task.setAssigneeId(task.getAssigneeId() + 1);
+                            try {
+                                repository.save(task);
+                                break;
+                            } catch (ConcurrentUpdateException e) {
+                                // re-read and try again
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        TaskManagement stored = repository.findById(id).orElseThrow();
+        assertThat(stored.getAssigneeId()).isEqualTo(1L + threads * perThread);
+        assertThat(stored.getVersion()).isEqualTo(1L + threads * perThread);
+        assertThat(repository.findByAssigneeIdIn(List.of(stored.getAssigneeId()))).hasSize(1);
+        assertThat(repository.findByAssigneeIdIn(List.of(1L))).isEmpty();
+    }
+
+    @Test
+    void coldTasksStayReadableThroughEveryQuery() throws Exception {
+        List<Long> completed = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            TaskManagement saved = repository.save(task(i, i % 2 == 0 ? TaskStatus.COMPLETED : TaskStatus.ASSIGNED,
+                    Priority.LOW));
+            if (saved.getStatus() == TaskStatus.COMPLETED) {
+                completed.add(saved.getId());
+            }
+        }
+        List<TaskManagement> before = repository.findAll();
+        try (ColdSegmentStore cold = new ColdSegmentStore(coldDirectory, 1 << 20, 4, new MetricsRegistry())) {
+            repository.attachColdStore(cold);
+
+            assertThat(repository.evictTerminalTasks(0, 2)).isEqualTo(5);
+
+            assertThat(cold.size()).isEqualTo(5);
+            assertThat(repository.count()).isEqualTo(10);
+            assertThat(repository.countByStatus(TaskStatus.COMPLETED)).isEqualTo(5);
+            assertThat(repository.findAll()).containsExactlyInAnyOrderElementsOf(before);
+            assertThat(repository.findByStatus(TaskStatus.COMPLETED)).extracting(TaskManagement::getId)
+                    .containsExactlyInAnyOrderElementsOf(completed);
+            assertThat(repository.findByAssigneeIdIn(List.of(2L))).extracting(TaskManagement::getId)
+                    .containsExactly(completed.get(0));
+            try (Stream<TaskManagement> tasks = repository.stream(TaskFilter.all())) {
+                assertThat(tasks.count()).isEqualTo(10);
+            }
+            for (Long id : completed) {
+                assertThat(repository.findById(id)).isPresent();
+                assertThat(repository.findVersionById(id)).hasValue(1);
+            }
+        }
+    }
+
+    @Test
+    void savingAColdTaskLoadsItBack() throws Exception {
+        long id = repository.save(task(1L, TaskStatus.COMPLETED, Priority.LOW)).getId();
+        try (ColdSegmentStore cold = new ColdSegmentStore(coldDirectory, 1 << 20, 4, new MetricsRegistry())) {
+            repository.attachColdStore(cold);
+            repository.evictTerminalTasks(0, 16);
+            assertThat(cold.size()).isEqualTo(1);
+            TaskManagement stale = repository.findById(id).orElseThrow();
+
+            TaskManagement reopened = repository.findById(id).orElseThrow();
+            reopened.setStatus(TaskStatus.ASSIGNED);
+            repository.save(reopened);
+
+            assertThat(cold.size()).isZero();
+            assertThat(repository.findById(id).orElseThrow().getStatus()).isEqualTo(TaskStatus.ASSIGNED);
+            assertThat(repository.findByStatus(TaskStatus.COMPLETED)).isEmpty();
+            // the version check still sees the write that loaded it back
+            assertThatThrownBy(() -> repository.save(stale)).isInstanceOf(ConcurrentUpdateException.class);
+            assertThat(repository.evictTerminalTasks(0, 16)).isZero();
+        }
+    }
+
+    @Test
+    void plannerPicksTheNarrowestAccessPath() {
+        long base = savePlannerFixture();
+
+        assertThat(plan(new TaskQuery(Set.of(1L, 2L), null, null, Set.of(1L), null, null, null, null)))
+                .isEqualTo(AccessPath.ID_LOOKUP);
+        assertThat(plan(new TaskQuery(null, 7L, ReferenceType.ORDER, null, Set.of(TaskStatus.ASSIGNED), null, null, null)))
+                .isEqualTo(AccessPath.REFERENCE_INDEX);
+        assertThat(plan(new TaskQuery(null, null, null, Set.of(3L), Set.of(TaskStatus.COMPLETED), null, null, null)))
+                .isEqualTo(AccessPath.ASSIGNEE_INDEX);
+        assertThat(plan(new TaskQuery(null, null, null, Set.of(3L), null, null, base, base + 50_000)))
+                .isEqualTo(AccessPath.ASSIGNEE_DEADLINE_INDEX);
+        assertThat(plan(new TaskQuery(null, null, null, null, Set.of(TaskStatus.COMPLETED), null, base, base + 9_000)))
+                .isEqualTo(AccessPath.DEADLINE_INDEX);
+        assertThat(plan(new TaskQuery(null, null, null, null, Set.of(TaskStatus.ASSIGNED), null, null, null)))
+                .isEqualTo(AccessPath.STATUS_INDEX);
+        assertThat(plan(new TaskQuery(null, null, null, null, Set.of(TaskStatus.COMPLETED), Set.of(Priority.HIGH),
+                null, null))).isEqualTo(AccessPath.PRIORITY_INDEX);
+        // an index as large as the store gains nothing over scanning it in id order
+        assertThat(plan(new TaskQuery(null, null, null, null, Set.of(TaskStatus.ASSIGNED, TaskStatus.COMPLETED),
+                null, null, null))).isEqualTo(AccessPath.FULL_SCAN);
+        assertThat(plan(new TaskQuery(null, null, null, null, null, null, null, null))).isEqualTo(AccessPath.FULL_SCAN);
+    }
+
+    @Test
+    void explainReportsEstimatesAndTheFiltersLeftToCheck() {
+        long base = savePlannerFixture();
+
+        QueryPlan plan = repository.explain(new TaskQuery(null, null, null, Set.of(3L), Set.of(TaskStatus.ASSIGNED),
+                null, base, base + 50_000));
+
+        assertThat(plan.access()).isEqualTo(AccessPath.ASSIGNEE_DEADLINE_INDEX);
+        assertThat(plan.estimatedRows()).isEqualTo(1);
+        assertThat(plan.residualFilters()).containsExactly("status in [ASSIGNED]");
+        assertThat(plan.estimates()).containsEntry(AccessPath.FULL_SCAN, 1000L)
+                .containsEntry(AccessPath.STATUS_INDEX, 100L)
+                .containsEntry(AccessPath.ASSIGNEE_DEADLINE_INDEX, 1L);
+        assertThat(plan.partitions()).isEmpty();
+    }
+
+    @Test
+    void planFollowsTheData() {
+        savePlannerFixture();
+        TaskQuery assigned = new TaskQuery(null, null, null, null, Set.of(TaskStatus.ASSIGNED), Set.of(Priority.LOW),
+                null, null);
+        assertThat(plan(assigned)).isEqualTo(AccessPath.STATUS_INDEX);
+
+        for (TaskManagement task : repository.findByStatus(TaskStatus.COMPLETED)) {
+            TaskManagement reopened = repository.findById(task.getId()).orElseThrow();
+            reopened.setStatus(TaskStatus.ASSIGNED);
+            reopened.setPriority(Priority.HIGH);
+            repository.save(reopened);
+        }
+
+        // 1000 assigned now, but only the 100 that were assigned all along are still LOW
+        assertThat(plan(assigned)).isEqualTo(AccessPath.PRIORITY_INDEX);
+        assertThat(repository.query(assigned, null, 1000)).hasSize(100);
+    }
+
+    /**
+     * 1000 tasks: 50 assignees with 20 tasks each, 5 tasks per reference, one task a second from
+     * {@code base}, 100 ASSIGNED and the rest COMPLETED, 10 of them HIGH.
+     */
+    private long savePlannerFixture() {
+        long base = 1_700_000_000_000L;
+        for (int i = 0; i < 1000; i++) {
+            TaskManagement task = task(1L + i % 50, i % 10 == 0 ? TaskStatus.ASSIGNED : TaskStatus.COMPLETED,
+                    i % 100 == 1 ? Priority.HIGH : Priority.LOW);
+            task.setReferenceId((long) i / 5);
+            task.setTaskDeadlineTime(base + i * 1000L);
+            repository.save(task);
+        }
+        return base;
+    }
+
+    private AccessPath plan(TaskQuery query) {
+        AccessPath access = repository.explain(query).access();
+        // whatever the path, the results are those of checking every task
+        assertThat(repository.query(query, null, 1000))
+                .containsExactlyElementsOf(repository.findAll().stream()
+                        .filter(query::matches)
+                        .sorted(Comparator.comparing(TaskManagement::getId))
+                        .toList());
+        return access;
+    }
+
+    static TaskManagement task(Long assigneeId, TaskStatus status, Priority priority) {
+        TaskManagement task = new TaskManagement();
+        task.setReferenceId(100L + assigneeId);
+        task.setReferenceType(ReferenceType.ORDER);
+        task.setTask(Task.CREATE_INVOICE);
+        task.setAssigneeId(assigneeId);
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setDescription("test task");
+        task.setTaskDeadlineTime(System.currentTimeMillis() + 86_400_000L);
+        return task;
+    }
+}
@@ -0,0 +1,350 @@
+package com.railse.hiring.workforcemgmt.repository.impl;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.SaveResult;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskQuery;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives a store and the indexed reference store through the same random writes and checks after
+ * every round that each read agrees. Tasks are matched by a key kept in their description, so
+ * stores that number tasks differently (sharded) compare too; with {@code sameOrder}, id-ordered
+ * results must also come back in the same order, which holds when both number tasks by creation.
+ */
+final class RepositoryEquivalence {
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long DAY = 86_400_000L;
+    private static final int PAGE = 7;
+    private static final int ASSIGNEES = 6;
+    private static final int REFERENCES = 8;
+
+    private final TaskRepository expected;
+    private final TaskRepository actual;
+    private final boolean sameOrder;
+    private final Random random;
+    // the same logical task's id in each store
+    private final List<Long> expectedIds = new ArrayList<>();
+    private final List<Long> actualIds = new ArrayList<>();
+    private int created;
+
+    RepositoryEquivalence(TaskRepository expected, TaskRepository actual, boolean sameOrder, long seed) {
+        this.expected = expected;
+        this.actual = actual;
+        this.sameOrder = sameOrder;
+        this.random = new Random(seed);
+    }
+
+    void run(int rounds, int writesPerRound) {
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < writesPerRound; i++) {
+                write();
+            }
+            verify();
+        }
+    }
+
+    private void write() {
+        int op = random.nextInt(10);
+        if (expectedIds.isEmpty() || op < 2) {
+            TaskManagement task = newTask();
+            expectedIds.add(expected.save(task.copy()).getId());
+            actualIds.add(actual.save(task).getId());
+        } else if (op == 2) {
+            List<TaskManagement> batch = new ArrayList<>();
+            for (int i = 1 + random.nextInt(5); i > 0; i--) {
+                batch.add(newTask());
+            }
+            List<SaveResult> saved = expected.saveAll(batch.stream().map(TaskManagement::copy).toList());
+            List<SaveResult> savedToo = actual.saveAll(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                expectedIds.add(saved.get(i).task().getId());
+                actualIds.add(savedToo.get(i).task().getId());
+            }
+        } else {
+            int index = random.nextInt(expectedIds.size());
+            Consumer<TaskManagement> change = op == 9 ? this::addComment : randomUpdate();
+            TaskManagement before = expected.findById(expectedIds.get(index)).orElseThrow();
+            TaskManagement beforeToo = actual.findById(actualIds.get(index)).orElseThrow();
+            change.accept(before);
+            change.accept(beforeToo);
+            assertThat(actual.save(beforeToo).getVersion()).isEqualTo(expected.save(before).getVersion());
+        }
+    }
+
+    private TaskManagement newTask() {
+        TaskManagement task = new TaskManagement();
+        task.setDescription("task-" + created++);
+        task.setTask(Task.values()[random.nextInt(Task.values().length)]);
+        randomReference().accept(task);
+        task.setAssigneeId(1L + random.nextInt(ASSIGNEES));
+        task.setStatus(randomStatus());
+        task.setPriority(Priority.values()[random.nextInt(Priority.values().length)]);
+        task.setTaskDeadlineTime(randomDeadline());
+        return task;
+    }
+
+    private Consumer<TaskManagement> randomUpdate() {
+        return switch (random.nextInt(5)) {
+            case 0 -> {
+                long assignee = 1L + random.nextInt(ASSIGNEES);
+                yield task -> task.setAssigneeId(assignee);
+            }
+            case 1 -> {
+                TaskStatus status = randomStatus();
+                yield task -> task.setStatus(status);
+            }
+            case 2 -> {
+                Priority priority = Priority.values()[random.nextInt(Priority.values().length)];
+                yield task -> task.setPriority(priority);
+            }
+            case 3 -> {
+                Long deadline = randomDeadline();
+                yield task -> task.setTaskDeadlineTime(deadline);
+            }
+            default -> randomReference();
+        };
+    }
+
+    private Consumer<TaskManagement> randomReference() {
+        long referenceId = 1L + random.nextInt(REFERENCES);
+        ReferenceType type = random.nextBoolean() ? ReferenceType.ORDER : ReferenceType.ENTITY;
+        return task -> {
+            task.setReferenceId(referenceId);
+            task.setReferenceType(type);
+        };
+    }
+
+    private void addComment(TaskManagement task) {
+        Comment comment = new Comment();
+        comment.setAuthor("tester");
+        comment.setMessage("comment " + task.getComments().size());
+        comment.setTimestamp(NOW);
+        task.getComments().add(comment);
+    }
+
+    private TaskStatus randomStatus() {
+        return TaskStatus.values()[random.nextInt(TaskStatus.values().length)];
+    }
+
+    // few distinct deadlines, so many tasks share one and the (deadline, id) cursors must break ties
+    private Long randomDeadline() {
+        return random.nextInt(10) == 0 ? null : NOW + (random.nextInt(11) - 5) * DAY + random.nextInt(3);
+    }
+
+    private void verify() {
+        assertThat(actual.count()).isEqualTo(expected.count());
+        for (TaskStatus status : TaskStatus.values()) {
+            assertThat(actual.countByStatus(status)).as("count %s", status).isEqualTo(expected.countByStatus(status));
+            compare("status " + status, expected.findByStatus(status), actual.findByStatus(status), false);
+        }
+        for (Priority priority : Priority.values()) {
+            assertThat(actual.countByPriority(priority)).as("count %s", priority)
+                    .isEqualTo(expected.countByPriority(priority));
+            compare("priority " + priority, expected.findByPriority(priority), actual.findByPriority(priority), false);
+            compare("priority pages " + priority,
+                    pages((after, limit) -> expected.findByPriorityAfter(priority, after, limit)),
+                    pages((after, limit) -> actual.findByPriorityAfter(priority, after, limit)), sameOrder);
+        }
+        for (int i = 0; i < expectedIds.size(); i++) {
+            assertThat(canonical(actual.findById(actualIds.get(i)).orElseThrow()))
+                    .isEqualTo(canonical(expected.findById(expectedIds.get(i)).orElseThrow()));
+            assertThat(actual.findVersionById(actualIds.get(i))).isEqualTo(expected.findVersionById(expectedIds.get(i)));
+        }
+        compare("findAll", expected.findAll(), actual.findAll(), false);
+        compare("findAllAfter", pages(expected::findAllAfter), pages(actual::findAllAfter), sameOrder);
+        List<TaskManagement> all = expected.findAll();
+        for (long referenceId = 1; referenceId <= REFERENCES; referenceId++) {
+            for (ReferenceType type : ReferenceType.values()) {
+                long id = referenceId;
+                List<TaskManagement> wanted = expected.findByReferenceIdAndReferenceType(referenceId, type);
+                compare("reference " + referenceId + " " + type, wanted,
+                        actual.findByReferenceIdAndReferenceType(referenceId, type), false);
+                compare("reference vs scan " + referenceId + " " + type, scan(all, task ->
+                        task.getReferenceId() == id && task.getReferenceType() == type), wanted, false);
+            }
+        }
+        for (int i = 0; i < 5; i++) {
+            List<Long> assignees = randomAssignees();
+            List<TaskManagement> byAssignee = expected.findByAssigneeIdIn(assignees);
+            compare("assignees " + assignees, byAssignee, actual.findByAssigneeIdIn(assignees), false);
+            compare("assignees vs scan " + assignees, scan(all, task -> assignees.contains(task.getAssigneeId())),
+                    byAssignee, false);
+            long start = NOW + (random.nextInt(7) - 3) * DAY;
+            long end = start + random.nextInt(3) * DAY;
+            List<TaskManagement> window = deadlinePages(expected, assignees, start, end);
+            compare("deadline window " + assignees, window, deadlinePages(actual, assignees, start, end), sameOrder);
+            compare("deadline window vs scan " + assignees, deadlineScan(all, assignees, start, end), window, true);
+        }
+        for (int i = 0; i < 5; i++) {
+            TaskFilter filter = randomFilter();
+            try (Stream<TaskManagement> wanted = expected.stream(filter); Stream<TaskManagement> got = actual.stream(filter)) {
+                compare("stream " + filter, wanted.toList(), got.toList(), false);
+            }
+        }
+        for (int i = 0; i < 10; i++) {
+            verifyQuery(randomQueryIndexes());
+        }
+    }
+
+    private void verifyQuery(QueryShape shape) {
+        TaskQuery wanted = shape.toQuery(expectedIds);
+        TaskQuery got = shape.toQuery(actualIds);
+        List<TaskManagement> expectedRows = pages((after, limit) -> expected.query(wanted, after, limit));
+        List<TaskManagement> actualRows = pages((after, limit) -> actual.query(got, after, limit));
+        compare("query " + wanted, expectedRows, actualRows, sameOrder);
+        List<TaskManagement> brute = expected.findAll().stream().filter(wanted::matches).toList();
+        compare("query vs scan " + wanted, brute, expectedRows, false);
+    }
+
+    // Every page of an id-cursor read; ids must ascend across pages
+    private static List<TaskManagement> pages(BiFunction<Long, Integer, List<TaskManagement>> page) {
+        List<TaskManagement> all = new ArrayList<>();
+        Long after = null;
+        while (true) {
+            List<TaskManagement> rows = page.apply(after, PAGE);
+            assertThat(rows.size()).isLessThanOrEqualTo(PAGE);
+            all.addAll(rows);
+            if (rows.size() < PAGE) {
+                assertThat(all).extracting(TaskManagement::getId).isSorted().doesNotHaveDuplicates();
+                return all;
+            }
+            after = rows.get(rows.size() - 1).getId();
+        }
+    }
+
+    private static List<TaskManagement> deadlinePages(TaskRepository store, List<Long> assignees, long start, long end) {
+        List<TaskManagement> all = new ArrayList<>();
+        Long afterDeadline = null;
+        Long afterId = null;
+        while (true) {
+            List<TaskManagement> rows = store.findByAssigneeIdInAndDeadlineWindow(assignees, start, end, afterDeadline,
+                    afterId, PAGE);
+            all.addAll(rows);
+            if (rows.size() < PAGE) {
+                assertThat(all).isSortedAccordingTo(Comparator.comparing(TaskManagement::getTaskDeadlineTime)
+                        .thenComparing(TaskManagement::getId));
+                return all;
+            }
+            afterDeadline = rows.get(rows.size() - 1).getTaskDeadlineTime();
+            afterId = rows.get(rows.size() - 1).getId();
+        }
+    }
+
+    private static List<TaskManagement> scan(List<TaskManagement> all, Predicate<TaskManagement> matches) {
+        return all.stream().filter(matches).toList();
+    }
+
+    // The daily view by its definition: non-cancelled tasks due in [start, end] and open ones due before start
+    private static List<TaskManagement> deadlineScan(List<TaskManagement> all, List<Long> assignees, long start,
+                                                     long end) {
+        return all.stream()
+                .filter(task -> assignees.contains(task.getAssigneeId()) && task.getTaskDeadlineTime() != null)
+                .filter(task -> {
+                    long deadline = task.getTaskDeadlineTime();
+                    if (deadline >= start && deadline <= end) {
+                        return task.getStatus() != TaskStatus.CANCELLED;
+                    }
+                    return deadline < start && task.getStatus() != TaskStatus.CANCELLED
+                            && task.getStatus() != TaskStatus.COMPLETED;
+                })
+                .sorted(Comparator.comparing(TaskManagement::getTaskDeadlineTime).thenComparing(TaskManagement::getId))
+                .toList();
+    }
+
+    private List<Long> randomAssignees() {
+        List<Long> assignees = new ArrayList<>();
+        for (int i = 1 + random.nextInt(3); i > 0; i--) {
+            assignees.add(1L + random.nextInt(ASSIGNEES + 1));
+        }
+        return assignees;
+    }
+
+    private TaskFilter randomFilter() {
+        Set<Long> assignees = random.nextBoolean() ? new HashSet<>(randomAssignees()) : null;
+        TaskStatus status = random.nextInt(3) == 0 ? randomStatus() : null;
+        Priority priority = random.nextInt(3) == 0 ? Priority.values()[random.nextInt(Priority.values().length)] : null;
+        Long from = random.nextInt(3) == 0 ? NOW + (random.nextInt(7) - 4) * DAY : null;
+        Long to = random.nextInt(3) == 0 ? NOW + (random.nextInt(7) - 2) * DAY : null;
+        return new TaskFilter(assignees, status, priority, from, to);
+    }
+
+    private QueryShape randomQueryIndexes() {
+        Set<Integer> ids = null;
+        if (random.nextInt(4) == 0) {
+            ids = new HashSet<>();
+            for (int i = random.nextInt(6); i >= 0; i--) {
+                ids.add(random.nextInt(expectedIds.size() + 2));
+            }
+        }
+        boolean reference = random.nextInt(3) == 0;
+        Long referenceId = reference ? 1L + random.nextInt(REFERENCES) : null;
+        ReferenceType type = reference ? ReferenceType.values()[random.nextInt(ReferenceType.values().length)] : null;
+        Set<Long> assignees = random.nextBoolean() ? new HashSet<>(randomAssignees()) : null;
+        Set<TaskStatus> statuses = null;
+        if (random.nextInt(3) == 0) {
+            statuses = EnumSet.of(randomStatus(), randomStatus());
+        }
+        Set<Priority> priorities = null;
+        if (random.nextInt(3) == 0) {
+            priorities = EnumSet.of(Priority.values()[random.nextInt(Priority.values().length)]);
+        }
+        Long from = random.nextInt(3) == 0 ? NOW + (random.nextInt(7) - 4) * DAY : null;
+        Long to = random.nextInt(3) == 0 ? NOW + (random.nextInt(7) - 2) * DAY : null;
+        return new QueryShape(ids, referenceId, type, assignees, statuses, priorities, from, to);
+    }
+
+    // A query naming tasks by their logical index, translated into each store's ids
+    private record QueryShape(Set<Integer> indexes, Long referenceId, ReferenceType referenceType, Set<Long> assigneeIds,
+                              Set<TaskStatus> statuses, Set<Priority> priorities, Long deadlineFrom, Long deadlineTo) {
+        TaskQuery toQuery(List<Long> ids) {
+            Set<Long> translated = null;
+            if (indexes != null) {
+                translated = new HashSet<>();
+                for (int index : indexes) {
+                    // indexes past the end name tasks that don't exist
+                    translated.add(index < ids.size() ? ids.get(index) : Long.MAX_VALUE - index);
+                }
+            }
+            return new TaskQuery(translated, referenceId, referenceType, assigneeIds, statuses, priorities,
+                    deadlineFrom, deadlineTo);
+        }
+    }
+
+    private void compare(String what, List<TaskManagement> wanted, List<TaskManagement> got, boolean ordered) {
+        List<String> wantedRows = wanted.stream().map(RepositoryEquivalence::canonical).toList();
+        List<String> gotRows = got.stream().map(RepositoryEquivalence::canonical).toList();
+        if (ordered) {
+            assertThat(gotRows).as(what).containsExactlyElementsOf(wantedRows);
+        } else {
+            assertThat(gotRows).as(what).containsExactlyInAnyOrderElementsOf(wantedRows);
+        }
+    }
+
+    private static String canonical(TaskManagement task) {
+        return String.join("|", task.getDescription(), String.valueOf(task.getVersion()),
+                String.valueOf(task.getReferenceId()), String.valueOf(task.getReferenceType()),
+                String.valueOf(task.getTask()), String.valueOf(task.getAssigneeId()), String.valueOf(task.getStatus()),
+                String.valueOf(task.getPriority()), String.valueOf(task.getTaskDeadlineTime()),
+                String.valueOf(task.getComments().size()));
+    }
+}
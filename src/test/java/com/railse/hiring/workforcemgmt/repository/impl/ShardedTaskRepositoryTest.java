@@ -0,0 +1,115 @@
+package com.railse.hiring.workforcemgmt.repository.impl;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.AccessPath;
+import com.railse.hiring.workforcemgmt.repository.QueryPlan;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardedTaskRepositoryTest {
+
+    @Test
+    void matchesTheIndexedStoreUnderRandomWrites() {
+        ShardedTaskRepository sharded = new ShardedTaskRepository(new MetricsRegistry(), 4);
+        sharded.clear();
+        new RepositoryEquivalence(new InMemoryTaskRepository(new MetricsRegistry(), 0, 1), sharded, false, 18)
+                .run(30, 40);
+    }
+
+    @Test
+    void explainRoutesReferenceQueriesToOneShard() {
+        ShardedTaskRepository sharded = new ShardedTaskRepository(new MetricsRegistry(), 4);
+        sharded.clear();
+        for (int i = 0; i < 100; i++) {
+            sharded.save(InMemoryTaskRepositoryTest.task((long) i, TaskStatus.ASSIGNED, Priority.MEDIUM));
+        }
+
+        QueryPlan byReference = sharded.explain(new TaskQuery(null, 105L, ReferenceType.ORDER, null, null, null,
+                null, null));
+        QueryPlan byStatus = sharded.explain(new TaskQuery(null, null, null, null, Set.of(TaskStatus.ASSIGNED), null,
+                null, null));
+
+        assertThat(byReference.access()).isEqualTo(AccessPath.REFERENCE_INDEX);
+        assertThat(byReference.estimatedRows()).isEqualTo(1);
+        assertThat(byStatus.access()).isEqualTo(AccessPath.FAN_OUT);
+        assertThat(byStatus.partitions()).hasSize(4);
+        assertThat(byStatus.estimatedRows()).isEqualTo(100);
+    }
+
+    @Test
+    void referenceLookupsStopFanningOutOnceAMovedTaskIsBackInPlace() {
+        ShardedTaskRepository sharded = new ShardedTaskRepository(new MetricsRegistry(), 4);
+        sharded.clear();
+        for (int i = 0; i < 100; i++) {
+            sharded.save(InMemoryTaskRepositoryTest.task((long) i, TaskStatus.ASSIGNED, Priority.MEDIUM));
+        }
+        TaskManagement moved = sharded.findByReferenceIdAndReferenceType(105L, ReferenceType.ORDER).get(0);
+        long reference = 1_000;
+        while (true) {
+            TaskManagement update = sharded.findById(moved.getId()).orElseThrow();
+            update.setReferenceId(reference);
+            sharded.save(update);
+            if (explainReference(sharded, reference).access() == AccessPath.FAN_OUT) {
+                break;
+            }
+            reference++;
+        }
+
+        assertThat(sharded.findByReferenceIdAndReferenceType(reference, ReferenceType.ORDER))
+                .extracting(TaskManagement::getId).containsExactly(moved.getId());
+        assertThat(sharded.findByReferenceIdAndReferenceType(105L, ReferenceType.ORDER)).isEmpty();
+
+        TaskManagement back = sharded.findById(moved.getId()).orElseThrow();
+        back.setReferenceId(105L);
+        sharded.save(back);
+
+        assertThat(explainReference(sharded, 105L).access()).isEqualTo(AccessPath.REFERENCE_INDEX);
+        assertThat(explainReference(sharded, reference).access()).isEqualTo(AccessPath.REFERENCE_INDEX);
+        assertThat(sharded.findByReferenceIdAndReferenceType(105L, ReferenceType.ORDER))
+                .extracting(TaskManagement::getId).containsExactly(moved.getId());
+    }
+
+    @Test
+    void streamReadsOneShardAtATime() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        ShardedTaskRepository sharded = new ShardedTaskRepository(metrics, 4);
+        sharded.clear();
+        for (int i = 0; i < 400; i++) {
+            sharded.save(InMemoryTaskRepositoryTest.task((long) i, TaskStatus.ASSIGNED, Priority.MEDIUM));
+        }
+        LongAdder streams = metrics.counter("task_mgmt_repository_queries_total", "", "query", "stream");
+        LongAdder returned = metrics.counter("task_mgmt_repository_rows_returned_total", "", "query", "stream");
+
+        try (Stream<TaskManagement> tasks = sharded.stream(TaskFilter.all())) {
+            Iterator<TaskManagement> iterator = tasks.iterator();
+            for (int i = 0; i < 3; i++) {
+                iterator.next();
+            }
+        }
+        // only the first shard was opened, and it was read no further than the consumer asked
+        assertThat(streams.sum()).isEqualTo(1);
+        assertThat(returned.sum()).isEqualTo(3);
+
+        try (Stream<TaskManagement> tasks = sharded.stream(TaskFilter.all())) {
+            assertThat(tasks.count()).isEqualTo(400);
+        }
+        assertThat(streams.sum()).isEqualTo(1 + 4);
+        assertThat(returned.sum()).isEqualTo(3 + 400);
+    }
+
+    private static QueryPlan explainReference(ShardedTaskRepository sharded, long referenceId) {
+        return sharded.explain(new TaskQuery(null, referenceId, ReferenceType.ORDER, null, null, null, null, null));
+    }
+}
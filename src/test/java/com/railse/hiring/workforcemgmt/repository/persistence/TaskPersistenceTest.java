@@ -0,0 +1,51 @@
+package com.railse.hiring.workforcemgmt.repository.persistence;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.repository.impl.InMemoryTaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskPersistenceTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void restartRestoresTheSnapshotAndTheLogTail() throws IOException {
+        TaskRepository first = new InMemoryTaskRepository();
+        TaskPersistence persistence = start(first);
+        TaskManagement task = first.findById(1L).orElseThrow();
+        task.setPriority(Priority.LOW);
+        first.save(task);
+        persistence.snapshot();
+        task = first.findById(2L).orElseThrow();
+        task.setDescription("changed after the snapshot");
+        first.save(task);
+        persistence.stop();
+
+        TaskRepository second = new InMemoryTaskRepository();
+        TaskPersistence restarted = start(second);
+        try {
+            assertThat(second.count()).isEqualTo(first.count());
+            assertThat(second.findById(1L).orElseThrow().getPriority()).isEqualTo(Priority.LOW);
+            assertThat(second.findById(2L).orElseThrow())
+                    .usingRecursiveComparison().isEqualTo(first.findById(2L).orElseThrow());
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    private TaskPersistence start(TaskRepository repository) throws IOException {
+        TaskPersistence persistence = new TaskPersistence(repository, new MetricsRegistry(), directory.toString(),
+                3_600_000, 1024, 64, 5, false);
+        persistence.start();
+        return persistence;
+    }
+}
@@ -0,0 +1,199 @@
+package com.railse.hiring.workforcemgmt.repository.persistence;
+
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.TaskChange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class WriteAheadLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysEveryRecordInOrder() throws IOException {
+        try (WriteAheadLog log = open(0)) {
+            log.onChanges(List.of(change(task(1, 1))));
+            log.onChanges(List.of(change(task(2, 1)), change(task(1, 2))));
+        }
+
+        List<TaskManagement> replayed = new ArrayList<>();
+        long nextLsn = WriteAheadLog.replay(directory, 0, replayed::add);
+
+        assertThat(nextLsn).isEqualTo(3);
+        assertThat(replayed).extracting(TaskManagement::getId, TaskManagement::getVersion)
+                .containsExactly(tuple(1L, 1L), tuple(2L, 1L), tuple(1L, 2L));
+        assertThat(replayed.get(2).getComments()).extracting(Comment::getMessage).containsExactly("note 1");
+    }
+
+    @Test
+    void replayStopsAtATornTailAndTheLogContinuesAfterIt() throws IOException {
+        try (WriteAheadLog log = open(0)) {
+            for (long id = 1; id <= 3; id++) {
+                log.onChanges(List.of(change(task(id, 1))));
+            }
+        }
+        Path segment = WriteAheadLog.segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // the last record was only partly written when the process died
+            channel.truncate(channel.size() - 5);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        long nextLsn = WriteAheadLog.replay(directory, 0, task -> ids.add(task.getId()));
+        assertThat(ids).containsExactly(1L, 2L);
+        assertThat(nextLsn).isEqualTo(2);
+
+        try (WriteAheadLog log = open(nextLsn)) {
+            log.onChanges(List.of(change(task(4, 1))));
+        }
+        ids.clear();
+        assertThat(WriteAheadLog.replay(directory, 0, task -> ids.add(task.getId()))).isEqualTo(3);
+        assertThat(ids).containsExactly(1L, 2L, 4L);
+    }
+
+    @Test
+    void replayStopsAtACorruptRecord() throws IOException {
+        try (WriteAheadLog log = open(0)) {
+            for (long id = 1; id <= 3; id++) {
+                log.onChanges(List.of(change(task(id, 1))));
+            }
+        }
+        Path segment = WriteAheadLog.segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            last.put(0, (byte) ~last.get(0)).rewind();
+            channel.write(last, channel.size() - 1);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        WriteAheadLog.replay(directory, 0, task -> ids.add(task.getId()));
+        assertThat(ids).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void replayDoesNotSkipPastACorruptRecordIntoLaterSegments() throws IOException {
+        try (WriteAheadLog log = open(0)) {
+            for (long id = 1; id <= 3; id++) {
+                log.onChanges(List.of(change(task(id, 1))));
+            }
+            assertThat(log.rotate()).isEqualTo(3);
+            log.onChanges(List.of(change(task(4, 1))));
+            assertThat(log.rotate()).isEqualTo(4);
+            log.onChanges(List.of(change(task(5, 1))));
+        }
+        Path first = WriteAheadLog.segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(first, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        long nextLsn = WriteAheadLog.replay(directory, 0, task -> ids.add(task.getId()));
+
+        assertThat(ids).containsExactly(1L, 2L);
+        assertThat(nextLsn).isEqualTo(2);
+    }
+
+    @Test
+    void replayStopsAtAMissingSegment() throws IOException {
+        try (WriteAheadLog log = open(0)) {
+            log.onChanges(List.of(change(task(1, 1))));
+            assertThat(log.rotate()).isEqualTo(1);
+            log.onChanges(List.of(change(task(2, 1))));
+            assertThat(log.rotate()).isEqualTo(2);
+            log.onChanges(List.of(change(task(3, 1))));
+        }
+        Files.delete(WriteAheadLog.segments(directory).get(1));
+
+        List<Long> ids = new ArrayList<>();
+        assertThat(WriteAheadLog.replay(directory, 0, task -> ids.add(task.getId()))).isEqualTo(1);
+        assertThat(ids).containsExactly(1L);
+    }
+
+    @Test
+    void replaySkipsRecordsCoveredByASnapshot() throws IOException {
+        try (WriteAheadLog log = open(0)) {
+            log.onChanges(List.of(change(task(1, 1))));
+            assertThat(log.rotate()).isEqualTo(1);
+            log.onChanges(List.of(change(task(2, 1))));
+        }
+
+        List<Long> ids = new ArrayList<>();
+        assertThat(WriteAheadLog.replay(directory, 1, task -> ids.add(task.getId()))).isEqualTo(2);
+        assertThat(ids).containsExactly(2L);
+    }
+
+    @Test
+    void aFailedWriteStopsTheLogInsteadOfLeavingAGap() throws IOException {
+        try (WriteAheadLog log = open(0)) {
+            log.onChanges(List.of(change(task(1, 1))));
+            assertThat(log.rotate()).isEqualTo(1);
+
+            // a record that cannot be encoded fails its batch
+            TaskManagement broken = task(2, 1);
+            broken.setId(null);
+            log.onChanges(List.of(change(broken)));
+
+            // a rotation (snapshot) waiting behind the failed batch fails instead of hanging
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+                    assertThatThrownBy(log::rotate).isInstanceOf(IllegalStateException.class));
+            assertThat(log.failure()).isNotNull();
+            assertThatThrownBy(() -> log.onChanges(List.of(change(task(3, 1)))))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        WriteAheadLog.replay(directory, 0, task -> ids.add(task.getId()));
+        assertThat(ids).containsExactly(1L);
+    }
+
+    private WriteAheadLog open(long nextLsn) {
+        return new WriteAheadLog(directory, nextLsn, 1024, 64, 5, false);
+    }
+
+    private static TaskChange change(TaskManagement task) {
+        return new TaskChange(null, task);
+    }
+
+    private static TaskManagement task(long id, long version) {
+        TaskManagement task = new TaskManagement();
+        task.setId(id);
+        task.setVersion(version);
+        task.setReferenceId(100 + id);
+        task.setReferenceType(ReferenceType.ORDER);
+        task.setTask(Task.CREATE_INVOICE);
+        task.setDescription("task " + id);
+        task.setStatus(TaskStatus.ASSIGNED);
+        task.setAssigneeId(id);
+        task.setTaskDeadlineTime(1_000L * id);
+        task.setPriority(Priority.MEDIUM);
+        for (long i = 1; i < version; i++) {
+            Comment comment = new Comment();
+            comment.setAuthor("author");
+            comment.setMessage("note " + i);
+            comment.setTimestamp(i);
+            task.getComments().add(comment);
+        }
+        return task;
+    }
+}
@@ -0,0 +1,176 @@
+package com.railse.hiring.workforcemgmt.repository.replication;
+
+import com.railse.hiring.workforcemgmt.common.exception.ReadOnlyReplicaException;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.repository.impl.ColumnarTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.impl.InMemoryTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** A primary and two followers (one indexed, one columnar) talking over localhost. */
+class ReplicationTest {
+    private static final long HEARTBEAT_MS = 50;
+
+    private final List<Runnable> shutdown = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        shutdown.forEach(Runnable::run);
+    }
+
+    @Test
+    void followersConvergeOnThePrimarysTasks() throws Exception {
+        int port = freePort();
+        TaskRepository primaryStore = new InMemoryTaskRepository();
+        ReplicationPrimary primary = primary(primaryStore, port);
+        TaskRepository indexed = new InMemoryTaskRepository();
+        TaskRepository columnar = new ColumnarTaskRepository();
+        ReplicationFollower indexedFollower = follower(indexed, port);
+        ReplicationFollower columnarFollower = follower(columnar, port);
+
+        for (int i = 0; i < 200; i++) {
+            primaryStore.save(task(i));
+        }
+        TaskManagement commented = primaryStore.findById(1L).orElseThrow();
+        Comment comment = new Comment();
+        comment.setAuthor("replication");
+        comment.setMessage("after the creates");
+        commented.getComments().add(comment);
+        primaryStore.save(commented);
+
+        awaitInSync(primaryStore, indexed, indexedFollower);
+        awaitInSync(primaryStore, columnar, columnarFollower);
+        assertThat(primary.status().getFollowers()).hasSize(2);
+        assertThat(indexed.count()).isEqualTo(206);
+        assertThat(indexed.findById(1L).orElseThrow().getComments()).extracting(Comment::getMessage)
+                .containsExactly("after the creates");
+    }
+
+    @Test
+    void followersCopyAgainFromARestartedPrimary() throws Exception {
+        int port = freePort();
+        TaskRepository firstStore = new InMemoryTaskRepository();
+        ReplicationPrimary first = primary(firstStore, port);
+        TaskRepository indexed = new InMemoryTaskRepository();
+        ReplicationFollower follower = follower(indexed, port);
+        for (int i = 0; i < 50; i++) {
+            firstStore.save(task(i));
+        }
+        awaitInSync(firstStore, indexed, follower);
+
+        first.stop();
+        // the new run reuses ids for different tasks, so nothing of the old copy may survive
+        TaskRepository secondStore = new InMemoryTaskRepository();
+        secondStore.clear();
+        for (int i = 0; i < 10; i++) {
+            secondStore.save(task(1000 + i));
+        }
+        restartedPrimary(secondStore, port);
+
+        awaitInSync(secondStore, indexed, follower);
+        assertThat(indexed.count()).isEqualTo(10);
+    }
+
+    @Test
+    void followersRefuseWritesButServeReads() {
+        FollowerWriteGuard guard = new FollowerWriteGuard("localhost:7070");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThatThrownBy(() -> guard.preHandle(new MockHttpServletRequest("POST", "/task-mgmt/create"), response, null))
+                .isInstanceOf(ReadOnlyReplicaException.class);
+        assertThatThrownBy(() -> guard.preHandle(new MockHttpServletRequest("DELETE", "/task-mgmt/1"), response, null))
+                .isInstanceOf(ReadOnlyReplicaException.class);
+        assertThat(guard.preHandle(new MockHttpServletRequest("GET", "/task-mgmt/1"), response, null)).isTrue();
+        assertThat(guard.preHandle(new MockHttpServletRequest("POST", "/task-mgmt/fetch-by-date/v2"), response, null))
+                .isTrue();
+    }
+
+    private ReplicationPrimary primary(TaskRepository store, int port) {
+        ReplicationPrimary primary = new ReplicationPrimary(store, new MetricsRegistry(), port, 65_536, HEARTBEAT_MS);
+        primary.start();
+        shutdown.add(primary::stop);
+        return primary;
+    }
+
+    // the old listener is released once its acceptor thread leaves accept(), shortly after stop()
+    private ReplicationPrimary restartedPrimary(TaskRepository store, int port) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (true) {
+            try {
+                return primary(store, port);
+            } catch (UncheckedIOException e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private ReplicationFollower follower(TaskRepository store, int port) {
+        ReplicationFollower follower = new ReplicationFollower(store, new MetricsRegistry(), "localhost:" + port,
+                HEARTBEAT_MS, HEARTBEAT_MS);
+        follower.start();
+        shutdown.add(follower::stop);
+        return follower;
+    }
+
+    private static void awaitInSync(TaskRepository primary, TaskRepository copy, ReplicationFollower follower)
+            throws InterruptedException {
+        await(() -> follower.status().getSynced() && follower.status().getLagRecords() == 0
+                && sorted(copy).equals(sorted(primary)));
+        assertThat(sorted(copy)).isEqualTo(sorted(primary));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    private static List<TaskManagement> sorted(TaskRepository repository) {
+        List<TaskManagement> tasks = new ArrayList<>(repository.findAll());
+        tasks.sort(Comparator.comparing(TaskManagement::getId));
+        return tasks;
+    }
+
+    private static TaskManagement task(int i) {
+        TaskManagement task = new TaskManagement();
+        task.setReferenceId(200L + i);
+        task.setReferenceType(ReferenceType.ORDER);
+        task.setTask(Task.CREATE_INVOICE);
+        task.setAssigneeId(1L + i % 5);
+        task.setStatus(TaskStatus.ASSIGNED);
+        task.setPriority(Priority.values()[i % Priority.values().length]);
+        task.setDescription("replicated task " + i);
+        task.setTaskDeadlineTime(System.currentTimeMillis() + 86_400_000L);
+        return task;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.railse.hiring.workforcemgmt.repository.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostingListTest {
+
+    @Test
+    void appendsAscendingIdsAsSmallGaps() {
+        PostingList list = new PostingList();
+        for (long id = 1; id <= 1000; id++) {
+            assertThat(list.add(id)).isTrue();
+        }
+
+        assertThat(list.ids()).containsExactly(LongStream.rangeClosed(1, 1000).toArray());
+        // one byte per gap, plus the growth headroom
+        assertThat(list.sizeInBytes()).isLessThan(2000);
+    }
+
+    @Test
+    void matchesASortedSetUnderRandomAddsAndRemoves() {
+        Random random = new Random(23);
+        PostingList list = new PostingList();
+        TreeSet<Long> expected = new TreeSet<>();
+        for (int op = 0; op < 50_000; op++) {
+            // mostly near the end, like new tasks, with some far-apart ids for multi-byte gaps
+            long id = random.nextInt(10) == 0
+                    ? 1 + random.nextInt(1 << 20) * 1_000_003L
+                    : 1 + random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(id);
+                if (list.remove(id)) {
+                    assertThat(expected).isEmpty();
+                    list = new PostingList();
+                }
+            } else {
+                expected.add(id);
+                assertThat(list.add(id)).isTrue();
+            }
+            if (op % 97 == 0) {
+                assertThat(list.ids()).containsExactly(expected.stream().mapToLong(Long::longValue).toArray());
+            }
+        }
+        assertThat(list.ids()).containsExactly(expected.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    @Test
+    void compactsPendingChangesIntoThePackedIds() {
+        PostingList list = new PostingList();
+        for (long id = 1000; id >= 1; id--) {
+            list.add(id * 2);
+        }
+        for (long id = 1; id <= 1000; id += 2) {
+            list.remove(id * 2);
+        }
+
+        assertThat(list.ids()).containsExactly(LongStream.rangeClosed(1, 500).map(i -> i * 4).toArray());
+        // out-of-order adds were packed as they went, not kept as 1000 pending entries
+        assertThat(list.sizeInBytes()).isLessThan(4000);
+    }
+
+    @Test
+    void retiresOnceTheLastIdIsRemoved() {
+        PostingList list = new PostingList();
+        list.add(5);
+        list.add(3);
+
+        assertThat(list.remove(5)).isFalse();
+        assertThat(list.remove(3)).isTrue();
+
+        assertThat(list.ids()).isEmpty();
+        assertThat(list.add(7)).isFalse();
+        assertThat(list.remove(7)).isFalse();
+    }
+
+    @Test
+    void retiresAPackedListThatIsEmptiedByRemoves() {
+        PostingList list = new PostingList();
+        for (long id = 1; id <= 100; id++) {
+            list.add(id);
+        }
+
+        boolean retired = false;
+        for (long id = 1; id <= 100; id++) {
+            assertThat(retired).isFalse();
+            retired = list.remove(id);
+        }
+
+        assertThat(retired).isTrue();
+    }
+}
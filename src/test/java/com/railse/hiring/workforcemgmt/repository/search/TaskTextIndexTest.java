@@ -0,0 +1,165 @@
+package com.railse.hiring.workforcemgmt.repository.search;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.TaskFilter;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.repository.impl.InMemoryTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskTextIndexTest {
+    private static final Pattern TERMS = Pattern.compile("(?m)^task_mgmt_search_terms (\\d+)");
+
+    private TaskRepository repository;
+    private MetricsRegistry metrics;
+    private TaskTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTaskRepository();
+        repository.clear();
+        metrics = new MetricsRegistry();
+        index = new TaskTextIndex(repository, metrics);
+    }
+
+    @Test
+    void answersAndOrAndPrefixQueries() {
+        long damaged = save("Damaged parcel at pickup point").getId();
+        long broken = save("Broken seal, pickups delayed").getId();
+        long other = save("Invoice for damaged-goods claim").getId();
+
+        assertThat(search("damaged")).containsExactly(damaged, other);
+        assertThat(search("damaged pickup")).containsExactly(damaged);
+        assertThat(search("damaged OR broken pickup*")).containsExactly(damaged, broken);
+        assertThat(search("invoice AND claim")).containsExactly(other);
+        assertThat(search("missing")).isEmpty();
+        assertThat(index.candidates(TextQuery.parse("damaged"), damaged)).containsExactly(other);
+    }
+
+    @Test
+    void followsEditsAndNewComments() {
+        TaskManagement task = save("Collect payment");
+        long id = task.getId();
+
+        TaskManagement edited = repository.findById(id).orElseThrow();
+        edited.setDescription("Collect signature");
+        repository.save(edited);
+        TaskManagement commented = repository.findById(id).orElseThrow();
+        Comment comment = new Comment();
+        comment.setAuthor("agent");
+        comment.setMessage("customer absent");
+        commented.getComments().add(comment);
+        repository.save(commented);
+
+        assertThat(search("payment")).isEmpty();
+        assertThat(search("signature customer")).containsExactly(id);
+        assertThat(terms()).isEqualTo(4);
+    }
+
+    @Test
+    void dropsTermsNoTaskUsesAnyMore() {
+        List<Long> ids = new ArrayList<>();
+        Random random = new Random(23);
+        for (int i = 0; i < 200; i++) {
+            ids.add(save("shared word" + random.nextInt(50) + " unique" + i).getId());
+        }
+        for (Long id : ids) {
+            TaskManagement task = repository.findById(id).orElseThrow();
+            task.setDescription("shared");
+            repository.save(task);
+        }
+
+        assertThat(search("shared")).hasSize(200);
+        assertThat(search("unique1*")).isEmpty();
+        assertThat(terms()).isEqualTo(1);
+
+        repository.clear();
+        assertThat(terms()).isZero();
+    }
+
+    @Test
+    void indexesWritesThatLandWhileSeeding() {
+        AtomicBoolean armed = new AtomicBoolean();
+        repository = new InMemoryTaskRepository() {
+            @Override
+            public Stream<TaskManagement> stream(TaskFilter filter) {
+                AtomicInteger seen = new AtomicInteger();
+                return super.stream(filter).peek(task -> {
+                    if (seen.incrementAndGet() == 3 && armed.compareAndSet(true, false)) {
+                        for (TaskManagement stored : findAll()) {
+                            TaskManagement update = findById(stored.getId()).orElseThrow();
+                            update.setDescription("Rescheduled pickup");
+                            save(update);
+                        }
+                        save(newTask("Fresh invoice"));
+                    }
+                });
+            }
+        };
+        repository.clear();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(save("Original delivery " + i).getId());
+        }
+        armed.set(true);
+
+        index = new TaskTextIndex(repository, new MetricsRegistry());
+
+        assertThat(armed).isFalse();
+        assertThat(search("rescheduled")).containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(search("original")).isEmpty();
+        assertThat(search("fresh")).hasSize(1);
+    }
+
+    private List<Long> search(String text) {
+        TextQuery query = TextQuery.parse(text);
+        List<Long> ids = new ArrayList<>();
+        for (long id : index.candidates(query, null)) {
+            TaskManagement task = repository.findById(id).orElseThrow();
+            if (query.matches(TaskTextIndex.termsOf(task))) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private long terms() {
+        Matcher matcher = TERMS.matcher(metrics.scrape());
+        assertThat(matcher.find()).isTrue();
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private TaskManagement save(String description) {
+        return repository.save(newTask(description));
+    }
+
+    private static TaskManagement newTask(String description) {
+        TaskManagement task = new TaskManagement();
+        task.setReferenceId(1L);
+        task.setReferenceType(ReferenceType.ORDER);
+        task.setTask(Task.CREATE_INVOICE);
+        task.setAssigneeId(1L);
+        task.setStatus(TaskStatus.ASSIGNED);
+        task.setPriority(Priority.MEDIUM);
+        task.setDescription(description);
+        task.setTaskDeadlineTime(System.currentTimeMillis() + 86_400_000L);
+        return task;
+    }
+}
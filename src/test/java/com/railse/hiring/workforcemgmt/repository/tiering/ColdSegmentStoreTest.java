@@ -0,0 +1,145 @@
+package com.railse.hiring.workforcemgmt.repository.tiering;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColdSegmentStoreTest {
+    private static final int MIN_SEGMENT_BYTES = 16 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackEveryAppendedTask() throws IOException {
+        List<TaskManagement> tasks = new ArrayList<>();
+        for (int i = 1; i <= 600; i++) {
+            tasks.add(task(i, 40));
+        }
+        // bigger than a block on its own
+        tasks.add(task(601, 40_000));
+        try (ColdSegmentStore store = new ColdSegmentStore(directory, 1 << 20, 2, new MetricsRegistry())) {
+            index(store, tasks);
+
+            assertThat(store.size()).isEqualTo(tasks.size());
+            for (TaskManagement task : tasks) {
+                assertThat(store.get(task.getId(), true)).isEqualTo(task);
+                assertThat(store.get(task.getId(), false)).isEqualTo(task);
+            }
+            assertThat(store.get(602, true)).isNull();
+            assertThat(store.locate(602)).isEqualTo(ColdSegmentStore.MISSING);
+        }
+    }
+
+    @Test
+    void deletesASegmentOnceNoneOfItsRecordsIsIndexed() throws IOException {
+        List<TaskManagement> tasks = new ArrayList<>();
+        for (int i = 1; i <= 2000; i++) {
+            tasks.add(task(i, 200));
+        }
+        try (ColdSegmentStore store = new ColdSegmentStore(directory, MIN_SEGMENT_BYTES, 2, new MetricsRegistry())) {
+            long[] locations = index(store, tasks);
+            assertThat(segmentFiles()).isGreaterThan(2);
+
+            for (int i = 0; i < tasks.size(); i++) {
+                store.remove(tasks.get(i).getId(), locations[i]);
+            }
+
+            // only the segment still being appended to is kept
+            assertThat(store.size()).isZero();
+            assertThat(segmentFiles()).isEqualTo(1);
+            assertThat(store.get(1, true)).isNull();
+        }
+    }
+
+    @Test
+    void removeOnlyReleasesTheIndexedRecord() throws IOException {
+        try (ColdSegmentStore store = new ColdSegmentStore(directory, 1 << 20, 2, new MetricsRegistry())) {
+            long[] first = index(store, List.of(task(1, 40)));
+            TaskManagement newer = task(1, 40);
+            newer.setVersion(2);
+            long[] second = index(store, List.of(newer));
+
+            store.remove(1, first[0]);
+
+            assertThat(store.get(1, true)).isEqualTo(newer);
+            store.remove(1, second[0]);
+            assertThat(store.get(1, true)).isNull();
+        }
+    }
+
+    @Test
+    void startsEmptyAndClearsItsFiles() throws IOException {
+        Files.writeString(directory.resolve("segment-00000042.cold"), "left by an earlier run");
+        Files.writeString(directory.resolve("notes.txt"), "not a segment");
+        try (ColdSegmentStore store = new ColdSegmentStore(directory, 1 << 20, 2, new MetricsRegistry())) {
+            assertThat(segmentFiles()).isZero();
+            assertThat(directory.resolve("notes.txt")).exists();
+
+            index(store, List.of(task(1, 40), task(2, 40)));
+            assertThat(segmentFiles()).isEqualTo(1);
+            store.clear();
+
+            assertThat(store.size()).isZero();
+            assertThat(segmentFiles()).isZero();
+            index(store, List.of(task(3, 40)));
+            assertThat(store.get(3, true)).isEqualTo(task(3, 40));
+        }
+    }
+
+    private static long[] index(ColdSegmentStore store, List<TaskManagement> tasks) {
+        long[] locations = store.append(tasks);
+        for (int i = 0; i < tasks.size(); i++) {
+            store.put(tasks.get(i).getId(), locations[i]);
+        }
+        return locations;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".cold")).count();
+        }
+    }
+
+    // random text, so blocks don't compress to nothing and segments fill up
+    private static TaskManagement task(long id, int descriptionLength) {
+        Random random = new Random(id);
+        StringBuilder description = new StringBuilder(descriptionLength);
+        for (int i = 0; i < descriptionLength; i++) {
+            description.append((char) ('a' + random.nextInt(26)));
+        }
+        TaskManagement task = new TaskManagement();
+        task.setId(id);
+        task.setReferenceId(100 + id);
+        task.setReferenceType(ReferenceType.ORDER);
+        task.setTask(Task.CREATE_INVOICE);
+        task.setAssigneeId(id % 7);
+        task.setStatus(TaskStatus.COMPLETED);
+        task.setPriority(Priority.LOW);
+        task.setDescription(description.toString());
+        task.setTaskDeadlineTime(1_700_000_000_000L + id);
+        task.setVersion(1);
+        Comment comment = new Comment();
+        comment.setAuthor("user-" + id);
+        comment.setMessage("done");
+        comment.setTimestamp(1_700_000_000_000L);
+        task.getComments().add(comment);
+        return task;
+    }
+}
@@ -0,0 +1,228 @@
+package com.railse.hiring.workforcemgmt.service.deadline;
+
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.dto.AssignByReferenceRequest;
+import com.railse.hiring.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.railse.hiring.workforcemgmt.model.Activity;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.TaskChange;
+import com.railse.hiring.workforcemgmt.repository.TaskRepository;
+import com.railse.hiring.workforcemgmt.repository.aggregate.WorkloadAggregates;
+import com.railse.hiring.workforcemgmt.repository.impl.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.search.TaskTextIndex;
+import com.railse.hiring.workforcemgmt.service.impl.TaskManagementServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineSchedulerTest {
+    private static final long TICK_MS = 5;
+    private static final Pattern PENDING = Pattern.compile("(?m)^task_mgmt_deadlines_pending (\\d+)");
+
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final List<TaskOverdueEvent> events = new CopyOnWriteArrayList<>();
+    private TaskRepository repository;
+    private DeadlineScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTaskRepository(metrics);
+        repository.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    void marksAnOpenTaskOverdueWhenItsDeadlinePasses() throws InterruptedException {
+        start(false);
+        long deadline = System.currentTimeMillis() + 50;
+        Long id = repository.save(task(1L, deadline)).getId();
+
+        awaitEvents(1);
+
+        assertThat(events.get(0)).isEqualTo(new TaskOverdueEvent(id, 1L, deadline, Priority.LOW, Priority.LOW));
+        assertThat(overdueEntries(id)).isEqualTo(1);
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void raisesThePriorityWhenEscalationIsOn() throws InterruptedException {
+        start(true);
+        Long id = repository.save(task(1L, System.currentTimeMillis() + 20)).getId();
+
+        awaitEvents(1);
+
+        assertThat(events.get(0).priority()).isEqualTo(Priority.MEDIUM);
+        assertThat(repository.findById(id).orElseThrow().getPriority()).isEqualTo(Priority.MEDIUM);
+    }
+
+    @Test
+    void reschedulesWhenTheDeadlineMoves() throws InterruptedException {
+        start(false);
+        long first = System.currentTimeMillis() + 100;
+        Long id = repository.save(task(1L, first)).getId();
+        TaskManagement moved = repository.findById(id).orElseThrow();
+        long later = first + 300;
+        moved.setTaskDeadlineTime(later);
+        repository.save(moved);
+
+        Thread.sleep(first + 100 - System.currentTimeMillis());
+        assertThat(events).as("old deadline").isEmpty();
+        awaitEvents(1);
+
+        assertThat(events.get(0).deadline()).isEqualTo(later);
+        assertThat(System.currentTimeMillis()).isGreaterThanOrEqualTo(later);
+        assertThat(overdueEntries(id)).isEqualTo(1);
+    }
+
+    @Test
+    void cancelsWhenTheTaskIsCompletedOrCancelled() throws InterruptedException {
+        start(false);
+        long deadline = System.currentTimeMillis() + 80;
+        for (TaskStatus status : List.of(TaskStatus.COMPLETED, TaskStatus.CANCELLED)) {
+            TaskManagement task = repository.save(task(1L, deadline)).copy();
+            task.setStatus(status);
+            repository.save(task);
+        }
+        assertThat(pending()).isZero();
+
+        Thread.sleep(deadline + 150 - System.currentTimeMillis());
+
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void cancelsTheOldTaskAndSchedulesTheNewOneOnReassignment() throws InterruptedException {
+        start(false);
+        long deadline = System.currentTimeMillis() + 80;
+        Long original = repository.save(task(1L, deadline)).getId();
+        TaskManagementServiceImpl service = new TaskManagementServiceImpl(repository, new ITaskManagementMapperImpl(),
+                metrics, new WorkloadAggregates(repository, 60_000), new TaskTextIndex(repository, metrics), 100, 1000, 16, 4);
+        AssignByReferenceRequest request = new AssignByReferenceRequest();
+        request.setReferenceId(101L);
+        request.setReferenceType(ReferenceType.ORDER);
+        request.setAssigneeId(2L);
+        request.setNewDeadline(deadline + 200);
+        try {
+            service.assignByReference(request);
+        } finally {
+            service.shutdown();
+        }
+        assertThat(repository.findById(original).orElseThrow().getStatus()).isEqualTo(TaskStatus.CANCELLED);
+
+        Thread.sleep(deadline + 100 - System.currentTimeMillis());
+        assertThat(events).as("cancelled task").isEmpty();
+        awaitEvents(1);
+
+        assertThat(events.get(0).taskId()).isNotEqualTo(original);
+        assertThat(events.get(0).assigneeId()).isEqualTo(2L);
+        assertThat(events.get(0).deadline()).isEqualTo(deadline + 200);
+        assertThat(overdueEntries(original)).isZero();
+    }
+
+    @Test
+    void ignoresAStaleChangeDeliveredAfterANewerVersion() throws InterruptedException {
+        start(false);
+        TaskManagement stale = repository.save(task(1L, System.currentTimeMillis() + 60_000)).copy();
+        TaskManagement current = repository.findById(stale.getId()).orElseThrow();
+        current.setTaskDeadlineTime(stale.getTaskDeadlineTime() + 60_000);
+        current = repository.save(current);
+        assertThat(current.getVersion()).isGreaterThan(stale.getVersion());
+
+        // a late delivery of an older version with an earlier deadline
+        stale.setTaskDeadlineTime(System.currentTimeMillis() + 30);
+        scheduler.onChanges(List.of(new TaskChange(null, stale)));
+        Thread.sleep(150);
+
+        assertThat(events).isEmpty();
+        assertThat(pending()).isEqualTo(1);
+        assertThat(overdueEntries(stale.getId())).isZero();
+    }
+
+    @Test
+    void aTimerForADeadlineTheStoredTaskNoLongerHasDoesNothing() throws InterruptedException {
+        start(false);
+        Long id = repository.save(task(1L, System.currentTimeMillis() + 60_000)).getId();
+        TaskManagement claimed = repository.findById(id).orElseThrow();
+        // a change that claims a newer version than the store holds, with a deadline the task never had
+        claimed.setVersion(claimed.getVersion() + 10);
+        claimed.setTaskDeadlineTime(System.currentTimeMillis() + 30);
+        scheduler.onChanges(List.of(new TaskChange(null, claimed)));
+        Thread.sleep(150);
+
+        assertThat(events).isEmpty();
+        assertThat(overdueEntries(id)).isZero();
+    }
+
+    @Test
+    void doesNotMarkARestoredTaskOverdueAgain() throws InterruptedException {
+        long deadline = System.currentTimeMillis() - 1000;
+        TaskManagement escalated = task(1L, deadline);
+        escalated.getActivityHistory().add(Activity.overdue(null));
+        TaskManagement restored = repository.save(escalated).copy();
+        start(false);
+        // and again when a restore re-registers the task after the scheduler is running
+        repository.clear();
+        repository.apply(restored);
+
+        Thread.sleep(150);
+
+        assertThat(events).isEmpty();
+        assertThat(repository.findAll()).singleElement()
+                .satisfies(task -> assertThat(overdueEntries(task.getId())).isEqualTo(1));
+    }
+
+    private void start(boolean escalatePriority) {
+        scheduler = new DeadlineScheduler(repository, event -> events.add((TaskOverdueEvent) event), metrics, TICK_MS,
+                escalatePriority);
+        scheduler.start();
+    }
+
+    private void awaitEvents(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (events.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(TICK_MS);
+        }
+        assertThat(events).hasSize(count);
+    }
+
+    private long overdueEntries(Long id) {
+        return repository.findById(id).orElseThrow().getActivityHistory().stream()
+                .filter(Activity.Overdue.class::isInstance).count();
+    }
+
+    private long pending() {
+        Matcher matcher = PENDING.matcher(metrics.scrape());
+        assertThat(matcher.find()).isTrue();
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static TaskManagement task(Long assigneeId, long deadline) {
+        TaskManagement task = new TaskManagement();
+        task.setReferenceId(101L);
+        task.setReferenceType(ReferenceType.ORDER);
+        task.setTask(Task.CREATE_INVOICE);
+        task.setAssigneeId(assigneeId);
+        task.setStatus(TaskStatus.ASSIGNED);
+        task.setPriority(Priority.LOW);
+        task.setDescription("test task");
+        task.setTaskDeadlineTime(deadline);
+        return task;
+    }
+}
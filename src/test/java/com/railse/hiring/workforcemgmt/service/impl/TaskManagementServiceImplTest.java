@@ -0,0 +1,328 @@
+package com.railse.hiring.workforcemgmt.service.impl;
+
+import com.railse.hiring.workforcemgmt.common.exception.BadRequestException;
+import com.railse.hiring.workforcemgmt.common.exception.ConcurrentUpdateException;
+import com.railse.hiring.workforcemgmt.common.metrics.MetricsRegistry;
+import com.railse.hiring.workforcemgmt.common.model.enums.ReferenceType;
+import com.railse.hiring.workforcemgmt.common.model.response.PagedResult;
+import com.railse.hiring.workforcemgmt.dto.AssignByReferenceRequest;
+import com.railse.hiring.workforcemgmt.dto.BulkReassignRequest;
+import com.railse.hiring.workforcemgmt.dto.ChangePriorityRequest;
+import com.railse.hiring.workforcemgmt.dto.CommentRequest;
+import com.railse.hiring.workforcemgmt.dto.ReassignmentResult;
+import com.railse.hiring.workforcemgmt.dto.TaskFetchByDateRequest;
+import com.railse.hiring.workforcemgmt.dto.TaskManagementDto;
+import com.railse.hiring.workforcemgmt.dto.TaskView;
+import com.railse.hiring.workforcemgmt.mapper.ITaskManagementMapperImpl;
+import com.railse.hiring.workforcemgmt.model.Comment;
+import com.railse.hiring.workforcemgmt.model.TaskManagement;
+import com.railse.hiring.workforcemgmt.model.enums.Priority;
+import com.railse.hiring.workforcemgmt.model.enums.Task;
+import com.railse.hiring.workforcemgmt.model.enums.TaskStatus;
+import com.railse.hiring.workforcemgmt.repository.aggregate.WorkloadAggregates;
+import com.railse.hiring.workforcemgmt.repository.impl.InMemoryTaskRepository;
+import com.railse.hiring.workforcemgmt.repository.search.TaskTextIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskManagementServiceImplTest {
+    private static final long TASK_ID = 1L;
+    private static final long DEADLINE = 1_700_000_000_000L;
+    private static final long DAY = 86_400_000L;
+
+    private ConflictingRepository repository;
+    private TaskManagementServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        repository = new ConflictingRepository(metrics);
+        service = new TaskManagementServiceImpl(repository, new ITaskManagementMapperImpl(), metrics,
+                new WorkloadAggregates(repository, 60_000), new TaskTextIndex(repository, metrics), 100, 1000, 16, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void bulkReassignmentReportsAnOutcomePerReference() {
+        repository.clear();
+        long first = repository.save(onReference(201L, 1L, TaskStatus.ASSIGNED)).getId();
+        long second = repository.save(onReference(202L, 2L, TaskStatus.STARTED)).getId();
+        repository.save(onReference(203L, 3L, TaskStatus.COMPLETED));
+        BulkReassignRequest request = new BulkReassignRequest();
+        request.setReferences(List.of(assign(201L, 10L), assign(202L, 11L), assign(203L, 12L), assign(201L, 13L),
+                assign(null, 14L)));
+
+        List<ReassignmentResult> results = service.bulkAssignByReference(request);
+
+        assertThat(results).extracting(ReassignmentResult::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results).extracting(ReassignmentResult::isSuccess).containsExactly(true, true, false, false, false);
+        assertThat(results.get(0).getCancelledTaskIds()).containsExactly(first);
+        assertThat(results.get(1).getCancelledTaskIds()).containsExactly(second);
+        assertThat(results.get(2).getError()).startsWith("No open task exists for this reference");
+        assertThat(results.get(3).getError()).isEqualTo("Reference appears more than once in the request");
+        assertThat(results.get(4).getError()).isEqualTo("reference_id, reference_type and assignee_id are required");
+        assertThat(repository.findById(first).orElseThrow().getStatus()).isEqualTo(TaskStatus.CANCELLED);
+        TaskManagement replacement = repository.findById(results.get(0).getTask().getId()).orElseThrow();
+        assertThat(replacement.getAssigneeId()).isEqualTo(10L);
+        assertThat(replacement.getStatus()).isEqualTo(TaskStatus.ASSIGNED);
+        assertThat(repository.findByReferenceIdAndReferenceType(201L, ReferenceType.ORDER))
+                .filteredOn(task -> task.getStatus() != TaskStatus.CANCELLED)
+                .extracting(TaskManagement::getAssigneeId).containsExactly(10L);
+    }
+
+    @Test
+    void bulkReassignmentFromAnAssigneeCopiesThatAssigneesTask() {
+        repository.clear();
+        TaskManagement other = onReference(301L, 5L, TaskStatus.ASSIGNED);
+        other.setTask(Task.ARRANGE_PICKUP);
+        other.setPriority(Priority.HIGH);
+        other.setDescription("Someone else's pickup");
+        long otherId = repository.save(other).getId();
+        TaskManagement moved = onReference(301L, 9L, TaskStatus.STARTED);
+        moved.setPriority(Priority.LOW);
+        moved.setDescription("Collect invoice");
+        long movedId = repository.save(moved).getId();
+        long done = repository.save(onReference(302L, 9L, TaskStatus.COMPLETED)).getId();
+        repository.save(onReference(303L, 9L, TaskStatus.ASSIGNED));
+        BulkReassignRequest request = new BulkReassignRequest();
+        request.setFromAssigneeId(9L);
+        request.setToAssigneeId(7L);
+
+        List<ReassignmentResult> results = service.bulkAssignByReference(request);
+
+        assertThat(results).extracting(ReassignmentResult::getReferenceId).containsExactlyInAnyOrder(301L, 303L);
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.isSuccess()).isTrue();
+            assertThat(result.getIndex()).isNull();
+        });
+        ReassignmentResult reassigned = results.stream().filter(r -> r.getReferenceId() == 301L).findFirst().orElseThrow();
+        assertThat(reassigned.getCancelledTaskIds()).containsExactlyInAnyOrder(otherId, movedId);
+        TaskManagement replacement = repository.findById(reassigned.getTask().getId()).orElseThrow();
+        assertThat(replacement.getAssigneeId()).isEqualTo(7L);
+        assertThat(replacement.getTask()).isEqualTo(Task.CREATE_INVOICE);
+        assertThat(replacement.getPriority()).isEqualTo(Priority.LOW);
+        assertThat(replacement.getDescription()).isEqualTo("Reassigned: Collect invoice");
+        assertThat(repository.findById(done).orElseThrow().getStatus()).isEqualTo(TaskStatus.COMPLETED);
+    }
+
+    @Test
+    void aFailingReferenceDoesNotAffectTheOthers() {
+        repository.clear();
+        for (long reference = 401; reference <= 403; reference++) {
+            repository.save(onReference(reference, 1L, TaskStatus.ASSIGNED));
+        }
+        repository.failingReference = 402L;
+        BulkReassignRequest request = new BulkReassignRequest();
+        request.setReferences(List.of(assign(401L, 2L), assign(402L, 2L), assign(403L, 2L)));
+
+        List<ReassignmentResult> results = service.bulkAssignByReference(request);
+
+        assertThat(results).extracting(ReassignmentResult::isSuccess).containsExactly(true, false, true);
+        assertThat(results.get(1).getError()).isEqualTo("reference store unavailable");
+        assertThat(repository.findByReferenceIdAndReferenceType(403L, ReferenceType.ORDER))
+                .extracting(TaskManagement::getAssigneeId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void conflictingSaveIsRetriedOnTheFreshTask() {
+        long version = repository.findVersionById(TASK_ID).orElseThrow();
+        repository.conflictsLeft = 2;
+
+        TaskManagementDto task = service.changeTaskPriority(priorityChange(Priority.LOW));
+
+        assertThat(task.getPriority()).isEqualTo(Priority.LOW);
+        TaskManagement stored = repository.findById(TASK_ID).orElseThrow();
+        // both competing writes survive: the retry re-applied the change on top of them
+        assertThat(stored.getComments()).extracting(Comment::getAuthor).containsExactly("other", "other");
+        assertThat(stored.getPriority()).isEqualTo(Priority.LOW);
+        assertThat(stored.getVersion()).isEqualTo(version + 3);
+    }
+
+    @Test
+    void givesUpAfterRepeatedConflicts() {
+        repository.conflictsLeft = Integer.MAX_VALUE;
+
+        assertThatThrownBy(() -> service.changeTaskPriority(priorityChange(Priority.LOW)))
+                .isInstanceOf(ConcurrentUpdateException.class);
+        assertThat(repository.findById(TASK_ID).orElseThrow().getPriority()).isEqualTo(Priority.HIGH);
+    }
+
+    @Test
+    void concurrentCommentsOnOneTaskAreAllKept() throws Exception {
+        int threads = 8;
+        int perThread = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        CommentRequest request = new CommentRequest();
+                        request.setAuthor("worker");
+                        request.setMessage("note " + i);
+                        service.addComment(TASK_ID, request);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(repository.findById(TASK_ID).orElseThrow().getComments()).hasSize(threads * perThread);
+    }
+
+    @Test
+    void allTaskPagesChainWithoutGapsOrDuplicates() {
+        repository.clear();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add(repository.save(task(1L + i % 3, TaskStatus.ASSIGNED, Priority.values()[i % 3], DEADLINE)).getId());
+        }
+
+        assertThat(pages(cursor -> service.getAllTasks(cursor, 7, TaskView.SUMMARY))).containsExactlyElementsOf(ids);
+        assertThat(pages(cursor -> service.getTasksByPriority(Priority.MEDIUM, cursor, 4, TaskView.SUMMARY)))
+                .containsExactlyElementsOf(repository.findByPriority(Priority.MEDIUM).stream()
+                        .map(TaskManagement::getId).sorted().toList());
+    }
+
+    @Test
+    void dailyViewPagesChainAcrossSharedDeadlines() {
+        repository.clear();
+        List<TaskManagement> wanted = new ArrayList<>();
+        for (int i = 0; i < 90; i++) {
+            // three deadlines in the window shared by many tasks, plus overdue tasks before it
+            long deadline = i % 4 == 3 ? DEADLINE - DAY : DEADLINE + (i % 3) * 1000L;
+            TaskStatus status = i % 5 == 0 ? TaskStatus.COMPLETED : i % 7 == 0 ? TaskStatus.CANCELLED : TaskStatus.STARTED;
+            TaskManagement saved = repository.save(task(1L + i % 3, status, Priority.LOW, deadline));
+            boolean inWindow = deadline >= DEADLINE;
+            boolean open = status != TaskStatus.COMPLETED && status != TaskStatus.CANCELLED;
+            if (saved.getAssigneeId() != 3 && status != TaskStatus.CANCELLED && (inWindow || open)) {
+                wanted.add(saved);
+            }
+        }
+        wanted.sort(Comparator.comparing(TaskManagement::getTaskDeadlineTime).thenComparing(TaskManagement::getId));
+        TaskFetchByDateRequest request = new TaskFetchByDateRequest();
+        request.setAssigneeIds(List.of(1L, 2L));
+        request.setStartDate(DEADLINE);
+        request.setEndDate(DEADLINE + DAY);
+
+        List<Long> ids = pages(cursor -> service.fetchTasksByDate(request, cursor, 5, TaskView.SUMMARY));
+
+        assertThat(ids).containsExactlyElementsOf(wanted.stream().map(TaskManagement::getId).toList());
+    }
+
+    @Test
+    void rejectsCursorsOfOtherListingsAndBadLimits() {
+        String priorityCursor = service.getTasksByPriority(Priority.HIGH, null, 1, TaskView.SUMMARY)
+                .getPagination().getNextCursor();
+
+        assertThat(priorityCursor).isNotNull();
+        assertThatThrownBy(() -> service.getAllTasks(priorityCursor, 1, TaskView.SUMMARY))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.getAllTasks("not-a-cursor!", 1, TaskView.SUMMARY))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.getAllTasks(null, 0, TaskView.SUMMARY)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.getAllTasks(null, 1001, TaskView.SUMMARY))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    // Follows next_cursor to the end, checking each page's has_more and size
+    private static List<Long> pages(Function<String, PagedResult<TaskManagementDto>> page) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PagedResult<TaskManagementDto> result = page.apply(cursor);
+            assertThat(result.getItems().size()).isLessThanOrEqualTo(result.getPagination().getLimit());
+            assertThat(result.getPagination().getHasMore()).isEqualTo(result.getPagination().getNextCursor() != null);
+            result.getItems().forEach(task -> ids.add(task.getId()));
+            cursor = result.getPagination().getNextCursor();
+        } while (cursor != null);
+        assertThat(ids).doesNotHaveDuplicates();
+        return ids;
+    }
+
+    private static TaskManagement task(Long assigneeId, TaskStatus status, Priority priority, long deadline) {
+        TaskManagement task = new TaskManagement();
+        task.setReferenceId(100L + assigneeId);
+        task.setReferenceType(ReferenceType.ORDER);
+        task.setTask(Task.CREATE_INVOICE);
+        task.setAssigneeId(assigneeId);
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setDescription("test task");
+        task.setTaskDeadlineTime(deadline);
+        return task;
+    }
+
+    private static TaskManagement onReference(Long referenceId, Long assigneeId, TaskStatus status) {
+        TaskManagement task = task(assigneeId, status, Priority.MEDIUM, DEADLINE);
+        task.setReferenceId(referenceId);
+        return task;
+    }
+
+    private static AssignByReferenceRequest assign(Long referenceId, Long assigneeId) {
+        AssignByReferenceRequest item = new AssignByReferenceRequest();
+        item.setReferenceId(referenceId);
+        item.setReferenceType(ReferenceType.ORDER);
+        item.setAssigneeId(assigneeId);
+        return item;
+    }
+
+    private static ChangePriorityRequest priorityChange(Priority priority) {
+        ChangePriorityRequest request = new ChangePriorityRequest();
+        request.setTaskId(TASK_ID);
+        request.setPriority(priority);
+        return request;
+    }
+
+    // Commits another writer's change right before the caller's save, so the caller's copy is stale;
+    // lookups of failingReference throw
+    private static final class ConflictingRepository extends InMemoryTaskRepository {
+        private volatile int conflictsLeft;
+        private volatile Long failingReference;
+
+        ConflictingRepository(MetricsRegistry metrics) {
+            super(metrics);
+        }
+
+        @Override
+        public TaskManagement save(TaskManagement task) {
+            if (conflictsLeft > 0 && task.getId() != null) {
+                conflictsLeft--;
+                TaskManagement other = findById(task.getId()).orElseThrow();
+                Comment comment = new Comment();
+                comment.setAuthor("other");
+                comment.setMessage("competing write");
+                other.getComments().add(comment);
+                super.save(other);
+            }
+            return super.save(task);
+        }
+
+        @Override
+        public List<TaskManagement> findByReferenceIdAndReferenceType(Long referenceId, ReferenceType referenceType) {
+            if (referenceId.equals(failingReference)) {
+                throw new IllegalStateException("reference store unavailable");
+            }
+            return super.findByReferenceIdAndReferenceType(referenceId, referenceType);
+        }
+    }
+}